@@ -0,0 +1,106 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.BarnesHutSolver;
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.ForceSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of each {@link ForceSolver} as the amount of bodies grows, calculating only the
+ * accelerations or also the potential energy (i.e what a step costs when the conservation monitor measures).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForceSolverBenchmark {
+
+    /**
+     * The amount of bodies in the system.
+     */
+    @Param({"5", "50", "500", "2000", "5000"})
+    private int amountOfBodies;
+
+    /**
+     * The force solver (i.e "direct" or "barnes-hut-" followed by the opening angle).
+     */
+    @Param({"direct", "barnes-hut-0.3", "barnes-hut-0.5", "barnes-hut-1.0"})
+    private String solver;
+
+    /**
+     * The {@link ForceSolver} being measured.
+     */
+    private ForceSolver forceSolver;
+
+    /**
+     * The bodies' masses.
+     */
+    private double[] masses;
+
+    /**
+     * The 'x' component of the positions.
+     */
+    private double[] positionsX;
+
+    /**
+     * The 'y' component of the positions.
+     */
+    private double[] positionsY;
+
+    /**
+     * The 'x' component of the accelerations.
+     */
+    private double[] accelerationsX;
+
+    /**
+     * The 'y' component of the accelerations.
+     */
+    private double[] accelerationsY;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        forceSolver = buildForceSolver(solver);
+        final List<Body> bodies = RandomSystems.build(amountOfBodies);
+        masses = bodies.stream().mapToDouble(Body::getMass).toArray();
+        positionsX = bodies.stream().mapToDouble(body -> body.getPosition().getX()).toArray();
+        positionsY = bodies.stream().mapToDouble(body -> body.getPosition().getY()).toArray();
+        accelerationsX = new double[amountOfBodies];
+        accelerationsY = new double[amountOfBodies];
+    }
+
+    @Benchmark
+    public double[] computeAccelerations() {
+        forceSolver.computeAccelerations(amountOfBodies, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+        return accelerationsX;
+    }
+
+    @Benchmark
+    public double computeAccelerationsAndPotential() {
+        return forceSolver.computeAccelerationsAndPotential(amountOfBodies, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+    }
+
+    /**
+     * Builds a {@link ForceSolver} from its name.
+     *
+     * @param solver The force solver (i.e "direct" or "barnes-hut-" followed by the opening angle).
+     * @return The built {@link ForceSolver}.
+     */
+    /* package */
+    static ForceSolver buildForceSolver(String solver) {
+        if (solver.equals("direct")) {
+            return new DirectSummationSolver();
+        }
+        if (solver.startsWith("barnes-hut-")) {
+            return new BarnesHutSolver(Double.parseDouble(solver.substring("barnes-hut-".length())));
+        }
+        throw new IllegalArgumentException("Unknown force solver: " + solver);
+    }
+}
@@ -0,0 +1,118 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.io.BodiesFileReader;
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.Constants;
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+import java.util.List;
+
+/**
+ * Compares the accuracy and speed of the Barnes-Hut force solver against direct summation,
+ * on the configured system (i.e the Sun, the Earth, Jupiter, Saturn and a ship launched from the Earth,
+ * with the initial conditions set in the {@code custom.system} properties, or the bodies in
+ * {@code custom.system.bodies-file}, just like the simulation reads them).
+ * For each opening angle, the system is integrated for one Saturnian year, and the final distance between
+ * each body's position and the one obtained with direct summation is reported, together with the time per step.
+ * <p>
+ * Usage: {@code java -Dcustom.system.sun.position.x=... (i.e the same properties passed to the simulation)
+ * -cp target/benchmarks.jar ar.edu.itba.ss.voyager.benchmarks.ForceSolverComparison [dt]}
+ */
+public class ForceSolverComparison {
+
+    /**
+     * The opening angles to be compared.
+     */
+    private static final double[] OPENING_ANGLES = {0d, 0.3, 0.5, 0.7, 1d};
+
+    /**
+     * Entry point.
+     *
+     * @param args Optionally, the time step (defaults to 1000 seconds).
+     */
+    public static void main(String[] args) {
+        final double timeStep = args.length > 0 ? Double.parseDouble(args[0]) : 1000d;
+        final int steps = (int) (Constants.SATURNIAN_YEAR_SECONDS / timeStep);
+
+        final SolarSystem reference = new SolarSystem(timeStep, 1, configuredSystem(),
+                new DirectSummationSolver(), false);
+        final double referenceTime = run(reference, steps);
+        final List<Body.BodyState> expected = reference.outputState().getBodies();
+        System.out.printf("%-16s %14s %s%n", "solver", "ns/step", "final position error (m) per body");
+        System.out.printf("%-16s %14.1f%n", "direct", referenceTime);
+
+        for (double openingAngle : OPENING_ANGLES) {
+            final SolarSystem approximated = new SolarSystem(timeStep, 1, configuredSystem(),
+                    ForceSolverBenchmark.buildForceSolver("barnes-hut-" + openingAngle), false);
+            final double time = run(approximated, steps);
+            final List<Body.BodyState> actual = approximated.outputState().getBodies();
+            final StringBuilder errors = new StringBuilder();
+            for (int i = 0; i < expected.size(); i++) {
+                errors.append(String.format(" %s=%.3e", expected.get(i).getName(),
+                        expected.get(i).getPosition().distance(actual.get(i).getPosition())));
+            }
+            System.out.printf("%-16s %14.1f%s%n", "barnes-hut-" + openingAngle, time, errors);
+        }
+    }
+
+    /**
+     * Builds the configured system, the same way the simulation does (i.e from the bodies file, if set,
+     * or the default bodies with the initial conditions set in the {@code custom.system} properties).
+     *
+     * @return The bodies of the configured system (new {@link Body} objects on each call).
+     * @throws IllegalArgumentException If any of the default bodies' initial conditions is not set.
+     */
+    private static List<Body> configuredSystem() {
+        final String bodiesFilePath = System.getProperty("custom.system.bodies-file", "");
+        if (!bodiesFilePath.isEmpty()) {
+            return new BodiesFileReader(bodiesFilePath).read();
+        }
+        return SolarSystem.defaultBodies(vector("sun.position"), vector("sun.velocity"),
+                vector("earth.position"), vector("earth.velocity"),
+                vector("jupiter.position"), vector("jupiter.velocity"),
+                vector("saturn.position"), vector("saturn.velocity"));
+    }
+
+    /**
+     * Reads a vector from the {@code custom.system} properties.
+     *
+     * @param key The vector's key, relative to {@code custom.system} (e.g {@code sun.position}).
+     * @return The read vector.
+     * @throws IllegalArgumentException If any of the vector's components is not set.
+     */
+    private static Vector2D vector(String key) {
+        return new Vector2D(component(key + ".x"), component(key + ".y"));
+    }
+
+    /**
+     * Reads a vector component from the {@code custom.system} properties.
+     *
+     * @param key The component's key, relative to {@code custom.system} (e.g {@code sun.position.x}).
+     * @return The read component.
+     * @throws IllegalArgumentException If the component is not set.
+     */
+    private static double component(String key) {
+        final String value = System.getProperty("custom.system." + key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing property: custom.system." + key);
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Performs the given amount of steps over the given {@code solarSystem}.
+     *
+     * @param solarSystem The {@link SolarSystem} to be integrated.
+     * @param steps       The amount of steps.
+     * @return The mean time per step, in nanoseconds.
+     */
+    private static double run(SolarSystem solarSystem, int steps) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            solarSystem.update();
+        }
+        return (double) (System.nanoTime() - start) / steps;
+    }
+}
@@ -0,0 +1,147 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.AdaptiveTimeStep;
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.BodyType;
+import ar.edu.itba.ss.voyager.models.Constants;
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.IntegratorType;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the accuracy and cost of the integrators on the default system
+ * (i.e the Sun, the Earth, Jupiter, Saturn and a ship launched from the Earth).
+ * For each integrator and time step, the system is integrated for (about) one Saturnian year
+ * (i.e a multiple of the largest time step, which the other ones must divide), and the relative energy error,
+ * the largest final distance between a massive body's position and a reference one (i.e integrated with RK4
+ * and a small time step; the ship is left out, as its flybys amplify any difference),
+ * the amount of force evaluations per (Earth) year (i.e measured as body accelerations divided by the amount of bodies)
+ * and the time per step are reported. With individual time steps, each time step is the base one, and each body's
+ * time step is chosen with the default adaptive time step settings.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar ar.edu.itba.ss.voyager.benchmarks.IntegratorComparison [dt...]}
+ */
+public class IntegratorComparison {
+
+    /**
+     * The default time steps to be compared.
+     */
+    private static final double[] TIME_STEPS = {500d, 2000d, 8000d, 32000d};
+
+    /**
+     * The time step of the reference integration.
+     */
+    private static final double REFERENCE_TIME_STEP = 100d;
+
+    /**
+     * The accuracy of the {@link AdaptiveTimeStep} choosing each body's time step (i.e with individual time steps).
+     */
+    private static final double ACCURACY = 0.01;
+
+    /**
+     * The minimum time step of the {@link AdaptiveTimeStep} choosing each body's time step.
+     */
+    private static final double MINIMUM_TIME_STEP = 1d;
+
+    /**
+     * Seconds in an Earth year.
+     */
+    private static final double YEAR_SECONDS = 365.25 * 86400;
+
+    /**
+     * Entry point.
+     *
+     * @param args Optionally, the time steps to be compared.
+     */
+    public static void main(String[] args) {
+        final double[] timeSteps = args.length > 0 ?
+                Arrays.stream(args).mapToDouble(Double::parseDouble).toArray() : TIME_STEPS;
+        final List<Body> bodies = RandomSystems.defaultSystem();
+        final double largestTimeStep = Arrays.stream(timeSteps).max().orElse(REFERENCE_TIME_STEP);
+        final double duration = Math.floor(Constants.SATURNIAN_YEAR_SECONDS / largestTimeStep) * largestTimeStep;
+
+        final SolarSystem reference = new SolarSystem(REFERENCE_TIME_STEP, 1, RandomSystems.defaultSystem(),
+                new DirectSummationSolver(), false, IntegratorType.RK4);
+        run(reference, REFERENCE_TIME_STEP, duration);
+        final List<Body.BodyState> expected = reference.outputState().getBodies();
+
+        System.out.printf("%-16s %10s %14s %18s %16s %12s%n",
+                "integrator", "dt (s)", "energy error", "position error (m)", "evaluations/yr", "ns/step");
+        for (IntegratorType integratorType : IntegratorType.values()) {
+            for (double timeStep : timeSteps) {
+                final SolarSystem solarSystem = new SolarSystem(timeStep, 1, RandomSystems.defaultSystem(),
+                        new DirectSummationSolver(), false, integratorType,
+                        integratorType.isIndividualTimeSteps() ?
+                                new AdaptiveTimeStep(ACCURACY, MINIMUM_TIME_STEP, timeStep) : null);
+                final double initialEnergy = energy(bodies, solarSystem.outputState().getBodies());
+                final double time = run(solarSystem, timeStep, duration);
+                final SolarSystem.SolarSystemState state = solarSystem.outputState();
+                final double energyError = Math.abs((energy(bodies, state.getBodies()) - initialEnergy)
+                        / initialEnergy);
+                System.out.printf("%-16s %10.0f %14.3e %18.3e %16.0f %12.1f%n",
+                        integratorType, timeStep, energyError, positionError(bodies, expected, state.getBodies()),
+                        (double) solarSystem.getAccelerationEvaluations() / bodies.size() * YEAR_SECONDS / duration,
+                        time);
+            }
+        }
+    }
+
+    /**
+     * Integrates the given {@code solarSystem} for the given {@code duration}.
+     *
+     * @param solarSystem The {@link SolarSystem} to be integrated.
+     * @param timeStep    The system's time step.
+     * @param duration    The amount of time to be integrated.
+     * @return The mean time per step, in nanoseconds.
+     */
+    private static double run(SolarSystem solarSystem, double timeStep, double duration) {
+        final long steps = Math.round(duration / timeStep);
+        final long start = System.nanoTime();
+        for (long i = 0; i < steps; i++) {
+            solarSystem.update();
+        }
+        return (double) (System.nanoTime() - start) / steps;
+    }
+
+    /**
+     * Calculates the total (i.e kinetic plus gravitational potential) energy of a system.
+     *
+     * @param bodies The bodies of the system (i.e their masses are taken from them).
+     * @param states The bodies' states (i.e in the same order), holding their positions and velocities.
+     * @return The total energy.
+     */
+    private static double energy(List<Body> bodies, List<Body.BodyState> states) {
+        double energy = 0;
+        for (int i = 0; i < bodies.size(); i++) {
+            final double mass = bodies.get(i).getMass();
+            energy += 0.5 * mass * states.get(i).getVelocity().getNormSq();
+            for (int j = i + 1; j < bodies.size(); j++) {
+                energy -= Constants.G * mass * bodies.get(j).getMass()
+                        / states.get(i).getPosition().distance(states.get(j).getPosition());
+            }
+        }
+        return energy;
+    }
+
+    /**
+     * Calculates the largest distance between the positions of the massive bodies in two states of a system.
+     *
+     * @param bodies   The bodies of the system (i.e their types are taken from them).
+     * @param expected The expected bodies' states.
+     * @param actual   The actual bodies' states.
+     * @return The largest distance.
+     */
+    private static double positionError(List<Body> bodies, List<Body.BodyState> expected,
+                                        List<Body.BodyState> actual) {
+        double error = 0;
+        for (int i = 0; i < bodies.size(); i++) {
+            if (bodies.get(i).getType() != BodyType.PROBE) {
+                error = Math.max(error, expected.get(i).getPosition().distance(actual.get(i).getPosition()));
+            }
+        }
+        return error;
+    }
+}
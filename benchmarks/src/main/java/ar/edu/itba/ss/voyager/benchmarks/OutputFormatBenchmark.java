@@ -0,0 +1,186 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.io.BinaryFileSaver;
+import ar.edu.itba.ss.voyager.io.ColumnsFileSaver;
+import ar.edu.itba.ss.voyager.io.DistancesFileSaver;
+import ar.edu.itba.ss.voyager.io.OvitoFileSaverImpl;
+import ar.edu.itba.ss.voyager.io.SamplingPolicy;
+import ar.edu.itba.ss.voyager.io.SpeedFileSaver;
+import ar.edu.itba.ss.voyager.io.StepSamplingPolicy;
+import ar.edu.itba.ss.voyager.io.StreamingDataSaver;
+import ar.edu.itba.ss.voyager.io.TrajectoryFileSaver;
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many snapshots per second each output format saves into a file, and how many bytes per second that
+ * is (i.e the {@code bytes} secondary result). Each iteration writes a new temporary file, cycling through a set of
+ * snapshots of an evolving system, so values change from one snapshot to the next as in a real simulation.
+ * The bytes per snapshot are measured once per trial, by saving the whole set of snapshots.
+ * Closing the file is not measured (e.g assembling the columns file, or writing the binary file's index).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputFormatBenchmark {
+
+    /**
+     * Amount of distinct snapshots (i.e saved snapshots cycle through them).
+     */
+    private static final int DISTINCT_SNAPSHOTS = 1 << 10;
+
+    /**
+     * The integration time step used to build the snapshots.
+     */
+    private static final double TIME_STEP = 3600;
+
+    /**
+     * The output format (i.e "ovito", "trajectory", "distances", "speed", "columns", or "binary-" followed by
+     * the compression, as in the {@code custom.output.binary-compression} property).
+     */
+    @Param({"ovito", "trajectory", "distances", "speed", "columns",
+            "binary-none", "binary-deflate", "binary-deflate-xor", "binary-deflate-delta"})
+    private String format;
+
+    /**
+     * The amount of bodies in the system.
+     */
+    @Param({"5", "200"})
+    private int amountOfBodies;
+
+    /**
+     * The amount of significant digits of each value in text formats (or 0 to write them exactly).
+     */
+    @Param({"0"})
+    private int precision;
+
+    /**
+     * The snapshots to be saved.
+     */
+    private SolarSystemSnapshot[] snapshots;
+
+    /**
+     * The average amount of bytes each snapshot takes in the file.
+     */
+    private double bytesPerSnapshot;
+
+    /**
+     * The temporary file being written.
+     */
+    private Path file;
+
+    /**
+     * The {@link StreamingDataSaver} being measured.
+     */
+    private StreamingDataSaver<SolarSystemSnapshot> saver;
+
+    /**
+     * The index of the next snapshot to be saved.
+     */
+    private int cursor;
+
+    /**
+     * The amount of bytes written, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        /**
+         * The amount of bytes written in the iteration.
+         */
+        public double bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final SolarSystem solarSystem = new SolarSystem(TIME_STEP, 1, RandomSystems.build(amountOfBodies),
+                new DirectSummationSolver(), false);
+        snapshots = new SolarSystemSnapshot[DISTINCT_SNAPSHOTS];
+        for (int i = 0; i < DISTINCT_SNAPSHOTS; i++) {
+            solarSystem.update();
+            snapshots[i] = solarSystem.newSnapshot();
+            solarSystem.snapshot(snapshots[i]);
+        }
+        final Path sizeFile = Files.createTempFile("voyager-output-", ".out");
+        try (StreamingDataSaver<SolarSystemSnapshot> sizeSaver = buildSaver(sizeFile)) {
+            Arrays.stream(snapshots).forEach(sizeSaver::save);
+        }
+        bytesPerSnapshot = (double) Files.size(sizeFile) / DISTINCT_SNAPSHOTS;
+        Files.deleteIfExists(sizeFile);
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        file = Files.createTempFile("voyager-output-", ".out");
+        saver = buildSaver(file);
+        cursor = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        saver.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void save(Bytes bytes) {
+        saver.save(snapshots[cursor]);
+        cursor = (cursor + 1) & (DISTINCT_SNAPSHOTS - 1);
+        bytes.bytes += bytesPerSnapshot;
+    }
+
+    /**
+     * Builds the {@link StreamingDataSaver} for the {@link #format} (sampling every step).
+     *
+     * @param path The path of the file to be saved.
+     * @return The built {@link StreamingDataSaver}.
+     */
+    private StreamingDataSaver<SolarSystemSnapshot> buildSaver(Path path) {
+        final String filePath = path.toString();
+        final SamplingPolicy samplingPolicy = new StepSamplingPolicy(1, TIME_STEP);
+        final double totalTime = DISTINCT_SNAPSHOTS * TIME_STEP;
+        switch (format) {
+            case "ovito":
+                return new OvitoFileSaverImpl(filePath, precision);
+            case "trajectory":
+                return new TrajectoryFileSaver(filePath, samplingPolicy, TIME_STEP, totalTime, precision);
+            case "distances":
+                return new DistancesFileSaver(filePath, samplingPolicy, TIME_STEP, totalTime, precision);
+            case "speed":
+                return new SpeedFileSaver(filePath, samplingPolicy, TIME_STEP, totalTime, precision);
+            case "columns":
+                return new ColumnsFileSaver(filePath, Arrays.asList("x", "y", "speed", "distances"),
+                        samplingPolicy, TIME_STEP, totalTime, precision);
+            case "binary-none":
+                return new BinaryFileSaver(filePath, samplingPolicy, TIME_STEP);
+            case "binary-deflate":
+                return new BinaryFileSaver(filePath, samplingPolicy, TIME_STEP,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.NONE);
+            case "binary-deflate-xor":
+                return new BinaryFileSaver(filePath, samplingPolicy, TIME_STEP,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.XOR);
+            case "binary-deflate-delta":
+                return new BinaryFileSaver(filePath, samplingPolicy, TIME_STEP,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.DELTA);
+            default:
+                throw new IllegalArgumentException("Unknown output format: " + format);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of one {@link SolarSystem#update()} step of the default system with many probes,
+ * with probes participating in the force sum or treated as massless test particles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProbesStepBenchmark {
+
+    /**
+     * The amount of extra probes.
+     */
+    @Param({"0", "100", "1000", "5000"})
+    private int amountOfProbes;
+
+    /**
+     * Indicates whether probes are treated as test particles.
+     */
+    @Param({"false", "true"})
+    private boolean masslessProbes;
+
+    /**
+     * The system being stepped.
+     */
+    private SolarSystem solarSystem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solarSystem = new SolarSystem(100, 1, RandomSystems.defaultSystemWithProbes(amountOfProbes),
+                new DirectSummationSolver(), masslessProbes);
+    }
+
+    @Benchmark
+    public void update() {
+        solarSystem.update();
+    }
+}
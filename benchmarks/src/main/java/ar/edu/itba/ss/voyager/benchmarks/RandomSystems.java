@@ -0,0 +1,112 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.BodyType;
+import ar.edu.itba.ss.voyager.models.Constants;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds reproducible systems with an arbitrary amount of bodies, to be used by the benchmarks.
+ */
+/* package */ class RandomSystems {
+
+    /**
+     * The seed used to generate the systems (i.e all runs use the same bodies).
+     */
+    private static final long SEED = 0x766f7961676572L;
+
+    /**
+     * Minimum orbit radius (i.e Mercury's orbit, in meters).
+     */
+    private static final double MIN_ORBIT_RADIUS = 5.79e10;
+
+    /**
+     * Maximum orbit radius (i.e Neptune's orbit, in meters).
+     */
+    private static final double MAX_ORBIT_RADIUS = 4.5e12;
+
+    /**
+     * Builds a system with a Sun-like star in the origin, {@code amountOfBodies - 2} planets in circular orbits,
+     * and a probe next to the Earth's orbit.
+     *
+     * @param amountOfBodies The total amount of bodies (must be at least 2).
+     * @return The bodies of the system.
+     */
+    /* package */
+    static List<Body> build(int amountOfBodies) {
+        final Random random = new Random(SEED);
+        final List<Body> bodies = new ArrayList<>(amountOfBodies);
+        bodies.add(new Body("Sun", BodyType.STAR, Constants.SUN_MASS, Color.YELLOW,
+                Vector2D.ZERO, Vector2D.ZERO, Vector2D.ZERO));
+        for (int i = 0; i < amountOfBodies - 2; i++) {
+            final double mass = Constants.EARTH_MASS * (0.01 + 300 * random.nextDouble());
+            bodies.add(orbiting("Planet" + i, BodyType.PLANET, mass,
+                    MIN_ORBIT_RADIUS + (MAX_ORBIT_RADIUS - MIN_ORBIT_RADIUS) * random.nextDouble(),
+                    2 * Math.PI * random.nextDouble()));
+        }
+        bodies.add(orbiting("Ship", BodyType.PROBE, Constants.SHIP_MASS, 1.5e11, 0));
+        return bodies;
+    }
+
+    /**
+     * Builds the default system (i.e the Sun, the Earth, Jupiter, Saturn and a ship launched from the Earth),
+     * with the planets in circular orbits, at their mean distance to the Sun.
+     *
+     * @return The bodies of the default system.
+     */
+    /* package */
+    static List<Body> defaultSystem() {
+        final Body earth = orbiting("Earth", BodyType.PLANET, Constants.EARTH_MASS, 1.496e11, 0.3);
+        final Body jupiter = orbiting("Jupiter", BodyType.PLANET, Constants.JUPITER_MASS, 7.785e11, 1.1);
+        final Body saturn = orbiting("Saturn", BodyType.PLANET, Constants.SATURN_MASS, 1.4335e12, 1.9);
+        return SolarSystem.defaultBodies(Vector2D.ZERO, Vector2D.ZERO,
+                earth.getPosition(), earth.getVelocity(),
+                jupiter.getPosition(), jupiter.getVelocity(),
+                saturn.getPosition(), saturn.getVelocity());
+    }
+
+    /**
+     * Builds the default system with the given amount of extra probes,
+     * launched near the ship's position with slightly different velocities.
+     *
+     * @param amountOfProbes The amount of extra probes.
+     * @return The bodies of the system.
+     */
+    /* package */
+    static List<Body> defaultSystemWithProbes(int amountOfProbes) {
+        final List<Body> bodies = new ArrayList<>(defaultSystem());
+        final Body ship = bodies.get(bodies.size() - 1);
+        final Random random = new Random(SEED);
+        for (int i = 0; i < amountOfProbes; i++) {
+            final Vector2D offset = new Vector2D(random.nextGaussian(), random.nextGaussian()).scalarMultiply(1e6);
+            final Vector2D deviation = new Vector2D(random.nextGaussian(), random.nextGaussian()).scalarMultiply(500);
+            bodies.add(new Body("Probe" + i, BodyType.PROBE, ship.getMass(), ship.getColor(),
+                    ship.getPosition().add(offset), ship.getVelocity().add(deviation), Vector2D.ZERO));
+        }
+        return bodies;
+    }
+
+    /**
+     * Builds a {@link Body} in a circular orbit around a Sun-like star placed in the origin.
+     *
+     * @param name   The body's name.
+     * @param type   The body's type.
+     * @param mass   The body's mass.
+     * @param radius The orbit's radius.
+     * @param angle  The body's angular position.
+     * @return The built {@link Body}.
+     */
+    private static Body orbiting(String name, BodyType type, double mass, double radius, double angle) {
+        final double speed = Math.sqrt(Constants.G * Constants.SUN_MASS / radius);
+        return new Body(name, type, mass, Color.GRAY,
+                new Vector2D(radius * Math.cos(angle), radius * Math.sin(angle)),
+                new Vector2D(-speed * Math.sin(angle), speed * Math.cos(angle)),
+                Vector2D.ZERO);
+    }
+}
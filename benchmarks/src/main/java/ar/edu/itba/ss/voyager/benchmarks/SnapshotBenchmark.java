@@ -0,0 +1,56 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of taking the state of a {@link SolarSystem} as the amount of bodies grows,
+ * with {@link SolarSystem#outputState()} (i.e new {@code Body} states and vectors each time)
+ * and with {@link SolarSystem#snapshot(SolarSystemSnapshot)} (i.e copying arrays into a preallocated snapshot).
+ * Run it with {@code -prof gc} to compare their allocation rates too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    /**
+     * The amount of bodies in the system.
+     */
+    @Param({"5", "200", "5000"})
+    private int amountOfBodies;
+
+    /**
+     * The system whose state is taken.
+     */
+    private SolarSystem solarSystem;
+
+    /**
+     * The preallocated {@link SolarSystemSnapshot}.
+     */
+    private SolarSystemSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solarSystem = new SolarSystem(100, 1, RandomSystems.build(amountOfBodies), new DirectSummationSolver(), false);
+        snapshot = solarSystem.newSnapshot();
+    }
+
+    @Benchmark
+    public SolarSystem.SolarSystemState outputState() {
+        return solarSystem.outputState();
+    }
+
+    @Benchmark
+    public SolarSystemSnapshot snapshot() {
+        solarSystem.snapshot(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,47 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of one {@link SolarSystem#update()} step as the amount of bodies grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolarSystemStepBenchmark {
+
+    /**
+     * The amount of bodies in the system.
+     */
+    @Param({"5", "50", "200", "500", "1000", "2000", "5000"})
+    private int amountOfBodies;
+
+    /**
+     * The amount of threads used to calculate forces (zero means as many as available processors).
+     */
+    @Param({"1", "0"})
+    private int threads;
+
+    /**
+     * The system being stepped.
+     */
+    private SolarSystem solarSystem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solarSystem = new SolarSystem(100, 1, RandomSystems.build(amountOfBodies),
+                new DirectSummationSolver(DirectSummationSolver.DEFAULT_PARALLEL_THRESHOLD, threads), false);
+    }
+
+    @Benchmark
+    public void update() {
+        solarSystem.update();
+    }
+}
@@ -0,0 +1,155 @@
+package ar.edu.itba.ss.voyager.benchmarks;
+
+import ar.edu.itba.ss.voyager.io.TextBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of formatting a whole trajectory as the rows of a MATLAB matrix
+ * (i.e {@code x, y, t} per sample), with the previous {@link String} based approach
+ * and with a {@link TextBuffer} (writing values exactly, or with a fixed precision).
+ * Rows are written into a {@link Writer} that discards them, so only formatting is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextExportBenchmark {
+
+    /**
+     * Amount of distinct samples (i.e the trajectory cycles through them).
+     */
+    private static final int DISTINCT_SAMPLES = 1 << 16;
+
+    /**
+     * The amount of samples in the trajectory.
+     */
+    @Param({"10000000"})
+    private int samples;
+
+    /**
+     * The amount of significant digits used by the fixed precision {@link TextBuffer}.
+     */
+    @Param({"10"})
+    private int precision;
+
+    /**
+     * The 'x' components of the samples' positions.
+     */
+    private double[] positionsX;
+
+    /**
+     * The 'y' components of the samples' positions.
+     */
+    private double[] positionsY;
+
+    /**
+     * The {@link TextBuffer} that writes values exactly.
+     */
+    private TextBuffer exactBuffer;
+
+    /**
+     * The {@link TextBuffer} that writes values with a fixed precision.
+     */
+    private TextBuffer fixedBuffer;
+
+    /**
+     * The {@link Writer} into which rows are written.
+     */
+    private NullWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(0);
+        positionsX = new double[DISTINCT_SAMPLES];
+        positionsY = new double[DISTINCT_SAMPLES];
+        for (int i = 0; i < DISTINCT_SAMPLES; i++) {
+            // A slightly perturbed orbit around one astronomical unit
+            final double angle = 2 * Math.PI * i / DISTINCT_SAMPLES;
+            final double radius = 1.496e11 * (1 + 1e-3 * random.nextGaussian());
+            positionsX[i] = radius * Math.cos(angle);
+            positionsY[i] = radius * Math.sin(angle);
+        }
+        exactBuffer = new TextBuffer(0);
+        fixedBuffer = new TextBuffer(precision);
+        writer = new NullWriter();
+    }
+
+    @Benchmark
+    public long strings() throws IOException {
+        for (int i = 0; i < samples; i++) {
+            final int sample = i & (DISTINCT_SAMPLES - 1);
+            writer.append(String.valueOf(positionsX[sample])).append(", ")
+                    .append(String.valueOf(positionsY[sample])).append(", ")
+                    .append(String.valueOf(3600d * i))
+                    .append("\n");
+        }
+        return writer.written;
+    }
+
+    @Benchmark
+    public long exactTextBuffer() throws IOException {
+        return write(exactBuffer);
+    }
+
+    @Benchmark
+    public long fixedTextBuffer() throws IOException {
+        return write(fixedBuffer);
+    }
+
+    /**
+     * Writes the trajectory through the given {@code buffer}.
+     *
+     * @param buffer The {@link TextBuffer} into which each row is formatted.
+     * @return The amount of written characters (so the work is not optimized away).
+     * @throws IOException Never (i.e the {@link NullWriter} does not fail).
+     */
+    private long write(TextBuffer buffer) throws IOException {
+        for (int i = 0; i < samples; i++) {
+            final int sample = i & (DISTINCT_SAMPLES - 1);
+            buffer.append(positionsX[sample]).append(", ")
+                    .append(positionsY[sample]).append(", ")
+                    .append(3600d * i)
+                    .append('\n');
+            buffer.writeTo(writer);
+        }
+        return writer.written;
+    }
+
+    /**
+     * A {@link Writer} that discards everything, only counting the written characters.
+     */
+    private static final class NullWriter extends Writer {
+
+        /**
+         * The amount of written characters.
+         */
+        private long written;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            written += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            written += length;
+        }
+
+        @Override
+        public void flush() {
+            // Nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+    }
+}
@@ -1,25 +1,49 @@
 package ar.edu.itba.ss.voyager;
 
-import ar.edu.itba.ss.g7.engine.io.DataSaver;
-import ar.edu.itba.ss.g7.engine.simulation.SimulationEngine;
 import ar.edu.itba.ss.voyager.io.*;
+import ar.edu.itba.ss.voyager.models.AdaptiveTimeStep;
+import ar.edu.itba.ss.voyager.models.BarnesHutSolver;
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.ConservationMonitor;
 import ar.edu.itba.ss.voyager.models.Constants;
+import ar.edu.itba.ss.voyager.models.ConvergenceResult;
+import ar.edu.itba.ss.voyager.models.ConvergenceStudy;
+import ar.edu.itba.ss.voyager.models.DirectSummationSolver;
+import ar.edu.itba.ss.voyager.models.DriftAction;
+import ar.edu.itba.ss.voyager.models.Ephemeris;
+import ar.edu.itba.ss.voyager.models.Event;
+import ar.edu.itba.ss.voyager.models.EventCondition;
+import ar.edu.itba.ss.voyager.models.ForceSolver;
+import ar.edu.itba.ss.voyager.models.IntegratorType;
+import ar.edu.itba.ss.voyager.models.LaunchSimulation;
+import ar.edu.itba.ss.voyager.models.LaunchSweep;
 import ar.edu.itba.ss.voyager.models.SolarSystem;
+import ar.edu.itba.ss.voyager.models.SolarSystemCheckpoint;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+import ar.edu.itba.ss.voyager.models.TerminationCondition;
+import ar.edu.itba.ss.voyager.models.TerminationConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Main class.
  */
 @SpringBootApplication
-public class Voyager implements CommandLineRunner, InitializingBean {
+public class Voyager implements CommandLineRunner {
 
     /**
      * The {@link Logger} object.
@@ -29,81 +53,598 @@ public class Voyager implements CommandLineRunner, InitializingBean {
     /**
      * The {@link SolarSystem} to be simulated.
      */
-    private final SimulationEngine<SolarSystem.SolarSystemState, SolarSystem> engine;
+    private final SolarSystem solarSystem;
 
     /**
-     * {@link DataSaver} for Ovito file.
+     * The {@link StreamingDataSaver}s to which each state is handed as soon as it is produced
+     * (i.e Ovito, trajectory, distances and speed files, and optionally binary and columns files).
      */
-    private final DataSaver<SolarSystem.SolarSystemState> ovitoFileSaver;
+    private final List<StreamingDataSaver<SolarSystemSnapshot>> savers;
 
     /**
-     * {@link DataSaver} for trajectory file.
+     * The amount of states that can be buffered between the simulation and the output writer thread.
      */
-    private final DataSaver<SolarSystem.SolarSystemState> trajectoryFileSaver;
+    private final int outputBufferSize;
 
     /**
-     * {@link DataSaver} for distances file.
+     * The {@link SamplingPolicy} used to choose the output states.
      */
-    private final DataSaver<SolarSystem.SolarSystemState> distancesFileSaver;
+    private final SamplingPolicy samplingPolicy;
 
     /**
-     * {@link DataSaver} for speed file.
+     * Path for checkpoint file (empty to disable checkpoints).
      */
-    private final DataSaver<SolarSystem.SolarSystemState> speedFileSaver;
+    private final String checkpointFilePath;
+
+    /**
+     * The amount of steps between two checkpoints.
+     */
+    private final long checkpointSteps;
+
+    /**
+     * Indicates whether the simulation is resumed from the checkpoint file.
+     */
+    private final boolean resume;
+
+    /**
+     * Path for events file (empty to disable it).
+     */
+    private final String eventsFilePath;
+
+    /**
+     * The {@link EventCondition}s of the events that stop the simulation.
+     */
+    private final List<EventCondition> stopEvents;
+
+    /**
+     * The {@link TerminationCondition} that stops the simulation before its end.
+     */
+    private final TerminationCondition terminationCondition;
+
+    /**
+     * The reason why the simulation was stopped before its end (or {@code null} if it was not).
+     */
+    private String stopReason;
+
+    /**
+     * The {@link ConservationMonitor} that measures the energy and angular momentum drifts
+     * (or {@code null} if they are not monitored).
+     */
+    private final ConservationMonitor conservationMonitor;
+
+    /**
+     * Path for conservation file (empty to disable it).
+     */
+    private final String conservationFilePath;
+
+    /**
+     * Indicates whether a warning was already emitted because the drift went beyond the budget.
+     */
+    private boolean driftWarned;
+
+    /**
+     * The {@link AsyncDataSaver} of the running simulation (i.e events and conservation measurements are saved
+     * in its writer thread, in sequence with the states and the checkpoints).
+     */
+    private AsyncDataSaver<SolarSystemSnapshot> outputWriter;
+
+    /**
+     * The {@link LaunchSweep} to be run (or {@code null} if the sweep mode is not enabled).
+     */
+    private final LaunchSweep launchSweep;
+
+    /**
+     * Path for the sweep summary file.
+     */
+    private final String sweepFilePath;
+
+    /**
+     * The {@link ConvergenceStudy} to be run (or {@code null} if the convergence study mode is not enabled).
+     */
+    private final ConvergenceStudy convergenceStudy;
+
+    /**
+     * The largest error allowed in the convergence study (in meters).
+     */
+    private final double convergenceTolerance;
+
+    /**
+     * Path for the convergence study file.
+     */
+    private final String convergenceFilePath;
 
     @Autowired
-    public Voyager(ProgramArguments arguments) {
-        final SolarSystem solarSystem = new SolarSystem(arguments.getTimeStep(), arguments.getAmountOfYears(),
-                arguments.getSunPosition(), arguments.getSunVelocity(),
-                arguments.getEarthPosition(), arguments.getEarthVelocity(),
-                arguments.getJupiterPosition(), arguments.getJupiterVelocity(),
-                arguments.getSaturnPosition(), arguments.getSaturnVelocity());
-        this.engine = new SimulationEngine<>(solarSystem);
-        this.ovitoFileSaver = new OvitoFileSaverImpl(arguments.getOvitoFilePath());
-        this.trajectoryFileSaver = new TrajectoryFileSaver(arguments.getTrajectoryFilePath(),
-                arguments.getTimeStep(), arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS);
-        this.distancesFileSaver = new DistancesFileSaver(arguments.getDistancesFilePath(),
-                arguments.getTimeStep(), arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS);
-        this.speedFileSaver = new SpeedFileSaver(arguments.getSpeedFilePath(),
-                arguments.getTimeStep(), arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS);
+    public Voyager(ProgramArguments arguments, SweepArguments sweepArguments,
+                   ConvergenceArguments convergenceArguments) {
+        final List<Body> bodies = readBodies(arguments);
+        if (sweepArguments.isEnabled() && convergenceArguments.isEnabled()) {
+            throw new IllegalArgumentException("The sweep and convergence study modes can not be enabled together");
+        }
+        this.launchSweep = sweepArguments.isEnabled() ? buildLaunchSweep(arguments, sweepArguments, bodies) : null;
+        this.sweepFilePath = sweepArguments.getOutputFilePath();
+        this.convergenceStudy = convergenceArguments.isEnabled() ?
+                buildConvergenceStudy(arguments, convergenceArguments) : null;
+        this.convergenceTolerance = convergenceArguments.getTolerance();
+        this.convergenceFilePath = convergenceArguments.getOutputFilePath();
+        // Individual time steps always need the adaptive time step settings to choose each body's time step
+        final IntegratorType integratorType = buildIntegratorType(arguments);
+        this.solarSystem = new SolarSystem(arguments.getTimeStep(), arguments.getAmountOfYears(), bodies,
+                buildForceSolver(arguments), arguments.isMasslessProbes(), integratorType,
+                arguments.isAdaptiveTimeStep() || integratorType.isIndividualTimeSteps() ?
+                        new AdaptiveTimeStep(arguments.getAdaptiveAccuracy(), arguments.getMinimumTimeStep(),
+                                arguments.getTimeStep()) : null);
+        this.samplingPolicy = buildSamplingPolicy(arguments);
+        // Files are only created when the first state is saved
+        final double totalTime = arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS;
+        final int precision = arguments.getOutputPrecision();
+        this.savers = new ArrayList<>(Arrays.asList(
+                new OvitoFileSaverImpl(arguments.getOvitoFilePath(), precision),
+                new TrajectoryFileSaver(arguments.getTrajectoryFilePath(), samplingPolicy,
+                        arguments.getTimeStep(), totalTime, precision),
+                new DistancesFileSaver(arguments.getDistancesFilePath(), samplingPolicy,
+                        arguments.getTimeStep(), totalTime, precision),
+                new SpeedFileSaver(arguments.getSpeedFilePath(), samplingPolicy,
+                        arguments.getTimeStep(), totalTime, precision)));
+        if (!arguments.getBinaryFilePath().isEmpty()) {
+            this.savers.add(buildBinaryFileSaver(arguments, samplingPolicy));
+        }
+        if (!arguments.getColumnsFilePath().isEmpty()) {
+            this.savers.add(new ColumnsFileSaver(arguments.getColumnsFilePath(), arguments.getColumnsVariables(),
+                    samplingPolicy, arguments.getTimeStep(), totalTime, precision));
+        }
+        this.outputBufferSize = arguments.getOutputBufferSize();
+        this.checkpointFilePath = arguments.getCheckpointFilePath();
+        this.checkpointSteps = arguments.getCheckpointSteps();
+        this.resume = arguments.isResume();
+        if (resume && checkpointFilePath.isEmpty()) {
+            throw new IllegalArgumentException("A checkpoint file must be set to resume the simulation");
+        }
+        this.eventsFilePath = arguments.getEventsFilePath();
+        this.stopEvents = arguments.getStopEvents().stream()
+                .filter(condition -> !condition.trim().isEmpty())
+                .map(EventCondition::parse)
+                .collect(Collectors.toList());
+        this.terminationCondition = TerminationConditions.parseAll(arguments.getTerminationConditions());
+        this.conservationMonitor = arguments.getConservationInterval() > 0 ?
+                new ConservationMonitor(arguments.getConservationInterval(), arguments.getDriftBudget(),
+                        buildDriftAction(arguments)) : null;
+        this.conservationFilePath = arguments.getConservationFilePath();
+        if (conservationMonitor == null && !conservationFilePath.isEmpty()) {
+            throw new IllegalArgumentException("A conservation interval must be set to save the conservation file");
+        }
     }
 
 
-    @Override
-    public void afterPropertiesSet() throws Exception {
-        this.engine.initialize();
+    /**
+     * Reads the bodies indicated in the given {@code arguments} (i.e new {@link Body} objects on each call).
+     *
+     * @param arguments The {@link ProgramArguments}.
+     * @return The bodies, with their initial positions and velocities.
+     */
+    private static List<Body> readBodies(ProgramArguments arguments) {
+        return arguments.getBodiesFilePath().isEmpty() ?
+                SolarSystem.defaultBodies(arguments.getSunPosition(), arguments.getSunVelocity(),
+                        arguments.getEarthPosition(), arguments.getEarthVelocity(),
+                        arguments.getJupiterPosition(), arguments.getJupiterVelocity(),
+                        arguments.getSaturnPosition(), arguments.getSaturnVelocity()) :
+                new BodiesFileReader(arguments.getBodiesFilePath()).read();
+    }
+
+    /**
+     * Builds the {@link ForceSolver} indicated in the given {@code arguments}.
+     *
+     * @param arguments The {@link ProgramArguments}.
+     * @return The built {@link ForceSolver}.
+     * @throws IllegalArgumentException If the force solver is not a known one.
+     */
+    private static ForceSolver buildForceSolver(ProgramArguments arguments) {
+        switch (arguments.getForceSolver()) {
+            case "direct":
+                return new DirectSummationSolver(arguments.getParallelThreshold(), arguments.getThreads());
+            case "barnes-hut":
+                return new BarnesHutSolver(arguments.getOpeningAngle());
+            default:
+                throw new IllegalArgumentException("Unknown force solver: " + arguments.getForceSolver());
+        }
+    }
+
+    /**
+     * Builds the {@link IntegratorType} indicated in the given {@code arguments}.
+     *
+     * @param arguments The {@link ProgramArguments}.
+     * @return The built {@link IntegratorType}.
+     * @throws IllegalArgumentException If the integrator is not a known one.
+     */
+    private static IntegratorType buildIntegratorType(ProgramArguments arguments) {
+        switch (arguments.getIntegrator()) {
+            case "beeman":
+                return IntegratorType.BEEMAN;
+            case "velocity-verlet":
+                return IntegratorType.VELOCITY_VERLET;
+            case "yoshida4":
+                return IntegratorType.YOSHIDA4;
+            case "rk4":
+                return IntegratorType.RK4;
+            case "gear5":
+                return IntegratorType.GEAR5;
+            case "wisdom-holman":
+                return IntegratorType.WISDOM_HOLMAN;
+            case "block-leapfrog":
+                return IntegratorType.BLOCK_LEAPFROG;
+            default:
+                throw new IllegalArgumentException("Unknown integrator: " + arguments.getIntegrator());
+        }
+    }
+
+    /**
+     * Builds the {@link DriftAction} indicated in the given {@code arguments}.
+     *
+     * @param arguments The {@link ProgramArguments}.
+     * @return The built {@link DriftAction}.
+     * @throws IllegalArgumentException If the drift action is not a known one.
+     */
+    private static DriftAction buildDriftAction(ProgramArguments arguments) {
+        switch (arguments.getDriftAction()) {
+            case "warn":
+                return DriftAction.WARN;
+            case "abort":
+                return DriftAction.ABORT;
+            case "adapt":
+                return DriftAction.ADAPT;
+            default:
+                throw new IllegalArgumentException("Unknown drift action: " + arguments.getDriftAction());
+        }
+    }
+
+    /**
+     * Builds the {@link SamplingPolicy} indicated in the given {@code arguments}.
+     *
+     * @param arguments The {@link ProgramArguments}.
+     * @return The built {@link SamplingPolicy}.
+     * @throws IllegalArgumentException If the sampling policy is not a known one.
+     */
+    private static SamplingPolicy buildSamplingPolicy(ProgramArguments arguments) {
+        switch (arguments.getSamplingPolicy()) {
+            case "step":
+                return new StepSamplingPolicy(arguments.getSamplingSteps(), arguments.getTimeStep());
+            case "interval":
+                return new IntervalSamplingPolicy(arguments.getSamplingInterval());
+            case "encounter":
+                return new EncounterSamplingPolicy(arguments.getSamplingSteps(),
+                        arguments.getEncounterSamplingSteps(), arguments.getEncounterDistance(),
+                        arguments.getTimeStep());
+            default:
+                throw new IllegalArgumentException("Unknown sampling policy: " + arguments.getSamplingPolicy());
+        }
+    }
+
+    /**
+     * Builds the {@link BinaryFileSaver} indicated in the given {@code arguments}.
+     *
+     * @param arguments      The {@link ProgramArguments}.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output states.
+     * @return The built {@link BinaryFileSaver}.
+     * @throws IllegalArgumentException If the compression is not a known one.
+     */
+    private static BinaryFileSaver buildBinaryFileSaver(ProgramArguments arguments, SamplingPolicy samplingPolicy) {
+        final String filePath = arguments.getBinaryFilePath();
+        final double timeStep = arguments.getTimeStep();
+        switch (arguments.getBinaryCompression()) {
+            case "none":
+                return new BinaryFileSaver(filePath, samplingPolicy, timeStep);
+            case "deflate":
+                return new BinaryFileSaver(filePath, samplingPolicy, timeStep,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.NONE);
+            case "deflate-xor":
+                return new BinaryFileSaver(filePath, samplingPolicy, timeStep,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.XOR);
+            case "deflate-delta":
+                return new BinaryFileSaver(filePath, samplingPolicy, timeStep,
+                        BinaryFileSaver.Compression.DEFLATE, BinaryFileSaver.Encoding.DELTA);
+            default:
+                throw new IllegalArgumentException("Unknown binary compression: " + arguments.getBinaryCompression());
+        }
+    }
+
+    /**
+     * Builds the {@link LaunchSweep} indicated in the given {@code sweepArguments}.
+     * Each launch is simulated for the amount of Saturnian years indicated in the given {@code arguments},
+     * against an {@link Ephemeris} of the massive bodies shared by all launches.
+     *
+     * @param arguments      The {@link ProgramArguments}.
+     * @param sweepArguments The {@link SweepArguments}.
+     * @param bodies         The bodies in the system, with their initial positions and velocities.
+     * @return The built {@link LaunchSweep}.
+     */
+    private static LaunchSweep buildLaunchSweep(ProgramArguments arguments, SweepArguments sweepArguments,
+                                                List<Body> bodies) {
+        final double[] launchTimes = LaunchSweep.range(sweepArguments.getFromLaunchTime(),
+                sweepArguments.getToLaunchTime(), sweepArguments.getLaunchTimeStep());
+        final double flightTime = arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS;
+        final long steps = LaunchSimulation.requiredSteps(arguments.getTimeStep(),
+                launchTimes[launchTimes.length - 1], flightTime);
+        LOGGER.info("Computing ephemeris ({} steps)...", steps);
+        final Ephemeris ephemeris = Ephemeris.compute(arguments.getTimeStep(), steps, bodies,
+                sweepArguments.getEphemerisStride(), sweepArguments.getEphemerisFilePath());
+        // Conditions might keep state, so each launch gets its own ones (the first ones only validate them)
+        final List<String> terminationConditions = arguments.getTerminationConditions();
+        TerminationConditions.parseAll(terminationConditions);
+        final LaunchSimulation simulation = new LaunchSimulation(ephemeris, flightTime,
+                sweepArguments.getLaunchBody(), () -> TerminationConditions.parseAll(terminationConditions));
+        return new LaunchSweep(simulation, LaunchSweep.grid(launchTimes,
+                LaunchSweep.range(sweepArguments.getFromSpeed(), sweepArguments.getToSpeed(),
+                        sweepArguments.getSpeedStep()),
+                LaunchSweep.range(sweepArguments.getFromAngle(), sweepArguments.getToAngle(),
+                        sweepArguments.getAngleStep())),
+                sweepArguments.getThreads());
+    }
+
+    /**
+     * Builds the {@link ConvergenceStudy} indicated in the given {@code convergenceArguments}.
+     * Each run simulates its own bodies for the amount of Saturnian years indicated in the given {@code arguments},
+     * with the same integrator and force solver (each run gets its own one), starting from the simulation's time step.
+     *
+     * @param arguments            The {@link ProgramArguments}.
+     * @param convergenceArguments The {@link ConvergenceArguments}.
+     * @return The built {@link ConvergenceStudy}.
+     * @throws IllegalArgumentException If the time step is not fixed.
+     */
+    private static ConvergenceStudy buildConvergenceStudy(ProgramArguments arguments,
+                                                          ConvergenceArguments convergenceArguments) {
+        final IntegratorType integratorType = buildIntegratorType(arguments);
+        if (arguments.isAdaptiveTimeStep() || integratorType.isIndividualTimeSteps()) {
+            throw new IllegalArgumentException("The convergence study needs a fixed time step");
+        }
+        return new ConvergenceStudy(timeStep -> new SolarSystem(timeStep, arguments.getAmountOfYears(),
+                readBodies(arguments), buildForceSolver(arguments), arguments.isMasslessProbes(), integratorType),
+                arguments.getTimeStep(), convergenceArguments.getRuns(), convergenceArguments.getRatio(),
+                arguments.getAmountOfYears() * Constants.SATURNIAN_YEAR_SECONDS, convergenceArguments.getThreads());
     }
 
     @Override
     public void run(String... args) throws Exception {
         LOGGER.info("Hello, Voyager!");
-        // First, simulate
-        simulate();
-        // Then, save
-        save();
+        if (launchSweep != null) {
+            sweep();
+        } else if (convergenceStudy != null) {
+            studyConvergence();
+        } else {
+            simulate();
+        }
         LOGGER.info("Bye-bye!");
         System.exit(0);
     }
 
     /**
-     * Performs the simulation phase of the program.
+     * Performs the simulation, handing each state chosen by the {@link #samplingPolicy} to the {@link #savers}
+     * as soon as it is produced (i.e states are not retained, so memory use does not depend on the simulation's
+     * length).
+     * States are copied into preallocated {@link SolarSystemSnapshot}s, and saved by an {@link AsyncDataSaver}
+     * in its own thread, so the simulation only waits for the output when the buffer is full.
+     * If enabled, checkpoints are saved by a {@link CheckpointWriter}, also in its own thread, together with the
+     * state of every output file (i.e the output's writer thread takes them after saving the states buffered before
+     * the checkpoint, so the files match it, and the simulation does not wait for it).
+     * When resuming, the simulation continues from the checkpoint exactly as the original run would have,
+     * and every output file is continued from the checkpoint (i.e anything saved after it is discarded).
+     * When the time step is adaptive, steps are shortened to end exactly at the sampling policy's next sample time
+     * (if any), so output states keep a uniform time grid.
+     * If an events file or stop events are set, the ship's events are logged and saved as soon as they happen,
+     * and the simulation stops at the end of the step in which a stop event happened.
+     * The simulation is also stopped as soon as the {@link #terminationCondition} says so, logging the reason.
+     * If enabled, the {@link #conservationMonitor} measures the energy and angular momentum drifts, saving them
+     * as soon as they are measured, and their summary is logged at the end (when resuming, it continues from its
+     * state in the checkpoint).
+     *
+     * @throws IOException              If any output file could not be opened or closed.
+     * @throws IllegalArgumentException If resuming, and any existing output file has no state in the checkpoint
+     *                                  (i.e it would be overwritten), or is shorter than when it was taken.
+     */
+    private void simulate() throws IOException {
+        long step = 0;
+        final SolarSystemCheckpoint checkpoint = resume ?
+                SolarSystemCheckpoint.load(Paths.get(checkpointFilePath)) : null;
+        final EventsFileSaver eventsOutput = eventsFilePath.isEmpty() ? null : new EventsFileSaver(eventsFilePath);
+        final ConservationFileSaver conservationOutput = conservationFilePath.isEmpty() ? null :
+                new ConservationFileSaver(conservationFilePath);
+        // Before restoring the checkpoint, so the monitor continues from its saved state
+        if (conservationMonitor != null) {
+            solarSystem.monitorConservation(conservationMonitor,
+                    monitor -> onConservation(monitor, conservationOutput));
+        }
+        if (checkpoint != null) {
+            solarSystem.restore(checkpoint);
+            samplingPolicy.setCursor(checkpoint.getSamplingCursor());
+            terminationCondition.setCursor(checkpoint.getTerminationCursor());
+            step = checkpoint.getStep();
+            LOGGER.info("Resuming simulation from step {}...", step);
+        } else {
+            LOGGER.info("Starting simulation...");
+        }
+        final Consumer<SolarSystemSnapshot> snapshot = solarSystem::snapshot;
+        final List<ResumableSaver> outputs = savers.stream()
+                .filter(saver -> saver instanceof ResumableSaver)
+                .map(saver -> (ResumableSaver) saver)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (eventsOutput != null) {
+            outputs.add(eventsOutput);
+        }
+        if (conservationOutput != null) {
+            outputs.add(conservationOutput);
+        }
+        if (checkpoint != null) {
+            // Before anything can be closed, as closing an output that was not continued would overwrite its file
+            resumeOutputs(outputs, checkpoint);
+        }
+        // Closed in reverse order, so the output writer saves everything (and hands over the last checkpoint) first
+        try (EventsFileSaver events = eventsOutput;
+             ConservationFileSaver conservation = conservationOutput;
+             CheckpointWriter checkpoints = checkpointFilePath.isEmpty() ? null :
+                     new CheckpointWriter(checkpointFilePath, checkpointSteps, solarSystem, outputs);
+             AsyncDataSaver<SolarSystemSnapshot> output =
+                     new AsyncDataSaver<>(savers, outputBufferSize, solarSystem::newSnapshot)) {
+            outputWriter = output;
+            if (events != null || !stopEvents.isEmpty()) {
+                solarSystem.watchEvents(event -> onEvent(event, events));
+            }
+            if (!resume && samplingPolicy.sample(step, solarSystem)) {
+                output.save(snapshot);
+            }
+            while (!solarSystem.finishMovement() && stopReason == null) {
+                solarSystem.setStopTime(samplingPolicy.getNextSampleTime());
+                solarSystem.update();
+                step++;
+                if (samplingPolicy.sample(step, solarSystem)) {
+                    output.save(snapshot);
+                }
+                if (stopReason == null) {
+                    stopReason = terminationCondition.check(solarSystem);
+                }
+                // After the termination check, so its cursor includes this step (i.e it is not checked again)
+                if (checkpoints != null && stopReason == null) {
+                    checkpoints.checkpoint(solarSystem, step, loopState -> {
+                        loopState.setSamplingCursor(samplingPolicy.getCursor());
+                        loopState.setTerminationCursor(terminationCondition.getCursor());
+                    }, output);
+                }
+            }
+            if (checkpoints != null && checkpoints.getSkippedCheckpoints() > 0) {
+                LOGGER.warn("Skipped {} checkpoints, as the previous one was still pending",
+                        checkpoints.getSkippedCheckpoints());
+            }
+            if (conservation != null) {
+                final long measurements = conservationMonitor.getMeasurements();
+                final double maximumEnergyDrift = conservationMonitor.getMaximumEnergyDrift();
+                final double maximumAngularMomentumDrift = conservationMonitor.getMaximumAngularMomentumDrift();
+                output.execute(() -> conservation.saveSummary(measurements, maximumEnergyDrift,
+                        maximumAngularMomentumDrift));
+            }
+        }
+        if (conservationMonitor != null) {
+            LOGGER.info("Measured {} drifts (maximum energy drift: {}, maximum angular momentum drift: {})",
+                    conservationMonitor.getMeasurements(), conservationMonitor.getMaximumEnergyDrift(),
+                    conservationMonitor.getMaximumAngularMomentumDrift());
+        }
+        if (stopReason != null) {
+            LOGGER.info("Stopped simulation at {} seconds: {}", solarSystem.getActualTime(), stopReason);
+        }
+        LOGGER.info("Finished simulation after {} steps and saved output in all formats.", step);
+    }
+
+    /**
+     * Continues each of the given {@code outputs} from its state in the given {@code checkpoint}.
+     *
+     * @param outputs    The {@link ResumableSaver}s.
+     * @param checkpoint The {@link SolarSystemCheckpoint} from which the simulation is resumed.
+     * @throws IOException              If any output file could not be opened.
+     * @throws IllegalArgumentException If any existing output file has no state in the checkpoint
+     *                                  (i.e it would be overwritten), or is shorter than when it was taken.
+     */
+    private static void resumeOutputs(List<ResumableSaver> outputs, SolarSystemCheckpoint checkpoint)
+            throws IOException {
+        // Every output is checked before any file is truncated
+        for (ResumableSaver output : outputs) {
+            if (checkpoint.getOutputState(output.getFilePath()) == null
+                    && Files.exists(Paths.get(output.getFilePath()))) {
+                throw new IllegalArgumentException("The checkpoint has no state for " + output.getFilePath()
+                        + ", so resuming would overwrite it");
+            }
+        }
+        for (ResumableSaver output : outputs) {
+            final byte[] state = checkpoint.getOutputState(output.getFilePath());
+            if (state != null) {
+                output.resume(state);
+            }
+        }
+    }
+
+    /**
+     * Logs the given {@code event}, saves it into the given {@code events} file (through the {@link #outputWriter}),
+     * and stops the simulation if it matches any of the {@link #stopEvents}.
+     *
+     * @param event  The {@link Event} that happened.
+     * @param events The {@link EventsFileSaver} (or {@code null} if there is no events file).
+     */
+    private void onEvent(Event event, EventsFileSaver events) {
+        LOGGER.info("{} with {} at {} seconds (distance: {} meters, relative speed: {} meters over seconds)",
+                event.getType(), event.getBodyName(), event.getTime(), event.getDistance(), event.getRelativeSpeed());
+        if (events != null) {
+            outputWriter.execute(() -> events.save(event));
+        }
+        if (stopReason == null && stopEvents.stream().anyMatch(condition -> condition.matches(event))) {
+            stopReason = "Stop event " + event.getType() + " with " + event.getBodyName()
+                    + " at " + event.getTime() + " seconds";
+        }
+    }
+
+    /**
+     * Saves the last measurement of the given {@code monitor} into the given {@code conservation} file (through the
+     * {@link #outputWriter}), and warns or stops the simulation (depending on the monitor's action) if the drift is
+     * beyond the budget.
+     *
+     * @param monitor      The {@link ConservationMonitor} that took the measurement.
+     * @param conservation The {@link ConservationFileSaver} (or {@code null} if there is no conservation file).
+     */
+    private void onConservation(ConservationMonitor monitor, ConservationFileSaver conservation) {
+        if (conservation != null) {
+            final double time = monitor.getTime();
+            final double energyDrift = monitor.getEnergyDrift();
+            final double angularMomentumDrift = monitor.getAngularMomentumDrift();
+            final double accuracyFactor = monitor.getAccuracyFactor();
+            outputWriter.execute(() -> conservation.save(time, energyDrift, angularMomentumDrift, accuracyFactor));
+        }
+        if (!monitor.isOverBudget()) {
+            return;
+        }
+        if (monitor.getAction() == DriftAction.ABORT) {
+            if (stopReason == null) {
+                stopReason = "Drift beyond the budget of " + monitor.getDriftBudget() + " (energy: "
+                        + monitor.getEnergyDrift() + ", angular momentum: " + monitor.getAngularMomentumDrift() + ")";
+            }
+        } else if (!driftWarned) {
+            LOGGER.warn("Drift beyond the budget of {} at {} seconds (energy: {}, angular momentum: {})",
+                    monitor.getDriftBudget(), monitor.getTime(), monitor.getEnergyDrift(),
+                    monitor.getAngularMomentumDrift());
+            driftWarned = true;
+        }
+    }
+
+    /**
+     * Performs the launch-window sweep, streaming each result into the sweep summary file.
+     *
+     * @throws IOException If the sweep summary file could not be closed.
      */
-    private void simulate() {
-        LOGGER.info("Starting simulation...");
-        this.engine.simulate(SolarSystem::finishMovement);
-        LOGGER.info("Finished simulation");
+    private void sweep() throws IOException {
+        LOGGER.info("Starting launch sweep...");
+        try (LaunchSweepFileSaver saver =
+                     new LaunchSweepFileSaver(sweepFilePath, launchSweep.getSimulation().getBodiesNames())) {
+            launchSweep.run(saver::save);
+        }
+        LOGGER.info("Finished launch sweep");
     }
 
     /**
-     * Performs the save phase of the program.
+     * Performs the convergence study, logging each run and the largest time step that meets the tolerance,
+     * and saving them into the convergence study file.
      */
-    private void save() {
-        LOGGER.info("Saving outputs...");
-        this.ovitoFileSaver.save(new LinkedList<>(this.engine.getResults()));
-        this.trajectoryFileSaver.save(new LinkedList<>(this.engine.getResults()));
-        this.distancesFileSaver.save(new LinkedList<>(this.engine.getResults()));
-        this.speedFileSaver.save(new LinkedList<>(this.engine.getResults()));
-        LOGGER.info("Finished saving output in all formats.");
+    private void studyConvergence() {
+        LOGGER.info("Starting convergence study (time steps: {})...",
+                Arrays.toString(convergenceStudy.getTimeSteps()));
+        final List<ConvergenceResult> results = convergenceStudy.run();
+        for (ConvergenceResult result : results) {
+            LOGGER.info("Time step {}: {} steps in {} seconds (position error: {} meters, "
+                            + "closest approach error: {} meters, observed order: {})",
+                    result.getTimeStep(), result.getSteps(), result.getWallTime(), result.getPositionError(),
+                    result.getClosestApproachError(), result.getOrder());
+        }
+        final ConvergenceResult largest = ConvergenceStudy.largestTimeStep(results, convergenceTolerance);
+        if (largest == null) {
+            LOGGER.warn("No time step meets the tolerance of {} meters", convergenceTolerance);
+        } else {
+            LOGGER.info("The largest time step within a tolerance of {} meters is {} seconds",
+                    convergenceTolerance, largest.getTimeStep());
+        }
+        new ConvergenceFileSaver(convergenceFilePath).save(results, convergenceTolerance, largest);
+        LOGGER.info("Finished convergence study");
     }
 
     /**
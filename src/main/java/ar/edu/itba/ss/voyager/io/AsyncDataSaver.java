@@ -0,0 +1,307 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hands states over to a set of {@link StreamingDataSaver}s running in a dedicated writer thread,
+ * so formatting and writing output does not slow down the simulation loop.
+ * States travel through a bounded single-producer/single-consumer ring buffer of preallocated slots:
+ * the producer fills the next free slot in place (i.e no object is allocated per state),
+ * and only blocks when the buffer is full (i.e when the writer falls behind).
+ * Tasks can be handed over through the same buffer (see {@link #execute(Runnable)}), so they run in the writer
+ * thread in sequence with the states (e.g to save anything else into the files, or to take the savers' checkpoints).
+ * This class is not thread safe on the producer side: {@link #save(Consumer)}, {@link #execute(Runnable)} and
+ * {@link #close()} must always be called from the same thread.
+ *
+ * @param <S> The type of state being saved.
+ */
+public class AsyncDataSaver<S> implements Closeable {
+
+    /**
+     * Amount of idle rounds spent yielding before parking.
+     */
+    private static final int YIELDING_ROUNDS = 100;
+
+    /**
+     * Maximum amount of nanoseconds a thread parks while waiting for the other one
+     * (i.e threads are unparked by the other one, but they also wake up on their own just in case).
+     */
+    private static final long PARK_NANOS = 1_000_000;
+
+    /**
+     * The {@link StreamingDataSaver}s to which each state is handed (in the writer thread).
+     */
+    private final List<? extends StreamingDataSaver<S>> savers;
+
+    /**
+     * The ring buffer's slots.
+     */
+    private final Object[] slots;
+
+    /**
+     * The tasks handed over in place of a state, at the same index as the slot they take
+     * (i.e {@code null} for the slots that hold a state).
+     */
+    private final Runnable[] tasks;
+
+    /**
+     * Mask used to obtain a slot's index from a sequence number (i.e the amount of slots is a power of 2).
+     */
+    private final int mask;
+
+    /**
+     * Sequence number of the next slot to be consumed (only written by the writer thread).
+     */
+    private final AtomicLong head;
+
+    /**
+     * Sequence number of the next slot to be filled (only written by the producer thread).
+     */
+    private final AtomicLong tail;
+
+    /**
+     * The writer thread.
+     */
+    private final Thread writer;
+
+    /**
+     * The producer thread (i.e the one that created this saver).
+     */
+    private final Thread producer;
+
+    /**
+     * Indicates whether the writer thread is parked (i.e it must be unparked when a slot is filled).
+     */
+    private volatile boolean writerParked;
+
+    /**
+     * Indicates whether the producer thread is parked (i.e it must be unparked when a slot is freed).
+     */
+    private volatile boolean producerParked;
+
+    /**
+     * Indicates whether the producer has finished (i.e the writer must stop once the buffer is drained).
+     */
+    private volatile boolean closed;
+
+    /**
+     * The failure that stopped the writer thread, if any.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Constructor. Starts the writer thread.
+     *
+     * @param savers      The {@link StreamingDataSaver}s to which each state is handed.
+     * @param capacity    The minimum amount of states that can be buffered (rounded up to a power of 2).
+     * @param slotFactory A {@link Supplier} of the states used as slots (called once per slot).
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public AsyncDataSaver(List<? extends StreamingDataSaver<S>> savers, int capacity, Supplier<S> slotFactory) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be positive, and at most 2^30");
+        }
+        this.savers = savers;
+        this.slots = new Object[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = slotFactory.get();
+        }
+        this.tasks = new Runnable[slots.length];
+        this.mask = slots.length - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        this.producer = Thread.currentThread();
+        this.writer = new Thread(this::write, "output-writer");
+        this.writer.start();
+    }
+
+    /**
+     * Fills the next free slot with the given {@code filler}, and hands it over to the writer thread.
+     * Blocks while the buffer is full.
+     *
+     * @param filler A {@link Consumer} that sets the state into the given slot
+     *               (the slot must not be retained, as it is reused once written).
+     * @throws UncheckedIOException  If the writer thread failed to save a state.
+     * @throws IllegalStateException If the writer thread failed for any other reason, or this saver is closed.
+     */
+    public void save(Consumer<S> filler) {
+        final long sequence = claim();
+        filler.accept(slot(sequence));
+        publish(sequence);
+    }
+
+    /**
+     * Hands the given {@code task} over to the writer thread, which runs it once every state saved so far is handed
+     * to the savers, and before any state saved afterwards (i.e the savers are not saving any state meanwhile).
+     * Blocks while the buffer is full.
+     *
+     * @param task The {@link Runnable} to be run in the writer thread (a failure stops the writer thread,
+     *             just like a failure to save a state).
+     * @throws UncheckedIOException  If the writer thread failed to save a state.
+     * @throws IllegalStateException If the writer thread failed for any other reason, or this saver is closed.
+     */
+    public void execute(Runnable task) {
+        final long sequence = claim();
+        tasks[(int) (sequence & mask)] = task;
+        publish(sequence);
+    }
+
+    /**
+     * Waits until the next slot is free.
+     *
+     * @return The sequence number of the next slot (i.e the one to be filled).
+     * @throws UncheckedIOException  If the writer thread failed to save a state.
+     * @throws IllegalStateException If the writer thread failed for any other reason, or this saver is closed.
+     */
+    private long claim() {
+        if (closed) {
+            throw new IllegalStateException("The saver is already closed");
+        }
+        final long sequence = tail.get();
+        int idleRounds = 0;
+        while (sequence - head.get() >= slots.length) {
+            checkFailure();
+            if (idleRounds++ < YIELDING_ROUNDS) {
+                Thread.yield();
+            } else {
+                producerParked = true;
+                if (sequence - head.get() >= slots.length && failure == null) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                producerParked = false;
+            }
+        }
+        checkFailure();
+        return sequence;
+    }
+
+    /**
+     * Hands the filled slot over to the writer thread.
+     *
+     * @param sequence The sequence number of the filled slot.
+     */
+    private void publish(long sequence) {
+        tail.set(sequence + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Waits until the writer thread saves every buffered state (and runs every task), and then closes the savers.
+     *
+     * @throws IOException           If any saver could not be closed (the rest of the failures are suppressed).
+     * @throws UncheckedIOException  If the writer thread failed to save a state.
+     * @throws IllegalStateException If the writer thread failed for any other reason, or if interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the output writer", e);
+        }
+        IOException exception = null;
+        for (StreamingDataSaver<S> saver : savers) {
+            try {
+                saver.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        checkFailure();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * The writer thread's loop: hands each filled slot to the savers (or runs its task), until the producer finishes.
+     */
+    private void write() {
+        try {
+            long sequence = head.get();
+            int idleRounds = 0;
+            while (true) {
+                if (sequence < tail.get()) {
+                    final int index = (int) (sequence & mask);
+                    final Runnable task = tasks[index];
+                    if (task == null) {
+                        final S state = slot(sequence);
+                        for (StreamingDataSaver<S> saver : savers) {
+                            saver.save(state);
+                        }
+                    } else {
+                        tasks[index] = null; // Before the slot is freed, so the producer can reuse it
+                        task.run();
+                    }
+                    sequence++;
+                    head.set(sequence);
+                    if (producerParked) {
+                        LockSupport.unpark(producer);
+                    }
+                    idleRounds = 0;
+                } else if (closed) {
+                    if (sequence >= tail.get()) {
+                        return; // The producer's last state (or task) was already handed over
+                    }
+                } else if (idleRounds++ < YIELDING_ROUNDS) {
+                    Thread.yield();
+                } else {
+                    writerParked = true;
+                    if (sequence >= tail.get() && !closed) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    writerParked = false;
+                }
+            }
+        } catch (Throwable e) {
+            failure = e;
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Throws the writer thread's failure, if any.
+     *
+     * @throws UncheckedIOException  If the writer thread failed to save a state.
+     * @throws IllegalStateException If the writer thread failed for any other reason.
+     */
+    private void checkFailure() {
+        final Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof UncheckedIOException) {
+            throw new UncheckedIOException("The output writer failed", ((UncheckedIOException) failure).getCause());
+        }
+        throw new IllegalStateException("The output writer failed", failure);
+    }
+
+    /**
+     * @param sequence The sequence number.
+     * @return The slot for the given {@code sequence} number.
+     */
+    @SuppressWarnings("unchecked")
+    private S slot(long sequence) {
+        return (S) slots[(int) (sequence & mask)];
+    }
+}
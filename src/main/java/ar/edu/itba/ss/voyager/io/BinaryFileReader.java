@@ -0,0 +1,444 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.BodyType;
+
+import java.awt.Color;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a file written by a {@link BinaryFileSaver}, without loading the whole file.
+ * Uncompressed frames are memory-mapped, so any sample can be accessed directly,
+ * and instances can be shared by several threads.
+ * Compressed blocks are located through the block index, and the last inflated one is cached,
+ * so samples are best accessed in order (and instances must not be shared by several threads).
+ */
+public class BinaryFileReader implements Closeable {
+
+    /**
+     * Maximum size of each mapped segment (i.e a mapping is limited to 2 GB).
+     */
+    private static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * The {@link FileChannel} from which the file is read.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The amount of bodies.
+     */
+    private final int amountOfBodies;
+
+    /**
+     * The ship's index.
+     */
+    private final int shipIndex;
+
+    /**
+     * The (nominal) amount of time between two samples.
+     */
+    private final double outputTimeStep;
+
+    /**
+     * The integration time step.
+     */
+    private final double integrationTimeStep;
+
+    /**
+     * The amount of samples (i.e counted from the file's size if the saver was not closed,
+     * and the frames are not compressed).
+     */
+    private final long amountOfSamples;
+
+    /**
+     * The description of the sampling policy used to choose the samples.
+     */
+    private final String samplingDescription;
+
+    /**
+     * The bodies' types.
+     */
+    private final BodyType[] types;
+
+    /**
+     * The bodies' colors.
+     */
+    private final Color[] colors;
+
+    /**
+     * The bodies' names.
+     */
+    private final String[] names;
+
+    /**
+     * The compression applied to the frames.
+     */
+    private final BinaryFileSaver.Compression compression;
+
+    /**
+     * The encoding applied to each value in a compressed block.
+     */
+    private final BinaryFileSaver.Encoding encoding;
+
+    /**
+     * The size of a frame (in bytes).
+     */
+    private final int frameSize;
+
+    /**
+     * The amount of frames in each mapped segment.
+     */
+    private final int framesPerSegment;
+
+    /**
+     * The mapped segments, each one holding {@link #framesPerSegment} frames (except for the last one),
+     * or {@code null} if the file is compressed.
+     */
+    private final ByteBuffer[] segments;
+
+    /**
+     * The amount of frames per block (only with compression).
+     */
+    private final int framesPerBlock;
+
+    /**
+     * The position of each block, followed by the end of the last one (only with compression).
+     */
+    private final long[] blockPositions;
+
+    /**
+     * The {@link Inflater} used to decompress blocks (only with compression).
+     */
+    private final Inflater inflater;
+
+    /**
+     * The buffer into which a block is inflated (only with compression).
+     */
+    private final byte[] inflatedBlock;
+
+    /**
+     * The values of the last inflated block, by column (only with compression).
+     */
+    private final double[] block;
+
+    /**
+     * The index of the last inflated block (-1 if none).
+     */
+    private int blockIndex;
+
+    /**
+     * Constructor. Reads the header, and maps the frames.
+     *
+     * @param filePath Path to the file to be read.
+     * @throws UncheckedIOException     If the file could not be read.
+     * @throws IllegalArgumentException If the file is not a valid binary file.
+     */
+    public BinaryFileReader(String filePath) {
+        try {
+            this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            final ByteBuffer fixedHeader = read(0, BinaryFileSaver.FIXED_HEADER_SIZE);
+            if (fixedHeader.getInt() != BinaryFileSaver.MAGIC) {
+                throw new IllegalArgumentException(filePath + " is not a binary Voyager file");
+            }
+            final int version = fixedHeader.getInt();
+            if (version != BinaryFileSaver.VERSION) {
+                throw new IllegalArgumentException("Unsupported binary file version: " + version);
+            }
+            this.amountOfBodies = fixedHeader.getInt();
+            this.shipIndex = fixedHeader.getInt();
+            this.outputTimeStep = fixedHeader.getDouble();
+            this.integrationTimeStep = fixedHeader.getDouble();
+            final long savedSamples = fixedHeader.getLong();
+            final long indexPosition = fixedHeader.getLong();
+            this.compression = BinaryFileSaver.Compression.values()[fixedHeader.getInt()];
+            this.encoding = BinaryFileSaver.Encoding.values()[fixedHeader.getInt()];
+            this.framesPerBlock = fixedHeader.getInt();
+            long position = fixedHeader.limit();
+            final int descriptionLength = fixedHeader.getInt();
+            this.samplingDescription = new String(read(position, descriptionLength).array(), StandardCharsets.UTF_8);
+            position += descriptionLength;
+            this.types = new BodyType[amountOfBodies];
+            this.colors = new Color[amountOfBodies];
+            this.names = new String[amountOfBodies];
+            for (int i = 0; i < amountOfBodies; i++) {
+                final ByteBuffer bodyHeader = read(position, 3 * Integer.BYTES);
+                types[i] = BodyType.values()[bodyHeader.getInt()];
+                colors[i] = new Color(bodyHeader.getInt());
+                final int nameLength = bodyHeader.getInt();
+                names[i] = new String(read(position + 3 * Integer.BYTES, nameLength).array(), StandardCharsets.UTF_8);
+                position += 3 * Integer.BYTES + nameLength;
+            }
+            final long dataPosition = BinaryFileSaver.dataPosition((int) position);
+            this.frameSize = BinaryFileSaver.frameSize(amountOfBodies);
+            this.framesPerSegment = MAX_SEGMENT_SIZE / frameSize;
+            this.blockIndex = -1;
+            if (compression == BinaryFileSaver.Compression.NONE) {
+                // The amount of samples is only written when the saver is closed (i.e it is 0 if the simulation
+                // crashed), but uncompressed frames have fixed size, so the whole ones can be counted
+                this.amountOfSamples = savedSamples > 0 ? savedSamples :
+                        Math.max(0, channel.size() - dataPosition) / frameSize;
+                this.segments = new ByteBuffer[(int) ((amountOfSamples + framesPerSegment - 1) / framesPerSegment)];
+                for (int segment = 0; segment < segments.length; segment++) {
+                    final long firstFrame = (long) segment * framesPerSegment;
+                    final long frames = Math.min(framesPerSegment, amountOfSamples - firstFrame);
+                    segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            dataPosition + firstFrame * frameSize, frames * frameSize)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                }
+                this.blockPositions = null;
+                this.inflater = null;
+                this.inflatedBlock = null;
+                this.block = null;
+            } else {
+                // The block index is only written when the saver is closed, so blocks cannot be located without it
+                this.amountOfSamples = savedSamples;
+                final int blocks = (int) ((amountOfSamples + framesPerBlock - 1) / framesPerBlock);
+                this.segments = null;
+                this.blockPositions = new long[blocks + 1];
+                read(indexPosition, blockPositions.length * Long.BYTES).asLongBuffer().get(blockPositions);
+                this.inflater = new Inflater();
+                this.block = new double[framesPerBlock * (frameSize / Double.BYTES)];
+                this.inflatedBlock = new byte[block.length * Double.BYTES];
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the binary file " + filePath, e);
+        }
+    }
+
+    /**
+     * Reads a part of the file (i.e the header).
+     *
+     * @param position The position of the first byte.
+     * @param length   The amount of bytes.
+     * @return A little-endian {@link ByteBuffer} with the read bytes, ready to be read.
+     * @throws IOException If the bytes could not be read.
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Unexpected end of binary file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Closes the file. Mapped segments are released when garbage collected,
+     * so values must not be read after closing.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (inflater != null) {
+            inflater.end();
+        }
+        channel.close();
+    }
+
+    /**
+     * @return The compression applied to the frames.
+     */
+    public BinaryFileSaver.Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return The encoding applied to each value in a compressed block.
+     */
+    public BinaryFileSaver.Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return The amount of bodies.
+     */
+    public int getAmountOfBodies() {
+        return amountOfBodies;
+    }
+
+    /**
+     * @return The ship's index.
+     */
+    public int getShipIndex() {
+        return shipIndex;
+    }
+
+    /**
+     * @return The (nominal) amount of time between two samples.
+     */
+    public double getOutputTimeStep() {
+        return outputTimeStep;
+    }
+
+    /**
+     * @return The integration time step.
+     */
+    public double getIntegrationTimeStep() {
+        return integrationTimeStep;
+    }
+
+    /**
+     * @return The amount of samples (i.e counted from the file's size if the saver was not closed,
+     * and the frames are not compressed).
+     */
+    public long getAmountOfSamples() {
+        return amountOfSamples;
+    }
+
+    /**
+     * @return The description of the sampling policy used to choose the samples.
+     */
+    public String getSamplingDescription() {
+        return samplingDescription;
+    }
+
+    /**
+     * @param body The body's index.
+     * @return The body's type.
+     */
+    public BodyType getType(int body) {
+        return types[body];
+    }
+
+    /**
+     * @param body The body's index.
+     * @return The body's color.
+     */
+    public Color getColor(int body) {
+        return colors[body];
+    }
+
+    /**
+     * @param body The body's index.
+     * @return The body's name.
+     */
+    public String getName(int body) {
+        return names[body];
+    }
+
+    /**
+     * @param sample The sample's index.
+     * @return The sample's time (in seconds since the beginning of the simulation).
+     */
+    public double getTime(long sample) {
+        return value(sample, 0);
+    }
+
+    /**
+     * @param sample The sample's index.
+     * @param body   The body's index.
+     * @return The 'x' component of the body's position in the given sample.
+     */
+    public double getPositionX(long sample, int body) {
+        return value(sample, 1 + body * BinaryFileSaver.VALUES_PER_BODY);
+    }
+
+    /**
+     * @param sample The sample's index.
+     * @param body   The body's index.
+     * @return The 'y' component of the body's position in the given sample.
+     */
+    public double getPositionY(long sample, int body) {
+        return value(sample, 2 + body * BinaryFileSaver.VALUES_PER_BODY);
+    }
+
+    /**
+     * @param sample The sample's index.
+     * @param body   The body's index.
+     * @return The 'x' component of the body's velocity in the given sample.
+     */
+    public double getVelocityX(long sample, int body) {
+        return value(sample, 3 + body * BinaryFileSaver.VALUES_PER_BODY);
+    }
+
+    /**
+     * @param sample The sample's index.
+     * @param body   The body's index.
+     * @return The 'y' component of the body's velocity in the given sample.
+     */
+    public double getVelocityY(long sample, int body) {
+        return value(sample, 4 + body * BinaryFileSaver.VALUES_PER_BODY);
+    }
+
+    /**
+     * Reads a value of a frame.
+     *
+     * @param sample The sample's index.
+     * @param value  The value's index within the frame.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the sample does not exist.
+     * @throws UncheckedIOException      If the sample's block could not be read.
+     * @throws IllegalArgumentException  If the sample's block is corrupted.
+     */
+    private double value(long sample, int value) {
+        if (sample < 0 || sample >= amountOfSamples) {
+            throw new IndexOutOfBoundsException("Sample " + sample + " does not exist");
+        }
+        if (segments != null) {
+            final ByteBuffer segment = segments[(int) (sample / framesPerSegment)];
+            return segment.getDouble((int) (sample % framesPerSegment) * frameSize + value * Double.BYTES);
+        }
+        final int index = (int) (sample / framesPerBlock);
+        if (index != blockIndex) {
+            inflate(index);
+        }
+        return block[value * framesPerBlock + (int) (sample % framesPerBlock)];
+    }
+
+    /**
+     * Inflates and decodes the given block into {@link #block}.
+     *
+     * @param index The block's index.
+     * @throws UncheckedIOException     If the block could not be read.
+     * @throws IllegalArgumentException If the block is corrupted.
+     */
+    private void inflate(int index) {
+        final int frames = (int) Math.min(framesPerBlock, amountOfSamples - (long) index * framesPerBlock);
+        final int length = frames * frameSize;
+        try {
+            final ByteBuffer compressed = read(blockPositions[index],
+                    (int) (blockPositions[index + 1] - blockPositions[index]));
+            inflater.setInput(compressed.array());
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                final int bytes = inflater.inflate(inflatedBlock, inflated, length - inflated);
+                if (bytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += bytes;
+            }
+            if (inflated != length) {
+                throw new IllegalArgumentException("Block " + index + " is truncated");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read block " + index, e);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Block " + index + " is corrupted", e);
+        } finally {
+            inflater.reset();
+        }
+        final ByteBuffer encoded = ByteBuffer.wrap(inflatedBlock, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int column = 0; column < block.length / framesPerBlock; column++) {
+            long previousBits = 0;
+            for (int frame = 0; frame < frames; frame++) {
+                final long bits = encoding.decode(encoded.getLong(), previousBits);
+                block[column * framesPerBlock + frame] = Double.longBitsToDouble(bits);
+                previousBits = bits;
+            }
+        }
+        blockIndex = index;
+    }
+}
@@ -0,0 +1,587 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link StreamingDataSaver} that outputs every body's state in a compact binary format,
+ * written through a {@link FileChannel} (see {@link BinaryFileReader} for reading it).
+ * <p>
+ * All values are little-endian. The file starts with a header:
+ * <ul>
+ * <li>The {@link #MAGIC} number and the {@link #VERSION} ({@code int}s).</li>
+ * <li>The amount of bodies ({@code int}) and the ship's index ({@code int}).</li>
+ * <li>The output time step and the integration time step ({@code double}s).</li>
+ * <li>The amount of samples, and the position of the block index ({@code long}s, written when the saver is closed,
+ * so they are 0 if it was not; without compression, the reader then counts the whole frames in the file).</li>
+ * <li>The {@link Compression} and {@link Encoding} ordinals, and the amount of frames per block ({@code int}s).</li>
+ * <li>The sampling policy's description ({@code int} length, and UTF-8 bytes).</li>
+ * <li>For each body: its type's ordinal, its RGB color ({@code int}s), and its name
+ * ({@code int} length, and UTF-8 bytes).</li>
+ * <li>Padding up to a multiple of 8 bytes.</li>
+ * </ul>
+ * Each sample is a frame with its time, followed by the position and velocity components
+ * of each body (i.e {@code x}, {@code y}, {@code vx}, {@code vy}), all of them {@code double}s.
+ * <p>
+ * Without compression, frames are written one after the other. As they have fixed size,
+ * any sample can be read without reading the previous ones.
+ * <p>
+ * With {@link Compression#DEFLATE}, frames are grouped in blocks, which are compressed independently,
+ * so any block can be inflated without inflating the previous ones. Inside a block, values are stored
+ * by column (i.e all the times, then all the 'x' components of the first body, and so on),
+ * optionally encoded against the previous value in the same column (see {@link Encoding}).
+ * The block index, written after the last block, holds the position of each block, and the end of the last one
+ * ({@code long}s).
+ * <p>
+ * A resumed simulation continues the file from the checkpoint (see {@link ResumableSaver}). With compression,
+ * the checkpoint also holds the frames of the block being collected (i.e they are not written until it is full).
+ */
+public class BinaryFileSaver implements StreamingDataSaver<SolarSystemSnapshot>, ResumableSaver {
+
+    /**
+     * Magic number at the beginning of the file (i.e "VOYB" in ASCII).
+     */
+    /* package */ static final int MAGIC = 0x42594F56;
+
+    /**
+     * Version of the format.
+     */
+    /* package */ static final int VERSION = 2;
+
+    /**
+     * Position of the amount of samples in the header.
+     */
+    /* package */ static final long SAMPLES_POSITION = 4 * Integer.BYTES + 2 * Double.BYTES;
+
+    /**
+     * Position of the block index's position in the header.
+     */
+    /* package */ static final long INDEX_POSITION = SAMPLES_POSITION + Long.BYTES;
+
+    /**
+     * Size of the header's fixed part (i.e up to the length of the sampling policy's description).
+     */
+    /* package */ static final int FIXED_HEADER_SIZE = (int) INDEX_POSITION + Long.BYTES + 4 * Integer.BYTES;
+
+    /**
+     * Amount of values per body in each frame.
+     */
+    /* package */ static final int VALUES_PER_BODY = 4;
+
+    /**
+     * Size of the buffer in which frames are collected before being written (in bytes, at least one frame).
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Uncompressed size of each block (in bytes, at least one frame).
+     */
+    private static final int BLOCK_SIZE = 1 << 18;
+
+    /**
+     * The compression applied to the frames.
+     */
+    public enum Compression {
+        /**
+         * Frames are not compressed.
+         */
+        NONE,
+        /**
+         * Frames are grouped in blocks, which are compressed with a {@link Deflater}.
+         */
+        DEFLATE
+    }
+
+    /**
+     * The encoding applied to each value in a compressed block, against the previous value in the same column.
+     * The first value in each column of a block is encoded against zero, so blocks are independent.
+     * Both encodings work on the values' bits, so they are lossless.
+     */
+    public enum Encoding {
+        /**
+         * Values are stored as they are.
+         */
+        NONE {
+            @Override
+            /* package */ long encode(long bits, long previousBits) {
+                return bits;
+            }
+
+            @Override
+            /* package */ long decode(long encoded, long previousBits) {
+                return encoded;
+            }
+        },
+        /**
+         * Values are stored XOR-ed with the previous one (i.e similar values share their sign,
+         * exponent and high order mantissa bits, so the result has many leading zeros).
+         */
+        XOR {
+            @Override
+            /* package */ long encode(long bits, long previousBits) {
+                return bits ^ previousBits;
+            }
+
+            @Override
+            /* package */ long decode(long encoded, long previousBits) {
+                return encoded ^ previousBits;
+            }
+        },
+        /**
+         * Values are stored as the difference between their bits and the previous one's
+         * (i.e smoothly changing values with the same sign and exponent give small differences).
+         */
+        DELTA {
+            @Override
+            /* package */ long encode(long bits, long previousBits) {
+                return bits - previousBits;
+            }
+
+            @Override
+            /* package */ long decode(long encoded, long previousBits) {
+                return encoded + previousBits;
+            }
+        };
+
+        /**
+         * @param bits         The value's bits.
+         * @param previousBits The previous value's bits.
+         * @return The encoded value.
+         */
+        /* package */ abstract long encode(long bits, long previousBits);
+
+        /**
+         * @param encoded      The encoded value.
+         * @param previousBits The previous value's bits.
+         * @return The value's bits.
+         */
+        /* package */ abstract long decode(long encoded, long previousBits);
+    }
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * The {@link SamplingPolicy} used to choose the output snapshots.
+     */
+    private final SamplingPolicy samplingPolicy;
+
+    /**
+     * The integration time step.
+     */
+    private final double timeStep;
+
+    /**
+     * The compression applied to the frames.
+     */
+    private final Compression compression;
+
+    /**
+     * The encoding applied to each value in a compressed block.
+     */
+    private final Encoding encoding;
+
+    /**
+     * The {@link FileChannel} to which frames are written (lazily initialized).
+     */
+    private FileChannel channel;
+
+    /**
+     * The buffer in which frames (or compressed blocks) are collected before being written.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The amount of bodies in each frame.
+     */
+    private int bodies;
+
+    /**
+     * Amount of saved samples.
+     */
+    private long samples;
+
+    /**
+     * The amount of frames per block (only with compression).
+     */
+    private int framesPerBlock;
+
+    /**
+     * The values of the block being collected, by column (only with compression).
+     */
+    private double[] block;
+
+    /**
+     * The buffer in which a block is encoded before being compressed (only with compression).
+     */
+    private ByteBuffer encodedBlock;
+
+    /**
+     * The buffer into which a block is compressed (only with compression).
+     */
+    private byte[] compressedBlock;
+
+    /**
+     * The {@link Deflater} used to compress blocks (only with compression).
+     */
+    private Deflater deflater;
+
+    /**
+     * The position of each written block, followed by the end of the last one (only with compression).
+     */
+    private long[] blockPositions;
+
+    /**
+     * The amount of written blocks (only with compression).
+     */
+    private int blocks;
+
+    /**
+     * Constructor for an uncompressed file.
+     *
+     * @param filePath       Path to the file to be saved.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     */
+    public BinaryFileSaver(String filePath, SamplingPolicy samplingPolicy, double timeStep) {
+        this(filePath, samplingPolicy, timeStep, Compression.NONE, Encoding.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param filePath       Path to the file to be saved.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     * @param compression    The compression applied to the frames.
+     * @param encoding       The encoding applied to each value in a compressed block.
+     * @throws IllegalArgumentException If an encoding is requested without compression.
+     */
+    public BinaryFileSaver(String filePath, SamplingPolicy samplingPolicy, double timeStep,
+                           Compression compression, Encoding encoding) {
+        if (compression == Compression.NONE && encoding != Encoding.NONE) {
+            throw new IllegalArgumentException("Values can only be encoded in compressed files");
+        }
+        this.filePath = filePath;
+        this.samplingPolicy = samplingPolicy;
+        this.timeStep = timeStep;
+        this.compression = compression;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public void save(SolarSystemSnapshot snapshot) {
+        try {
+            if (channel == null) {
+                open(snapshot);
+            }
+            if (compression == Compression.NONE) {
+                saveFrame(snapshot);
+            } else {
+                saveIntoBlock(snapshot);
+            }
+            samples++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save a state into " + filePath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return; // Nothing was saved
+        }
+        try {
+            long indexPosition = 0;
+            if (compression == Compression.NONE) {
+                flush();
+            } else {
+                final int pendingFrames = (int) (samples % framesPerBlock);
+                if (pendingFrames > 0) {
+                    writeBlock(pendingFrames);
+                }
+                flush();
+                indexPosition = channel.position();
+                writeIndex(indexPosition);
+            }
+            final ByteBuffer counters = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            counters.putLong(samples).putLong(indexPosition).flip();
+            while (counters.hasRemaining()) {
+                channel.write(counters, SAMPLES_POSITION + counters.position());
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+            channel.close();
+        }
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public byte[] checkpoint() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream state = new DataOutputStream(bytes)) {
+            state.writeInt(compression.ordinal());
+            state.writeInt(encoding.ordinal());
+            if (channel == null) {
+                state.writeInt(-1); // Nothing was saved yet
+                return bytes.toByteArray();
+            }
+            flush();
+            state.writeInt(bodies);
+            state.writeLong(channel.position());
+            state.writeLong(samples);
+            if (compression != Compression.NONE) {
+                state.writeInt(blocks);
+                for (int i = 0; i < blocks; i++) {
+                    state.writeLong(blockPositions[i]);
+                }
+                final int pendingFrames = (int) (samples % framesPerBlock);
+                for (int column = 0; column < block.length / framesPerBlock; column++) {
+                    for (int frame = 0; frame < pendingFrames; frame++) {
+                        state.writeDouble(block[column * framesPerBlock + frame]);
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void resume(byte[] state) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(state))) {
+            if (input.readInt() != compression.ordinal() || input.readInt() != encoding.ordinal()) {
+                throw new IllegalArgumentException(filePath + " was saved with another compression or encoding");
+            }
+            final int bodies = input.readInt();
+            if (bodies < 0) {
+                return; // Nothing was saved, so the file is created when the first snapshot is saved
+            }
+            final long length = input.readLong();
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE);
+            if (channel.size() < length) {
+                channel.close();
+                channel = null;
+                throw new IllegalArgumentException(filePath + " is shorter than when the checkpoint was taken");
+            }
+            channel.truncate(length);
+            channel.position(length);
+            allocate(bodies);
+            samples = input.readLong();
+            if (compression != Compression.NONE) {
+                blocks = input.readInt();
+                blockPositions = new long[Math.max(blockPositions.length, Integer.highestOneBit(blocks + 1) << 1)];
+                for (int i = 0; i < blocks; i++) {
+                    blockPositions[i] = input.readLong();
+                }
+                final int pendingFrames = (int) (samples % framesPerBlock);
+                for (int column = 0; column < block.length / framesPerBlock; column++) {
+                    for (int frame = 0; frame < pendingFrames; frame++) {
+                        block[column * framesPerBlock + frame] = input.readDouble();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocates the buffers for frames with the given amount of {@code bodies}.
+     *
+     * @param bodies The amount of bodies in each frame.
+     */
+    private void allocate(int bodies) {
+        this.bodies = bodies;
+        final int frameSize = frameSize(bodies);
+        if (compression != Compression.NONE) {
+            framesPerBlock = Math.max(1, BLOCK_SIZE / frameSize);
+            block = new double[framesPerBlock * (frameSize / Double.BYTES)];
+            encodedBlock = ByteBuffer.allocate(block.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            compressedBlock = new byte[1 << 16];
+            deflater = new Deflater();
+            blockPositions = new long[16];
+        }
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, frameSize)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Opens the file and writes the header.
+     *
+     * @param snapshot The first {@link SolarSystemSnapshot} (i.e the bodies' data is taken from it).
+     * @throws IOException If the file could not be opened, or the header could not be written.
+     */
+    private void open(SolarSystemSnapshot snapshot) throws IOException {
+        channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        allocate(snapshot.size());
+        final byte[] description = samplingPolicy.getDescription().getBytes(StandardCharsets.UTF_8);
+        final byte[][] names = new byte[snapshot.size()][];
+        int headerSize = FIXED_HEADER_SIZE + description.length;
+        for (int i = 0; i < snapshot.size(); i++) {
+            names[i] = snapshot.getName(i).getBytes(StandardCharsets.UTF_8);
+            headerSize += 3 * Integer.BYTES + names[i].length;
+        }
+        headerSize = dataPosition(headerSize);
+        final ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(snapshot.size())
+                .putInt(snapshot.getShipIndex())
+                .putDouble(samplingPolicy.getOutputTimeStep())
+                .putDouble(timeStep)
+                .putLong(0) // Amount of samples, written when closing
+                .putLong(0) // Position of the block index, written when closing
+                .putInt(compression.ordinal())
+                .putInt(encoding.ordinal())
+                .putInt(framesPerBlock)
+                .putInt(description.length)
+                .put(description);
+        for (int i = 0; i < snapshot.size(); i++) {
+            header.putInt(snapshot.getType(i).ordinal())
+                    .putInt(snapshot.getColor(i).getRGB())
+                    .putInt(names[i].length)
+                    .put(names[i]);
+        }
+        header.position(headerSize).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Appends the given {@code snapshot} as an uncompressed frame.
+     *
+     * @param snapshot The {@link SolarSystemSnapshot} to be saved.
+     * @throws IOException If the buffered frames had to be written, and could not be.
+     */
+    private void saveFrame(SolarSystemSnapshot snapshot) throws IOException {
+        if (buffer.remaining() < frameSize(snapshot.size())) {
+            flush();
+        }
+        buffer.putDouble(snapshot.getTime());
+        for (int i = 0; i < snapshot.size(); i++) {
+            buffer.putDouble(snapshot.getPositionX(i))
+                    .putDouble(snapshot.getPositionY(i))
+                    .putDouble(snapshot.getVelocityX(i))
+                    .putDouble(snapshot.getVelocityY(i));
+        }
+    }
+
+    /**
+     * Sets the given {@code snapshot} into the block being collected, which is written when full.
+     *
+     * @param snapshot The {@link SolarSystemSnapshot} to be saved.
+     * @throws IOException If the block had to be written, and could not be.
+     */
+    private void saveIntoBlock(SolarSystemSnapshot snapshot) throws IOException {
+        final int frame = (int) (samples % framesPerBlock);
+        block[frame] = snapshot.getTime();
+        int column = 1;
+        for (int i = 0; i < snapshot.size(); i++) {
+            block[column++ * framesPerBlock + frame] = snapshot.getPositionX(i);
+            block[column++ * framesPerBlock + frame] = snapshot.getPositionY(i);
+            block[column++ * framesPerBlock + frame] = snapshot.getVelocityX(i);
+            block[column++ * framesPerBlock + frame] = snapshot.getVelocityY(i);
+        }
+        if (frame + 1 == framesPerBlock) {
+            writeBlock(framesPerBlock);
+        }
+    }
+
+    /**
+     * Encodes and compresses the block being collected, and appends it into the buffer.
+     *
+     * @param frames The amount of frames in the block (i.e only the last one can have less than
+     *               {@link #framesPerBlock}).
+     * @throws IOException If the buffer had to be written, and could not be.
+     */
+    private void writeBlock(int frames) throws IOException {
+        encodedBlock.clear();
+        for (int column = 0; column < block.length / framesPerBlock; column++) {
+            long previousBits = 0;
+            for (int frame = 0; frame < frames; frame++) {
+                final long bits = Double.doubleToRawLongBits(block[column * framesPerBlock + frame]);
+                encodedBlock.putLong(encoding.encode(bits, previousBits));
+                previousBits = bits;
+            }
+        }
+        if (blocks + 1 >= blockPositions.length) {
+            blockPositions = Arrays.copyOf(blockPositions, 2 * blockPositions.length);
+        }
+        blockPositions[blocks++] = channel.position() + buffer.position();
+        deflater.setInput(encodedBlock.array(), 0, encodedBlock.position());
+        deflater.finish();
+        while (!deflater.finished()) {
+            final int length = deflater.deflate(compressedBlock);
+            if (buffer.remaining() < length) {
+                flush();
+            }
+            buffer.put(compressedBlock, 0, length);
+        }
+        deflater.reset();
+    }
+
+    /**
+     * Writes the block index (i.e the position of each block, and the end of the last one).
+     *
+     * @param end The end of the last block.
+     * @throws IOException If the index could not be written.
+     */
+    private void writeIndex(long end) throws IOException {
+        blockPositions[blocks] = end;
+        final ByteBuffer index = ByteBuffer.allocate((blocks + 1) * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        index.asLongBuffer().put(blockPositions, 0, blocks + 1);
+        while (index.hasRemaining()) {
+            channel.write(index);
+        }
+    }
+
+    /**
+     * Writes the buffered frames into the file.
+     *
+     * @throws IOException If the frames could not be written.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @param bodies The amount of bodies.
+     * @return The size of a frame (in bytes).
+     */
+    /* package */ static int frameSize(int bodies) {
+        return (1 + VALUES_PER_BODY * bodies) * Double.BYTES;
+    }
+
+    /**
+     * @param headerSize The size of the header (in bytes).
+     * @return The position of the first frame (i.e the header size, padded up to a multiple of 8 bytes).
+     */
+    /* package */ static int dataPosition(int headerSize) {
+        return (headerSize + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+}
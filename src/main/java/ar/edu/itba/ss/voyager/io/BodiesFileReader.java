@@ -0,0 +1,98 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.Body;
+import ar.edu.itba.ss.voyager.models.BodyType;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Reads the bodies to be simulated from a text file.
+ * Each non empty line (except those starting with {@code #}, which are comments) describes a body with the format
+ * {@code name type mass x y vx vy r g b [radius]} (values can be separated with spaces, tabs or commas),
+ * where {@code type} is a {@link BodyType} name, {@code r}, {@code g} and {@code b} are values between 0 and 255,
+ * and the optional {@code radius} is given in meters (i.e collisions are only detected with bodies that have it).
+ */
+public class BodiesFileReader {
+
+    /**
+     * The amount of values each line must have (without the optional radius).
+     */
+    private static final int VALUES_PER_LINE = 10;
+
+    /**
+     * Path to the file to be read.
+     */
+    private final String filePath;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath Path to the file to be read.
+     */
+    public BodiesFileReader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Reads the bodies file.
+     *
+     * @return A {@link List} with the read bodies (in the same order as they appear in the file).
+     * @throws UncheckedIOException     If the file could not be read.
+     * @throws IllegalArgumentException If the file is malformed.
+     */
+    public List<Body> read() {
+        final List<Body> bodies = new LinkedList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                bodies.add(parseBody(line, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read bodies file " + filePath, e);
+        }
+        return bodies;
+    }
+
+    /**
+     * Parses a {@link Body} from the given {@code line}.
+     *
+     * @param line       The line to be parsed.
+     * @param lineNumber The line number (i.e for error reporting).
+     * @return The parsed {@link Body}.
+     * @throws IllegalArgumentException If the line is malformed.
+     */
+    private Body parseBody(String line, int lineNumber) {
+        final String[] values = line.split("[\\s,]+");
+        if (values.length != VALUES_PER_LINE && values.length != VALUES_PER_LINE + 1) {
+            throw new IllegalArgumentException("Line " + lineNumber + " of " + filePath + " must have "
+                    + VALUES_PER_LINE + " or " + (VALUES_PER_LINE + 1) + " values, but has " + values.length);
+        }
+        try {
+            final String name = values[0];
+            final BodyType type = BodyType.valueOf(values[1].toUpperCase());
+            final double mass = Double.parseDouble(values[2]);
+            final Vector2D position = new Vector2D(Double.parseDouble(values[3]), Double.parseDouble(values[4]));
+            final Vector2D velocity = new Vector2D(Double.parseDouble(values[5]), Double.parseDouble(values[6]));
+            final Color color = new Color(Integer.parseInt(values[7]),
+                    Integer.parseInt(values[8]), Integer.parseInt(values[9]));
+            final double radius = values.length > VALUES_PER_LINE ? Double.parseDouble(values[VALUES_PER_LINE]) : 0;
+            return new Body(name, type, mass, radius, color, position, velocity, Vector2D.ZERO);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + " of " + filePath + " is malformed", e);
+        }
+    }
+}
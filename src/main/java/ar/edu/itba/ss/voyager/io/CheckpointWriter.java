@@ -0,0 +1,207 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+import ar.edu.itba.ss.voyager.models.SolarSystemCheckpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically saves {@link SolarSystemCheckpoint}s in a dedicated thread, so the simulation loop only pays
+ * for copying the state into a preallocated checkpoint. The outputs' states are taken by the output writer thread
+ * (i.e the checkpoint travels through the {@link AsyncDataSaver} after the states saved before it), which then hands
+ * the completed checkpoint to this class' own thread to be written. If the previous checkpoint is still pending
+ * when the next one is due, the new one is skipped instead of waiting (i.e the simulation never stalls on disk).
+ * This class is not thread safe: {@link #checkpoint(SolarSystem, long, Consumer, AsyncDataSaver)} and
+ * {@link #close()} must always be called from the same thread.
+ */
+public class CheckpointWriter implements Closeable {
+
+    /**
+     * The path of the checkpoint file.
+     */
+    private final Path path;
+
+    /**
+     * The amount of steps between two checkpoints.
+     */
+    private final long steps;
+
+    /**
+     * The outputs whose states are saved in each checkpoint.
+     */
+    private final List<? extends ResumableSaver> outputs;
+
+    /**
+     * The checkpoint into which the state is copied (i.e only the output writer thread and then this class' thread
+     * use it while it is pending).
+     */
+    private final SolarSystemCheckpoint checkpoint;
+
+    /**
+     * The {@link ExecutorService} whose thread writes the checkpoints.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Indicates whether the last checkpoint is pending (i.e from the moment it is taken until it is written).
+     */
+    private volatile boolean pending;
+
+    /**
+     * The failure that stopped the last checkpoint from being written, if any.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Amount of checkpoints skipped because the previous one was still pending.
+     */
+    private long skippedCheckpoints;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath    The path of the checkpoint file.
+     * @param steps       The amount of steps between two checkpoints.
+     * @param solarSystem The {@link SolarSystem} whose state is saved.
+     * @param outputs     The outputs whose states are saved in each checkpoint.
+     * @throws IllegalArgumentException If the amount of steps is not positive.
+     */
+    public CheckpointWriter(String filePath, long steps, SolarSystem solarSystem,
+                            List<? extends ResumableSaver> outputs) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("The amount of steps between checkpoints must be positive");
+        }
+        this.path = Paths.get(filePath);
+        this.steps = steps;
+        this.outputs = outputs;
+        this.checkpoint = solarSystem.newCheckpoint();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a checkpoint if the given {@code step} is due (i.e it is a multiple of the amount of steps
+     * between checkpoints), and the previous checkpoint was already written.
+     * Must be called after the step is performed and its state is output. The state is copied right away, and the
+     * checkpoint is handed over to the given {@code output}'s writer thread, which takes the outputs' states once
+     * every state saved so far is written (i.e the simulation loop never waits for it).
+     *
+     * @param solarSystem The {@link SolarSystem} whose state is saved.
+     * @param step        The amount of steps performed so far.
+     * @param loopState   A {@link Consumer} that sets the rest of the simulation loop's state into the checkpoint
+     *                    (e.g the sampling policy's cursor), only called if it is taken.
+     * @param output      The {@link AsyncDataSaver} through which every output is saved.
+     * @return {@code true} if a checkpoint was taken, or {@code false} otherwise.
+     * @throws UncheckedIOException  If the previous checkpoint, or the output writer, failed to write a file.
+     * @throws IllegalStateException If the previous checkpoint, or the output writer, failed for any other reason.
+     */
+    public boolean checkpoint(SolarSystem solarSystem, long step, Consumer<SolarSystemCheckpoint> loopState,
+                              AsyncDataSaver<?> output) {
+        if (step % steps != 0) {
+            return false;
+        }
+        checkFailure();
+        if (pending) {
+            skippedCheckpoints++;
+            return false;
+        }
+        solarSystem.checkpoint(checkpoint);
+        checkpoint.setStep(step);
+        loopState.accept(checkpoint);
+        pending = true;
+        output.execute(this::handOver);
+        return true;
+    }
+
+    /**
+     * @return Amount of checkpoints skipped because the previous one was still pending.
+     */
+    public long getSkippedCheckpoints() {
+        return skippedCheckpoints;
+    }
+
+    /**
+     * Waits until the last checkpoint is written, and stops the writer thread.
+     * Must be called after the {@link AsyncDataSaver} is closed (i.e once the last checkpoint was handed over,
+     * or dropped if the output writer failed before it).
+     *
+     * @throws UncheckedIOException  If the last checkpoint could not be written.
+     * @throws IllegalStateException If the last checkpoint could not be written for any other reason,
+     *                               or if interrupted while waiting.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the checkpoint writer", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Sets the outputs' states into the pending checkpoint, and hands it over to the writer thread
+     * (i.e it runs in the output writer thread, while the outputs are not saving any state).
+     *
+     * @throws UncheckedIOException If any output file could not be written.
+     */
+    private void handOver() {
+        try {
+            for (ResumableSaver output : outputs) {
+                try {
+                    checkpoint.setOutputState(output.getFilePath(), output.checkpoint());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not checkpoint " + output.getFilePath(), e);
+                }
+            }
+        } catch (RuntimeException e) {
+            pending = false; // So the next checkpoint rethrows the output writer's failure
+            throw e;
+        }
+        executor.execute(this::write);
+    }
+
+    /**
+     * Writes the pending checkpoint (i.e it runs in this class' writer thread).
+     */
+    private void write() {
+        try {
+            checkpoint.save(path);
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            pending = false;
+        }
+    }
+
+    /**
+     * Throws the last checkpoint's failure, if any.
+     *
+     * @throws UncheckedIOException  If the checkpoint could not be written.
+     * @throws IllegalStateException If the checkpoint could not be written for any other reason.
+     */
+    private void checkFailure() {
+        final Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof UncheckedIOException) {
+            throw new UncheckedIOException("The checkpoint writer failed", ((UncheckedIOException) failure).getCause());
+        }
+        throw new IllegalStateException("The checkpoint writer failed", failure);
+    }
+}
@@ -0,0 +1,314 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.BodyType;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link StreamingDataSaver} that outputs several variables derived from the ship's state into a single MATLAB file
+ * (i.e one row vector per variable, plus the {@code t} vector, with the times).
+ * Each snapshot is visited once, and each of its derived values is appended into the variable's own buffered
+ * temporary file. When the saver is closed, the temporary files are assembled into the output file
+ * (i.e memory usage does not depend on the amount of snapshots, and no matrix has to be split afterwards).
+ * A resumed simulation continues the temporary files from the checkpoint (see {@link ResumableSaver}),
+ * so they are only deleted once the output file is assembled.
+ * <p>
+ * The available variables are:
+ * <ul>
+ * <li>{@code x}, {@code y}: The ship's position.</li>
+ * <li>{@code vx}, {@code vy}: The ship's velocity.</li>
+ * <li>{@code speed}: The ship's speed (saved as {@code shipSpeed}).</li>
+ * <li>{@code distances}: The distance from the ship to each body that is not a probe
+ * (saved as {@code distanceTo<Name>}).</li>
+ * </ul>
+ */
+public class ColumnsFileSaver implements StreamingDataSaver<SolarSystemSnapshot>, ResumableSaver {
+
+    /**
+     * The available variables.
+     */
+    public static final List<String> VARIABLES =
+            Collections.unmodifiableList(Arrays.asList("x", "y", "vx", "vy", "speed", "distances"));
+
+    /**
+     * Separator between two values of a row vector.
+     */
+    private static final String SEPARATOR = ", ";
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * The requested variables.
+     */
+    private final List<String> variables;
+
+    /**
+     * The {@link SamplingPolicy} used to choose the output snapshots.
+     */
+    private final SamplingPolicy samplingPolicy;
+
+    /**
+     * The integration time step.
+     */
+    private final double timeStep;
+
+    /**
+     * The total time.
+     */
+    private final double totalTime;
+
+    /**
+     * The {@link TextBuffer} into which each value is formatted.
+     */
+    private final TextBuffer buffer;
+
+    /**
+     * The columns' names (built when the first snapshot is saved, or restored when resuming,
+     * the last one being {@code t}).
+     */
+    private List<String> names;
+
+    /**
+     * The functions that derive each column's value from a snapshot (built when the first snapshot is saved,
+     * the last one being the time).
+     */
+    private List<ToDoubleFunction<SolarSystemSnapshot>> columns;
+
+    /**
+     * The paths of the temporary files holding each column's values.
+     */
+    private Path[] columnPaths;
+
+    /**
+     * The {@link ResumableTextFile}s holding each column's values.
+     */
+    private ResumableTextFile[] columnFiles;
+
+    /**
+     * Amount of saved snapshots.
+     */
+    private long savedSnapshots;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath       Path to the file to be saved.
+     * @param variables      The requested variables (see {@link #VARIABLES}).
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     * @param totalTime      The total time.
+     * @param precision      The amount of significant digits of each value (or 0 to write them exactly).
+     * @throws IllegalArgumentException If any variable is not a known one, or no variable is requested.
+     */
+    public ColumnsFileSaver(String filePath, List<String> variables, SamplingPolicy samplingPolicy,
+                            double timeStep, double totalTime, int precision) {
+        if (variables.isEmpty()) {
+            throw new IllegalArgumentException("At least one variable must be requested");
+        }
+        for (String variable : variables) {
+            if (!VARIABLES.contains(variable)) {
+                throw new IllegalArgumentException("Unknown variable: " + variable + " (i.e known: " + VARIABLES + ")");
+            }
+        }
+        this.filePath = filePath;
+        this.variables = new ArrayList<>(variables);
+        this.samplingPolicy = samplingPolicy;
+        this.timeStep = timeStep;
+        this.totalTime = totalTime;
+        this.buffer = new TextBuffer(precision);
+    }
+
+    @Override
+    public void save(SolarSystemSnapshot snapshot) {
+        try {
+            if (columns == null) {
+                open(snapshot);
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (savedSnapshots > 0) {
+                    buffer.append(SEPARATOR);
+                }
+                buffer.append(columns.get(i).applyAsDouble(snapshot))
+                        .writeTo(columnFiles[i].writer());
+            }
+            savedSnapshots++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save a state into " + filePath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (columnFiles != null) {
+                for (ResumableTextFile columnFile : columnFiles) {
+                    columnFile.close();
+                }
+            }
+            assemble();
+        } finally {
+            if (columnPaths != null) {
+                for (Path columnPath : columnPaths) {
+                    Files.deleteIfExists(columnPath);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public byte[] checkpoint() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream state = new DataOutputStream(bytes)) {
+            state.writeLong(savedSnapshots);
+            state.writeInt(columnFiles == null ? -1 : columnFiles.length); // i.e -1 if nothing was saved yet
+            for (int i = 0; columnFiles != null && i < columnFiles.length; i++) {
+                state.writeUTF(names.get(i));
+                state.writeUTF(columnPaths[i].toString());
+                state.writeLong(columnFiles[i].sync());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void resume(byte[] state) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(state))) {
+            savedSnapshots = input.readLong();
+            final int amountOfColumns = input.readInt();
+            if (amountOfColumns < 0) {
+                return; // Nothing was saved, so the temporary files are created when the first snapshot is saved
+            }
+            final List<String> names = new ArrayList<>(amountOfColumns);
+            columnPaths = new Path[amountOfColumns];
+            columnFiles = new ResumableTextFile[amountOfColumns];
+            for (int i = 0; i < amountOfColumns; i++) {
+                names.add(input.readUTF());
+                columnPaths[i] = Paths.get(input.readUTF());
+                columnFiles[i] = new ResumableTextFile(columnPaths[i].toString());
+                columnFiles[i].reopen(input.readLong());
+            }
+            this.names = names;
+        }
+    }
+
+    /**
+     * Builds the columns, and creates their temporary files (unless they were reopened when resuming).
+     *
+     * @param snapshot The first {@link SolarSystemSnapshot} (i.e the bodies' data is taken from it).
+     * @throws IOException              If any temporary file could not be created.
+     * @throws IllegalStateException    If the reopened temporary files are not the columns' ones.
+     */
+    private void open(SolarSystemSnapshot snapshot) throws IOException {
+        final int ship = snapshot.getShipIndex();
+        final List<String> names = new ArrayList<>();
+        final List<ToDoubleFunction<SolarSystemSnapshot>> columns = new ArrayList<>();
+        for (String variable : variables) {
+            switch (variable) {
+                case "x":
+                    names.add("x");
+                    columns.add(s -> s.getPositionX(ship));
+                    break;
+                case "y":
+                    names.add("y");
+                    columns.add(s -> s.getPositionY(ship));
+                    break;
+                case "vx":
+                    names.add("vx");
+                    columns.add(s -> s.getVelocityX(ship));
+                    break;
+                case "vy":
+                    names.add("vy");
+                    columns.add(s -> s.getVelocityY(ship));
+                    break;
+                case "speed":
+                    names.add("shipSpeed");
+                    columns.add(s -> s.getSpeed(ship));
+                    break;
+                case "distances":
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        if (snapshot.getType(i) != BodyType.PROBE) {
+                            final int body = i;
+                            names.add("distanceTo" + MatlabFileSaver.variableName(snapshot.getName(i)));
+                            columns.add(s -> s.distance(ship, body));
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown variable: " + variable); // Checked when constructed
+            }
+        }
+        names.add("t");
+        columns.add(SolarSystemSnapshot::getTime);
+        if (columnFiles != null) {
+            if (!names.equals(this.names)) {
+                throw new IllegalStateException("The resumed columns of " + filePath + " were " + this.names);
+            }
+        } else {
+            final Path path = Paths.get(filePath).toAbsolutePath();
+            this.columnPaths = new Path[columns.size()];
+            this.columnFiles = new ResumableTextFile[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                columnPaths[i] = Files.createTempFile(path.getParent(),
+                        path.getFileName() + "." + names.get(i) + ".", ".tmp");
+                columnFiles[i] = new ResumableTextFile(columnPaths[i].toString());
+                columnFiles[i].open();
+            }
+        }
+        this.names = names;
+        this.columns = columns;
+    }
+
+    /**
+     * Writes the output file, copying each column's temporary file into a row vector.
+     *
+     * @throws IOException If the output file could not be written.
+     */
+    private void assemble() throws IOException {
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            writer.append("% Sampling: ").append(samplingPolicy.getDescription())
+                    .append("\n");
+            for (int i = 0; names != null && i < names.size(); i++) {
+                writer.append(names.get(i)).append(" = [");
+                writer.flush();
+                Files.copy(columnPaths[i], stream);
+                writer.append("];")
+                        .append("\n");
+            }
+            writer.append("dt = ").append(String.valueOf(samplingPolicy.getOutputTimeStep())).append(";")
+                    .append("\n")
+                    .append("integrationDt = ").append(String.valueOf(timeStep)).append(";")
+                    .append("\n")
+                    .append("totalTime = ").append(String.valueOf(totalTime)).append(";")
+                    .append("\n");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.ConservationMonitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/**
+ * Streams the measurements of a {@link ConservationMonitor} into a text file, one line per measurement,
+ * as soon as they are taken (i.e the drifts' time series is never kept in memory).
+ * Each line holds the time (in seconds), the relative energy drift, the relative angular momentum drift and the
+ * factor by which the adaptive time step's accuracy is scaled, separated by spaces.
+ * The summary (i.e the largest drifts) is written at the end, as a comment.
+ * The file is opened when the first measurement is saved (or when the summary is saved),
+ * and a resumed simulation continues it from the checkpoint (see {@link ResumableSaver}).
+ */
+public class ConservationFileSaver implements Closeable, ResumableSaver {
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * The {@link ResumableTextFile} to which measurements are written.
+     */
+    private final ResumableTextFile file;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath Path to the file to be saved.
+     */
+    public ConservationFileSaver(String filePath) {
+        this.filePath = filePath;
+        this.file = new ResumableTextFile(filePath);
+    }
+
+    /**
+     * Writes a measurement as a new line.
+     *
+     * @param time                 The time of the measurement (in seconds).
+     * @param energyDrift          The relative drift of the total mechanical energy.
+     * @param angularMomentumDrift The relative drift of the total angular momentum.
+     * @param accuracyFactor       The factor by which the adaptive time step's accuracy is scaled.
+     * @throws UncheckedIOException If the measurement could not be written.
+     */
+    public void save(double time, double energyDrift, double angularMomentumDrift, double accuracyFactor) {
+        try {
+            writer().append(String.valueOf(time))
+                    .append(" ").append(String.valueOf(energyDrift))
+                    .append(" ").append(String.valueOf(angularMomentumDrift))
+                    .append(" ").append(String.valueOf(accuracyFactor))
+                    .append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the conservation measurement", e);
+        }
+    }
+
+    /**
+     * Writes the summary of the measurements as a comment (i.e after the last measurement).
+     *
+     * @param measurements                The amount of measurements.
+     * @param maximumEnergyDrift          The maximum relative drift of the total mechanical energy.
+     * @param maximumAngularMomentumDrift The maximum relative drift of the total angular momentum.
+     * @throws UncheckedIOException If the summary could not be written.
+     */
+    public void saveSummary(long measurements, double maximumEnergyDrift, double maximumAngularMomentumDrift) {
+        try {
+            writer().append("# measurements ").append(String.valueOf(measurements))
+                    .append(" maximumEnergyDrift ").append(String.valueOf(maximumEnergyDrift))
+                    .append(" maximumAngularMomentumDrift ")
+                    .append(String.valueOf(maximumAngularMomentumDrift))
+                    .append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the conservation summary", e);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        writer();
+        file.close();
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public byte[] checkpoint() throws IOException {
+        writer();
+        return ByteBuffer.allocate(Long.BYTES).putLong(file.sync()).array();
+    }
+
+    @Override
+    public void resume(byte[] state) throws IOException {
+        file.reopen(ByteBuffer.wrap(state).getLong());
+    }
+
+    /**
+     * Opens the file and writes its header, if not done yet.
+     *
+     * @return The {@link Writer} to which measurements are written.
+     * @throws IOException If the file could not be opened.
+     */
+    private Writer writer() throws IOException {
+        if (!file.isOpen()) {
+            file.open().append("# time energyDrift angularMomentumDrift accuracyFactor")
+                    .append("\n");
+        }
+        return file.writer();
+    }
+}
@@ -0,0 +1,112 @@
+package ar.edu.itba.ss.voyager.io;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execution arguments for the time step convergence study mode.
+ * The coarsest time step is the simulation's time step, and each of the following ones is {@code ratio} times
+ * smaller than the previous one.
+ */
+@Component
+public class ConvergenceArguments {
+
+    /**
+     * Indicates whether the convergence study mode is enabled
+     * (i.e a convergence study is performed instead of a single simulation).
+     */
+    private final boolean enabled;
+
+    /**
+     * The amount of runs (i.e of time steps).
+     */
+    private final int runs;
+
+    /**
+     * The factor by which each time step is smaller than the previous one.
+     */
+    private final int ratio;
+
+    /**
+     * The largest error allowed in the ship's final position and closest approach distances (in meters).
+     */
+    private final double tolerance;
+
+    /**
+     * The amount of runs performed in parallel (non positive means as many as processors).
+     */
+    private final int threads;
+
+    /**
+     * Path for the convergence study file.
+     */
+    private final String outputFilePath;
+
+    /**
+     * Constructor.
+     *
+     * @param enabled        Indicates whether the convergence study mode is enabled
+     *                       (i.e a convergence study is performed instead of a single simulation).
+     * @param runs           The amount of runs (i.e of time steps).
+     * @param ratio          The factor by which each time step is smaller than the previous one.
+     * @param tolerance      The largest error allowed in the ship's final position and closest approach distances
+     *                       (in meters).
+     * @param threads        The amount of runs performed in parallel (non positive means as many as processors).
+     * @param outputFilePath Path for the convergence study file.
+     */
+    public ConvergenceArguments(@Value("${custom.convergence.enabled:false}") boolean enabled,
+                                @Value("${custom.convergence.runs:5}") int runs,
+                                @Value("${custom.convergence.ratio:2}") int ratio,
+                                @Value("${custom.convergence.tolerance:1e6}") double tolerance,
+                                @Value("${custom.convergence.threads:0}") int threads,
+                                @Value("${custom.output.convergence:convergence.m}") String outputFilePath) {
+        this.enabled = enabled;
+        this.runs = runs;
+        this.ratio = ratio;
+        this.tolerance = tolerance;
+        this.threads = threads;
+        this.outputFilePath = outputFilePath;
+    }
+
+    /**
+     * @return {@code true} if the convergence study mode is enabled, or {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The amount of runs (i.e of time steps).
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return The factor by which each time step is smaller than the previous one.
+     */
+    public int getRatio() {
+        return ratio;
+    }
+
+    /**
+     * @return The largest error allowed in the ship's final position and closest approach distances (in meters).
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return The amount of runs performed in parallel (non positive means as many as processors).
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return Path for the convergence study file.
+     */
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+}
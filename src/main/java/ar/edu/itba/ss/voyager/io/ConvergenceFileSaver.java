@@ -0,0 +1,88 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.ConvergenceResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Saves the {@link ConvergenceResult}s of a convergence study into a MATLAB file, one row per run
+ * (from the coarsest time step to the finest one).
+ * Each row holds the time step and the wall time (in seconds), the amount of steps, the ship's final position,
+ * the position and closest approach errors (in meters), the observed order, and the closest approach distance to
+ * each body (in meters, or {@code NaN} if there was none). The largest time step that meets the tolerance is written
+ * as a comment at the end.
+ */
+public class ConvergenceFileSaver {
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath Path to the file to be saved.
+     */
+    public ConvergenceFileSaver(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Saves the given {@code results}.
+     *
+     * @param results   The {@link ConvergenceResult}s (from the coarsest run to the finest one).
+     * @param tolerance The largest error allowed (in meters).
+     * @param largest   The run with the largest time step that meets the tolerance (or {@code null} if none does).
+     * @throws UncheckedIOException If the file could not be written.
+     */
+    public void save(List<ConvergenceResult> results, double tolerance, ConvergenceResult largest) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            writer.append("% Columns: timeStep wallTime steps shipX shipY positionError closestApproachError order");
+            for (String name : results.get(0).getBodiesNames()) {
+                writer.append(" closestApproachTo").append(variableName(name));
+            }
+            writer.append("\n")
+                    .append("convergence = [")
+                    .append("\n");
+            for (ConvergenceResult result : results) {
+                writer.append(String.valueOf(result.getTimeStep()))
+                        .append(" ").append(String.valueOf(result.getWallTime()))
+                        .append(" ").append(String.valueOf(result.getSteps()))
+                        .append(" ").append(String.valueOf(result.getShipPositionX()))
+                        .append(" ").append(String.valueOf(result.getShipPositionY()))
+                        .append(" ").append(String.valueOf(result.getPositionError()))
+                        .append(" ").append(String.valueOf(result.getClosestApproachError()))
+                        .append(" ").append(String.valueOf(result.getOrder()));
+                for (int i = 0; i < result.getBodiesNames().size(); i++) {
+                    writer.append(" ").append(String.valueOf(result.getClosestApproachDistance(i)));
+                }
+                writer.append(";")
+                        .append("\n");
+            }
+            writer.append("];")
+                    .append("\n")
+                    .append("% Largest time step within a tolerance of ").append(String.valueOf(tolerance))
+                    .append(" meters: ").append(largest == null ? "none" : String.valueOf(largest.getTimeStep()))
+                    .append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the convergence file " + filePath, e);
+        }
+    }
+
+    /**
+     * Builds a valid variable name from the given body's {@code name} (i.e removes non alphanumeric characters).
+     *
+     * @param name The body's name.
+     * @return The variable name.
+     */
+    private static String variableName(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "");
+    }
+}
@@ -1,72 +1,50 @@
 package ar.edu.itba.ss.voyager.io;
 
-import ar.edu.itba.ss.g7.engine.io.TextFileSaver;
-import ar.edu.itba.ss.voyager.models.SolarSystem;
-import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+import ar.edu.itba.ss.voyager.models.BodyType;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
 
-import java.io.IOException;
-import java.io.Writer;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * A {@link TextFileSaver} that will output the distances from the ship to each planet
+ * A {@link MatlabFileSaver} that will output the distances from the ship to each celestial body
+ * (i.e one {@code distanceTo<Body>} variable per celestial body).
  */
-public class DistancesFileSaver extends TextFileSaver<SolarSystem.SolarSystemState> {
-
-    /**
-     * The time step.
-     */
-    private final double timeStep;
-
-    /**
-     * The total time.
-     */
-    private final double totalTime;
+public class DistancesFileSaver extends MatlabFileSaver {
 
     /**
      * Constructor.
      *
-     * @param filePath  Path to the file to be saved.
-     * @param timeStep  The time step.
-     * @param totalTime The total time.
+     * @param filePath       Path to the file to be saved.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     * @param totalTime      The total time.
+     * @param precision      The amount of significant digits of each value (or 0 to write them exactly).
      */
-    public DistancesFileSaver(String filePath, double timeStep, double totalTime) {
-        super(filePath);
-        this.timeStep = timeStep;
-        this.totalTime = totalTime;
+    public DistancesFileSaver(String filePath, SamplingPolicy samplingPolicy, double timeStep, double totalTime,
+                              int precision) {
+        super(filePath, "distances", samplingPolicy, timeStep, totalTime, precision);
+    }
+
+    @Override
+    protected List<String> variableNames(SolarSystemSnapshot snapshot) {
+        final List<String> variableNames = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.getType(i) != BodyType.PROBE) {
+                variableNames.add("distanceTo" + variableName(snapshot.getName(i)));
+            }
+        }
+        return variableNames;
     }
 
     @Override
-    public void doSave(Writer writer, Queue<SolarSystem.SolarSystemState> queue) throws IOException {
-        final String distanceToSun = "distanceToSun = [" + queue.stream()
-                .map(state -> Vector2D.distance(state.getShip().getPosition(), state.getSun().getPosition()))
-                .map(Object::toString)
-                .collect(Collectors.joining(", ")) + "];";
-        final String distanceToEarth = "distanceToEarth = [" + queue.stream()
-                .map(state -> Vector2D.distance(state.getShip().getPosition(), state.getEarth().getPosition()))
-                .map(Object::toString)
-                .collect(Collectors.joining(", ")) + "];";
-        final String distanceToJupiter = "distanceToJupiter = [" + queue.stream()
-                .map(state -> Vector2D.distance(state.getShip().getPosition(), state.getJupiter().getPosition()))
-                .map(Object::toString)
-                .collect(Collectors.joining(", ")) + "];";
-        final String distanceToSaturn = "distanceToSaturn = [" + queue.stream()
-                .map(state -> Vector2D.distance(state.getShip().getPosition(), state.getSaturn().getPosition()))
-                .map(Object::toString)
-                .collect(Collectors.joining(", ")) + "];";
-        // Append results into the Writer
-        writer.append(distanceToSun)
-                .append("\n")
-                .append(distanceToEarth)
-                .append("\n")
-                .append(distanceToJupiter)
-                .append("\n")
-                .append(distanceToSaturn)
-                .append("\n")
-                .append("dt = ").append(String.valueOf(timeStep)).append(";")
-                .append("\n")
-                .append("totalTime = ").append(String.valueOf(totalTime)).append(";")
-                .append("\n");
+    protected void values(SolarSystemSnapshot snapshot, double[] row) {
+        int column = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.getType(i) == BodyType.PROBE) {
+                continue; // Only distances to celestial bodies are saved
+            }
+            row[column++] = snapshot.distance(snapshot.getShipIndex(), i);
+        }
     }
 }
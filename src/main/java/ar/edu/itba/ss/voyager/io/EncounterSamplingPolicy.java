@@ -0,0 +1,67 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+
+/**
+ * {@link SamplingPolicy} that outputs one of every {@code k} steps, but keeps more states near encounters
+ * (i.e while the ship is closer than a given distance to any planet or moon).
+ */
+public class EncounterSamplingPolicy implements SamplingPolicy {
+
+    /**
+     * The amount of steps between two output states (far from encounters).
+     */
+    private final int steps;
+
+    /**
+     * The amount of steps between two output states near encounters.
+     */
+    private final int encounterSteps;
+
+    /**
+     * The distance to a planet or moon below which the ship is considered to be in an encounter.
+     */
+    private final double encounterDistance;
+
+    /**
+     * The integration time step.
+     */
+    private final double timeStep;
+
+    /**
+     * Constructor.
+     *
+     * @param steps             The amount of steps between two output states (far from encounters).
+     * @param encounterSteps    The amount of steps between two output states near encounters.
+     * @param encounterDistance The distance to a planet or moon below which the ship is considered
+     *                          to be in an encounter.
+     * @param timeStep          The integration time step.
+     * @throws IllegalArgumentException If any amount of steps is not positive.
+     */
+    public EncounterSamplingPolicy(int steps, int encounterSteps, double encounterDistance, double timeStep) {
+        if (steps <= 0 || encounterSteps <= 0) {
+            throw new IllegalArgumentException("The amount of steps between output states must be positive");
+        }
+        this.steps = steps;
+        this.encounterSteps = encounterSteps;
+        this.encounterDistance = encounterDistance;
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public boolean sample(long step, SolarSystem solarSystem) {
+        return step % steps == 0
+                || step % encounterSteps == 0 && solarSystem.closestEncounterDistance() < encounterDistance;
+    }
+
+    @Override
+    public double getOutputTimeStep() {
+        return steps * timeStep;
+    }
+
+    @Override
+    public String getDescription() {
+        return "every " + steps + " steps, and every " + encounterSteps + " steps closer than "
+                + encounterDistance + " meters to a planet or moon";
+    }
+}
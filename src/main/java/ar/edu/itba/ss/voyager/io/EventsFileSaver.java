@@ -0,0 +1,111 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.Event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Streams {@link Event}s into a text file, one line per event, as soon as they happen
+ * (i.e events are never kept in memory).
+ * Each line holds the time (in seconds), the event type (e.g "closest-approach"), the body's name,
+ * the distance (in meters) and the relative speed (in meters over seconds), separated by spaces.
+ * The file is opened when the first event is saved (or when the saver is closed, if there were none),
+ * and a resumed simulation continues it from the checkpoint (see {@link ResumableSaver}).
+ */
+public class EventsFileSaver implements Closeable, ResumableSaver {
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * The {@link ResumableTextFile} to which events are written.
+     */
+    private final ResumableTextFile file;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath Path to the file to be saved.
+     */
+    public EventsFileSaver(String filePath) {
+        this.filePath = filePath;
+        this.file = new ResumableTextFile(filePath);
+    }
+
+    /**
+     * Writes the given {@code event} as a new line.
+     *
+     * @param event The {@link Event} to be written.
+     * @throws UncheckedIOException If the event could not be written.
+     */
+    public void save(Event event) {
+        try {
+            writer().append(String.valueOf(event.getTime()))
+                    .append(" ").append(typeName(event))
+                    .append(" ").append(event.getBodyName())
+                    .append(" ").append(String.valueOf(event.getDistance()))
+                    .append(" ").append(String.valueOf(event.getRelativeSpeed()))
+                    .append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the event", e);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        writer();
+        file.close();
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public byte[] checkpoint() throws IOException {
+        writer();
+        return ByteBuffer.allocate(Long.BYTES).putLong(file.sync()).array();
+    }
+
+    @Override
+    public void resume(byte[] state) throws IOException {
+        file.reopen(ByteBuffer.wrap(state).getLong());
+    }
+
+    /**
+     * Opens the file and writes its header, if not done yet.
+     *
+     * @return The {@link Writer} to which events are written.
+     * @throws IOException If the file could not be opened.
+     */
+    private Writer writer() throws IOException {
+        if (!file.isOpen()) {
+            file.open().append("# time type body distance relativeSpeed")
+                    .append("\n");
+        }
+        return file.writer();
+    }
+
+    /**
+     * Builds the name of the given {@code event}'s type (i.e in lower case and with dashes).
+     *
+     * @param event The {@link Event}.
+     * @return The type's name.
+     */
+    private static String typeName(Event event) {
+        return event.getType().name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,69 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+
+/**
+ * {@link SamplingPolicy} that outputs a state every fixed amount of simulated time
+ * (i.e the first state at or after each multiple of the interval).
+ */
+public class IntervalSamplingPolicy implements SamplingPolicy {
+
+    /**
+     * The amount of simulated time between two output states.
+     */
+    private final double interval;
+
+    /**
+     * The index of the last sampled interval (i.e {@code -1} if none was sampled yet).
+     */
+    private long lastInterval;
+
+    /**
+     * Constructor.
+     *
+     * @param interval The amount of simulated time between two output states.
+     * @throws IllegalArgumentException If the interval is not positive.
+     */
+    public IntervalSamplingPolicy(double interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The sampling interval must be positive");
+        }
+        this.interval = interval;
+        this.lastInterval = -1;
+    }
+
+    @Override
+    public boolean sample(long step, SolarSystem solarSystem) {
+        // Compared against the next sample time itself, so a step that ends exactly at it is always sampled
+        if (solarSystem.getActualTime() < getNextSampleTime()) {
+            return false;
+        }
+        lastInterval = Math.max(lastInterval + 1, (long) Math.floor(solarSystem.getActualTime() / interval));
+        return true;
+    }
+
+    @Override
+    public double getNextSampleTime() {
+        return (lastInterval + 1) * interval;
+    }
+
+    @Override
+    public long getCursor() {
+        return lastInterval;
+    }
+
+    @Override
+    public void setCursor(long cursor) {
+        this.lastInterval = cursor;
+    }
+
+    @Override
+    public double getOutputTimeStep() {
+        return interval;
+    }
+
+    @Override
+    public String getDescription() {
+        return "every " + interval + " seconds";
+    }
+}
@@ -0,0 +1,109 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.LaunchParameters;
+import ar.edu.itba.ss.voyager.models.LaunchResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Streams {@link LaunchResult}s into a MATLAB file, one row per launch, as soon as they are produced
+ * (i.e results are never kept in memory).
+ * Each row holds the launch day, the speed (in meters over seconds) and the angle (in degrees),
+ * followed by the minimum distance and the closest approach time (in seconds) to each body, and the time the ship
+ * flew (in seconds). Flights stopped by a termination condition have the reason as a comment after their row.
+ */
+public class LaunchSweepFileSaver implements Closeable {
+
+    /**
+     * Amount of seconds in a day.
+     */
+    private static final double DAY_SECONDS = 24 * 60 * 60;
+
+    /**
+     * The {@link BufferedWriter} to which results are written.
+     */
+    private final BufferedWriter writer;
+
+    /**
+     * Constructor. Writes the file header.
+     *
+     * @param filePath    Path to the file to be saved.
+     * @param bodiesNames The massive bodies' names (in the same order as in the {@link LaunchResult}s).
+     * @throws UncheckedIOException If the file could not be opened.
+     */
+    public LaunchSweepFileSaver(String filePath, List<String> bodiesNames) {
+        try {
+            this.writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8);
+            writer.append("% Columns: launchDay speed angle");
+            for (String name : bodiesNames) {
+                writer.append(" minDistanceTo").append(variableName(name))
+                        .append(" closestApproachTimeTo").append(variableName(name));
+            }
+            writer.append(" flownTime")
+                    .append("\n")
+                    .append("sweep = [")
+                    .append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the sweep file " + filePath, e);
+        }
+    }
+
+    /**
+     * Writes the given {@code result} as a new row.
+     *
+     * @param result The {@link LaunchResult} to be written.
+     * @throws UncheckedIOException If the result could not be written.
+     */
+    public void save(LaunchResult result) {
+        final LaunchParameters parameters = result.getParameters();
+        try {
+            writer.append(String.valueOf(parameters.getLaunchTime() / DAY_SECONDS))
+                    .append(" ").append(String.valueOf(parameters.getSpeed()))
+                    .append(" ").append(String.valueOf(Math.toDegrees(parameters.getAngle())));
+            for (int i = 0; i < result.getBodiesNames().size(); i++) {
+                writer.append(" ").append(String.valueOf(result.getMinimumDistance(i)))
+                        .append(" ").append(String.valueOf(result.getClosestApproachTime(i)));
+            }
+            writer.append(" ").append(String.valueOf(result.getFlownTime()))
+                    .append(";");
+            if (result.getTerminationReason() != null) {
+                writer.append(" % ").append(result.getTerminationReason());
+            }
+            writer.append("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the sweep result", e);
+        }
+    }
+
+    /**
+     * Writes the file footer and closes it.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.append("];")
+                    .append("\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Builds a valid variable name from the given body's {@code name} (i.e removes non alphanumeric characters).
+     *
+     * @param name The body's name.
+     * @return The variable name.
+     */
+    private static String variableName(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "");
+    }
+}
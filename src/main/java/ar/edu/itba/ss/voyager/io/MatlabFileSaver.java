@@ -0,0 +1,161 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link StreamingTextFileSaver} that outputs a MATLAB file. Each snapshot is appended as a row of a matrix
+ * (i.e one column per variable, plus the snapshot's time as the last column),
+ * whose columns are then split into one row vector per variable (and the {@code t} vector, with the times).
+ * The file also includes the output time step ({@code dt}), the integration time step ({@code integrationDt}),
+ * the total time ({@code totalTime}) and the {@link SamplingPolicy} used to choose the output snapshots.
+ */
+public abstract class MatlabFileSaver extends StreamingTextFileSaver<SolarSystemSnapshot> {
+
+    /**
+     * The name of the matrix holding the rows.
+     */
+    private final String matrixName;
+
+    /**
+     * The {@link SamplingPolicy} used to choose the output snapshots.
+     */
+    private final SamplingPolicy samplingPolicy;
+
+    /**
+     * The integration time step.
+     */
+    private final double timeStep;
+
+    /**
+     * The total time.
+     */
+    private final double totalTime;
+
+    /**
+     * The variables' names (taken from the first saved snapshot, or restored when resuming).
+     */
+    private List<String> variableNames;
+
+    /**
+     * The row being saved (i.e reused for each snapshot).
+     */
+    private double[] row;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath       Path to the file to be saved.
+     * @param matrixName     The name of the matrix holding the rows.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     * @param totalTime      The total time.
+     * @param precision      The amount of significant digits of each value (or 0 to write them exactly).
+     */
+    public MatlabFileSaver(String filePath, String matrixName, SamplingPolicy samplingPolicy,
+                           double timeStep, double totalTime, int precision) {
+        super(filePath, precision);
+        this.matrixName = matrixName;
+        this.samplingPolicy = samplingPolicy;
+        this.timeStep = timeStep;
+        this.totalTime = totalTime;
+    }
+
+    @Override
+    protected void writeHeader(Writer writer) throws IOException {
+        writer.append("% Sampling: ").append(samplingPolicy.getDescription())
+                .append("\n");
+    }
+
+    @Override
+    protected void saveState(TextBuffer buffer, SolarSystemSnapshot snapshot, int index) {
+        if (variableNames == null) {
+            variableNames = variableNames(snapshot);
+            row = new double[variableNames.size()];
+            buffer.append(matrixName).append(" = [")
+                    .append('\n');
+        }
+        values(snapshot, row);
+        for (double value : row) {
+            buffer.append(value).append(", ");
+        }
+        buffer.append(snapshot.getTime())
+                .append('\n');
+    }
+
+    @Override
+    protected void writeFooter(Writer writer, int savedStates) throws IOException {
+        if (variableNames != null) {
+            writer.append("];")
+                    .append("\n");
+            for (int i = 0; i < variableNames.size(); i++) {
+                writer.append(variableNames.get(i))
+                        .append(" = ").append(matrixName).append("(:, ").append(String.valueOf(i + 1)).append(")';")
+                        .append("\n");
+            }
+            writer.append("t = ").append(matrixName)
+                    .append("(:, ").append(String.valueOf(variableNames.size() + 1)).append(")';")
+                    .append("\n");
+        }
+        writer.append("dt = ").append(String.valueOf(samplingPolicy.getOutputTimeStep())).append(";")
+                .append("\n")
+                .append("integrationDt = ").append(String.valueOf(timeStep)).append(";")
+                .append("\n")
+                .append("totalTime = ").append(String.valueOf(totalTime)).append(";")
+                .append("\n");
+    }
+
+    @Override
+    protected void checkpointState(DataOutput state) throws IOException {
+        state.writeInt(variableNames == null ? -1 : variableNames.size());
+        if (variableNames != null) {
+            for (String variableName : variableNames) {
+                state.writeUTF(variableName);
+            }
+        }
+    }
+
+    @Override
+    protected void resumeState(DataInput state) throws IOException {
+        final int variables = state.readInt();
+        if (variables >= 0) {
+            variableNames = new ArrayList<>(variables);
+            for (int i = 0; i < variables; i++) {
+                variableNames.add(state.readUTF());
+            }
+            row = new double[variables];
+        }
+    }
+
+    /**
+     * Builds the variables' names (i.e called with the first snapshot).
+     *
+     * @param snapshot The first {@link SolarSystemSnapshot}.
+     * @return The variables' names (one per column).
+     */
+    protected abstract List<String> variableNames(SolarSystemSnapshot snapshot);
+
+    /**
+     * Sets the variables' values for the given {@code snapshot} into the given {@code row}.
+     *
+     * @param snapshot The {@link SolarSystemSnapshot} being saved.
+     * @param row      The row, with one element per variable.
+     */
+    protected abstract void values(SolarSystemSnapshot snapshot, double[] row);
+
+    /**
+     * Builds a valid variable name from the given {@code name} (i.e removes non alphanumeric characters).
+     *
+     * @param name The name.
+     * @return The variable name.
+     */
+    protected static String variableName(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "");
+    }
+}
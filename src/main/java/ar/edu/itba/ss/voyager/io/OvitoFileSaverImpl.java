@@ -1,72 +1,60 @@
 package ar.edu.itba.ss.voyager.io;
 
-import ar.edu.itba.ss.g7.engine.io.OvitoFileSaver;
-import ar.edu.itba.ss.voyager.models.Body;
 import ar.edu.itba.ss.voyager.models.SolarSystem;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
 
-import java.io.IOException;
-import java.io.Writer;
+import java.awt.Color;
 
 /**
- * {@link OvitoFileSaver} for the {@link SolarSystem}.
+ * {@link StreamingTextFileSaver} that appends each {@link SolarSystem} snapshot as a frame of an Ovito file.
  */
-public class OvitoFileSaverImpl extends OvitoFileSaver<SolarSystem.SolarSystemState> {
+public class OvitoFileSaverImpl extends StreamingTextFileSaver<SolarSystemSnapshot> {
 
     /**
      * Constructor.
      *
-     * @param filePath Path to the file to be saved.
+     * @param filePath  Path to the file to be saved.
+     * @param precision The amount of significant digits of each double (or 0 to write them exactly).
      */
-    public OvitoFileSaverImpl(String filePath) {
-        super(filePath);
+    public OvitoFileSaverImpl(String filePath, int precision) {
+        super(filePath, precision);
     }
 
     @Override
-    public void saveState(Writer writer, SolarSystem.SolarSystemState solarSystemState, int frame) throws IOException {
-        final StringBuilder data = new StringBuilder()
-                // First, headers
-                .append(5)
-                .append("\n")
+    protected void saveState(TextBuffer buffer, SolarSystemSnapshot snapshot, int frame) {
+        // First, headers
+        buffer.append(snapshot.size())
+                .append('\n')
                 .append(frame)
-                .append("\n");
-        // Save the Sun's state
-        saveBody(data, solarSystemState.getSun(), 255, 255, 0); // The Sun is yellow
-        // Save the Earth's state
-        saveBody(data, solarSystemState.getEarth(), 0, 128, 0); // The Earth is green
-        // Save Jupiter's state
-        saveBody(data, solarSystemState.getJupiter(), 210, 105, 30); // Jupiter is orange
-        // Save Saturn's state
-        saveBody(data, solarSystemState.getSaturn(), 218, 165, 32); // Saturn is brown
-        // Save the ship's state
-        saveBody(data, solarSystemState.getShip(), 192, 192, 192); // The ship is gray
-        // Append data into the Writer
-        writer.append(data);
+                .append('\n');
+        // Save each body's state
+        for (int i = 0; i < snapshot.size(); i++) {
+            saveBody(buffer, snapshot, i);
+        }
     }
 
     /**
-     * Saves a {@link ar.edu.itba.ss.voyager.models.Body.BodyState} into the {@code data} {@link StringBuilder}.
+     * Saves a body's state into the given {@link TextBuffer}.
      *
-     * @param data The {@link StringBuilder} that is collecting data.
-     * @param body The {@link ar.edu.itba.ss.voyager.models.Body.BodyState} with the data.
-     * @param r    Red component for color.
-     * @param g    Green component for color.
-     * @param b    Blue component for color.
+     * @param buffer   The {@link TextBuffer} to which data is appended.
+     * @param snapshot The {@link SolarSystemSnapshot} with the data (including the body's color).
+     * @param body     The body's index.
      */
-    private static void saveBody(StringBuilder data, Body.BodyState body, int r, int g, int b) {
-        data.append("")
-                .append(body.getPosition().getX())
-                .append(" ")
-                .append(body.getPosition().getY())
-                .append(" ")
-                .append(body.getVelocity().getX())
-                .append(" ")
-                .append(body.getVelocity().getY())
-                .append(" ")
-                .append((double) r / 255d)
-                .append(" ")
-                .append((double) g / 255d)
-                .append(" ")
-                .append((double) b / 255d)
-                .append("\n");
+    private static void saveBody(TextBuffer buffer, SolarSystemSnapshot snapshot, int body) {
+        final Color color = snapshot.getColor(body);
+        buffer.append(snapshot.getPositionX(body))
+                .append(' ')
+                .append(snapshot.getPositionY(body))
+                .append(' ')
+                .append(snapshot.getVelocityX(body))
+                .append(' ')
+                .append(snapshot.getVelocityY(body))
+                .append(' ')
+                .append((double) color.getRed() / 255d)
+                .append(' ')
+                .append((double) color.getGreen() / 255d)
+                .append(' ')
+                .append((double) color.getBlue() / 255d)
+                .append('\n');
     }
 }
@@ -4,6 +4,9 @@ import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Execution arguments.
  */
@@ -20,6 +23,52 @@ public class ProgramArguments {
      */
     private final int amountOfYears;
 
+    /**
+     * The integration scheme
+     * (i.e "beeman", "velocity-verlet", "yoshida4", "rk4", "gear5", "wisdom-holman" or "block-leapfrog").
+     */
+    private final String integrator;
+
+    /**
+     * Indicates whether the time step is adaptive (i.e the time step is then the maximum one).
+     */
+    private final boolean adaptiveTimeStep;
+
+    /**
+     * The fraction of the shortest encounter time scale used as adaptive time step.
+     */
+    private final double adaptiveAccuracy;
+
+    /**
+     * The minimum adaptive time step.
+     */
+    private final double minimumTimeStep;
+
+    /**
+     * The amount of bodies from which forces are calculated in parallel.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * The amount of threads used to calculate forces in parallel (non positive means as many as processors).
+     */
+    private final int threads;
+
+    /**
+     * The force solver used to calculate accelerations (i.e "direct" or "barnes-hut").
+     */
+    private final String forceSolver;
+
+    /**
+     * The opening angle (i.e theta) of the Barnes-Hut force solver.
+     */
+    private final double openingAngle;
+
+    /**
+     * Indicates whether probes are treated as test particles (i.e they do not affect any body).
+     */
+    private final boolean masslessProbes;
+
     /**
      * The initial position of the Sun.
      */
@@ -53,6 +102,62 @@ public class ProgramArguments {
      */
     private final Vector2D saturnVelocity;
 
+    /**
+     * Path to a file describing the bodies to be simulated (empty to simulate the default system).
+     */
+    private final String bodiesFilePath;
+
+    /**
+     * Path for checkpoint file (empty to disable checkpoints).
+     */
+    private final String checkpointFilePath;
+
+    /**
+     * The amount of steps between two checkpoints.
+     */
+    private final long checkpointSteps;
+
+    /**
+     * Indicates whether the simulation is resumed from the checkpoint file.
+     */
+    private final boolean resume;
+
+    /**
+     * The amount of states that can be buffered between the simulation and the output writer thread.
+     */
+    private final int outputBufferSize;
+
+    /**
+     * The sampling policy used to choose the output states (i.e "step", "interval" or "encounter").
+     */
+    private final String samplingPolicy;
+
+    /**
+     * The amount of steps between two output states (for the "step" and "encounter" sampling policies).
+     */
+    private final int samplingSteps;
+
+    /**
+     * The amount of simulated time between two output states (for the "interval" sampling policy).
+     */
+    private final double samplingInterval;
+
+    /**
+     * The amount of steps between two output states near encounters (for the "encounter" sampling policy).
+     */
+    private final int encounterSamplingSteps;
+
+    /**
+     * The distance to a planet or moon below which the ship is in an encounter
+     * (for the "encounter" sampling policy).
+     */
+    private final double encounterDistance;
+
+    /**
+     * The amount of significant digits of each value in text files (or 0 to write them exactly).
+     */
+    private final int outputPrecision;
+
     /**
      * Path for Ovito file.
      */
@@ -73,35 +178,151 @@ public class ProgramArguments {
      */
     private final String speedFilePath;
 
+    /**
+     * Path for binary file (empty to disable it).
+     */
+    private final String binaryFilePath;
+
+    /**
+     * The compression of the binary file (i.e "none", "deflate", "deflate-xor" or "deflate-delta").
+     */
+    private final String binaryCompression;
+
+    /**
+     * Path for columns file (empty to disable it).
+     */
+    private final String columnsFilePath;
+
+    /**
+     * The variables saved into the columns file.
+     */
+    private final List<String> columnsVariables;
+
+    /**
+     * Path for events file (empty to disable it).
+     */
+    private final String eventsFilePath;
+
+    /**
+     * The conditions of the events that stop the simulation (i.e "type" or "type:body").
+     */
+    private final List<String> stopEvents;
+
+    /**
+     * The conditions that stop a flight before its end (i.e "flight-time:time", "farther:body:distance",
+     * "closer:body:distance", "energy-above:body:energy" or "no-encounter:body:distance:time").
+     */
+    private final List<String> terminationConditions;
+
+    /**
+     * The amount of steps between two measurements of the energy and angular momentum drifts
+     * (0 to disable the conservation monitor).
+     */
+    private final int conservationInterval;
+
+    /**
+     * The maximum relative drift of the energy and angular momentum.
+     */
+    private final double driftBudget;
+
+    /**
+     * What is done when the drift goes beyond the budget (i.e "warn", "abort" or "adapt").
+     */
+    private final String driftAction;
+
+    /**
+     * Path for conservation file (empty to disable it).
+     */
+    private final String conservationFilePath;
+
     /**
      * Constructor.
      *
-     * @param timeStep           The time step (i.e how much time elapses between two update events).
-     * @param amountOfYears      Amount of Saturnian years (i.e amount of time the simulation will last).
-     * @param sunXPosition       The 'x' component of the initial position of the Sun.
-     * @param sunYPosition       The 'y' component of the initial position of the Sun.
-     * @param sunXVelocity       The 'x' component of the initial velocity of the Sun.
-     * @param sunYVelocity       The 'y' component of the initial velocity of the Sun.
-     * @param earthXPosition     The 'x' component of the initial position of the Earth.
-     * @param earthYPosition     The 'y' component of the initial position of the Earth.
-     * @param earthXVelocity     The 'x' component of the initial velocity of the Earth.
-     * @param earthYVelocity     The 'y' component of the initial velocity of the Earth.
-     * @param jupiterXPosition   The 'x' component of the initial position of Jupiter.
-     * @param jupiterYPosition   The 'y' component of the initial position of Jupiter.
-     * @param jupiterXVelocity   The 'x' component of the initial velocity of Jupiter.
-     * @param jupiterYVelocity   The 'y' component of the initial velocity of Jupiter.
-     * @param saturnXPosition    The 'x' component of the initial position of Saturn.
-     * @param saturnYPosition    The 'y' component of the initial position of Saturn.
-     * @param saturnXVelocity    The 'x' component of the initial velocity of Saturn.
-     * @param saturnYVelocity    The 'y' component of the initial velocity of Saturn.
-     * @param ovitoFilePath      Path for Ovito file.
-     * @param trajectoryFilePath Path for trajectory file.
-     * @param distancesFilePath  Path for distances file.
-     * @param speedFilePath      Path for speed file.
+     * @param timeStep               The time step (i.e how much time elapses between two update events).
+     * @param amountOfYears          Amount of Saturnian years (i.e amount of time the simulation will last).
+     * @param integrator             The integration scheme
+     *                               (i.e "beeman", "velocity-verlet", "yoshida4", "rk4", "gear5",
+     *                               "wisdom-holman" or "block-leapfrog").
+     * @param adaptiveTimeStep       Indicates whether the time step is adaptive
+     *                               (i.e the time step is then the maximum one).
+     * @param adaptiveAccuracy       The fraction of the shortest encounter time scale used as adaptive time step.
+     * @param minimumTimeStep        The minimum adaptive time step.
+     * @param parallelThreshold      The amount of bodies from which forces are calculated in parallel.
+     * @param threads                The amount of threads used to calculate forces in parallel
+     *                               (non positive means as many as processors).
+     * @param forceSolver            The force solver used to calculate accelerations (i.e "direct" or "barnes-hut").
+     * @param openingAngle           The opening angle (i.e theta) of the Barnes-Hut force solver.
+     * @param masslessProbes         Indicates whether probes are treated as test particles
+     *                               (i.e they do not affect any body).
+     * @param sunXPosition           The 'x' component of the initial position of the Sun.
+     * @param sunYPosition           The 'y' component of the initial position of the Sun.
+     * @param sunXVelocity           The 'x' component of the initial velocity of the Sun.
+     * @param sunYVelocity           The 'y' component of the initial velocity of the Sun.
+     * @param earthXPosition         The 'x' component of the initial position of the Earth.
+     * @param earthYPosition         The 'y' component of the initial position of the Earth.
+     * @param earthXVelocity         The 'x' component of the initial velocity of the Earth.
+     * @param earthYVelocity         The 'y' component of the initial velocity of the Earth.
+     * @param jupiterXPosition       The 'x' component of the initial position of Jupiter.
+     * @param jupiterYPosition       The 'y' component of the initial position of Jupiter.
+     * @param jupiterXVelocity       The 'x' component of the initial velocity of Jupiter.
+     * @param jupiterYVelocity       The 'y' component of the initial velocity of Jupiter.
+     * @param saturnXPosition        The 'x' component of the initial position of Saturn.
+     * @param saturnYPosition        The 'y' component of the initial position of Saturn.
+     * @param saturnXVelocity        The 'x' component of the initial velocity of Saturn.
+     * @param saturnYVelocity        The 'y' component of the initial velocity of Saturn.
+     * @param bodiesFilePath         Path to a file describing the bodies to be simulated
+     *                               (empty to simulate the default system).
+     * @param checkpointFilePath     Path for checkpoint file (empty to disable checkpoints).
+     * @param checkpointSteps        The amount of steps between two checkpoints.
+     * @param resume                 Indicates whether the simulation is resumed from the checkpoint file.
+     * @param outputBufferSize       The amount of states that can be buffered between the simulation
+     *                               and the output writer thread.
+     * @param samplingPolicy         The sampling policy used to choose the output states
+     *                               (i.e "step", "interval" or "encounter").
+     * @param samplingSteps          The amount of steps between two output states
+     *                               (for the "step" and "encounter" sampling policies).
+     * @param samplingInterval       The amount of simulated time between two output states
+     *                               (for the "interval" sampling policy).
+     * @param encounterSamplingSteps The amount of steps between two output states near encounters
+     *                               (for the "encounter" sampling policy).
+     * @param encounterDistance      The distance to a planet or moon below which the ship is in an encounter
+     *                               (for the "encounter" sampling policy).
+     * @param outputPrecision        The amount of significant digits of each value in text files
+     *                               (or 0 to write them exactly).
+     * @param ovitoFilePath          Path for Ovito file.
+     * @param trajectoryFilePath     Path for trajectory file.
+     * @param distancesFilePath      Path for distances file.
+     * @param speedFilePath          Path for speed file.
+     * @param binaryFilePath         Path for binary file (empty to disable it).
+     * @param binaryCompression      The compression of the binary file
+     *                               (i.e "none", "deflate", "deflate-xor" or "deflate-delta").
+     * @param columnsFilePath        Path for columns file (empty to disable it).
+     * @param columnsVariables       The variables saved into the columns file.
+     * @param eventsFilePath         Path for events file (empty to disable it).
+     * @param stopEvents             The conditions of the events that stop the simulation
+     *                               (i.e "type" or "type:body", such as "closest-approach:Saturn").
+     * @param terminationConditions  The conditions that stop a flight before its end
+     *                               (i.e "flight-time:time", "farther:body:distance", "closer:body:distance",
+     *                               "energy-above:body:energy" or "no-encounter:body:distance:time").
+     * @param conservationInterval   The amount of steps between two measurements of the energy and angular
+     *                               momentum drifts (0 to disable the conservation monitor).
+     * @param driftBudget            The maximum relative drift of the energy and angular momentum.
+     * @param driftAction            What is done when the drift goes beyond the budget
+     *                               (i.e "warn", "abort" or "adapt").
+     * @param conservationFilePath   Path for conservation file (empty to disable it).
      */
     public ProgramArguments(@Value("${custom.simulation.time-step}") final double timeStep,
-                            // Sun
                             @Value("${custom.simulation.years}") int amountOfYears,
+                            @Value("${custom.simulation.integrator:beeman}") String integrator,
+                            @Value("${custom.simulation.adaptive-time-step.enabled:false}") boolean adaptiveTimeStep,
+                            @Value("${custom.simulation.adaptive-time-step.accuracy:0.01}") double adaptiveAccuracy,
+                            @Value("${custom.simulation.adaptive-time-step.min:1}") double minimumTimeStep,
+                            @Value("${custom.simulation.parallel-threshold:512}") int parallelThreshold,
+                            @Value("${custom.simulation.threads:0}") int threads,
+                            @Value("${custom.simulation.force-solver:direct}") String forceSolver,
+                            @Value("${custom.simulation.opening-angle:0.5}") double openingAngle,
+                            @Value("${custom.simulation.massless-probes:false}") boolean masslessProbes,
+                            // Sun
                             @Value("${custom.system.sun.position.x}") final double sunXPosition,
                             @Value("${custom.system.sun.position.y}") final double sunYPosition,
                             @Value("${custom.system.sun.velocity.x}") final double sunXVelocity,
@@ -121,13 +342,47 @@ public class ProgramArguments {
                             @Value("${custom.system.saturn.position.y}") final double saturnYPosition,
                             @Value("${custom.system.saturn.velocity.x}") final double saturnXVelocity,
                             @Value("${custom.system.saturn.velocity.y}") final double saturnYVelocity,
-                            // File paths
+                            // Other bodies
+                            @Value("${custom.system.bodies-file:}") String bodiesFilePath,
+                            // Checkpoints
+                            @Value("${custom.checkpoint.file:}") String checkpointFilePath,
+                            @Value("${custom.checkpoint.steps:100000}") long checkpointSteps,
+                            @Value("${custom.checkpoint.resume:false}") boolean resume,
+                            // Output
+                            @Value("${custom.output.buffer-size:256}") int outputBufferSize,
+                            @Value("${custom.output.sampling.policy:step}") String samplingPolicy,
+                            @Value("${custom.output.sampling.steps:1}") int samplingSteps,
+                            @Value("${custom.output.sampling.interval:86400}") double samplingInterval,
+                            @Value("${custom.output.sampling.encounter-steps:1}") int encounterSamplingSteps,
+                            @Value("${custom.output.sampling.encounter-distance:1e10}") double encounterDistance,
+                            @Value("${custom.output.precision:0}") int outputPrecision,
                             @Value("${custom.output.ovito}") String ovitoFilePath,
                             @Value("${custom.output.trajectory}") String trajectoryFilePath,
                             @Value("${custom.output.distances}") String distancesFilePath,
-                            @Value("${custom.output.speed}") String speedFilePath) {
+                            @Value("${custom.output.speed}") String speedFilePath,
+                            @Value("${custom.output.binary:}") String binaryFilePath,
+                            @Value("${custom.output.binary-compression:none}") String binaryCompression,
+                            @Value("${custom.output.columns:}") String columnsFilePath,
+                            @Value("${custom.output.columns-variables:x,y,speed,distances}")
+                                    String[] columnsVariables,
+                            @Value("${custom.output.events:}") String eventsFilePath,
+                            @Value("${custom.events.stop-on:}") String[] stopEvents,
+                            @Value("${custom.termination.conditions:}") String[] terminationConditions,
+                            @Value("${custom.conservation.interval:0}") int conservationInterval,
+                            @Value("${custom.conservation.drift-budget:1e-6}") double driftBudget,
+                            @Value("${custom.conservation.action:warn}") String driftAction,
+                            @Value("${custom.output.conservation:}") String conservationFilePath) {
         this.timeStep = timeStep;
         this.amountOfYears = amountOfYears;
+        this.integrator = integrator;
+        this.adaptiveTimeStep = adaptiveTimeStep;
+        this.adaptiveAccuracy = adaptiveAccuracy;
+        this.minimumTimeStep = minimumTimeStep;
+        this.parallelThreshold = parallelThreshold;
+        this.threads = threads;
+        this.forceSolver = forceSolver;
+        this.openingAngle = openingAngle;
+        this.masslessProbes = masslessProbes;
         this.sunPosition = new Vector2D(sunXPosition, sunYPosition);
         this.sunVelocity = new Vector2D(sunXVelocity, sunYVelocity);
         this.earthPosition = new Vector2D(earthXPosition, earthYPosition);
@@ -136,10 +391,32 @@ public class ProgramArguments {
         this.jupiterVelocity = new Vector2D(jupiterXVelocity, jupiterYVelocity);
         this.saturnPosition = new Vector2D(saturnXPosition, saturnYPosition);
         this.saturnVelocity = new Vector2D(saturnXVelocity, saturnYVelocity);
+        this.bodiesFilePath = bodiesFilePath;
+        this.checkpointFilePath = checkpointFilePath;
+        this.checkpointSteps = checkpointSteps;
+        this.resume = resume;
+        this.outputBufferSize = outputBufferSize;
+        this.samplingPolicy = samplingPolicy;
+        this.samplingSteps = samplingSteps;
+        this.samplingInterval = samplingInterval;
+        this.encounterSamplingSteps = encounterSamplingSteps;
+        this.encounterDistance = encounterDistance;
+        this.outputPrecision = outputPrecision;
         this.ovitoFilePath = ovitoFilePath;
         this.trajectoryFilePath = trajectoryFilePath;
         this.distancesFilePath = distancesFilePath;
         this.speedFilePath = speedFilePath;
+        this.binaryFilePath = binaryFilePath;
+        this.binaryCompression = binaryCompression;
+        this.columnsFilePath = columnsFilePath;
+        this.columnsVariables = Arrays.asList(columnsVariables);
+        this.eventsFilePath = eventsFilePath;
+        this.stopEvents = Arrays.asList(stopEvents);
+        this.terminationConditions = Arrays.asList(terminationConditions);
+        this.conservationInterval = conservationInterval;
+        this.driftBudget = driftBudget;
+        this.driftAction = driftAction;
+        this.conservationFilePath = conservationFilePath;
     }
 
     /**
@@ -156,6 +433,71 @@ public class ProgramArguments {
         return amountOfYears;
     }
 
+    /**
+     * @return The integration scheme
+     * (i.e "beeman", "velocity-verlet", "yoshida4", "rk4", "gear5", "wisdom-holman" or "block-leapfrog").
+     */
+    public String getIntegrator() {
+        return integrator;
+    }
+
+    /**
+     * @return Indicates whether the time step is adaptive (i.e the time step is then the maximum one).
+     */
+    public boolean isAdaptiveTimeStep() {
+        return adaptiveTimeStep;
+    }
+
+    /**
+     * @return The fraction of the shortest encounter time scale used as adaptive time step.
+     */
+    public double getAdaptiveAccuracy() {
+        return adaptiveAccuracy;
+    }
+
+    /**
+     * @return The minimum adaptive time step.
+     */
+    public double getMinimumTimeStep() {
+        return minimumTimeStep;
+    }
+
+    /**
+     * @return The amount of bodies from which forces are calculated in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @return The amount of threads used to calculate forces in parallel (non positive means as many as processors).
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return The force solver used to calculate accelerations (i.e "direct" or "barnes-hut").
+     */
+    public String getForceSolver() {
+        return forceSolver;
+    }
+
+    /**
+     * @return The opening angle (i.e theta) of the Barnes-Hut force solver.
+     */
+    public double getOpeningAngle() {
+        return openingAngle;
+    }
+
+    /**
+     * @return {@code true} if probes are treated as test particles (i.e they do not affect any body),
+     * or {@code false} otherwise.
+     */
+    public boolean isMasslessProbes() {
+        return masslessProbes;
+    }
+
     /**
      * @return The initial position of the Sun.
      */
@@ -212,6 +554,84 @@ public class ProgramArguments {
         return saturnVelocity;
     }
 
+    /**
+     * @return Path to a file describing the bodies to be simulated (empty to simulate the default system).
+     */
+    public String getBodiesFilePath() {
+        return bodiesFilePath;
+    }
+
+    /**
+     * @return Path for checkpoint file (empty to disable checkpoints).
+     */
+    public String getCheckpointFilePath() {
+        return checkpointFilePath;
+    }
+
+    /**
+     * @return The amount of steps between two checkpoints.
+     */
+    public long getCheckpointSteps() {
+        return checkpointSteps;
+    }
+
+    /**
+     * @return {@code true} if the simulation is resumed from the checkpoint file, or {@code false} otherwise.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * @return The amount of states that can be buffered between the simulation and the output writer thread.
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * @return The sampling policy used to choose the output states (i.e "step", "interval" or "encounter").
+     */
+    public String getSamplingPolicy() {
+        return samplingPolicy;
+    }
+
+    /**
+     * @return The amount of steps between two output states (for the "step" and "encounter" sampling policies).
+     */
+    public int getSamplingSteps() {
+        return samplingSteps;
+    }
+
+    /**
+     * @return The amount of simulated time between two output states (for the "interval" sampling policy).
+     */
+    public double getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * @return The amount of steps between two output states near encounters (for the "encounter" sampling policy).
+     */
+    public int getEncounterSamplingSteps() {
+        return encounterSamplingSteps;
+    }
+
+    /**
+     * @return The distance to a planet or moon below which the ship is in an encounter
+     * (for the "encounter" sampling policy).
+     */
+    public double getEncounterDistance() {
+        return encounterDistance;
+    }
+
+    /**
+     * @return The amount of significant digits of each value in text files (or 0 to write them exactly).
+     */
+    public int getOutputPrecision() {
+        return outputPrecision;
+    }
+
     /**
      * @return Path for Ovito file.
      */
@@ -239,4 +659,83 @@ public class ProgramArguments {
     public String getSpeedFilePath() {
         return speedFilePath;
     }
+
+    /**
+     * @return Path for binary file (empty to disable it).
+     */
+    public String getBinaryFilePath() {
+        return binaryFilePath;
+    }
+
+    /**
+     * @return The compression of the binary file (i.e "none", "deflate", "deflate-xor" or "deflate-delta").
+     */
+    public String getBinaryCompression() {
+        return binaryCompression;
+    }
+
+    /**
+     * @return Path for columns file (empty to disable it).
+     */
+    public String getColumnsFilePath() {
+        return columnsFilePath;
+    }
+
+    /**
+     * @return The variables saved into the columns file.
+     */
+    public List<String> getColumnsVariables() {
+        return columnsVariables;
+    }
+
+    /**
+     * @return Path for events file (empty to disable it).
+     */
+    public String getEventsFilePath() {
+        return eventsFilePath;
+    }
+
+    /**
+     * @return The conditions of the events that stop the simulation (i.e "type" or "type:body").
+     */
+    public List<String> getStopEvents() {
+        return stopEvents;
+    }
+
+    /**
+     * @return The conditions that stop a flight before its end (i.e "flight-time:time", "farther:body:distance",
+     * "closer:body:distance", "energy-above:body:energy" or "no-encounter:body:distance:time").
+     */
+    public List<String> getTerminationConditions() {
+        return terminationConditions;
+    }
+
+    /**
+     * @return The amount of steps between two measurements of the energy and angular momentum drifts
+     * (0 to disable the conservation monitor).
+     */
+    public int getConservationInterval() {
+        return conservationInterval;
+    }
+
+    /**
+     * @return The maximum relative drift of the energy and angular momentum.
+     */
+    public double getDriftBudget() {
+        return driftBudget;
+    }
+
+    /**
+     * @return What is done when the drift goes beyond the budget (i.e "warn", "abort" or "adapt").
+     */
+    public String getDriftAction() {
+        return driftAction;
+    }
+
+    /**
+     * @return Path for conservation file (empty to disable it).
+     */
+    public String getConservationFilePath() {
+        return conservationFilePath;
+    }
 }
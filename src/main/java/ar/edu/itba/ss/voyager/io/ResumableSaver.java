@@ -0,0 +1,36 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.IOException;
+
+/**
+ * A saver whose file can be continued by a resumed simulation, exactly as if it had never stopped.
+ * When a checkpoint is taken, everything saved so far is written into the file, and the saver's state (i.e the
+ * file's length, and whatever it needs to continue it) is saved together with the checkpoint. When resuming,
+ * the file is truncated to that length (i.e anything saved after the checkpoint is discarded), and the saver
+ * continues appending into it.
+ */
+public interface ResumableSaver {
+
+    /**
+     * @return Path to the file being saved (i.e it identifies the saver's state in a checkpoint).
+     */
+    String getFilePath();
+
+    /**
+     * Writes everything saved so far into the file (i.e so it survives a crash), and returns the saver's state.
+     * Must not be called while a state is being saved (i.e it is called by the output writer thread, between states).
+     *
+     * @return The saver's state (to be handed to {@link #resume(byte[])}).
+     * @throws IOException If the file could not be written.
+     */
+    byte[] checkpoint() throws IOException;
+
+    /**
+     * Continues the file from the given {@code state}. Must be called before anything is saved.
+     *
+     * @param state A state returned by {@link #checkpoint()}.
+     * @throws IOException              If the file could not be opened.
+     * @throws IllegalArgumentException If the file is shorter than when the state was taken (e.g it is another one).
+     */
+    void resume(byte[] state) throws IOException;
+}
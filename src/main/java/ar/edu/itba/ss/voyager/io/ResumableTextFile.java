@@ -0,0 +1,184 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A text file written through a {@link Writer}, whose content can be synced at a known length
+ * (i.e taken by a {@link ResumableSaver}'s checkpoint), and which can be reopened at that length.
+ * Files whose path ends with {@value StreamingTextFileSaver#GZIP_EXTENSION} are GZIP compressed:
+ * each sync finishes a GZIP member, and the following text is written into a new one
+ * (i.e a GZIP file can hold several members, which are decompressed as a single stream).
+ */
+/* package */ final class ResumableTextFile implements Closeable {
+
+    /**
+     * Size of the buffer used by the GZIP compressor (in bytes).
+     */
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Path to the file.
+     */
+    private final Path path;
+
+    /**
+     * Indicates whether the file is GZIP compressed.
+     */
+    private final boolean gzip;
+
+    /**
+     * The {@link FileChannel} to which the text is written (or {@code null} if the file is not opened yet).
+     */
+    private FileChannel channel;
+
+    /**
+     * The stream writing into the {@link #channel}, which is not closed with the {@link #writer}
+     * (i.e so a GZIP member can be finished without closing the file).
+     */
+    private OutputStream stream;
+
+    /**
+     * The {@link Writer} to which the text is written.
+     */
+    private Writer writer;
+
+    /**
+     * Constructor. The file is not opened until {@link #open()} or {@link #reopen(long)} is called.
+     *
+     * @param filePath Path to the file.
+     */
+    /* package */ ResumableTextFile(String filePath) {
+        this.path = Paths.get(filePath);
+        this.gzip = filePath.endsWith(StreamingTextFileSaver.GZIP_EXTENSION);
+    }
+
+    /**
+     * @return {@code true} if the file is opened, or {@code false} otherwise.
+     */
+    /* package */ boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * Creates the file (i.e an existing one is truncated).
+     *
+     * @return The {@link Writer} to which the text is written.
+     * @throws IOException If the file could not be created.
+     */
+    /* package */ Writer open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return newWriter();
+    }
+
+    /**
+     * Opens the existing file, truncated to the given {@code length} (i.e the text is appended after it).
+     *
+     * @param length The length returned by {@link #sync()}.
+     * @return The {@link Writer} to which the text is written.
+     * @throws IOException              If the file could not be opened.
+     * @throws IllegalArgumentException If the file is shorter than the given length.
+     */
+    /* package */ Writer reopen(long length) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() < length) {
+            channel.close();
+            channel = null;
+            throw new IllegalArgumentException(path + " is shorter than when the checkpoint was taken");
+        }
+        channel.truncate(length);
+        channel.position(length);
+        return newWriter();
+    }
+
+    /**
+     * @return The {@link Writer} to which the text is written (i.e it changes after each {@link #sync()}).
+     */
+    /* package */ Writer writer() {
+        return writer;
+    }
+
+    /**
+     * Writes all the text written so far into the file (finishing the GZIP member, if compressed).
+     *
+     * @return The file's length.
+     * @throws IOException If the text could not be written.
+     */
+    /* package */ long sync() throws IOException {
+        if (!gzip) {
+            writer.flush();
+            return channel.position();
+        }
+        writer.close(); // Finishes the GZIP member, but the stream is not closed
+        final long length = channel.position();
+        newWriter();
+        return length;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the text could not be written, or the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Creates a new {@link #writer} (and GZIP member, if compressed) writing at the {@link #channel}'s position.
+     *
+     * @return The new {@link Writer}.
+     * @throws IOException If the GZIP header could not be written.
+     */
+    private Writer newWriter() throws IOException {
+        if (stream == null) {
+            stream = new UnclosableOutputStream(Channels.newOutputStream(channel));
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(gzip ? new GZIPOutputStream(stream, GZIP_BUFFER_SIZE) :
+                stream, StandardCharsets.UTF_8));
+        return writer;
+    }
+
+    /**
+     * An {@link OutputStream} that is only flushed when closed.
+     */
+    private static final class UnclosableOutputStream extends FilterOutputStream {
+
+        /**
+         * Constructor.
+         *
+         * @param out The underlying {@link OutputStream}.
+         */
+        private UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length); // i.e not byte by byte
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+
+/**
+ * Decides which states of the simulation are output (i.e the integration time step can be kept small,
+ * while the amount of output is reduced).
+ */
+public interface SamplingPolicy {
+
+    /**
+     * Indicates whether the actual state of the given {@code solarSystem} must be output.
+     * It is called once per step, in order, so implementations might keep state.
+     *
+     * @param step        The amount of steps performed so far.
+     * @param solarSystem The {@link SolarSystem} being simulated.
+     * @return {@code true} if the state must be output, or {@code false} otherwise.
+     */
+    boolean sample(long step, SolarSystem solarSystem);
+
+    /**
+     * @return The state kept between calls to {@link #sample(long, SolarSystem)} (i.e to be saved in a checkpoint).
+     * Stateless policies return 0.
+     */
+    default long getCursor() {
+        return 0;
+    }
+
+    /**
+     * Restores the state kept between calls to {@link #sample(long, SolarSystem)} (i.e when resuming a simulation).
+     * Does nothing by default.
+     *
+     * @param cursor A value previously returned by {@link #getCursor()}.
+     */
+    default void setCursor(long cursor) {
+        // Stateless by default
+    }
+
+    /**
+     * @return The time of the next state to be output, if this policy samples at fixed times
+     * (i.e so steps of adaptive length can end exactly at it), or infinity otherwise.
+     */
+    default double getNextSampleTime() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return The (nominal) amount of time between two output states.
+     */
+    double getOutputTimeStep();
+
+    /**
+     * @return A short description of this policy, to be written into the output files.
+     */
+    String getDescription();
+}
@@ -1,57 +1,36 @@
 package ar.edu.itba.ss.voyager.io;
 
-import ar.edu.itba.ss.g7.engine.io.TextFileSaver;
-import ar.edu.itba.ss.voyager.models.Body;
-import ar.edu.itba.ss.voyager.models.SolarSystem;
-import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+import ar.edu.itba.ss.voyager.models.SolarSystemSnapshot;
 
-import java.io.IOException;
-import java.io.Writer;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * A {@link TextFileSaver} that will output the ship's speed (i.e velocity module).
+ * A {@link MatlabFileSaver} that will output the ship's speed (i.e velocity module) into {@code shipSpeed}.
  */
-public class SpeedFileSaver extends TextFileSaver<SolarSystem.SolarSystemState> {
-
-    /**
-     * The time step.
-     */
-    private final double timeStep;
-
-    /**
-     * The total time.
-     */
-    private final double totalTime;
+public class SpeedFileSaver extends MatlabFileSaver {
 
     /**
      * Constructor.
      *
-     * @param filePath  Path to the file to be saved.
-     * @param timeStep  The time step.
-     * @param totalTime The total time.
+     * @param filePath       Path to the file to be saved.
+     * @param samplingPolicy The {@link SamplingPolicy} used to choose the output snapshots.
+     * @param timeStep       The integration time step.
+     * @param totalTime      The total time.
+     * @param precision      The amount of significant digits of each value (or 0 to write them exactly).
      */
-    public SpeedFileSaver(String filePath, double timeStep, double totalTime) {
-        super(filePath);
-        this.timeStep = timeStep;
-        this.totalTime = totalTime;
+    public SpeedFileSaver(String filePath, SamplingPolicy samplingPolicy, double timeStep, double totalTime,
+                          int precision) {
+        super(filePath, "speeds", samplingPolicy, timeStep, totalTime, precision);
+    }
+
+    @Override
+    protected List<String> variableNames(SolarSystemSnapshot snapshot) {
+        return Collections.singletonList("shipSpeed");
     }
 
     @Override
-    public void doSave(Writer writer, Queue<SolarSystem.SolarSystemState> queue) throws IOException {
-        final String speed = "shipSpeed = [" + queue.stream()
-                .map(SolarSystem.SolarSystemState::getShip)
-                .map(Body.BodyState::getVelocity)
-                .map(Vector2D::getNorm)
-                .map(Object::toString)
-                .collect(Collectors.joining(", ")) + "];";
-        // Append results into the Writer
-        writer.append(speed)
-                .append("\n")
-                .append("dt = ").append(String.valueOf(timeStep)).append(";")
-                .append("\n")
-                .append("totalTime = ").append(String.valueOf(totalTime)).append(";")
-                .append("\n");
+    protected void values(SolarSystemSnapshot snapshot, double[] row) {
+        row[0] = snapshot.getSpeed(snapshot.getShipIndex());
     }
 }
@@ -0,0 +1,49 @@
+package ar.edu.itba.ss.voyager.io;
+
+import ar.edu.itba.ss.voyager.models.SolarSystem;
+
+/**
+ * {@link SamplingPolicy} that outputs one of every {@code k} steps.
+ */
+public class StepSamplingPolicy implements SamplingPolicy {
+
+    /**
+     * The amount of steps between two output states.
+     */
+    private final int steps;
+
+    /**
+     * The integration time step.
+     */
+    private final double timeStep;
+
+    /**
+     * Constructor.
+     *
+     * @param steps    The amount of steps between two output states (i.e one outputs every step).
+     * @param timeStep The integration time step.
+     * @throws IllegalArgumentException If the amount of steps is not positive.
+     */
+    public StepSamplingPolicy(int steps, double timeStep) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("The amount of steps between output states must be positive");
+        }
+        this.steps = steps;
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public boolean sample(long step, SolarSystem solarSystem) {
+        return step % steps == 0;
+    }
+
+    @Override
+    public double getOutputTimeStep() {
+        return steps * timeStep;
+    }
+
+    @Override
+    public String getDescription() {
+        return "every " + steps + " steps";
+    }
+}
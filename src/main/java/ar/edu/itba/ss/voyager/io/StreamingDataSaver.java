@@ -0,0 +1,19 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.Closeable;
+
+/**
+ * A saver that receives states one by one, as they are produced (i.e states are not retained in memory).
+ *
+ * @param <S> The type of state being saved.
+ */
+public interface StreamingDataSaver<S> extends Closeable {
+
+    /**
+     * Saves the given {@code state} (i.e the next state of the simulation).
+     *
+     * @param state The state to be saved.
+     * @throws java.io.UncheckedIOException If the state could not be saved.
+     */
+    void save(S state);
+}
@@ -0,0 +1,177 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A {@link StreamingDataSaver} that appends each state into a text file through a {@link BufferedWriter}.
+ * Each state is formatted into a reusable {@link TextBuffer} (i.e without creating a {@link String} per value),
+ * which is then written at once.
+ * The file is opened when the first state is saved, and its footer is written when the saver is closed.
+ * Files whose path ends with {@value #GZIP_EXTENSION} are GZIP compressed.
+ * A resumed simulation continues the file from the checkpoint (see {@link ResumableSaver}).
+ *
+ * @param <S> The type of state being saved.
+ */
+public abstract class StreamingTextFileSaver<S> implements StreamingDataSaver<S>, ResumableSaver {
+
+    /**
+     * Extension of the files that are GZIP compressed.
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Path to the file to be saved.
+     */
+    private final String filePath;
+
+    /**
+     * The {@link TextBuffer} into which each state is formatted.
+     */
+    private final TextBuffer buffer;
+
+    /**
+     * The {@link ResumableTextFile} to which states are appended (opened when the first state is saved).
+     */
+    private final ResumableTextFile file;
+
+    /**
+     * Amount of states saved.
+     */
+    private int savedStates;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath  Path to the file to be saved.
+     * @param precision The amount of significant digits of each double (or 0 to write them exactly).
+     */
+    public StreamingTextFileSaver(String filePath, int precision) {
+        this.filePath = filePath;
+        this.buffer = new TextBuffer(precision);
+        this.file = new ResumableTextFile(filePath);
+    }
+
+    @Override
+    public void save(S state) {
+        try {
+            final Writer writer = writer();
+            saveState(buffer, state, savedStates);
+            buffer.writeTo(writer);
+            savedStates++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save a state into " + filePath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        final Writer writer = writer();
+        try {
+            writeFooter(writer, savedStates);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public byte[] checkpoint() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream state = new DataOutputStream(bytes)) {
+            state.writeLong(file.isOpen() ? file.sync() : -1); // i.e -1 if nothing was written yet
+            state.writeInt(savedStates);
+            checkpointState(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void resume(byte[] state) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(state))) {
+            final long length = input.readLong();
+            if (length >= 0) {
+                file.reopen(length);
+            }
+            savedStates = input.readInt();
+            resumeState(input);
+        }
+    }
+
+    /**
+     * Opens the file and writes its header, if not done yet.
+     *
+     * @return The {@link Writer} to which states are appended.
+     * @throws IOException If the file could not be opened.
+     */
+    private Writer writer() throws IOException {
+        if (!file.isOpen()) {
+            writeHeader(file.open());
+        }
+        return file.writer();
+    }
+
+    /**
+     * Writes the state a subclass needs to continue the file into a checkpoint (see {@link #checkpoint()}).
+     * Does nothing by default.
+     *
+     * @param state The {@link DataOutput} into which the state is written.
+     * @throws IOException If the state could not be written.
+     */
+    protected void checkpointState(DataOutput state) throws IOException {
+        // Nothing by default
+    }
+
+    /**
+     * Reads the state written by {@link #checkpointState(DataOutput)} (see {@link #resume(byte[])}).
+     * Does nothing by default.
+     *
+     * @param state The {@link DataInput} from which the state is read.
+     * @throws IOException If the state could not be read.
+     */
+    protected void resumeState(DataInput state) throws IOException {
+        // Nothing by default
+    }
+
+    /**
+     * Writes the file header (i.e before any state is saved). Does nothing by default.
+     *
+     * @param writer The {@link Writer} to which the header is written.
+     * @throws IOException If the header could not be written.
+     */
+    protected void writeHeader(Writer writer) throws IOException {
+        // Nothing by default
+    }
+
+    /**
+     * Formats the given {@code state} into the {@link TextBuffer} (which is then appended into the file).
+     *
+     * @param buffer The {@link TextBuffer} into which the state is formatted.
+     * @param state  The state to be saved.
+     * @param index  The index of the state (i.e the amount of states saved before it).
+     */
+    protected abstract void saveState(TextBuffer buffer, S state, int index);
+
+    /**
+     * Writes the file footer (i.e after all states are saved). Does nothing by default.
+     *
+     * @param writer      The {@link Writer} to which the footer is written.
+     * @param savedStates The amount of saved states.
+     * @throws IOException If the footer could not be written.
+     */
+    protected void writeFooter(Writer writer, int savedStates) throws IOException {
+        // Nothing by default
+    }
+}
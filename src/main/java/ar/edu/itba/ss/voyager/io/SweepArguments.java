@@ -0,0 +1,250 @@
+package ar.edu.itba.ss.voyager.io;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execution arguments for the launch-window sweep mode.
+ * Ranges are given as {@code from}, {@code to} (both inclusive) and {@code step}
+ * (a non positive step means only {@code from} is used).
+ */
+@Component
+public class SweepArguments {
+
+    /**
+     * Amount of seconds in a day.
+     */
+    private static final double DAY_SECONDS = 24 * 60 * 60;
+
+    /**
+     * Indicates whether the sweep mode is enabled (i.e a sweep is performed instead of a single simulation).
+     */
+    private final boolean enabled;
+
+    /**
+     * The first launch day (in days since the beginning of the simulation).
+     */
+    private final double fromLaunchDay;
+
+    /**
+     * The last launch day (in days since the beginning of the simulation).
+     */
+    private final double toLaunchDay;
+
+    /**
+     * The separation between launch days (in days).
+     */
+    private final double launchDayStep;
+
+    /**
+     * The first launch speed (in meters over seconds, added to the planet's velocity).
+     */
+    private final double fromSpeed;
+
+    /**
+     * The last launch speed (in meters over seconds, added to the planet's velocity).
+     */
+    private final double toSpeed;
+
+    /**
+     * The separation between launch speeds (in meters over seconds).
+     */
+    private final double speedStep;
+
+    /**
+     * The first launch angle (in degrees, counterclockwise from the planet's velocity).
+     */
+    private final double fromAngle;
+
+    /**
+     * The last launch angle (in degrees, counterclockwise from the planet's velocity).
+     */
+    private final double toAngle;
+
+    /**
+     * The separation between launch angles (in degrees).
+     */
+    private final double angleStep;
+
+    /**
+     * The amount of simulations run in parallel (non positive means as many as processors).
+     */
+    private final int threads;
+
+    /**
+     * The name of the body from which the ship is launched.
+     */
+    private final String launchBody;
+
+    /**
+     * The amount of steps between two samples stored in the ephemeris.
+     */
+    private final int ephemerisStride;
+
+    /**
+     * Path to the file in which the ephemeris is stored (empty to keep it on the heap).
+     */
+    private final String ephemerisFilePath;
+
+    /**
+     * Path for the sweep summary file.
+     */
+    private final String outputFilePath;
+
+    /**
+     * Constructor.
+     *
+     * @param enabled           Indicates whether the sweep mode is enabled
+     *                          (i.e a sweep is performed instead of a single simulation).
+     * @param fromLaunchDay     The first launch day (in days since the beginning of the simulation).
+     * @param toLaunchDay       The last launch day (in days since the beginning of the simulation).
+     * @param launchDayStep     The separation between launch days (in days).
+     * @param fromSpeed         The first launch speed (in meters over seconds, added to the planet's velocity).
+     * @param toSpeed           The last launch speed (in meters over seconds, added to the planet's velocity).
+     * @param speedStep         The separation between launch speeds (in meters over seconds).
+     * @param fromAngle         The first launch angle (in degrees, counterclockwise from the planet's velocity).
+     * @param toAngle           The last launch angle (in degrees, counterclockwise from the planet's velocity).
+     * @param angleStep         The separation between launch angles (in degrees).
+     * @param threads           The amount of simulations run in parallel (non positive means as many as processors).
+     * @param launchBody        The name of the body from which the ship is launched.
+     * @param ephemerisStride   The amount of steps between two samples stored in the ephemeris.
+     * @param ephemerisFilePath Path to the file in which the ephemeris is stored (empty to keep it on the heap).
+     * @param outputFilePath    Path for the sweep summary file.
+     */
+    public SweepArguments(@Value("${custom.sweep.enabled:false}") boolean enabled,
+                          @Value("${custom.sweep.launch-day.from:0}") double fromLaunchDay,
+                          @Value("${custom.sweep.launch-day.to:0}") double toLaunchDay,
+                          @Value("${custom.sweep.launch-day.step:0}") double launchDayStep,
+                          @Value("${custom.sweep.speed.from:14000}") double fromSpeed,
+                          @Value("${custom.sweep.speed.to:14000}") double toSpeed,
+                          @Value("${custom.sweep.speed.step:0}") double speedStep,
+                          @Value("${custom.sweep.angle.from:0}") double fromAngle,
+                          @Value("${custom.sweep.angle.to:0}") double toAngle,
+                          @Value("${custom.sweep.angle.step:0}") double angleStep,
+                          @Value("${custom.sweep.threads:0}") int threads,
+                          @Value("${custom.sweep.launch-body:Earth}") String launchBody,
+                          @Value("${custom.sweep.ephemeris.stride:1}") int ephemerisStride,
+                          @Value("${custom.sweep.ephemeris.file:}") String ephemerisFilePath,
+                          @Value("${custom.output.sweep:sweep.m}") String outputFilePath) {
+        this.enabled = enabled;
+        this.fromLaunchDay = fromLaunchDay;
+        this.toLaunchDay = toLaunchDay;
+        this.launchDayStep = launchDayStep;
+        this.fromSpeed = fromSpeed;
+        this.toSpeed = toSpeed;
+        this.speedStep = speedStep;
+        this.fromAngle = fromAngle;
+        this.toAngle = toAngle;
+        this.angleStep = angleStep;
+        this.threads = threads;
+        this.launchBody = launchBody;
+        this.ephemerisStride = ephemerisStride;
+        this.ephemerisFilePath = ephemerisFilePath;
+        this.outputFilePath = outputFilePath;
+    }
+
+    /**
+     * @return {@code true} if the sweep mode is enabled, or {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The first launch time (in seconds since the beginning of the simulation).
+     */
+    public double getFromLaunchTime() {
+        return fromLaunchDay * DAY_SECONDS;
+    }
+
+    /**
+     * @return The last launch time (in seconds since the beginning of the simulation).
+     */
+    public double getToLaunchTime() {
+        return toLaunchDay * DAY_SECONDS;
+    }
+
+    /**
+     * @return The separation between launch times (in seconds).
+     */
+    public double getLaunchTimeStep() {
+        return launchDayStep * DAY_SECONDS;
+    }
+
+    /**
+     * @return The first launch speed (in meters over seconds, added to the planet's velocity).
+     */
+    public double getFromSpeed() {
+        return fromSpeed;
+    }
+
+    /**
+     * @return The last launch speed (in meters over seconds, added to the planet's velocity).
+     */
+    public double getToSpeed() {
+        return toSpeed;
+    }
+
+    /**
+     * @return The separation between launch speeds (in meters over seconds).
+     */
+    public double getSpeedStep() {
+        return speedStep;
+    }
+
+    /**
+     * @return The first launch angle (in radians, counterclockwise from the planet's velocity).
+     */
+    public double getFromAngle() {
+        return Math.toRadians(fromAngle);
+    }
+
+    /**
+     * @return The last launch angle (in radians, counterclockwise from the planet's velocity).
+     */
+    public double getToAngle() {
+        return Math.toRadians(toAngle);
+    }
+
+    /**
+     * @return The separation between launch angles (in radians).
+     */
+    public double getAngleStep() {
+        return Math.toRadians(angleStep);
+    }
+
+    /**
+     * @return The amount of simulations run in parallel (non positive means as many as processors).
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return The name of the body from which the ship is launched.
+     */
+    public String getLaunchBody() {
+        return launchBody;
+    }
+
+    /**
+     * @return The amount of steps between two samples stored in the ephemeris.
+     */
+    public int getEphemerisStride() {
+        return ephemerisStride;
+    }
+
+    /**
+     * @return Path to the file in which the ephemeris is stored (empty to keep it on the heap).
+     */
+    public String getEphemerisFilePath() {
+        return ephemerisFilePath;
+    }
+
+    /**
+     * @return Path for the sweep summary file.
+     */
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+}
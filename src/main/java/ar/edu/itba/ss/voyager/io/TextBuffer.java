@@ -0,0 +1,291 @@
+package ar.edu.itba.ss.voyager.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of characters into which text is formatted without creating intermediate objects
+ * (i.e numbers are written straight into the buffer, instead of being converted into {@link String}s first).
+ * Doubles are written either exactly (i.e as {@link Double#toString(double)} would, so they can be read back
+ * into the same value), or rounded to a fixed amount of significant digits.
+ * This class is not thread safe.
+ */
+public final class TextBuffer {
+
+    /**
+     * Maximum amount of significant digits of the fixed precision format (i.e that fit in a {@code long}).
+     */
+    public static final int MAX_PRECISION = 17;
+
+    /**
+     * Powers of ten that fit in a {@code long}.
+     */
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    /**
+     * Powers of ten that fit in a {@code double} (correctly rounded).
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[309];
+
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = 10 * LONG_POWERS_OF_TEN[i - 1];
+        }
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+            DOUBLE_POWERS_OF_TEN[i] = Double.parseDouble("1e" + i);
+        }
+    }
+
+    /**
+     * The amount of significant digits of each double (or 0 to write them exactly).
+     */
+    private final int precision;
+
+    /**
+     * Scratch {@link StringBuilder} used to write doubles exactly (i.e appending a double to it does not allocate).
+     */
+    private final StringBuilder exact;
+
+    /**
+     * The buffered characters.
+     */
+    private char[] chars;
+
+    /**
+     * The amount of buffered characters.
+     */
+    private int length;
+
+    /**
+     * Constructor.
+     *
+     * @param precision The amount of significant digits of each double (or 0 to write them exactly).
+     * @throws IllegalArgumentException If the precision is negative, or greater than {@link #MAX_PRECISION}.
+     */
+    public TextBuffer(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision must be between 0 and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.exact = new StringBuilder(32);
+        this.chars = new char[1024];
+    }
+
+    /**
+     * @return The amount of significant digits of each double (or 0 if they are written exactly).
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return The amount of buffered characters.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Appends the given {@code string}.
+     *
+     * @param string The {@link String} to be appended.
+     * @return This buffer.
+     */
+    public TextBuffer append(String string) {
+        ensureCapacity(string.length());
+        string.getChars(0, string.length(), chars, length);
+        length += string.length();
+        return this;
+    }
+
+    /**
+     * Appends the given {@code character}.
+     *
+     * @param character The character to be appended.
+     * @return This buffer.
+     */
+    public TextBuffer append(char character) {
+        ensureCapacity(1);
+        chars[length++] = character;
+        return this;
+    }
+
+    /**
+     * Appends the given {@code value} in decimal notation.
+     *
+     * @param value The value to be appended.
+     * @return This buffer.
+     */
+    public TextBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        appendDigits(value, digits(value));
+        return this;
+    }
+
+    /**
+     * Appends the given {@code value}, either exactly or with the fixed amount of significant digits.
+     * The fixed precision format follows {@link Double#toString(double)}'s layout (i.e plain notation
+     * for magnitudes between 10<sup>-3</sup> and 10<sup>7</sup>, and computerized scientific notation otherwise),
+     * without trailing zeros. The digits are obtained by scaling the value in floating point,
+     * so beyond 15 significant digits the last one may be off by one (i.e use 0 for values that must be read back
+     * exactly).
+     *
+     * @param value The value to be appended.
+     * @return This buffer.
+     */
+    public TextBuffer append(double value) {
+        if (precision == 0 || value == 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            exact.setLength(0);
+            exact.append(value);
+            ensureCapacity(exact.length());
+            exact.getChars(0, exact.length(), chars, length);
+            length += exact.length();
+            return this;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int exponent = (int) Math.floor(Math.log10(value));
+        long significand = significand(value, exponent);
+        // The logarithm may be off by one, or rounding may carry into a new digit
+        if (significand >= LONG_POWERS_OF_TEN[precision]) {
+            exponent++;
+            significand = significand(value, exponent);
+        } else if (significand < LONG_POWERS_OF_TEN[precision - 1]) {
+            exponent--;
+            significand = significand(value, exponent);
+        }
+        if (significand >= LONG_POWERS_OF_TEN[precision]) {
+            exponent++;
+            significand /= 10;
+        }
+        int digits = precision;
+        while (digits > 1 && significand % 10 == 0) {
+            significand /= 10;
+            digits--;
+        }
+        if (exponent >= 0 && exponent < 7) {
+            // Plain notation, with at least one digit after the point
+            if (digits <= exponent + 1) {
+                appendDigits(significand, digits);
+                for (int i = digits; i <= exponent; i++) {
+                    append('0');
+                }
+                return append(".0");
+            }
+            final long divisor = LONG_POWERS_OF_TEN[digits - exponent - 1];
+            appendDigits(significand / divisor, exponent + 1);
+            append('.');
+            appendDigits(significand % divisor, digits - exponent - 1);
+            return this;
+        }
+        if (exponent < 0 && exponent >= -3) {
+            append("0.");
+            for (int i = -1; i > exponent; i--) {
+                append('0');
+            }
+            appendDigits(significand, digits);
+            return this;
+        }
+        // Computerized scientific notation
+        final long divisor = LONG_POWERS_OF_TEN[digits - 1];
+        appendDigits(significand / divisor, 1);
+        append('.');
+        if (digits == 1) {
+            append('0');
+        } else {
+            appendDigits(significand % divisor, digits - 1);
+        }
+        append('E');
+        return append(exponent);
+    }
+
+    /**
+     * Writes the buffered characters into the given {@code writer}, and clears the buffer.
+     *
+     * @param writer The {@link Writer} into which characters are written.
+     * @throws IOException If the characters could not be written.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        writer.write(chars, 0, length);
+        length = 0;
+    }
+
+    /**
+     * Clears the buffer.
+     */
+    public void clear() {
+        length = 0;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Calculates the {@link #precision} most significant digits of the given {@code value}.
+     *
+     * @param value    The (positive) value.
+     * @param exponent The value's decimal exponent.
+     * @return The significand, rounded to the closest integer.
+     */
+    private long significand(double value, int exponent) {
+        int scale = precision - 1 - exponent;
+        double scaled = value;
+        // Subnormal values need more than one scaling
+        while (scale > DOUBLE_POWERS_OF_TEN.length - 1) {
+            scaled *= DOUBLE_POWERS_OF_TEN[DOUBLE_POWERS_OF_TEN.length - 1];
+            scale -= DOUBLE_POWERS_OF_TEN.length - 1;
+        }
+        scaled = scale >= 0 ? scaled * DOUBLE_POWERS_OF_TEN[scale] : scaled / DOUBLE_POWERS_OF_TEN[-scale];
+        return Math.round(scaled);
+    }
+
+    /**
+     * Appends the given amount of least significant digits of the given {@code value} (i.e with leading zeros).
+     *
+     * @param value  The (non negative) value.
+     * @param digits The amount of digits.
+     */
+    private void appendDigits(long value, int digits) {
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    /**
+     * @param value The (non negative) value.
+     * @return The amount of decimal digits of the given {@code value}.
+     */
+    private static int digits(long value) {
+        int digits = 1;
+        while (digits < LONG_POWERS_OF_TEN.length && value >= LONG_POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Grows the buffer, if needed, so the given amount of characters can be appended.
+     *
+     * @param characters The amount of characters to be appended.
+     */
+    private void ensureCapacity(int characters) {
+        if (length + characters > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(2 * chars.length, length + characters));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Chooses the time step of each step from the actual state of the bodies, so it shrinks during close encounters
+ * and grows during cruise. For each body and each attractor (i.e star, planet or moon), two time scales are
+ * calculated: the time the body takes to cross their distance at their relative speed, and the free-fall time
+ * of the pair (i.e {@code sqrt(r^3 / (G * (m1 + m2)))}, proportional to the period of an orbit at that distance).
+ * The time step is the smallest of them, multiplied by the accuracy parameter, and bounded by a minimum and a
+ * maximum time step. No acceleration is calculated (i.e it costs roughly as much as a sequential force evaluation
+ * of the bodies against the attractors).
+ */
+public final class AdaptiveTimeStep {
+
+    /**
+     * The fraction of the shortest time scale used as time step.
+     */
+    private final double accuracy;
+
+    /**
+     * The minimum time step.
+     */
+    private final double minimumTimeStep;
+
+    /**
+     * The maximum time step.
+     */
+    private final double maximumTimeStep;
+
+    /**
+     * Constructor.
+     *
+     * @param accuracy        The fraction of the shortest time scale used as time step (i.e smaller is more accurate).
+     * @param minimumTimeStep The minimum time step.
+     * @param maximumTimeStep The maximum time step.
+     * @throws IllegalArgumentException If the accuracy or the minimum time step are not positive,
+     *                                  or if the maximum time step is less than the minimum one.
+     */
+    public AdaptiveTimeStep(double accuracy, double minimumTimeStep, double maximumTimeStep) {
+        if (accuracy <= 0) {
+            throw new IllegalArgumentException("The accuracy must be positive");
+        }
+        if (minimumTimeStep <= 0 || maximumTimeStep < minimumTimeStep) {
+            throw new IllegalArgumentException("The time steps must be positive, and the maximum one must not be "
+                    + "less than the minimum one");
+        }
+        this.accuracy = accuracy;
+        this.minimumTimeStep = minimumTimeStep;
+        this.maximumTimeStep = maximumTimeStep;
+    }
+
+    /**
+     * @return The fraction of the shortest time scale used as time step.
+     */
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * @return The minimum time step.
+     */
+    public double getMinimumTimeStep() {
+        return minimumTimeStep;
+    }
+
+    /**
+     * @return The maximum time step.
+     */
+    public double getMaximumTimeStep() {
+        return maximumTimeStep;
+    }
+
+    /**
+     * Chooses the time step for the next step of the given {@code bodies} (i.e the same one for all of them).
+     *
+     * @param bodies     The {@link BodyArrays} to be integrated.
+     * @param attractors The indexes of the attractors (i.e the bodies whose encounters must be resolved).
+     * @return The time step.
+     */
+    /* package */ double timeStep(final BodyArrays bodies, final int[] attractors) {
+        return scaledTimeStep(bodies, attractors, 1d);
+    }
+
+    /**
+     * Chooses the time step for the next step of the given {@code bodies} (i.e the same one for all of them),
+     * with the accuracy parameter scaled by the given {@code accuracyFactor} (e.g by a {@link ConservationMonitor}).
+     *
+     * @param bodies         The {@link BodyArrays} to be integrated.
+     * @param attractors     The indexes of the attractors (i.e the bodies whose encounters must be resolved).
+     * @param accuracyFactor The factor by which the accuracy parameter is scaled.
+     * @return The time step.
+     */
+    /* package */ double scaledTimeStep(final BodyArrays bodies, final int[] attractors,
+                                       final double accuracyFactor) {
+        double minimumSquaredTime = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < bodies.size; i++) {
+            minimumSquaredTime = Math.min(minimumSquaredTime, squaredTimeScale(bodies, attractors, i));
+        }
+        return bound(accuracy * accuracyFactor * Math.sqrt(minimumSquaredTime));
+    }
+
+    /**
+     * Chooses the time step for the next step of the given {@code body} (i.e for individual time steps).
+     *
+     * @param bodies   The {@link BodyArrays} to be integrated.
+     * @param partners The indexes of the bodies whose encounters with the given {@code body} must be resolved
+     *                 (i.e the attractors, plus all bodies if it is an attractor itself).
+     * @param body     The body's index.
+     * @return The body's time step.
+     */
+    /* package */ double timeStep(final BodyArrays bodies, final int[] partners, final int body) {
+        return bound(accuracy * Math.sqrt(squaredTimeScale(bodies, partners, body)));
+    }
+
+    /**
+     * Bounds the given {@code timeStep} by the minimum and maximum time steps.
+     *
+     * @param timeStep The time step.
+     * @return The bounded time step.
+     */
+    private double bound(final double timeStep) {
+        return Math.max(minimumTimeStep, Math.min(maximumTimeStep, timeStep));
+    }
+
+    /**
+     * Calculates the square of the shortest time scale of the given {@code body} against the given {@code partners}
+     * (i.e squared time scales are compared, so only one square root is taken per pair).
+     *
+     * @param bodies   The {@link BodyArrays} with the bodies' state.
+     * @param partners The indexes of the bodies against which time scales are calculated.
+     * @param body     The body's index.
+     * @return The squared time scale (or infinity if there is no other partner).
+     */
+    private static double squaredTimeScale(final BodyArrays bodies, final int[] partners, final int body) {
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] masses = bodies.masses;
+        double minimumSquaredTime = Double.POSITIVE_INFINITY;
+        for (int partner : partners) {
+            if (partner == body) {
+                continue;
+            }
+            final double dx = x[partner] - x[body];
+            final double dy = y[partner] - y[body];
+            final double dvx = vx[partner] - vx[body];
+            final double dvy = vy[partner] - vy[body];
+            final double squaredDistance = dx * dx + dy * dy;
+            final double squaredSpeed = dvx * dvx + dvy * dvy;
+            final double squaredCrossingTime = squaredDistance / squaredSpeed;
+            final double squaredFreeFallTime = squaredDistance * Math.sqrt(squaredDistance)
+                    / (Constants.G * (masses[partner] + masses[body]));
+            minimumSquaredTime = Math.min(minimumSquaredTime, Math.min(squaredCrossingTime, squaredFreeFallTime));
+        }
+        return minimumSquaredTime;
+    }
+}
@@ -0,0 +1,393 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+
+/**
+ * {@link ForceSolver} that approximates the accelerations with the Barnes-Hut algorithm.
+ * A quadtree is rebuilt from the positions arrays each time the accelerations are calculated,
+ * and each cell whose size over distance ratio is below the opening angle (i.e theta)
+ * is replaced by a single body placed at its center of mass.
+ * The tree is stored in primitive arrays that are reused between calls (they only grow when needed),
+ * so no heap allocation is performed once the solver has warmed up.
+ */
+public class BarnesHutSolver implements ForceSolver {
+
+    /**
+     * The default opening angle.
+     */
+    public static final double DEFAULT_OPENING_ANGLE = 0.5;
+
+    /**
+     * Maximum depth of the tree. Bodies that reach a leaf at this depth are stored together in it
+     * (i.e avoids infinite subdivision when two bodies are in the same position).
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Value used to indicate the absence of a node or a body.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The square of the opening angle.
+     */
+    private final double squaredOpeningAngle;
+
+    // ================================================================================================================
+    // Tree nodes (indexed by node)
+    // ================================================================================================================
+
+    /**
+     * The amount of nodes in use.
+     */
+    private int amountOfNodes;
+
+    /**
+     * The 'x' component of each cell's center.
+     */
+    private double[] centersX;
+
+    /**
+     * The 'y' component of each cell's center.
+     */
+    private double[] centersY;
+
+    /**
+     * Half the side of each cell.
+     */
+    private double[] halfSides;
+
+    /**
+     * The mass contained in each cell.
+     */
+    private double[] cellMasses;
+
+    /**
+     * The 'x' component of each cell's center of mass.
+     */
+    private double[] centersOfMassX;
+
+    /**
+     * The 'y' component of each cell's center of mass.
+     */
+    private double[] centersOfMassY;
+
+    /**
+     * The children of each node (four per node, {@link #NONE} for empty quadrants),
+     * or all {@link #NONE} for leaves.
+     */
+    private int[] children;
+
+    /**
+     * Indicates whether each node is a leaf.
+     */
+    private boolean[] leaves;
+
+    /**
+     * The first body stored in each leaf ({@link #NONE} for internal nodes).
+     */
+    private int[] firstBodies;
+
+    /**
+     * The depth of each node.
+     */
+    private int[] depths;
+
+    // ================================================================================================================
+    // Bodies and traversal (indexed by body or stack position)
+    // ================================================================================================================
+
+    /**
+     * The next body stored in the same leaf as each body ({@link #NONE} if it is the last one).
+     */
+    private int[] nextBodies;
+
+    /**
+     * Stack used to traverse the tree.
+     */
+    private int[] stack;
+
+    /**
+     * Constructor.
+     *
+     * @param openingAngle The opening angle (i.e theta). Zero means no approximation is performed.
+     */
+    public BarnesHutSolver(double openingAngle) {
+        if (openingAngle < 0) {
+            throw new IllegalArgumentException("The opening angle must not be negative");
+        }
+        this.squaredOpeningAngle = openingAngle * openingAngle;
+        this.nextBodies = new int[0];
+        this.stack = new int[0];
+        allocateNodes(16);
+    }
+
+    @Override
+    public void computeAccelerations(int size, double[] masses, double[] positionsX, double[] positionsY,
+                                     double[] accelerationsX, double[] accelerationsY) {
+        if (size == 0) {
+            return;
+        }
+        buildTree(size, masses, positionsX, positionsY);
+        for (int i = 0; i < size; i++) {
+            computeAcceleration(i, masses, positionsX, positionsY, accelerationsX, accelerationsY);
+        }
+    }
+
+    /**
+     * Builds the tree for the given bodies, and calculates each cell's mass and center of mass.
+     *
+     * @param size       The amount of bodies.
+     * @param masses     The bodies' masses.
+     * @param positionsX The 'x' component of the positions.
+     * @param positionsY The 'y' component of the positions.
+     */
+    private void buildTree(int size, double[] masses, double[] positionsX, double[] positionsY) {
+        if (nextBodies.length < size) {
+            nextBodies = new int[size];
+        }
+        // The root cell is the smallest square containing all bodies
+        double minX = positionsX[0];
+        double maxX = positionsX[0];
+        double minY = positionsY[0];
+        double maxY = positionsY[0];
+        for (int i = 1; i < size; i++) {
+            minX = Math.min(minX, positionsX[i]);
+            maxX = Math.max(maxX, positionsX[i]);
+            minY = Math.min(minY, positionsY[i]);
+            maxY = Math.max(maxY, positionsY[i]);
+        }
+        amountOfNodes = 0;
+        final double halfSide = Math.max(Math.max(maxX - minX, maxY - minY) / 2, Double.MIN_NORMAL) * (1 + 1e-9);
+        newNode((minX + maxX) / 2, (minY + maxY) / 2, halfSide, 0);
+        for (int i = 0; i < size; i++) {
+            insert(i, positionsX, positionsY);
+        }
+        // Children are always created after their parents, so traversing backwards processes children first
+        for (int node = amountOfNodes - 1; node >= 0; node--) {
+            double mass = 0;
+            double weightedX = 0;
+            double weightedY = 0;
+            if (leaves[node]) {
+                for (int body = firstBodies[node]; body != NONE; body = nextBodies[body]) {
+                    mass += masses[body];
+                    weightedX += masses[body] * positionsX[body];
+                    weightedY += masses[body] * positionsY[body];
+                }
+            } else {
+                for (int quadrant = 0; quadrant < 4; quadrant++) {
+                    final int child = children[4 * node + quadrant];
+                    if (child != NONE) {
+                        mass += cellMasses[child];
+                        weightedX += cellMasses[child] * centersOfMassX[child];
+                        weightedY += cellMasses[child] * centersOfMassY[child];
+                    }
+                }
+            }
+            cellMasses[node] = mass;
+            centersOfMassX[node] = mass > 0 ? weightedX / mass : centersX[node];
+            centersOfMassY[node] = mass > 0 ? weightedY / mass : centersY[node];
+        }
+        if (stack.length < 3 * amountOfNodes + 4) {
+            stack = new int[3 * amountOfNodes + 4];
+        }
+    }
+
+    /**
+     * Inserts the given {@code body} in the tree.
+     *
+     * @param body       The body's index.
+     * @param positionsX The 'x' component of the positions.
+     * @param positionsY The 'y' component of the positions.
+     */
+    private void insert(int body, double[] positionsX, double[] positionsY) {
+        final double x = positionsX[body];
+        final double y = positionsY[body];
+        int node = 0;
+        while (true) {
+            if (!leaves[node]) {
+                final int quadrant = quadrant(node, x, y);
+                final int child = children[4 * node + quadrant];
+                if (child == NONE) {
+                    final int leaf = newChild(node, quadrant);
+                    firstBodies[leaf] = body;
+                    nextBodies[body] = NONE;
+                    return;
+                }
+                node = child;
+                continue;
+            }
+            final int stored = firstBodies[node];
+            if (stored == NONE || depths[node] >= MAX_DEPTH) {
+                nextBodies[body] = stored;
+                firstBodies[node] = body;
+                return;
+            }
+            // Split the leaf (it holds exactly one body, as only leaves at the maximum depth hold more than one),
+            // and then continue inserting the new body from this (now internal) node.
+            leaves[node] = false;
+            firstBodies[node] = NONE;
+            final int leaf = newChild(node, quadrant(node, positionsX[stored], positionsY[stored]));
+            firstBodies[leaf] = stored;
+            nextBodies[stored] = NONE;
+        }
+    }
+
+    /**
+     * Calculates the acceleration of the given {@code body} by traversing the tree.
+     *
+     * @param body           The body's index.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the acceleration will be stored.
+     * @param accelerationsY Array in which the 'y' component of the acceleration will be stored.
+     */
+    private void computeAcceleration(int body, double[] masses, double[] positionsX, double[] positionsY,
+                                     double[] accelerationsX, double[] accelerationsY) {
+        final double x = positionsX[body];
+        final double y = positionsY[body];
+        double ax = 0;
+        double ay = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+            if (leaves[node]) {
+                // Leaves are calculated exactly
+                for (int other = firstBodies[node]; other != NONE; other = nextBodies[other]) {
+                    if (other == body) {
+                        continue;
+                    }
+                    final double dx = positionsX[other] - x;
+                    final double dy = positionsY[other] - y;
+                    final double squaredDistance = dx * dx + dy * dy;
+                    final double factor = Constants.G * masses[other]
+                            / (squaredDistance * Math.sqrt(squaredDistance));
+                    ax += factor * dx;
+                    ay += factor * dy;
+                }
+                continue;
+            }
+            final double dx = centersOfMassX[node] - x;
+            final double dy = centersOfMassY[node] - y;
+            final double squaredDistance = dx * dx + dy * dy;
+            final double side = 2 * halfSides[node];
+            if (side * side < squaredOpeningAngle * squaredDistance && !contains(node, x, y)) {
+                // The cell is far enough, so it is approximated by its center of mass
+                final double factor = Constants.G * cellMasses[node] / (squaredDistance * Math.sqrt(squaredDistance));
+                ax += factor * dx;
+                ay += factor * dy;
+                continue;
+            }
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                final int child = children[4 * node + quadrant];
+                if (child != NONE) {
+                    stack[top++] = child;
+                }
+            }
+        }
+        accelerationsX[body] = ax;
+        accelerationsY[body] = ay;
+    }
+
+    /**
+     * Indicates whether the given point is inside the given {@code node}'s cell
+     * (i.e a cell containing the body must never be approximated, as it would include the body itself).
+     *
+     * @param node The node.
+     * @param x    The 'x' component of the point.
+     * @param y    The 'y' component of the point.
+     * @return {@code true} if the point is inside the cell, or {@code false} otherwise.
+     */
+    private boolean contains(int node, double x, double y) {
+        return Math.abs(x - centersX[node]) <= halfSides[node] && Math.abs(y - centersY[node]) <= halfSides[node];
+    }
+
+    /**
+     * Calculates the quadrant of the given {@code node}'s cell in which the given point is.
+     *
+     * @param node The node.
+     * @param x    The 'x' component of the point.
+     * @param y    The 'y' component of the point.
+     * @return The quadrant (bit 0 set for the east half, bit 1 set for the north half).
+     */
+    private int quadrant(int node, double x, double y) {
+        return (x >= centersX[node] ? 1 : 0) | (y >= centersY[node] ? 2 : 0);
+    }
+
+    /**
+     * Creates a child leaf of the given {@code parent} in the given {@code quadrant}.
+     *
+     * @param parent   The parent node.
+     * @param quadrant The quadrant.
+     * @return The created node.
+     */
+    private int newChild(int parent, int quadrant) {
+        final double halfSide = halfSides[parent] / 2;
+        final double centerX = centersX[parent] + ((quadrant & 1) != 0 ? halfSide : -halfSide);
+        final double centerY = centersY[parent] + ((quadrant & 2) != 0 ? halfSide : -halfSide);
+        final int child = newNode(centerX, centerY, halfSide, depths[parent] + 1);
+        children[4 * parent + quadrant] = child;
+        return child;
+    }
+
+    /**
+     * Creates an empty leaf.
+     *
+     * @param centerX  The 'x' component of the cell's center.
+     * @param centerY  The 'y' component of the cell's center.
+     * @param halfSide Half the side of the cell.
+     * @param depth    The node's depth.
+     * @return The created node.
+     */
+    private int newNode(double centerX, double centerY, double halfSide, int depth) {
+        if (amountOfNodes == leaves.length) {
+            allocateNodes(2 * leaves.length);
+        }
+        final int node = amountOfNodes++;
+        centersX[node] = centerX;
+        centersY[node] = centerY;
+        halfSides[node] = halfSide;
+        depths[node] = depth;
+        leaves[node] = true;
+        firstBodies[node] = NONE;
+        Arrays.fill(children, 4 * node, 4 * node + 4, NONE);
+        return node;
+    }
+
+    /**
+     * Grows the nodes' arrays to the given {@code capacity}, keeping the existing nodes.
+     *
+     * @param capacity The new capacity.
+     */
+    private void allocateNodes(int capacity) {
+        final int previous = leaves == null ? 0 : amountOfNodes;
+        centersX = grow(centersX, capacity, previous);
+        centersY = grow(centersY, capacity, previous);
+        halfSides = grow(halfSides, capacity, previous);
+        cellMasses = new double[capacity];
+        centersOfMassX = new double[capacity];
+        centersOfMassY = new double[capacity];
+        children = children == null ? new int[4 * capacity] : Arrays.copyOf(children, 4 * capacity);
+        leaves = leaves == null ? new boolean[capacity] : Arrays.copyOf(leaves, capacity);
+        firstBodies = firstBodies == null ? new int[capacity] : Arrays.copyOf(firstBodies, capacity);
+        depths = depths == null ? new int[capacity] : Arrays.copyOf(depths, capacity);
+    }
+
+    /**
+     * Grows the given {@code array} to the given {@code capacity}, keeping the first {@code used} values.
+     *
+     * @param array    The array to grow (might be {@code null}).
+     * @param capacity The new capacity.
+     * @param used     The amount of values to keep.
+     * @return The new array.
+     */
+    private static double[] grow(double[] array, int capacity, int used) {
+        final double[] grown = new double[capacity];
+        if (array != null) {
+            System.arraycopy(array, 0, grown, 0, used);
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,203 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Beeman's integration scheme running over a {@link BodyArrays}, with no heap allocation per step.
+ * The accelerations in the previous step are kept by the integrator.
+ */
+/* package */ final class BeemanIntegrator implements Integrator {
+
+    /**
+     * The time step (i.e how much time elapses between two update events).
+     */
+    private final double timeStep;
+
+    /**
+     * Factor applied to the actual acceleration in the position update.
+     */
+    private final double positionCurrentFactor;
+
+    /**
+     * Factor applied to the previous acceleration in the position update.
+     */
+    private final double positionPreviousFactor;
+
+    /**
+     * Factor applied to the next acceleration in the velocity update.
+     */
+    private final double velocityNextFactor;
+
+    /**
+     * Factor applied to the actual acceleration in the velocity update.
+     */
+    private final double velocityCurrentFactor;
+
+    /**
+     * Factor applied to the previous acceleration in the velocity update.
+     */
+    private final double velocityPreviousFactor;
+
+    /**
+     * The 'x' component of the bodies' accelerations in the previous step.
+     */
+    private double[] previousAccelerationsX;
+
+    /**
+     * The 'y' component of the bodies' accelerations in the previous step.
+     */
+    private double[] previousAccelerationsY;
+
+    /**
+     * Scratch array holding the 'x' component of the next accelerations (or previous positions when bootstrapping).
+     */
+    private double[] scratchX;
+
+    /**
+     * Scratch array holding the 'y' component of the next accelerations (or previous positions when bootstrapping).
+     */
+    private double[] scratchY;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep The time step (i.e how much time elapses between two update events).
+     * @param size     The amount of bodies to be integrated.
+     */
+    /* package */ BeemanIntegrator(final double timeStep, final int size) {
+        this.timeStep = timeStep;
+        this.positionCurrentFactor = (2d / 3d) * timeStep * timeStep;
+        this.positionPreviousFactor = (1d / 6d) * timeStep * timeStep;
+        this.velocityNextFactor = (1d / 3d) * timeStep;
+        this.velocityCurrentFactor = (5d / 6d) * timeStep;
+        this.velocityPreviousFactor = (1d / 6d) * timeStep;
+        this.previousAccelerationsX = new double[size];
+        this.previousAccelerationsY = new double[size];
+        this.scratchX = new double[size];
+        this.scratchY = new double[size];
+    }
+
+    /**
+     * Initializes the current and previous accelerations of the given {@code bodies}
+     * according to their actual positions and velocities.
+     *
+     * @param bodies The {@link BodyArrays} to be initialized.
+     * @implNote The previous accelerations are calculated by placing every body at its estimated position at
+     * {@code -timeStep} (see {@link #estimatePreviousPositions(BodyArrays, double[], double[])}).
+     */
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+        estimatePreviousPositions(bodies, scratchX, scratchY);
+        bodies.computeAccelerations(scratchX, scratchY, previousAccelerationsX, previousAccelerationsY);
+    }
+
+    /**
+     * Estimates the position of each body at {@code -timeStep} (i.e using a backwards Euler step for the velocity
+     * and a Taylor expansion for the position), according to their actual positions, velocities and accelerations.
+     *
+     * @param bodies     The {@link BodyArrays} whose previous positions will be estimated.
+     * @param positionsX Array in which the 'x' component of the previous positions will be stored.
+     * @param positionsY Array in which the 'y' component of the previous positions will be stored.
+     */
+    /* package */ void estimatePreviousPositions(final BodyArrays bodies,
+                                                 final double[] positionsX, final double[] positionsY) {
+        for (int i = 0; i < bodies.size; i++) {
+            positionsX[i] = previousPosition(bodies.positionsX[i], bodies.velocitiesX[i], bodies.accelerationsX[i]);
+            positionsY[i] = previousPosition(bodies.positionsY[i], bodies.velocitiesY[i], bodies.accelerationsY[i]);
+        }
+    }
+
+    /**
+     * Estimates a position component at {@code -timeStep}
+     * (i.e using a backwards Euler step for the velocity and a Taylor expansion for the position).
+     *
+     * @param position     The actual position component.
+     * @param velocity     The actual velocity component.
+     * @param acceleration The actual acceleration component.
+     * @return The estimated position component at {@code -timeStep}.
+     */
+    /* package */ double previousPosition(final double position, final double velocity, final double acceleration) {
+        final double previousVelocity = velocity - acceleration * timeStep;
+        return position - previousVelocity * timeStep + acceleration * (timeStep * timeStep / 2);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        final int size = bodies.size;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] ax = bodies.accelerationsX;
+        final double[] ay = bodies.accelerationsY;
+        final double[] previousAx = previousAccelerationsX;
+        final double[] previousAy = previousAccelerationsY;
+
+        // First calculate positions
+        for (int i = 0; i < size; i++) {
+            x[i] = nextPosition(x[i], vx[i], ax[i], previousAx[i]);
+            y[i] = nextPosition(y[i], vy[i], ay[i], previousAy[i]);
+        }
+        // Then calculate accelerations
+        final double[] nextAx = scratchX;
+        final double[] nextAy = scratchY;
+        bodies.computeAccelerations(x, y, nextAx, nextAy);
+        // Finally, calculate velocities
+        for (int i = 0; i < size; i++) {
+            vx[i] = nextVelocity(vx[i], nextAx[i], ax[i], previousAx[i]);
+            vy[i] = nextVelocity(vy[i], nextAy[i], ay[i], previousAy[i]);
+        }
+
+        // Rotate accelerations (the oldest ones become the scratch space for the next step)
+        previousAccelerationsX = ax;
+        previousAccelerationsY = ay;
+        bodies.accelerationsX = nextAx;
+        bodies.accelerationsY = nextAy;
+        scratchX = previousAx;
+        scratchY = previousAy;
+    }
+
+    /**
+     * @throws UnsupportedOperationException Always (i.e the previous accelerations are assumed to be
+     *                                       one time step away).
+     */
+    @Override
+    public void setTimeStep(final double timeStep) {
+        throw new UnsupportedOperationException("Beeman's scheme needs a fixed time step");
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[][]{previousAccelerationsX, previousAccelerationsY};
+    }
+
+    /**
+     * Calculates a position component after one step (i.e Beeman's position update).
+     *
+     * @param position             The actual position component.
+     * @param velocity             The actual velocity component.
+     * @param acceleration         The actual acceleration component.
+     * @param previousAcceleration The acceleration component in the previous step.
+     * @return The position component after one step.
+     */
+    /* package */ double nextPosition(final double position, final double velocity,
+                                      final double acceleration, final double previousAcceleration) {
+        return position + (velocity * timeStep + acceleration * positionCurrentFactor
+                - previousAcceleration * positionPreviousFactor);
+    }
+
+    /**
+     * Calculates a velocity component after one step (i.e Beeman's velocity update).
+     *
+     * @param velocity             The actual velocity component.
+     * @param nextAcceleration     The acceleration component after the step.
+     * @param acceleration         The actual acceleration component.
+     * @param previousAcceleration The acceleration component in the previous step.
+     * @return The velocity component after one step.
+     */
+    /* package */ double nextVelocity(final double velocity, final double nextAcceleration,
+                                      final double acceleration, final double previousAcceleration) {
+        return velocity + (nextAcceleration * velocityNextFactor + acceleration * velocityCurrentFactor
+                - previousAcceleration * velocityPreviousFactor);
+    }
+}
@@ -0,0 +1,188 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Hierarchical block time steps running over a {@link BodyArrays}, with no heap allocation per step.
+ * Each body is placed in a level {@code k}, and it is advanced with a time step of {@code timeStep / 2^k}
+ * (i.e a power-of-two fraction of the base time step), chosen by an {@link AdaptiveTimeStep} from the body's
+ * own time scale against the attractors. An attractor also takes into account the time scales of all bodies against
+ * it (e.g the Earth is substepped while the ship is launched from it), as its position between two of its own kicks
+ * is only a linear drift. Bodies are integrated with the kick-drift-kick leapfrog:
+ * all of them drift together (i.e positions are always synchronized, and drifting is cheap), but only the bodies
+ * whose steps end get their accelerations calculated and their velocities kicked. So slow outer planets are updated
+ * rarely, and the ship is substepped only during its encounters. All bodies are synchronized at the end of each
+ * base step (i.e every state is complete, and no state is kept between steps).
+ */
+/* package */ final class BlockTimeStepIntegrator implements Integrator {
+
+    /**
+     * The deepest level a body can be placed in (i.e the base time step is divided at most by {@code 2^40}).
+     */
+    private static final int MAXIMUM_LEVEL = 40;
+
+    /**
+     * The base time step (i.e how much time elapses between two update events).
+     */
+    private final double timeStep;
+
+    /**
+     * The {@link AdaptiveTimeStep} that chooses each body's time step.
+     */
+    private final AdaptiveTimeStep adaptiveTimeStep;
+
+    /**
+     * The indexes of the bodies whose encounters with each body must be resolved
+     * (i.e the attractors, plus all bodies for an attractor).
+     */
+    private final int[][] partners;
+
+    /**
+     * The deepest level a body can be placed in (i.e the first one whose time step is not greater than
+     * the minimum time step of the {@link #adaptiveTimeStep}).
+     */
+    private final int deepestLevel;
+
+    /**
+     * The level each body is placed in.
+     */
+    private final int[] levels;
+
+    /**
+     * Scratch array holding the indexes of the bodies whose steps end at the actual tick.
+     */
+    private final int[] active;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep         The base time step (i.e how much time elapses between two update events).
+     * @param size             The amount of bodies to be integrated.
+     * @param adaptiveTimeStep The {@link AdaptiveTimeStep} that chooses each body's time step.
+     * @param attractors       The indexes of the attractors (i.e the bodies whose encounters must be resolved).
+     */
+    /* package */ BlockTimeStepIntegrator(final double timeStep, final int size,
+                                          final AdaptiveTimeStep adaptiveTimeStep, final int[] attractors) {
+        this.timeStep = timeStep;
+        this.adaptiveTimeStep = adaptiveTimeStep;
+        final int[] allBodies = IntStream.range(0, size).toArray();
+        this.partners = new int[size][];
+        Arrays.fill(partners, attractors.clone());
+        for (int attractor : attractors) {
+            partners[attractor] = allBodies;
+        }
+        int level = 0;
+        while (level < MAXIMUM_LEVEL && Math.scalb(timeStep, -level) > adaptiveTimeStep.getMinimumTimeStep()) {
+            level++;
+        }
+        this.deepestLevel = level;
+        this.levels = new int[size];
+        this.active = new int[size];
+    }
+
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        final int size = bodies.size;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] ax = bodies.accelerationsX;
+        final double[] ay = bodies.accelerationsY;
+        final long ticks = 1L << deepestLevel; // The base time step, in units of the deepest level's time step
+        final double tick = Math.scalb(timeStep, -deepestLevel);
+
+        // All bodies start their steps (i.e their velocities are synchronized)
+        int actualDeepestLevel = 0;
+        for (int i = 0; i < size; i++) {
+            levels[i] = chooseLevel(bodies, i);
+            actualDeepestLevel = Math.max(actualDeepestLevel, levels[i]);
+            kick(bodies, i);
+        }
+        long actualTick = 0;
+        while (actualTick < ticks) {
+            // Drift until the next end of a step (i.e the one of the bodies in the deepest occupied level)
+            final long elapsedTicks = 1L << (deepestLevel - actualDeepestLevel);
+            final double drift = elapsedTicks * tick;
+            for (int i = 0; i < size; i++) {
+                x[i] += vx[i] * drift;
+                y[i] += vy[i] * drift;
+            }
+            actualTick += elapsedTicks;
+
+            // Only the bodies whose steps end now are evaluated (i.e all of them at the end of the base step)
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if ((actualTick & ((1L << (deepestLevel - levels[i])) - 1)) == 0) {
+                    active[count++] = i;
+                }
+            }
+            bodies.computeAccelerations(active, count, x, y, ax, ay);
+            for (int n = 0; n < count; n++) {
+                final int i = active[n];
+                kick(bodies, i);
+                if (actualTick < ticks) {
+                    // A body can only move to a shallower level whose steps are aligned with the actual tick
+                    final int shallowestLevel = deepestLevel - Long.numberOfTrailingZeros(actualTick);
+                    levels[i] = Math.max(chooseLevel(bodies, i), shallowestLevel);
+                    kick(bodies, i);
+                }
+            }
+            actualDeepestLevel = 0;
+            for (int i = 0; i < size; i++) {
+                actualDeepestLevel = Math.max(actualDeepestLevel, levels[i]);
+            }
+        }
+    }
+
+    /**
+     * Chooses the level of the body with the given {@code index} (i.e the shallowest one whose time step is not
+     * greater than the one chosen by the {@link #adaptiveTimeStep}).
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @param index  The body's index.
+     * @return The chosen level.
+     */
+    private int chooseLevel(final BodyArrays bodies, final int index) {
+        final double bodyTimeStep = adaptiveTimeStep.timeStep(bodies, partners[index], index);
+        int level = 0;
+        while (level < deepestLevel && Math.scalb(timeStep, -level) > bodyTimeStep) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Kicks the velocity of the body with the given {@code index} with its acceleration
+     * during half of the time step of its level.
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @param index  The body's index.
+     */
+    private void kick(final BodyArrays bodies, final int index) {
+        final double halfStep = Math.scalb(timeStep, -levels[index] - 1);
+        bodies.velocitiesX[index] += bodies.accelerationsX[index] * halfStep;
+        bodies.velocitiesY[index] += bodies.accelerationsY[index] * halfStep;
+    }
+
+    /**
+     * @throws UnsupportedOperationException Always (i.e the levels are relative to the base time step,
+     *                                       and the base time step is fixed).
+     */
+    @Override
+    public void setTimeStep(final double timeStep) {
+        throw new UnsupportedOperationException("Block time steps need a fixed base time step");
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[0][];
+    }
+}
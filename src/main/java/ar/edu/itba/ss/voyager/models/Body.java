@@ -4,16 +4,38 @@ import ar.edu.itba.ss.g7.engine.simulation.State;
 import ar.edu.itba.ss.g7.engine.simulation.StateHolder;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
+import java.awt.Color;
+
 /**
  * Represents a body in the system.
  */
 public class Body implements StateHolder<Body.BodyState> {
 
+    /**
+     * The body's name.
+     */
+    private final String name;
+
+    /**
+     * The body's type.
+     */
+    private final BodyType type;
+
+    /**
+     * The body's color (i.e used for visualization).
+     */
+    private final Color color;
+
     /**
      * The body's mass (in kilograms).
      */
     private final double mass;
 
+    /**
+     * The body's radius (in meters, or 0 if it is unknown).
+     */
+    private final double radius;
+
     /**
      * The body's position (represented as a 2D vector).
      */
@@ -32,19 +54,43 @@ public class Body implements StateHolder<Body.BodyState> {
     /**
      * Constructor.
      *
+     * @param name                The body's name.
+     * @param type                The body's type.
      * @param mass                The body's mass (in kilograms).
+     * @param radius              The body's radius (in meters, or 0 if it is unknown).
+     * @param color               The body's color (i.e used for visualization).
      * @param initialPosition     The body's initial position.
      * @param initialVelocity     The body's initial velocity.
      * @param initialAcceleration The body's initial acceleration.
      */
-    public Body(final double mass, final Vector2D initialPosition,
-                final Vector2D initialVelocity, final Vector2D initialAcceleration) {
+    public Body(final String name, final BodyType type, final double mass, final double radius, final Color color,
+                final Vector2D initialPosition, final Vector2D initialVelocity, final Vector2D initialAcceleration) {
+        this.name = name;
+        this.type = type;
         this.mass = mass;
+        this.radius = radius;
+        this.color = color;
         this.position = initialPosition;
         this.velocity = initialVelocity;
         this.acceleration = initialAcceleration;
     }
 
+    /**
+     * Constructor for a body whose radius is unknown (i.e collisions with it can not be detected).
+     *
+     * @param name                The body's name.
+     * @param type                The body's type.
+     * @param mass                The body's mass (in kilograms).
+     * @param color               The body's color (i.e used for visualization).
+     * @param initialPosition     The body's initial position.
+     * @param initialVelocity     The body's initial velocity.
+     * @param initialAcceleration The body's initial acceleration.
+     */
+    public Body(final String name, final BodyType type, final double mass, final Color color,
+                final Vector2D initialPosition, final Vector2D initialVelocity, final Vector2D initialAcceleration) {
+        this(name, type, mass, 0, color, initialPosition, initialVelocity, initialAcceleration);
+    }
+
     /**
      * Calculates the gravitational force
      * that the given {@code other} {@link Body} applies to {@code this} {@link Body}.
@@ -56,6 +102,27 @@ public class Body implements StateHolder<Body.BodyState> {
         return Utils.gravitationalForce(this.mass, other.mass, this.position, other.position);
     }
 
+    /**
+     * @return The body's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The body's type.
+     */
+    public BodyType getType() {
+        return type;
+    }
+
+    /**
+     * @return The body's color (i.e used for visualization).
+     */
+    public Color getColor() {
+        return color;
+    }
+
     /**
      * @return The body's mass.
      */
@@ -63,6 +130,13 @@ public class Body implements StateHolder<Body.BodyState> {
         return mass;
     }
 
+    /**
+     * @return The body's radius (in meters, or 0 if it is unknown).
+     */
+    public double getRadius() {
+        return radius;
+    }
+
     /**
      * @return The body's position (represented as a 2D vector).
      */
@@ -121,6 +195,21 @@ public class Body implements StateHolder<Body.BodyState> {
      */
     public static final class BodyState implements State {
 
+        /**
+         * The {@link Body}'s name.
+         */
+        private final String name;
+
+        /**
+         * The {@link Body}'s type.
+         */
+        private final BodyType type;
+
+        /**
+         * The {@link Body}'s color.
+         */
+        private final Color color;
+
         /**
          * The {@link Body}'s position (represented as a 2D vector).
          */
@@ -137,10 +226,34 @@ public class Body implements StateHolder<Body.BodyState> {
          * @param body The {@link Body}'s whose state will be represented.
          */
         /* package */ BodyState(final Body body) {
+            name = body.getName();
+            type = body.getType();
+            color = body.getColor();
             position = body.getPosition(); // The Vector2D class is unmodifiable.
             velocity = body.getVelocity(); // The Vector2D class is unmodifiable.
         }
 
+        /**
+         * The {@link Body}'s name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The {@link Body}'s type.
+         */
+        public BodyType getType() {
+            return type;
+        }
+
+        /**
+         * The {@link Body}'s color.
+         */
+        public Color getColor() {
+            return color;
+        }
+
         /**
          * The {@link Body}'s position (represented as a 2D vector).
          */
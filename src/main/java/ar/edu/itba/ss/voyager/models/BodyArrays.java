@@ -0,0 +1,248 @@
+package ar.edu.itba.ss.voyager.models;
+
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+/**
+ * Structure-of-arrays holding the dynamic state of a set of bodies, indexed by body.
+ * It allows running the integration steps over primitive {@code double} arrays, with no heap allocation.
+ */
+/* package */ final class BodyArrays {
+
+    /**
+     * The amount of bodies.
+     */
+    /* package */ final int size;
+
+    /**
+     * The amount of massive bodies (i.e the ones placed before the test particles).
+     * Bodies from this index on are test particles (i.e they are affected by massive bodies, but affect no body).
+     */
+    /* package */ final int massiveBodies;
+
+    /**
+     * The bodies' masses (in kilograms).
+     */
+    /* package */ final double[] masses;
+
+    /**
+     * The 'x' component of the bodies' positions.
+     */
+    /* package */ final double[] positionsX;
+
+    /**
+     * The 'y' component of the bodies' positions.
+     */
+    /* package */ final double[] positionsY;
+
+    /**
+     * The 'x' component of the bodies' velocities.
+     */
+    /* package */ final double[] velocitiesX;
+
+    /**
+     * The 'y' component of the bodies' velocities.
+     */
+    /* package */ final double[] velocitiesY;
+
+    /**
+     * The 'x' component of the bodies' accelerations.
+     */
+    /* package */ double[] accelerationsX;
+
+    /**
+     * The 'y' component of the bodies' accelerations.
+     */
+    /* package */ double[] accelerationsY;
+
+    /**
+     * The {@link ForceSolver} used to calculate the accelerations.
+     */
+    private final ForceSolver forceSolver;
+
+    /**
+     * The amount of body accelerations calculated so far (i.e a full evaluation counts as many as bodies).
+     */
+    private long accelerationEvaluations;
+
+    /**
+     * Indicates whether full evaluations must calculate the massive bodies' potential energy too
+     * (see {@link #requestPotentialEnergy()}).
+     */
+    private boolean potentialEnergyRequested;
+
+    /**
+     * The potential energy calculated by the last full evaluation since it was requested
+     * (or {@code NaN} if there is none).
+     */
+    private double potentialEnergy;
+
+    /**
+     * The 'x' component of the positions for which the {@code potentialEnergy} was calculated (lazily initialized).
+     */
+    private double[] potentialPositionsX;
+
+    /**
+     * The 'y' component of the positions for which the {@code potentialEnergy} was calculated (lazily initialized).
+     */
+    private double[] potentialPositionsY;
+
+    /**
+     * Constructor.
+     *
+     * @param masses        The bodies' masses (in kilograms).
+     * @param massiveBodies The amount of massive bodies (the rest are test particles).
+     * @param forceSolver   The {@link ForceSolver} used to calculate the accelerations.
+     */
+    /* package */ BodyArrays(final double[] masses, final int massiveBodies, final ForceSolver forceSolver) {
+        this.size = masses.length;
+        this.massiveBodies = massiveBodies;
+        this.masses = masses.clone();
+        this.forceSolver = forceSolver;
+        this.positionsX = new double[size];
+        this.positionsY = new double[size];
+        this.velocitiesX = new double[size];
+        this.velocitiesY = new double[size];
+        this.accelerationsX = new double[size];
+        this.accelerationsY = new double[size];
+        this.potentialEnergy = Double.NaN;
+    }
+
+    /**
+     * Sets the position and velocity of the body with the given {@code index}.
+     *
+     * @param index    The body's index.
+     * @param position The new position.
+     * @param velocity The new velocity.
+     */
+    /* package */ void set(final int index, final Vector2D position, final Vector2D velocity) {
+        positionsX[index] = position.getX();
+        positionsY[index] = position.getY();
+        velocitiesX[index] = velocity.getX();
+        velocitiesY[index] = velocity.getY();
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The position of the body with the given {@code index}, as a {@link Vector2D}.
+     */
+    /* package */ Vector2D position(final int index) {
+        return new Vector2D(positionsX[index], positionsY[index]);
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The velocity of the body with the given {@code index}, as a {@link Vector2D}.
+     */
+    /* package */ Vector2D velocity(final int index) {
+        return new Vector2D(velocitiesX[index], velocitiesY[index]);
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The acceleration of the body with the given {@code index}, as a {@link Vector2D}.
+     */
+    /* package */ Vector2D acceleration(final int index) {
+        return new Vector2D(accelerationsX[index], accelerationsY[index]);
+    }
+
+    /**
+     * Calculates the gravitational acceleration each body suffers when bodies are placed in the given positions.
+     * Massive bodies are solved with the {@link ForceSolver}, and then test particles are propagated against them.
+     *
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    /* package */ void computeAccelerations(final double[] positionsX, final double[] positionsY,
+                                            final double[] accelerationsX, final double[] accelerationsY) {
+        if (potentialEnergyRequested) {
+            potentialEnergy = forceSolver.computeAccelerationsAndPotential(massiveBodies, masses,
+                    positionsX, positionsY, accelerationsX, accelerationsY);
+            System.arraycopy(positionsX, 0, potentialPositionsX, 0, massiveBodies);
+            System.arraycopy(positionsY, 0, potentialPositionsY, 0, massiveBodies);
+        } else {
+            forceSolver.computeAccelerations(massiveBodies, masses, positionsX, positionsY,
+                    accelerationsX, accelerationsY);
+        }
+        if (massiveBodies < size) {
+            Utils.testParticlesAccelerations(massiveBodies, size, massiveBodies, masses, positionsX, positionsY,
+                    accelerationsX, accelerationsY);
+        }
+        accelerationEvaluations += size;
+    }
+
+    /**
+     * Calculates the gravitational acceleration only the bodies {@code active[0..count)} suffer when bodies are
+     * placed in the given positions (i.e for individual time steps). The accelerations of the rest of the bodies
+     * are left untouched. When all bodies are active, {@link #computeAccelerations(double[], double[], double[],
+     * double[])} is used instead (i.e the {@link ForceSolver} is only bypassed for partial evaluations).
+     *
+     * @param active         The indexes of the bodies whose accelerations must be calculated.
+     * @param count          The amount of indexes in the {@code active} array.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    /* package */ void computeAccelerations(final int[] active, final int count,
+                                            final double[] positionsX, final double[] positionsY,
+                                            final double[] accelerationsX, final double[] accelerationsY) {
+        if (count == size) {
+            computeAccelerations(positionsX, positionsY, accelerationsX, accelerationsY);
+            return;
+        }
+        Utils.activeBodiesAccelerations(active, count, massiveBodies, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+        accelerationEvaluations += count;
+    }
+
+    /**
+     * Requests the massive bodies' potential energy to be calculated by the following full evaluations
+     * (i.e reusing the distances of the {@link ForceSolver}), until {@link #potentialEnergy()} is called.
+     */
+    /* package */ void requestPotentialEnergy() {
+        if (potentialPositionsX == null) {
+            potentialPositionsX = new double[massiveBodies];
+            potentialPositionsY = new double[massiveBodies];
+        }
+        potentialEnergyRequested = true;
+        potentialEnergy = Double.NaN;
+    }
+
+    /**
+     * Returns the massive bodies' gravitational potential energy at the actual positions.
+     * The one calculated by the last full evaluation since {@link #requestPotentialEnergy()} was called is reused
+     * if it was evaluated at the actual positions (e.g after a Verlet or a Wisdom-Holman step);
+     * otherwise (e.g integrators that correct positions after their last evaluation) it is calculated again.
+     *
+     * @return The potential energy (in joules).
+     */
+    /* package */ double potentialEnergy() {
+        potentialEnergyRequested = false;
+        if (!Double.isNaN(potentialEnergy) && samePositions()) {
+            return potentialEnergy;
+        }
+        return Utils.potentialEnergy(massiveBodies, masses, positionsX, positionsY);
+    }
+
+    /**
+     * @return {@code true} if the massive bodies are placed in the positions for which the last requested
+     * potential energy was calculated, or {@code false} otherwise.
+     */
+    private boolean samePositions() {
+        for (int i = 0; i < massiveBodies; i++) {
+            if (potentialPositionsX[i] != positionsX[i] || potentialPositionsY[i] != positionsY[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The amount of body accelerations calculated so far (i.e a full evaluation counts as many as bodies).
+     */
+    /* package */ long getAccelerationEvaluations() {
+        return accelerationEvaluations;
+    }
+}
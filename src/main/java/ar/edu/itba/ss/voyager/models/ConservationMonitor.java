@@ -0,0 +1,336 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Monitors the drift of the total mechanical energy and angular momentum of a {@link SolarSystem} every
+ * {@code interval} steps (i.e how accurate the chosen time step is, without re-running the simulation).
+ * Drifts are relative to the values at the moment the monitoring started (i.e {@code (E - E0) / |E0|}).
+ * The potential energy is calculated by the force evaluations of the step before each measurement
+ * (i.e reusing the distances of the {@link ForceSolver}). When probes are massless, only massive bodies are
+ * monitored, as the probes' energies are not conserved in the potential of moving bodies.
+ */
+public final class ConservationMonitor {
+
+    /**
+     * The smallest factor by which the accuracy parameter can be scaled down (i.e ten halvings).
+     */
+    private static final double MINIMUM_ACCURACY_FACTOR = 1d / 1024;
+
+    /**
+     * How much slower than the budget allows the drift must grow for the accuracy parameter to be scaled back up.
+     */
+    private static final double RELAXATION_MARGIN = 8;
+
+    /**
+     * The amount of values of the monitoring state saved in a checkpoint (see {@link #checkpoint(double[])}).
+     */
+    /* package */ static final int STATE_SIZE = 11;
+
+    /**
+     * The amount of steps between two measurements.
+     */
+    private final int interval;
+
+    /**
+     * The maximum relative drift allowed (for both energy and angular momentum).
+     */
+    private final double driftBudget;
+
+    /**
+     * What is done when the drift goes beyond the {@link #driftBudget}.
+     */
+    private final DriftAction action;
+
+    /**
+     * The amount of steps left until the next measurement.
+     */
+    private int stepsLeft;
+
+    /**
+     * The amount of time over which the {@link #driftBudget} is spent (i.e until the simulation ends).
+     */
+    private double horizon;
+
+    /**
+     * The total mechanical energy when the monitoring started.
+     */
+    private double initialEnergy;
+
+    /**
+     * The total angular momentum when the monitoring started.
+     */
+    private double initialAngularMomentum;
+
+    /**
+     * The time of the last measurement.
+     */
+    private double time;
+
+    /**
+     * The relative energy drift in the last measurement.
+     */
+    private double energyDrift;
+
+    /**
+     * The relative angular momentum drift in the last measurement.
+     */
+    private double angularMomentumDrift;
+
+    /**
+     * The largest absolute relative energy drift measured so far.
+     */
+    private double maximumEnergyDrift;
+
+    /**
+     * The largest absolute relative angular momentum drift measured so far.
+     */
+    private double maximumAngularMomentumDrift;
+
+    /**
+     * The amount of measurements taken so far.
+     */
+    private long measurements;
+
+    /**
+     * The factor by which the accuracy parameter of the adaptive time step is scaled
+     * (only changed when the {@link #action} is {@link DriftAction#ADAPT}).
+     */
+    private double accuracyFactor;
+
+    /**
+     * Constructor.
+     *
+     * @param interval    The amount of steps between two measurements.
+     * @param driftBudget The maximum relative drift allowed (for both energy and angular momentum).
+     * @param action      What is done when the drift goes beyond the {@code driftBudget}.
+     * @throws IllegalArgumentException If the interval or the drift budget are not positive.
+     */
+    public ConservationMonitor(final int interval, final double driftBudget, final DriftAction action) {
+        if (interval <= 0 || driftBudget <= 0) {
+            throw new IllegalArgumentException("The conservation interval and drift budget must be positive");
+        }
+        this.interval = interval;
+        this.driftBudget = driftBudget;
+        this.action = action;
+        this.accuracyFactor = 1;
+    }
+
+    /**
+     * Takes the initial values against which drifts are measured.
+     *
+     * @param bodies  The {@link BodyArrays} being integrated.
+     * @param time    The actual time.
+     * @param endTime The time at which the simulation ends.
+     */
+    /* package */ void reset(final BodyArrays bodies, final double time, final double endTime) {
+        this.stepsLeft = interval;
+        this.horizon = endTime > time ? endTime - time : Double.MIN_NORMAL;
+        this.initialEnergy = kineticEnergy(bodies) + bodies.potentialEnergy();
+        this.initialAngularMomentum = angularMomentum(bodies);
+        this.time = time;
+        this.energyDrift = 0;
+        this.angularMomentumDrift = 0;
+        this.maximumEnergyDrift = 0;
+        this.maximumAngularMomentumDrift = 0;
+        this.measurements = 0;
+        this.accuracyFactor = 1;
+    }
+
+    /**
+     * Copies the monitoring state into the given {@code state} (i.e to be saved in a checkpoint).
+     * Counters are saved as doubles, which hold them exactly.
+     *
+     * @param state An array of {@link #STATE_SIZE} values.
+     */
+    /* package */ void checkpoint(final double[] state) {
+        state[0] = stepsLeft;
+        state[1] = horizon;
+        state[2] = initialEnergy;
+        state[3] = initialAngularMomentum;
+        state[4] = time;
+        state[5] = energyDrift;
+        state[6] = angularMomentumDrift;
+        state[7] = maximumEnergyDrift;
+        state[8] = maximumAngularMomentumDrift;
+        state[9] = measurements;
+        state[10] = accuracyFactor;
+    }
+
+    /**
+     * Restores the monitoring state saved by {@link #checkpoint(double[])}
+     * (i.e drifts keep being measured against the values at the moment the original monitoring started).
+     *
+     * @param state An array of {@link #STATE_SIZE} values.
+     */
+    /* package */ void restore(final double[] state) {
+        this.stepsLeft = (int) state[0];
+        this.horizon = state[1];
+        this.initialEnergy = state[2];
+        this.initialAngularMomentum = state[3];
+        this.time = state[4];
+        this.energyDrift = state[5];
+        this.angularMomentumDrift = state[6];
+        this.maximumEnergyDrift = state[7];
+        this.maximumAngularMomentumDrift = state[8];
+        this.measurements = (long) state[9];
+        this.accuracyFactor = state[10];
+    }
+
+    /**
+     * Must be called before each step: if a measurement will be taken after it,
+     * the potential energy is requested to the force evaluations of the step.
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     */
+    /* package */ void beforeStep(final BodyArrays bodies) {
+        if (stepsLeft == 1) {
+            bodies.requestPotentialEnergy();
+        }
+    }
+
+    /**
+     * Must be called after each step: takes a measurement every {@link #interval} steps.
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @param time   The actual time.
+     * @return {@code true} if a measurement was taken, or {@code false} otherwise.
+     */
+    /* package */ boolean afterStep(final BodyArrays bodies, final double time) {
+        if (--stepsLeft > 0) {
+            return false;
+        }
+        stepsLeft = interval;
+        final double previousEnergyDrift = energyDrift;
+        final double previousTime = this.time;
+        energyDrift = relativeDrift(kineticEnergy(bodies) + bodies.potentialEnergy(), initialEnergy);
+        angularMomentumDrift = relativeDrift(angularMomentum(bodies), initialAngularMomentum);
+        maximumEnergyDrift = Math.max(maximumEnergyDrift, Math.abs(energyDrift));
+        maximumAngularMomentumDrift = Math.max(maximumAngularMomentumDrift, Math.abs(angularMomentumDrift));
+        this.time = time;
+        measurements++;
+        if (action == DriftAction.ADAPT) {
+            // The budget is spent evenly over the horizon, so each interval is allowed its share of it
+            final double allowedDrift = driftBudget * (time - previousTime) / horizon;
+            final double drift = Math.abs(energyDrift - previousEnergyDrift);
+            if (drift > allowedDrift) {
+                accuracyFactor = Math.max(MINIMUM_ACCURACY_FACTOR, accuracyFactor / 2);
+            } else if (drift < allowedDrift / RELAXATION_MARGIN) {
+                accuracyFactor = Math.min(1, accuracyFactor * 2);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param value        The actual value.
+     * @param initialValue The initial value.
+     * @return The drift of the value relative to the initial one (or the absolute drift if the initial one is zero).
+     */
+    private static double relativeDrift(final double value, final double initialValue) {
+        return initialValue == 0 ? value : (value - initialValue) / Math.abs(initialValue);
+    }
+
+    /**
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @return The kinetic energy of the massive bodies.
+     */
+    private static double kineticEnergy(final BodyArrays bodies) {
+        double kineticEnergy = 0;
+        for (int i = 0; i < bodies.massiveBodies; i++) {
+            final double vx = bodies.velocitiesX[i];
+            final double vy = bodies.velocitiesY[i];
+            kineticEnergy += bodies.masses[i] * (vx * vx + vy * vy);
+        }
+        return kineticEnergy / 2;
+    }
+
+    /**
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @return The angular momentum of the massive bodies around the origin (i.e its 'z' component).
+     */
+    private static double angularMomentum(final BodyArrays bodies) {
+        double angularMomentum = 0;
+        for (int i = 0; i < bodies.massiveBodies; i++) {
+            angularMomentum += bodies.masses[i]
+                    * (bodies.positionsX[i] * bodies.velocitiesY[i] - bodies.positionsY[i] * bodies.velocitiesX[i]);
+        }
+        return angularMomentum;
+    }
+
+    /**
+     * @return The amount of steps between two measurements.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return The maximum relative drift allowed (for both energy and angular momentum).
+     */
+    public double getDriftBudget() {
+        return driftBudget;
+    }
+
+    /**
+     * @return What is done when the drift goes beyond the drift budget.
+     */
+    public DriftAction getAction() {
+        return action;
+    }
+
+    /**
+     * @return The time of the last measurement.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return The relative energy drift in the last measurement.
+     */
+    public double getEnergyDrift() {
+        return energyDrift;
+    }
+
+    /**
+     * @return The relative angular momentum drift in the last measurement.
+     */
+    public double getAngularMomentumDrift() {
+        return angularMomentumDrift;
+    }
+
+    /**
+     * @return The largest absolute relative energy drift measured so far.
+     */
+    public double getMaximumEnergyDrift() {
+        return maximumEnergyDrift;
+    }
+
+    /**
+     * @return The largest absolute relative angular momentum drift measured so far.
+     */
+    public double getMaximumAngularMomentumDrift() {
+        return maximumAngularMomentumDrift;
+    }
+
+    /**
+     * @return The amount of measurements taken so far.
+     */
+    public long getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return The factor by which the accuracy parameter of the adaptive time step is scaled.
+     */
+    public double getAccuracyFactor() {
+        return accuracyFactor;
+    }
+
+    /**
+     * @return {@code true} if the drift in the last measurement (of energy or angular momentum) is beyond the
+     * drift budget, or {@code false} otherwise.
+     */
+    public boolean isOverBudget() {
+        return Math.abs(energyDrift) > driftBudget || Math.abs(angularMomentumDrift) > driftBudget;
+    }
+}
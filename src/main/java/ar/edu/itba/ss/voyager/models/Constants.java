@@ -26,6 +26,22 @@ public class Constants {
      * Saturn's mass (in kgs).
      */
     public final static double SATURN_MASS = 5.68319 * Math.pow(10, 26);
+    /**
+     * The Sun's mean radius (in meters).
+     */
+    public final static double SUN_RADIUS = 6.957 * Math.pow(10, 8);
+    /**
+     * The Earth's mean radius (in meters).
+     */
+    public final static double EARTH_RADIUS = 6.371 * Math.pow(10, 6);
+    /**
+     * Jupiter's mean radius (in meters).
+     */
+    public final static double JUPITER_RADIUS = 6.9911 * Math.pow(10, 7);
+    /**
+     * Saturn's mean radius (in meters).
+     */
+    public final static double SATURN_RADIUS = 5.8232 * Math.pow(10, 7);
     /**
      * The Ship's mass (in kgs).
      */
@@ -0,0 +1,199 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of one run of a {@link ConvergenceStudy}: the ship's final position and the closest approach distance
+ * to each body reached with a time step, how long the run took, and how far those values are from the ones of the
+ * finest run.
+ */
+public final class ConvergenceResult {
+
+    /**
+     * The time step of the run (in seconds).
+     */
+    private final double timeStep;
+
+    /**
+     * The amount of steps of the run.
+     */
+    private final long steps;
+
+    /**
+     * The wall time the run took (in seconds).
+     */
+    private final double wallTime;
+
+    /**
+     * The 'x' component of the ship's final position (in meters).
+     */
+    private final double shipPositionX;
+
+    /**
+     * The 'y' component of the ship's final position (in meters).
+     */
+    private final double shipPositionY;
+
+    /**
+     * The bodies' names.
+     */
+    private final List<String> bodiesNames;
+
+    /**
+     * The distance of the closest approach to each body (in meters, or {@code NaN} if there was none).
+     */
+    private final double[] closestApproachDistances;
+
+    /**
+     * The distance between the ship's final position and the one of the finest run (in meters).
+     */
+    private double positionError;
+
+    /**
+     * The largest difference between the closest approach distances and the ones of the finest run (in meters).
+     */
+    private double closestApproachError;
+
+    /**
+     * The observed convergence order (or {@code NaN} if it could not be estimated).
+     */
+    private double order;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep                 The time step of the run (in seconds).
+     * @param steps                    The amount of steps of the run.
+     * @param wallTime                 The wall time the run took (in seconds).
+     * @param shipPositionX            The 'x' component of the ship's final position (in meters).
+     * @param shipPositionY            The 'y' component of the ship's final position (in meters).
+     * @param bodiesNames              The bodies' names.
+     * @param closestApproachDistances The distance of the closest approach to each body
+     *                                 (in meters, or {@code NaN} if there was none).
+     */
+    /* package */ ConvergenceResult(double timeStep, long steps, double wallTime,
+                                    double shipPositionX, double shipPositionY,
+                                    List<String> bodiesNames, double[] closestApproachDistances) {
+        this.timeStep = timeStep;
+        this.steps = steps;
+        this.wallTime = wallTime;
+        this.shipPositionX = shipPositionX;
+        this.shipPositionY = shipPositionY;
+        this.bodiesNames = Collections.unmodifiableList(bodiesNames);
+        this.closestApproachDistances = closestApproachDistances.clone();
+        this.positionError = Double.NaN;
+        this.closestApproachError = Double.NaN;
+        this.order = Double.NaN;
+    }
+
+    /**
+     * Sets the errors of this run.
+     *
+     * @param positionError        The distance between the ship's final position and the one of the finest run.
+     * @param closestApproachError The largest difference between the closest approach distances and the ones of
+     *                             the finest run.
+     */
+    /* package */ void setErrors(double positionError, double closestApproachError) {
+        this.positionError = positionError;
+        this.closestApproachError = closestApproachError;
+    }
+
+    /**
+     * Sets the observed convergence order of this run.
+     *
+     * @param order The observed convergence order.
+     */
+    /* package */ void setOrder(double order) {
+        this.order = order;
+    }
+
+    /**
+     * @return The time step of the run (in seconds).
+     */
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * @return The amount of steps of the run.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The wall time the run took (in seconds).
+     */
+    public double getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return The 'x' component of the ship's final position (in meters).
+     */
+    public double getShipPositionX() {
+        return shipPositionX;
+    }
+
+    /**
+     * @return The 'y' component of the ship's final position (in meters).
+     */
+    public double getShipPositionY() {
+        return shipPositionY;
+    }
+
+    /**
+     * @return The bodies' names.
+     */
+    public List<String> getBodiesNames() {
+        return bodiesNames;
+    }
+
+    /**
+     * @param body The body's index.
+     * @return The distance of the closest approach to the given body (in meters, or {@code NaN} if there was none).
+     */
+    public double getClosestApproachDistance(int body) {
+        return closestApproachDistances[body];
+    }
+
+    /**
+     * @return The distance between the ship's final position and the one of the finest run (in meters).
+     * For the finest run, it is the Richardson estimate of its own error (or {@code NaN} if it could not be done).
+     */
+    public double getPositionError() {
+        return positionError;
+    }
+
+    /**
+     * @return The largest difference between the closest approach distances and the ones of the finest run
+     * (in meters). For the finest run, it is the Richardson estimate of its own error
+     * (or {@code NaN} if it could not be done).
+     */
+    public double getClosestApproachError() {
+        return closestApproachError;
+    }
+
+    /**
+     * @return The largest of the position and closest approach errors (in meters).
+     */
+    public double getError() {
+        return Math.max(positionError, closestApproachError);
+    }
+
+    /**
+     * @return The observed convergence order (i.e how fast the ship's final position converges when the time step
+     * is refined from this run on), or {@code NaN} if it could not be estimated.
+     */
+    public double getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "ConvergenceResult{timeStep=" + timeStep + ", steps=" + steps + ", wallTime=" + wallTime
+                + ", positionError=" + positionError + ", closestApproachError=" + closestApproachError
+                + ", order=" + order + "}";
+    }
+}
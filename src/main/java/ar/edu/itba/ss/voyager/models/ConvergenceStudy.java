@@ -0,0 +1,221 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the same scenario with a geometric series of time steps in parallel (each one {@code ratio} times smaller
+ * than the previous one), and compares the ship's final position and closest approach distances against the ones of
+ * the finest run (i.e Richardson-style), so the largest time step that meets a tolerance can be chosen.
+ * All runs end at the same time (i.e a whole amount of steps of the coarsest time step, reaching the flight time),
+ * so their results can be compared.
+ */
+public class ConvergenceStudy {
+
+    /**
+     * Builds a {@link SolarSystem} with a given time step (a new one, with its own bodies, for each run).
+     */
+    private final DoubleFunction<SolarSystem> systemFactory;
+
+    /**
+     * The time steps of the runs (from the coarsest to the finest).
+     */
+    private final double[] timeSteps;
+
+    /**
+     * The factor by which each time step is smaller than the previous one.
+     */
+    private final int ratio;
+
+    /**
+     * The amount of steps of the coarsest run.
+     */
+    private final long coarsestSteps;
+
+    /**
+     * The amount of threads used to run the simulations.
+     */
+    private final int threads;
+
+    /**
+     * Constructor.
+     *
+     * @param systemFactory    Builds a {@link SolarSystem} with a given time step
+     *                         (a new one, with its own bodies, for each run).
+     * @param coarsestTimeStep The time step of the coarsest run (in seconds).
+     * @param runs             The amount of runs.
+     * @param ratio            The factor by which each time step is smaller than the previous one.
+     * @param flightTime       The time each run must at least last (in seconds).
+     * @param threads          The amount of threads used to run the simulations
+     *                         (non positive values mean as many as available processors).
+     * @throws IllegalArgumentException If there are less than two runs, or the ratio is less than two.
+     */
+    public ConvergenceStudy(DoubleFunction<SolarSystem> systemFactory, double coarsestTimeStep, int runs, int ratio,
+                            double flightTime, int threads) {
+        if (runs < 2 || ratio < 2) {
+            throw new IllegalArgumentException("A convergence study needs at least two runs, "
+                    + "and a ratio of at least two");
+        }
+        this.systemFactory = systemFactory;
+        this.timeSteps = IntStream.range(0, runs).mapToDouble(run -> coarsestTimeStep / Math.pow(ratio, run)).toArray();
+        this.ratio = ratio;
+        this.coarsestSteps = Math.max(1, (long) Math.ceil(flightTime / coarsestTimeStep - 1e-9));
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return The time steps of the runs (from the coarsest to the finest).
+     */
+    public double[] getTimeSteps() {
+        return timeSteps.clone();
+    }
+
+    /**
+     * Runs the study.
+     *
+     * @return The {@link ConvergenceResult}s (from the coarsest run to the finest one).
+     * @throws IllegalStateException If any simulation fails, or if the thread is interrupted.
+     */
+    public List<ConvergenceResult> run() {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // The finest runs take the longest, so they are submitted first
+            final List<Future<ConvergenceResult>> futures = new ArrayList<>(timeSteps.length);
+            for (int run = timeSteps.length - 1; run >= 0; run--) {
+                final int index = run;
+                futures.add(executor.submit(() -> simulate(index)));
+            }
+            final List<ConvergenceResult> results = new ArrayList<>(timeSteps.length);
+            for (int i = futures.size() - 1; i >= 0; i--) {
+                results.add(futures.get(i).get());
+            }
+            compare(results);
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the convergence study", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A convergence run failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Performs the run with the given {@code index}, watching the ship's closest approaches.
+     *
+     * @param index The run's index (i.e 0 for the coarsest one).
+     * @return The {@link ConvergenceResult} of the run (with no errors yet).
+     */
+    private ConvergenceResult simulate(int index) {
+        final long startTime = System.nanoTime();
+        final SolarSystem solarSystem = systemFactory.apply(timeSteps[index]);
+        final SolarSystemSnapshot snapshot = solarSystem.newSnapshot();
+        // Results are kept in the snapshot's order (i.e the order in which bodies were given)
+        final List<String> bodiesNames = IntStream.range(0, snapshot.size())
+                .mapToObj(snapshot::getName)
+                .collect(Collectors.toList());
+        final double[] closestApproachDistances = new double[snapshot.size()];
+        Arrays.fill(closestApproachDistances, Double.NaN);
+        solarSystem.watchEvents(event -> {
+            if (event.getType() == EventType.CLOSEST_APPROACH) {
+                final int body = bodiesNames.indexOf(event.getBodyName());
+                // Math.min would keep the initial NaN
+                if (!(closestApproachDistances[body] <= event.getDistance())) {
+                    closestApproachDistances[body] = event.getDistance();
+                }
+            }
+        });
+        final long steps = coarsestSteps * (long) Math.pow(ratio, index);
+        for (long step = 0; step < steps; step++) {
+            solarSystem.update();
+        }
+        solarSystem.snapshot(snapshot);
+        final int ship = snapshot.getShipIndex();
+        return new ConvergenceResult(timeSteps[index], steps, (System.nanoTime() - startTime) / 1e9,
+                snapshot.getPositionX(ship), snapshot.getPositionY(ship), bodiesNames, closestApproachDistances);
+    }
+
+    /**
+     * Sets the errors and observed orders of the given {@code results}.
+     * The observed order of a run is estimated from the differences between its ship's final position and the ones
+     * of the two following runs (i.e {@code log(|x0 - x1| / |x1 - x2|) / log(ratio)}), and the error of the finest
+     * run is estimated by Richardson extrapolation with the last observed order.
+     *
+     * @param results The {@link ConvergenceResult}s (from the coarsest run to the finest one).
+     */
+    private void compare(List<ConvergenceResult> results) {
+        final int finest = results.size() - 1;
+        for (int i = 0; i < finest; i++) {
+            results.get(i).setErrors(positionDifference(results.get(i), results.get(finest)),
+                    closestApproachDifference(results.get(i), results.get(finest)));
+        }
+        for (int i = 0; i + 2 < results.size(); i++) {
+            final double coarseDifference = positionDifference(results.get(i), results.get(i + 1));
+            final double fineDifference = positionDifference(results.get(i + 1), results.get(i + 2));
+            results.get(i).setOrder(Math.log(coarseDifference / fineDifference) / Math.log(ratio));
+        }
+        // The finest run's error is estimated as the last difference divided by (ratio ^ order - 1)
+        final double order = finest >= 2 ? results.get(finest - 2).getOrder() : Double.NaN;
+        final double factor = order > 0 ? Math.pow(ratio, order) - 1 : Double.NaN;
+        results.get(finest).setErrors(positionDifference(results.get(finest - 1), results.get(finest)) / factor,
+                closestApproachDifference(results.get(finest - 1), results.get(finest)) / factor);
+    }
+
+    /**
+     * Returns the run with the largest time step that meets the given {@code tolerance}
+     * (i.e its error and the ones of every finer run are not greater than the tolerance, so lucky cancellations are
+     * not taken). If the finest run's error could not be estimated, it is taken as the reference.
+     *
+     * @param results   The {@link ConvergenceResult}s (from the coarsest run to the finest one).
+     * @param tolerance The tolerance (in meters).
+     * @return The {@link ConvergenceResult} (or {@code null} if no run meets the tolerance).
+     */
+    public static ConvergenceResult largestTimeStep(List<ConvergenceResult> results, double tolerance) {
+        ConvergenceResult largest = null;
+        int i = results.size() - 1;
+        if (Double.isNaN(results.get(i).getError())) {
+            largest = results.get(i);
+            i--;
+        }
+        for (; i >= 0 && results.get(i).getError() <= tolerance; i--) {
+            largest = results.get(i);
+        }
+        return largest;
+    }
+
+    /**
+     * @param first  A {@link ConvergenceResult}.
+     * @param second Another {@link ConvergenceResult}.
+     * @return The distance between the ship's final positions of both results.
+     */
+    private static double positionDifference(ConvergenceResult first, ConvergenceResult second) {
+        return Math.hypot(first.getShipPositionX() - second.getShipPositionX(),
+                first.getShipPositionY() - second.getShipPositionY());
+    }
+
+    /**
+     * @param first  A {@link ConvergenceResult}.
+     * @param second Another {@link ConvergenceResult}.
+     * @return The largest difference between the closest approach distances of both results
+     * (only bodies approached in both count, so it is 0 if there are none).
+     */
+    private static double closestApproachDifference(ConvergenceResult first, ConvergenceResult second) {
+        double difference = 0;
+        for (int body = 0; body < first.getBodiesNames().size(); body++) {
+            final double distance = first.getClosestApproachDistance(body) - second.getClosestApproachDistance(body);
+            if (!Double.isNaN(distance)) {
+                difference = Math.max(difference, Math.abs(distance));
+            }
+        }
+        return difference;
+    }
+}
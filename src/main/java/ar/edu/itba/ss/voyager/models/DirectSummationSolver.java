@@ -0,0 +1,299 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link ForceSolver} that calculates the accelerations by summing the contributions of every pair of bodies.
+ * Systems with at least {@code parallelThreshold} bodies are solved in a {@link ForkJoinPool}:
+ * the pairs' triangle is split into bands of rows with (roughly) the same amount of pairs,
+ * each band accumulates into its own private accelerations arrays (i.e no locks are needed),
+ * and then those partial accelerations are reduced always in the same order,
+ * so results are deterministic from run to run.
+ * When the potential energy is requested, it is summed in the same pass over the pairs (i.e reusing their distances),
+ * and the bands' partial potential energies are reduced in band order too.
+ */
+public class DirectSummationSolver implements ForceSolver {
+
+    /**
+     * The default amount of bodies from which the parallel path is taken.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 512;
+
+    /**
+     * Amount of bodies reduced by each leaf task in the reduction phase.
+     */
+    private static final int REDUCTION_CHUNK = 1024;
+
+    /**
+     * The amount of bodies from which the parallel path is taken.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * The amount of threads (and of bands of the pairs' triangle) used in the parallel path.
+     */
+    private final int parallelism;
+
+    /**
+     * The {@link ForkJoinPool} in which the parallel path is executed (lazily initialized).
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The amount of bodies for which the bands and partial accelerations arrays were built.
+     */
+    private int preparedSize;
+
+    /**
+     * The first row of each band (the last element is the amount of bodies).
+     */
+    private int[] bandBoundaries;
+
+    /**
+     * The 'x' component of the partial accelerations (indexed by band and by body).
+     */
+    private double[][] partialAccelerationsX;
+
+    /**
+     * The 'y' component of the partial accelerations (indexed by band and by body).
+     */
+    private double[][] partialAccelerationsY;
+
+    /**
+     * The partial potential energies (indexed by band).
+     */
+    private double[] partialPotentials;
+
+    /**
+     * Constructor for a solver that always takes the sequential path.
+     */
+    public DirectSummationSolver() {
+        this(Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parallelThreshold The amount of bodies from which the parallel path is taken.
+     * @param parallelism       The amount of threads used in the parallel path
+     *                          (non positive values mean as many as available processors).
+     */
+    public DirectSummationSolver(int parallelThreshold, int parallelism) {
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.preparedSize = -1;
+    }
+
+    @Override
+    public void computeAccelerations(int size, double[] masses, double[] positionsX, double[] positionsY,
+                                     double[] accelerationsX, double[] accelerationsY) {
+        if (size < parallelThreshold || parallelism < 2) {
+            Utils.gravitationalAccelerations(size, masses, positionsX, positionsY, accelerationsX, accelerationsY);
+            return;
+        }
+        prepare(size);
+        pool.invoke(new BandsTask(0, parallelism, size, masses, positionsX, positionsY, false));
+        pool.invoke(new ReductionTask(0, size, accelerationsX, accelerationsY));
+    }
+
+    @Override
+    public double computeAccelerationsAndPotential(int size, double[] masses, double[] positionsX,
+                                                   double[] positionsY, double[] accelerationsX,
+                                                   double[] accelerationsY) {
+        if (size < parallelThreshold || parallelism < 2) {
+            Arrays.fill(accelerationsX, 0, size, 0d);
+            Arrays.fill(accelerationsY, 0, size, 0d);
+            return Utils.accumulateGravitationalAccelerationsAndPotential(0, size, size, masses,
+                    positionsX, positionsY, accelerationsX, accelerationsY);
+        }
+        prepare(size);
+        pool.invoke(new BandsTask(0, parallelism, size, masses, positionsX, positionsY, true));
+        pool.invoke(new ReductionTask(0, size, accelerationsX, accelerationsY));
+        double potentialEnergy = 0;
+        for (int band = 0; band < parallelism; band++) {
+            potentialEnergy += partialPotentials[band];
+        }
+        return potentialEnergy;
+    }
+
+    /**
+     * Initializes the pool, the bands and the partial accelerations arrays for the given amount of bodies,
+     * if not done yet.
+     *
+     * @param size The amount of bodies.
+     */
+    private void prepare(int size) {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        if (preparedSize == size) {
+            return;
+        }
+        // Row i has (size - i - 1) pairs. Boundaries are set so that each band has (roughly) the same amount of pairs.
+        final long totalPairs = (long) size * (size - 1) / 2;
+        bandBoundaries = new int[parallelism + 1];
+        long accumulatedPairs = 0;
+        int row = 0;
+        for (int band = 1; band < parallelism; band++) {
+            final long target = totalPairs * band / parallelism;
+            while (row < size && accumulatedPairs < target) {
+                accumulatedPairs += size - row - 1;
+                row++;
+            }
+            bandBoundaries[band] = row;
+        }
+        bandBoundaries[parallelism] = size;
+        partialAccelerationsX = new double[parallelism][size];
+        partialAccelerationsY = new double[parallelism][size];
+        partialPotentials = new double[parallelism];
+        preparedSize = size;
+    }
+
+    /**
+     * {@link RecursiveAction} that calculates the partial accelerations of a range of bands.
+     */
+    private final class BandsTask extends RecursiveAction {
+
+        /**
+         * The first band (inclusive).
+         */
+        private final int fromBand;
+
+        /**
+         * The last band (exclusive).
+         */
+        private final int toBand;
+
+        /**
+         * The amount of bodies.
+         */
+        private final int size;
+
+        /**
+         * The bodies' masses.
+         */
+        private final double[] masses;
+
+        /**
+         * The 'x' component of the positions.
+         */
+        private final double[] positionsX;
+
+        /**
+         * The 'y' component of the positions.
+         */
+        private final double[] positionsY;
+
+        /**
+         * Indicates whether the bands' partial potential energies must be calculated too.
+         */
+        private final boolean withPotential;
+
+        /**
+         * Constructor.
+         *
+         * @param fromBand      The first band (inclusive).
+         * @param toBand        The last band (exclusive).
+         * @param size          The amount of bodies.
+         * @param masses        The bodies' masses.
+         * @param positionsX    The 'x' component of the positions.
+         * @param positionsY    The 'y' component of the positions.
+         * @param withPotential Indicates whether the bands' partial potential energies must be calculated too.
+         */
+        private BandsTask(int fromBand, int toBand, int size,
+                          double[] masses, double[] positionsX, double[] positionsY, boolean withPotential) {
+            this.fromBand = fromBand;
+            this.toBand = toBand;
+            this.size = size;
+            this.masses = masses;
+            this.positionsX = positionsX;
+            this.positionsY = positionsY;
+            this.withPotential = withPotential;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBand - fromBand > 1) {
+                final int middle = (fromBand + toBand) >>> 1;
+                invokeAll(new BandsTask(fromBand, middle, size, masses, positionsX, positionsY, withPotential),
+                        new BandsTask(middle, toBand, size, masses, positionsX, positionsY, withPotential));
+                return;
+            }
+            final double[] bandAccelerationsX = partialAccelerationsX[fromBand];
+            final double[] bandAccelerationsY = partialAccelerationsY[fromBand];
+            Arrays.fill(bandAccelerationsX, 0d);
+            Arrays.fill(bandAccelerationsY, 0d);
+            if (withPotential) {
+                partialPotentials[fromBand] = Utils.accumulateGravitationalAccelerationsAndPotential(
+                        bandBoundaries[fromBand], bandBoundaries[fromBand + 1], size,
+                        masses, positionsX, positionsY, bandAccelerationsX, bandAccelerationsY);
+                return;
+            }
+            Utils.accumulateGravitationalAccelerations(bandBoundaries[fromBand], bandBoundaries[fromBand + 1], size,
+                    masses, positionsX, positionsY, bandAccelerationsX, bandAccelerationsY);
+        }
+    }
+
+    /**
+     * {@link RecursiveAction} that sums the partial accelerations of a range of bodies (always in band order).
+     */
+    private final class ReductionTask extends RecursiveAction {
+
+        /**
+         * The first body (inclusive).
+         */
+        private final int fromBody;
+
+        /**
+         * The last body (exclusive).
+         */
+        private final int toBody;
+
+        /**
+         * Array in which the 'x' component of the accelerations will be stored.
+         */
+        private final double[] accelerationsX;
+
+        /**
+         * Array in which the 'y' component of the accelerations will be stored.
+         */
+        private final double[] accelerationsY;
+
+        /**
+         * Constructor.
+         *
+         * @param fromBody       The first body (inclusive).
+         * @param toBody         The last body (exclusive).
+         * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+         * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+         */
+        private ReductionTask(int fromBody, int toBody, double[] accelerationsX, double[] accelerationsY) {
+            this.fromBody = fromBody;
+            this.toBody = toBody;
+            this.accelerationsX = accelerationsX;
+            this.accelerationsY = accelerationsY;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBody - fromBody > REDUCTION_CHUNK) {
+                final int middle = (fromBody + toBody) >>> 1;
+                invokeAll(new ReductionTask(fromBody, middle, accelerationsX, accelerationsY),
+                        new ReductionTask(middle, toBody, accelerationsX, accelerationsY));
+                return;
+            }
+            for (int i = fromBody; i < toBody; i++) {
+                double ax = 0;
+                double ay = 0;
+                for (int band = 0; band < parallelism; band++) {
+                    ax += partialAccelerationsX[band][i];
+                    ay += partialAccelerationsY[band][i];
+                }
+                accelerationsX[i] = ax;
+                accelerationsY[i] = ay;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Describes what is done when the drift measured by a {@link ConservationMonitor} goes beyond its budget.
+ */
+public enum DriftAction {
+    /**
+     * A warning is emitted (i.e the simulation continues).
+     */
+    WARN,
+    /**
+     * The simulation is stopped.
+     */
+    ABORT,
+    /**
+     * The accuracy parameter of the adaptive time step is scaled down while the drift grows faster than the budget
+     * allows, and back up when it grows well below that rate (i.e the drift feeds the step controller).
+     */
+    ADAPT
+}
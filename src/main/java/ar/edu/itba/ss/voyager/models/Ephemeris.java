@@ -0,0 +1,418 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The precomputed motion of a set of massive bodies (i.e probes are excluded).
+ * As the massive bodies' motion does not depend on test particles, it is integrated only once,
+ * and then any amount of test particles (e.g ships launched in a sweep) can be propagated against it.
+ * Positions and velocities are stored every {@code stride} steps in primitive storage (on the heap,
+ * or in a memory-mapped file), and intermediate steps are obtained through cubic Hermite interpolation.
+ * Once computed, an ephemeris is read-only, so it can be shared by any amount of threads.
+ */
+public final class Ephemeris {
+
+    /**
+     * Amount of values stored per body and sample (i.e position and velocity components).
+     */
+    private static final int VALUES_PER_BODY = 4;
+
+    /**
+     * The time step (i.e how much time elapses between two steps).
+     */
+    private final double timeStep;
+
+    /**
+     * The amount of steps between two stored samples.
+     */
+    private final int stride;
+
+    /**
+     * The last step in this ephemeris.
+     */
+    private final long steps;
+
+    /**
+     * The massive bodies' names.
+     */
+    private final List<String> bodiesNames;
+
+    /**
+     * The massive bodies' types.
+     */
+    private final List<BodyType> bodiesTypes;
+
+    /**
+     * The massive bodies' masses (in kilograms).
+     */
+    private final double[] masses;
+
+    /**
+     * The massive bodies' radii (in meters, or 0 if they are unknown).
+     */
+    private final double[] radii;
+
+    /**
+     * The 'x' component of the estimated positions at step {@code -1} (i.e used to bootstrap Beeman's scheme).
+     */
+    private final double[] previousPositionsX;
+
+    /**
+     * The 'y' component of the estimated positions at step {@code -1} (i.e used to bootstrap Beeman's scheme).
+     */
+    private final double[] previousPositionsY;
+
+    /**
+     * The {@link Storage} holding the samples (indexed by sample, then by body, then by component).
+     */
+    private final Storage storage;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep           The time step (i.e how much time elapses between two steps).
+     * @param stride             The amount of steps between two stored samples.
+     * @param steps              The last step in this ephemeris.
+     * @param massiveBodies      The massive bodies.
+     * @param previousPositionsX The 'x' component of the estimated positions at step {@code -1}.
+     * @param previousPositionsY The 'y' component of the estimated positions at step {@code -1}.
+     * @param storage            The {@link Storage} holding the samples.
+     */
+    private Ephemeris(double timeStep, int stride, long steps, List<Body> massiveBodies,
+                      double[] previousPositionsX, double[] previousPositionsY, Storage storage) {
+        this.timeStep = timeStep;
+        this.stride = stride;
+        this.steps = steps;
+        this.bodiesNames = Collections.unmodifiableList(massiveBodies.stream()
+                .map(Body::getName)
+                .collect(Collectors.toList()));
+        this.bodiesTypes = Collections.unmodifiableList(massiveBodies.stream()
+                .map(Body::getType)
+                .collect(Collectors.toList()));
+        this.masses = massiveBodies.stream().mapToDouble(Body::getMass).toArray();
+        this.radii = massiveBodies.stream().mapToDouble(Body::getRadius).toArray();
+        this.previousPositionsX = previousPositionsX;
+        this.previousPositionsY = previousPositionsY;
+        this.storage = storage;
+    }
+
+    /**
+     * Integrates the massive bodies among the given {@code bodies} (i.e probes are ignored).
+     *
+     * @param timeStep The time step (i.e how much time elapses between two steps).
+     * @param steps    The minimum amount of steps to be integrated.
+     * @param bodies   The bodies, with their initial positions and velocities.
+     * @param stride   The amount of steps between two stored samples (i.e one stores every step).
+     * @param filePath Path to the file in which samples are stored (i.e memory-mapped),
+     *                 or an empty string to store them on the heap.
+     * @return The computed {@link Ephemeris}.
+     * @throws IllegalArgumentException If the stride is not positive,
+     *                                  or if the samples do not fit on the heap storage.
+     * @throws UncheckedIOException     If the file could not be mapped.
+     */
+    public static Ephemeris compute(double timeStep, long steps, List<Body> bodies, int stride, String filePath) {
+        if (stride <= 0) {
+            throw new IllegalArgumentException("The stride must be positive");
+        }
+        final List<Body> massiveBodies = bodies.stream()
+                .filter(body -> body.getType() != BodyType.PROBE)
+                .collect(Collectors.toList());
+        final int size = massiveBodies.size();
+        final long samples = (steps + stride - 1) / stride + 1;
+        final long values = samples * size * VALUES_PER_BODY;
+        final Storage storage = filePath.isEmpty() ? new HeapStorage(values) : new MappedStorage(filePath, values);
+
+        final BodyArrays bodyArrays = new BodyArrays(massiveBodies.stream().mapToDouble(Body::getMass).toArray(),
+                size, new DirectSummationSolver());
+        for (int i = 0; i < size; i++) {
+            bodyArrays.set(i, massiveBodies.get(i).getPosition(), massiveBodies.get(i).getVelocity());
+        }
+        final BeemanIntegrator integrator = new BeemanIntegrator(timeStep, size);
+        integrator.initialize(bodyArrays);
+        final double[] previousPositionsX = new double[size];
+        final double[] previousPositionsY = new double[size];
+        integrator.estimatePreviousPositions(bodyArrays, previousPositionsX, previousPositionsY);
+
+        store(storage, 0, bodyArrays);
+        for (long sample = 1; sample < samples; sample++) {
+            for (int step = 0; step < stride; step++) {
+                integrator.step(bodyArrays);
+            }
+            store(storage, sample * size * VALUES_PER_BODY, bodyArrays);
+        }
+        return new Ephemeris(timeStep, stride, (samples - 1) * stride, massiveBodies,
+                previousPositionsX, previousPositionsY, storage);
+    }
+
+    /**
+     * Stores the actual positions and velocities of the given {@code bodyArrays}.
+     *
+     * @param storage    The {@link Storage} in which values are stored.
+     * @param offset     The index of the sample's first value.
+     * @param bodyArrays The {@link BodyArrays} whose values are stored.
+     */
+    private static void store(Storage storage, long offset, BodyArrays bodyArrays) {
+        for (int i = 0; i < bodyArrays.size; i++) {
+            final long index = offset + (long) i * VALUES_PER_BODY;
+            storage.put(index, bodyArrays.positionsX[i]);
+            storage.put(index + 1, bodyArrays.positionsY[i]);
+            storage.put(index + 2, bodyArrays.velocitiesX[i]);
+            storage.put(index + 3, bodyArrays.velocitiesY[i]);
+        }
+    }
+
+    /**
+     * @return The time step (i.e how much time elapses between two steps).
+     */
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * @return The last step in this ephemeris.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The massive bodies' names.
+     */
+    public List<String> getBodiesNames() {
+        return bodiesNames;
+    }
+
+    /**
+     * @return The massive bodies' types.
+     */
+    public List<BodyType> getBodiesTypes() {
+        return bodiesTypes;
+    }
+
+    /**
+     * @return The amount of massive bodies.
+     */
+    /* package */ int size() {
+        return masses.length;
+    }
+
+    /**
+     * @return The massive bodies' masses (in kilograms). The returned array must not be modified.
+     */
+    /* package */ double[] masses() {
+        return masses;
+    }
+
+    /**
+     * @return The massive bodies' radii (in meters, or 0 if they are unknown).
+     * The returned array must not be modified.
+     */
+    /* package */ double[] radii() {
+        return radii;
+    }
+
+    /**
+     * Loads the massive bodies' positions at the given {@code step} into the given arrays.
+     *
+     * @param step       The step (from {@code -1}, i.e the estimated positions used to bootstrap Beeman's scheme,
+     *                   to {@link #getSteps()}).
+     * @param positionsX Array in which the 'x' component of the positions will be stored.
+     * @param positionsY Array in which the 'y' component of the positions will be stored.
+     * @throws IllegalArgumentException If the step is out of this ephemeris.
+     */
+    /* package */ void positions(long step, double[] positionsX, double[] positionsY) {
+        if (step == -1) {
+            System.arraycopy(previousPositionsX, 0, positionsX, 0, masses.length);
+            System.arraycopy(previousPositionsY, 0, positionsY, 0, masses.length);
+            return;
+        }
+        interpolate(step, 0, positionsX, positionsY);
+    }
+
+    /**
+     * Loads the massive bodies' velocities at the given {@code step} into the given arrays.
+     *
+     * @param step        The step (from {@code 0} to {@link #getSteps()}).
+     * @param velocitiesX Array in which the 'x' component of the velocities will be stored.
+     * @param velocitiesY Array in which the 'y' component of the velocities will be stored.
+     * @throws IllegalArgumentException If the step is out of this ephemeris.
+     */
+    /* package */ void velocities(long step, double[] velocitiesX, double[] velocitiesY) {
+        interpolate(step, 2, velocitiesX, velocitiesY);
+    }
+
+    /**
+     * Loads the massive bodies' positions or velocities at the given {@code step} into the given arrays.
+     * Steps between samples are interpolated with the cubic Hermite polynomial defined by the surrounding samples.
+     *
+     * @param step      The step.
+     * @param component {@code 0} for positions, or {@code 2} for velocities.
+     * @param valuesX   Array in which the 'x' component will be stored.
+     * @param valuesY   Array in which the 'y' component will be stored.
+     * @throws IllegalArgumentException If the step is out of this ephemeris.
+     */
+    private void interpolate(long step, int component, double[] valuesX, double[] valuesY) {
+        if (step < 0 || step > steps) {
+            throw new IllegalArgumentException("Step " + step + " is out of the ephemeris (0 to " + steps + ")");
+        }
+        final int size = masses.length;
+        final long sample = step / stride;
+        final long offset = sample * size * VALUES_PER_BODY;
+        final int remainder = (int) (step % stride);
+        if (remainder == 0) {
+            for (int i = 0; i < size; i++) {
+                valuesX[i] = storage.get(offset + (long) i * VALUES_PER_BODY + component);
+                valuesY[i] = storage.get(offset + (long) i * VALUES_PER_BODY + component + 1);
+            }
+            return;
+        }
+        final long nextOffset = offset + (long) size * VALUES_PER_BODY;
+        final double h = stride * timeStep;
+        final double s = (double) remainder / stride;
+        final double s2 = s * s;
+        final double s3 = s2 * s;
+        // Hermite basis (or its derivative, for velocities) for the positions and the scaled velocities
+        final double p0;
+        final double v0;
+        final double p1;
+        final double v1;
+        if (component == 0) {
+            p0 = 2 * s3 - 3 * s2 + 1;
+            v0 = (s3 - 2 * s2 + s) * h;
+            p1 = -2 * s3 + 3 * s2;
+            v1 = (s3 - s2) * h;
+        } else {
+            p0 = (6 * s2 - 6 * s) / h;
+            v0 = 3 * s2 - 4 * s + 1;
+            p1 = (-6 * s2 + 6 * s) / h;
+            v1 = 3 * s2 - 2 * s;
+        }
+        for (int i = 0; i < size; i++) {
+            final long index = offset + (long) i * VALUES_PER_BODY;
+            final long nextIndex = nextOffset + (long) i * VALUES_PER_BODY;
+            valuesX[i] = p0 * storage.get(index) + v0 * storage.get(index + 2)
+                    + p1 * storage.get(nextIndex) + v1 * storage.get(nextIndex + 2);
+            valuesY[i] = p0 * storage.get(index + 1) + v0 * storage.get(index + 3)
+                    + p1 * storage.get(nextIndex + 1) + v1 * storage.get(nextIndex + 3);
+        }
+    }
+
+    /**
+     * Primitive storage of {@code double} values, indexed by a {@code long}.
+     */
+    private interface Storage {
+
+        /**
+         * @param index The value's index.
+         * @return The value stored in the given {@code index}.
+         */
+        double get(long index);
+
+        /**
+         * Stores a value.
+         *
+         * @param index The value's index.
+         * @param value The value to be stored.
+         */
+        void put(long index, double value);
+    }
+
+    /**
+     * {@link Storage} backed by a {@code double} array.
+     */
+    private static final class HeapStorage implements Storage {
+
+        /**
+         * The stored values.
+         */
+        private final double[] values;
+
+        /**
+         * Constructor.
+         *
+         * @param size The amount of values to be stored.
+         * @throws IllegalArgumentException If the amount of values does not fit in an array.
+         */
+        private HeapStorage(long size) {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("The ephemeris does not fit on the heap. " +
+                        "Use a bigger stride, or store it in a file");
+            }
+            this.values = new double[(int) size];
+        }
+
+        @Override
+        public double get(long index) {
+            return values[(int) index];
+        }
+
+        @Override
+        public void put(long index, double value) {
+            values[(int) index] = value;
+        }
+    }
+
+    /**
+     * {@link Storage} backed by a memory-mapped file, split into segments (i.e a mapping is limited to 2 GB).
+     */
+    private static final class MappedStorage implements Storage {
+
+        /**
+         * Base 2 logarithm of the amount of values in each segment.
+         */
+        private static final int SEGMENT_SHIFT = 27;
+
+        /**
+         * Mask used to obtain an index within a segment.
+         */
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        /**
+         * The mapped segments.
+         */
+        private final DoubleBuffer[] segments;
+
+        /**
+         * Constructor.
+         *
+         * @param filePath Path to the file to be mapped (it is overwritten).
+         * @param size     The amount of values to be stored.
+         * @throws UncheckedIOException If the file could not be mapped.
+         */
+        private MappedStorage(String filePath, long size) {
+            this.segments = new DoubleBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    final long first = (long) segment << SEGMENT_SHIFT;
+                    final long values = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                    segments[segment] = channel.map(FileChannel.MapMode.READ_WRITE, first * Double.BYTES,
+                            values * Double.BYTES)
+                            .order(ByteOrder.nativeOrder())
+                            .asDoubleBuffer();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map the ephemeris file " + filePath, e);
+            }
+        }
+
+        @Override
+        public double get(long index) {
+            return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+        }
+
+        @Override
+        public void put(long index, double value) {
+            segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+        }
+    }
+}
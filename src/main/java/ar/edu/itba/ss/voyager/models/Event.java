@@ -0,0 +1,84 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * An event the ship went through with a star, planet or moon, located in time between two steps.
+ */
+public final class Event {
+
+    /**
+     * The event's type.
+     */
+    private final EventType type;
+
+    /**
+     * The name of the body with which the event happened.
+     */
+    private final String bodyName;
+
+    /**
+     * The moment in which the event happened (in seconds since the beginning of the simulation).
+     */
+    private final double time;
+
+    /**
+     * The distance from the ship to the body when the event happened (in meters).
+     */
+    private final double distance;
+
+    /**
+     * The ship's speed relative to the body when the event happened (in meters over seconds).
+     */
+    private final double relativeSpeed;
+
+    /**
+     * Constructor.
+     *
+     * @param type          The event's type.
+     * @param bodyName      The name of the body with which the event happened.
+     * @param time          The moment in which the event happened (in seconds since the beginning of the simulation).
+     * @param distance      The distance from the ship to the body when the event happened (in meters).
+     * @param relativeSpeed The ship's speed relative to the body when the event happened (in meters over seconds).
+     */
+    /* package */ Event(EventType type, String bodyName, double time, double distance, double relativeSpeed) {
+        this.type = type;
+        this.bodyName = bodyName;
+        this.time = time;
+        this.distance = distance;
+        this.relativeSpeed = relativeSpeed;
+    }
+
+    /**
+     * @return The event's type.
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * @return The name of the body with which the event happened.
+     */
+    public String getBodyName() {
+        return bodyName;
+    }
+
+    /**
+     * @return The moment in which the event happened (in seconds since the beginning of the simulation).
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return The distance from the ship to the body when the event happened (in meters).
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return The ship's speed relative to the body when the event happened (in meters over seconds).
+     */
+    public double getRelativeSpeed() {
+        return relativeSpeed;
+    }
+}
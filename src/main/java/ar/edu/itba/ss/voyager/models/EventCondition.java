@@ -0,0 +1,59 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Locale;
+
+/**
+ * A condition over {@link Event}s (i.e an {@link EventType}, optionally with a given body),
+ * such as the one that stops a simulation (e.g "stop after Saturn's periapsis").
+ */
+public final class EventCondition {
+
+    /**
+     * The type of the matched events.
+     */
+    private final EventType type;
+
+    /**
+     * The name of the body of the matched events (or {@code null} to match events with any body).
+     */
+    private final String bodyName;
+
+    /**
+     * Constructor.
+     *
+     * @param type     The type of the matched events.
+     * @param bodyName The name of the body of the matched events (or {@code null} to match events with any body).
+     */
+    public EventCondition(EventType type, String bodyName) {
+        this.type = type;
+        this.bodyName = bodyName;
+    }
+
+    /**
+     * Parses an {@link EventCondition} with the format {@code type[:body]}, where {@code type} is an
+     * {@link EventType} name in lower case and with dashes (e.g "closest-approach:Saturn" or "collision").
+     *
+     * @param condition The condition to be parsed.
+     * @return The parsed {@link EventCondition}.
+     * @throws IllegalArgumentException If the condition is malformed.
+     */
+    public static EventCondition parse(String condition) {
+        final String[] values = condition.trim().split(":", 2);
+        try {
+            final EventType type = EventType.valueOf(values[0].trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            return new EventCondition(type, values.length > 1 ? values[1].trim() : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown event type in condition: " + condition, e);
+        }
+    }
+
+    /**
+     * Indicates whether the given {@code event} matches this condition.
+     *
+     * @param event The {@link Event} to be tested.
+     * @return {@code true} if the event has the same type (and the same body, if any), or {@code false} otherwise.
+     */
+    public boolean matches(Event event) {
+        return event.getType() == type && (bodyName == null || bodyName.equals(event.getBodyName()));
+    }
+}
@@ -0,0 +1,399 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Watches the ship's distances to the stars, planets and moons during the integration, and emits {@link Event}s
+ * as soon as the step in which they happened ends. Each step is bracketed with the relative states at its start and
+ * its end: closest approaches are sign changes of the radial velocity (i.e {@code r . v}), and crossings of the
+ * sphere of influence or of the body's surface are sign changes of {@code |r|^2 - R^2}. Events are then located
+ * with the Illinois method over a quintic Hermite interpolation of the relative motion (i.e the positions,
+ * velocities and accelerations at both ends of the step, which are already calculated by the integrator), so they
+ * are as accurate as the integration, and no step is repeated. A flyby through a sphere (or into a body) within a
+ * single step is found too, as crossings are bracketed on each side of the closest approach.
+ * The sphere of influence of a planet or moon is the one of Laplace (i.e {@code d * (m / M)^(2/5)}) against its
+ * primary (i.e the star or planet that attracted it the most when the detector was created).
+ */
+/* package */ final class EventDetector {
+
+    /**
+     * The amount of values of each relative state (i.e position, velocity and acceleration, and the squared radius
+     * of the sphere of influence).
+     */
+    private static final int STATE_VALUES = 7;
+
+    /**
+     * The indexes of each value in a relative state.
+     */
+    private static final int X = 0, Y = 1, VX = 2, VY = 3, AX = 4, AY = 5, SQUARED_SPHERE_RADIUS = 6;
+
+    /**
+     * The tolerance of the located events (as a fraction of the step).
+     */
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * The maximum amount of iterations used to locate an event.
+     */
+    private static final int MAXIMUM_ITERATIONS = 100;
+
+    /**
+     * The exponent of the mass ratio in the radius of a sphere of influence.
+     */
+    private static final double SPHERE_OF_INFLUENCE_EXPONENT = 0.4;
+
+    /**
+     * The index of the ship.
+     */
+    private final int shipIndex;
+
+    /**
+     * The indexes of the watched bodies (i.e the stars, planets and moons).
+     */
+    private final int[] watched;
+
+    /**
+     * The names of the watched bodies.
+     */
+    private final String[] names;
+
+    /**
+     * The squared radius of each watched body (or 0 if it is unknown, so collisions with it are not detected).
+     */
+    private final double[] squaredRadii;
+
+    /**
+     * The index of the primary of each watched body (or a negative value if it has no sphere of influence).
+     */
+    private final int[] primaries;
+
+    /**
+     * The ratio between the radius of the sphere of influence of each watched body and its distance to its primary.
+     */
+    private final double[] sphereFactors;
+
+    /**
+     * The relative states of the ship to each watched body at the start of the step.
+     */
+    private double[][] previous;
+
+    /**
+     * The relative states of the ship to each watched body at the end of the step.
+     */
+    private double[][] current;
+
+    /**
+     * The events found in the last step, to be emitted in order.
+     */
+    private final List<Event> pending;
+
+    /**
+     * The interpolated relative position and velocity (i.e scratch values written by {@link #interpolate}).
+     */
+    private double x, y, vx, vy;
+
+    /**
+     * Constructor.
+     *
+     * @param bodies    The bodies in the system, with their initial positions (in the same order as they are
+     *                  integrated).
+     * @param shipIndex The index of the ship.
+     * @param watched   The indexes of the watched bodies (i.e the stars, planets and moons).
+     */
+    /* package */ EventDetector(final List<Body> bodies, final int shipIndex, final int[] watched) {
+        this.shipIndex = shipIndex;
+        this.watched = watched.clone();
+        this.names = new String[watched.length];
+        this.squaredRadii = new double[watched.length];
+        this.primaries = new int[watched.length];
+        this.sphereFactors = new double[watched.length];
+        for (int w = 0; w < watched.length; w++) {
+            final Body body = bodies.get(watched[w]);
+            names[w] = body.getName();
+            squaredRadii[w] = body.getRadius() * body.getRadius();
+            primaries[w] = body.getType() == BodyType.STAR ? -1 : primary(bodies, watched, watched[w]);
+            sphereFactors[w] = primaries[w] < 0 ? 0 :
+                    Math.pow(body.getMass() / bodies.get(primaries[w]).getMass(), SPHERE_OF_INFLUENCE_EXPONENT);
+        }
+        this.previous = new double[STATE_VALUES][watched.length];
+        this.current = new double[STATE_VALUES][watched.length];
+        this.pending = new ArrayList<>();
+    }
+
+    /**
+     * Finds the primary of the given {@code body} (i.e the other watched body that attracts it the most).
+     *
+     * @param bodies  The bodies in the system, with their initial positions.
+     * @param watched The indexes of the watched bodies.
+     * @param body    The body's index.
+     * @return The index of the primary (or a negative value if there is no other watched body).
+     */
+    private static int primary(final List<Body> bodies, final int[] watched, final int body) {
+        int primary = -1;
+        double maximumAcceleration = 0;
+        for (int other : watched) {
+            if (other == body) {
+                continue;
+            }
+            final double squaredDistance = bodies.get(other).getPosition()
+                    .distanceSq(bodies.get(body).getPosition());
+            final double acceleration = bodies.get(other).getMass() / squaredDistance;
+            if (acceleration > maximumAcceleration) {
+                maximumAcceleration = acceleration;
+                primary = other;
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * Loads the actual relative states as the start of the next step
+     * (i.e when the integration starts, and when the state jumps, as in a restart).
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     */
+    /* package */ void reset(final BodyArrays bodies) {
+        load(bodies, previous);
+    }
+
+    /**
+     * Finds the events that happened in the step that just ended, and hands them to the given {@code listener}
+     * in the order they happened.
+     *
+     * @param bodies    The {@link BodyArrays} being integrated, at the end of the step.
+     * @param startTime The moment in which the step started.
+     * @param endTime   The moment in which the step ended.
+     * @param listener  The {@link Consumer} to which the events are handed.
+     */
+    /* package */ void detect(final BodyArrays bodies, final double startTime, final double endTime,
+                              final Consumer<Event> listener) {
+        load(bodies, current);
+        final double step = endTime - startTime;
+        if (step > 0) {
+            for (int w = 0; w < watched.length; w++) {
+                detect(w, startTime, step);
+            }
+            pending.sort(Comparator.comparingDouble(Event::getTime));
+            pending.forEach(listener);
+            pending.clear();
+        }
+        final double[][] swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    /**
+     * Finds the events that happened with the given watched body in the step that just ended.
+     *
+     * @param w         The index of the watched body (in the {@link #watched} array).
+     * @param startTime The moment in which the step started.
+     * @param step      The step's length.
+     */
+    private void detect(final int w, final double startTime, final double step) {
+        final double startRadialVelocity = previous[X][w] * previous[VX][w] + previous[Y][w] * previous[VY][w];
+        final double endRadialVelocity = current[X][w] * current[VX][w] + current[Y][w] * current[VY][w];
+        double closestApproach = -1;
+        if (startRadialVelocity < 0 && endRadialVelocity >= 0) {
+            closestApproach = locate(w, step, 0, 0, 1, startRadialVelocity, endRadialVelocity);
+            emit(EventType.CLOSEST_APPROACH, w, startTime, step, closestApproach);
+        }
+        if (squaredRadii[w] > 0) {
+            detectCrossings(w, startTime, step, squaredRadii[w], closestApproach, EventType.COLLISION, null);
+        }
+        if (primaries[w] >= 0) {
+            detectCrossings(w, startTime, step, previous[SQUARED_SPHERE_RADIUS][w], closestApproach,
+                    EventType.SPHERE_OF_INFLUENCE_ENTRY, EventType.SPHERE_OF_INFLUENCE_EXIT);
+        }
+    }
+
+    /**
+     * Finds the crossings of the sphere with the given {@code squaredRadius} around the given watched body
+     * in the step that just ended (i.e on each side of the closest approach, if there was one).
+     *
+     * @param w               The index of the watched body (in the {@link #watched} array).
+     * @param startTime       The moment in which the step started.
+     * @param step            The step's length.
+     * @param squaredRadius   The sphere's squared radius.
+     * @param closestApproach The closest approach (as a fraction of the step), or a negative value if there was not.
+     * @param entryType       The {@link EventType} of an entry into the sphere.
+     * @param exitType        The {@link EventType} of an exit from the sphere (or {@code null} to ignore exits).
+     */
+    private void detectCrossings(final int w, final double startTime, final double step, final double squaredRadius,
+                                 final double closestApproach, final EventType entryType, final EventType exitType) {
+        final double start = previous[X][w] * previous[X][w] + previous[Y][w] * previous[Y][w] - squaredRadius;
+        final double end = current[X][w] * current[X][w] + current[Y][w] * current[Y][w] - squaredRadius;
+        if (closestApproach < 0) {
+            detectCrossing(w, startTime, step, squaredRadius, 0, 1, start, end, entryType, exitType);
+            return;
+        }
+        final double closest = evaluate(w, step, squaredRadius, closestApproach);
+        detectCrossing(w, startTime, step, squaredRadius, 0, closestApproach, start, closest, entryType, exitType);
+        detectCrossing(w, startTime, step, squaredRadius, closestApproach, 1, closest, end, entryType, exitType);
+    }
+
+    /**
+     * Finds a crossing of the sphere with the given {@code squaredRadius} around the given watched body
+     * between the given fractions of the step (i.e if {@code |r|^2 - R^2} changes its sign between them).
+     *
+     * @param w             The index of the watched body (in the {@link #watched} array).
+     * @param startTime     The moment in which the step started.
+     * @param step          The step's length.
+     * @param squaredRadius The sphere's squared radius.
+     * @param from          The fraction of the step from which the crossing is searched.
+     * @param to            The fraction of the step until which the crossing is searched.
+     * @param fromValue     The value of {@code |r|^2 - R^2} at {@code from}.
+     * @param toValue       The value of {@code |r|^2 - R^2} at {@code to}.
+     * @param entryType     The {@link EventType} of an entry into the sphere.
+     * @param exitType      The {@link EventType} of an exit from the sphere (or {@code null} to ignore exits).
+     */
+    private void detectCrossing(final int w, final double startTime, final double step, final double squaredRadius,
+                                final double from, final double to, final double fromValue, final double toValue,
+                                final EventType entryType, final EventType exitType) {
+        if (fromValue > 0 && toValue <= 0) {
+            emit(entryType, w, startTime, step, locate(w, step, squaredRadius, from, to, fromValue, toValue));
+        } else if (exitType != null && fromValue <= 0 && toValue > 0) {
+            emit(exitType, w, startTime, step, locate(w, step, squaredRadius, from, to, fromValue, toValue));
+        }
+    }
+
+    /**
+     * Locates the root of {@code r . v} (if {@code squaredRadius} is 0) or {@code |r|^2 - R^2} (otherwise)
+     * between the given fractions of the step, whose values have opposite signs (i.e with the Illinois method).
+     *
+     * @param w             The index of the watched body (in the {@link #watched} array).
+     * @param step          The step's length.
+     * @param squaredRadius The squared radius of the crossed sphere (or 0 to locate a closest approach).
+     * @param from          The fraction of the step from which the root is searched.
+     * @param to            The fraction of the step until which the root is searched.
+     * @param fromValue     The value at {@code from}.
+     * @param toValue       The value at {@code to}.
+     * @return The root (as a fraction of the step).
+     */
+    private double locate(final int w, final double step, final double squaredRadius,
+                          double from, double to, double fromValue, double toValue) {
+        double root = from;
+        int side = 0;
+        for (int i = 0; i < MAXIMUM_ITERATIONS && to - from > TOLERANCE; i++) {
+            root = (from * toValue - to * fromValue) / (toValue - fromValue);
+            final double value = evaluate(w, step, squaredRadius, root);
+            if (value == 0) {
+                return root;
+            }
+            if ((value > 0) == (fromValue > 0)) {
+                from = root;
+                fromValue = value;
+                if (side == -1) {
+                    toValue /= 2; // The same end was kept twice, so it is halved to keep converging quickly
+                }
+                side = -1;
+            } else {
+                to = root;
+                toValue = value;
+                if (side == 1) {
+                    fromValue /= 2;
+                }
+                side = 1;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Evaluates {@code r . v} (if {@code squaredRadius} is 0) or {@code |r|^2 - R^2} (otherwise)
+     * at the given fraction of the step.
+     *
+     * @param w             The index of the watched body (in the {@link #watched} array).
+     * @param step          The step's length.
+     * @param squaredRadius The squared radius of the crossed sphere (or 0 for the radial velocity).
+     * @param fraction      The fraction of the step.
+     * @return The value.
+     */
+    private double evaluate(final int w, final double step, final double squaredRadius, final double fraction) {
+        interpolate(w, step, fraction);
+        return squaredRadius == 0 ? x * vx + y * vy : x * x + y * y - squaredRadius;
+    }
+
+    /**
+     * Interpolates the relative position and velocity at the given fraction of the step into {@link #x},
+     * {@link #y}, {@link #vx} and {@link #vy} (i.e with the quintic Hermite polynomial that matches the positions,
+     * velocities and accelerations at both ends of the step).
+     *
+     * @param w        The index of the watched body (in the {@link #watched} array).
+     * @param step     The step's length.
+     * @param fraction The fraction of the step.
+     */
+    private void interpolate(final int w, final double step, final double fraction) {
+        final double s = fraction;
+        final double s2 = s * s;
+        final double s3 = s2 * s;
+        final double s4 = s3 * s;
+        final double s5 = s4 * s;
+        final double h = step;
+        final double h2 = step * step;
+        // Basis of the start position, velocity and acceleration, and of the end ones (multiplied by the step)
+        final double p0 = 1 - 10 * s3 + 15 * s4 - 6 * s5;
+        final double v0 = h * (s - 6 * s3 + 8 * s4 - 3 * s5);
+        final double a0 = h2 * (s2 - 3 * s3 + 3 * s4 - s5) / 2;
+        final double p1 = 10 * s3 - 15 * s4 + 6 * s5;
+        final double v1 = h * (-4 * s3 + 7 * s4 - 3 * s5);
+        final double a1 = h2 * (s3 - 2 * s4 + s5) / 2;
+        // Their derivatives (divided by the step, as they are taken with respect to the fraction)
+        final double dp0 = (-30 * s2 + 60 * s3 - 30 * s4) / h;
+        final double dv0 = 1 - 18 * s2 + 32 * s3 - 15 * s4;
+        final double da0 = h * (2 * s - 9 * s2 + 12 * s3 - 5 * s4) / 2;
+        final double dp1 = -dp0;
+        final double dv1 = -12 * s2 + 28 * s3 - 15 * s4;
+        final double da1 = h * (3 * s2 - 8 * s3 + 5 * s4) / 2;
+        x = p0 * previous[X][w] + v0 * previous[VX][w] + a0 * previous[AX][w]
+                + p1 * current[X][w] + v1 * current[VX][w] + a1 * current[AX][w];
+        y = p0 * previous[Y][w] + v0 * previous[VY][w] + a0 * previous[AY][w]
+                + p1 * current[Y][w] + v1 * current[VY][w] + a1 * current[AY][w];
+        vx = dp0 * previous[X][w] + dv0 * previous[VX][w] + da0 * previous[AX][w]
+                + dp1 * current[X][w] + dv1 * current[VX][w] + da1 * current[AX][w];
+        vy = dp0 * previous[Y][w] + dv0 * previous[VY][w] + da0 * previous[AY][w]
+                + dp1 * current[Y][w] + dv1 * current[VY][w] + da1 * current[AY][w];
+    }
+
+    /**
+     * Adds an {@link Event} of the given {@code type} to the {@link #pending} ones.
+     *
+     * @param type      The event's type.
+     * @param w         The index of the watched body (in the {@link #watched} array).
+     * @param startTime The moment in which the step started.
+     * @param step      The step's length.
+     * @param fraction  The fraction of the step at which the event happened.
+     */
+    private void emit(final EventType type, final int w, final double startTime, final double step,
+                      final double fraction) {
+        interpolate(w, step, fraction);
+        pending.add(new Event(type, names[w], startTime + fraction * step,
+                Math.sqrt(x * x + y * y), Math.sqrt(vx * vx + vy * vy)));
+    }
+
+    /**
+     * Loads the relative states of the ship to each watched body into the given {@code state} arrays.
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @param state  The arrays in which the relative states are loaded.
+     */
+    private void load(final BodyArrays bodies, final double[][] state) {
+        for (int w = 0; w < watched.length; w++) {
+            final int body = watched[w];
+            state[X][w] = bodies.positionsX[shipIndex] - bodies.positionsX[body];
+            state[Y][w] = bodies.positionsY[shipIndex] - bodies.positionsY[body];
+            state[VX][w] = bodies.velocitiesX[shipIndex] - bodies.velocitiesX[body];
+            state[VY][w] = bodies.velocitiesY[shipIndex] - bodies.velocitiesY[body];
+            state[AX][w] = bodies.accelerationsX[shipIndex] - bodies.accelerationsX[body];
+            state[AY][w] = bodies.accelerationsY[shipIndex] - bodies.accelerationsY[body];
+            if (primaries[w] >= 0) {
+                final int primary = primaries[w];
+                final double dx = bodies.positionsX[body] - bodies.positionsX[primary];
+                final double dy = bodies.positionsY[body] - bodies.positionsY[primary];
+                state[SQUARED_SPHERE_RADIUS][w] = (dx * dx + dy * dy) * sphereFactors[w] * sphereFactors[w];
+            }
+        }
+    }
+}
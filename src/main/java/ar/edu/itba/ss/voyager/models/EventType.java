@@ -0,0 +1,23 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Describes all types of events the ship can go through with a star, planet or moon.
+ */
+public enum EventType {
+    /**
+     * A closest approach (i.e a local minimum of the distance, such as a periapsis).
+     */
+    CLOSEST_APPROACH,
+    /**
+     * An entry into the body's sphere of influence.
+     */
+    SPHERE_OF_INFLUENCE_ENTRY,
+    /**
+     * An exit from the body's sphere of influence.
+     */
+    SPHERE_OF_INFLUENCE_EXIT,
+    /**
+     * A collision (i.e the distance became less than the body's radius).
+     */
+    COLLISION
+}
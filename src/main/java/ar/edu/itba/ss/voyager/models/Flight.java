@@ -0,0 +1,40 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * The actual state of a ship's flight among the stars, planets and moons of a system
+ * (i.e what {@link TerminationCondition}s are evaluated on after each step).
+ */
+public interface Flight {
+
+    /**
+     * @return The amount of time the ship has flown (i.e since it was launched, or since the beginning of the
+     * simulation if it was not launched later).
+     */
+    double getFlightTime();
+
+    /**
+     * Finds the index of the star, planet or moon with the given {@code name} (i.e to be resolved only once).
+     *
+     * @param name The body's name.
+     * @return The body's index (or a negative value if there is no star, planet nor moon with the given name).
+     */
+    int bodyIndex(String name);
+
+    /**
+     * @param body The body's index (as returned by {@link #bodyIndex(String)}).
+     * @return The body's mass (in kilograms).
+     */
+    double bodyMass(int body);
+
+    /**
+     * @param body The body's index (as returned by {@link #bodyIndex(String)}).
+     * @return The distance from the ship to the given body (in meters).
+     */
+    double shipDistance(int body);
+
+    /**
+     * @param body The body's index (as returned by {@link #bodyIndex(String)}).
+     * @return The ship's speed relative to the given body (in meters over seconds).
+     */
+    double shipRelativeSpeed(int body);
+}
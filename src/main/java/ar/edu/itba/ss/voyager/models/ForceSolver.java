@@ -0,0 +1,42 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Defines behaviour for an object that can calculate the gravitational accelerations of a set of bodies,
+ * given their masses and positions (held in primitive arrays, indexed by body).
+ */
+public interface ForceSolver {
+
+    /**
+     * Calculates the gravitational acceleration each body suffers when placed in the given positions.
+     *
+     * @param size           The amount of bodies.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    void computeAccelerations(int size, double[] masses, double[] positionsX, double[] positionsY,
+                              double[] accelerationsX, double[] accelerationsY);
+
+    /**
+     * Calculates the gravitational acceleration each body suffers when placed in the given positions
+     * (i.e the same ones {@link #computeAccelerations} calculates), and the bodies' gravitational potential energy.
+     * By default, the potential energy is calculated in a separate pass over the pairs of bodies;
+     * solvers that visit every pair reuse their distances instead.
+     *
+     * @param size           The amount of bodies.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     * @return The potential energy (i.e {@code -G * mi * mj / r} summed over every unordered pair).
+     */
+    default double computeAccelerationsAndPotential(int size, double[] masses, double[] positionsX,
+                                                    double[] positionsY, double[] accelerationsX,
+                                                    double[] accelerationsY) {
+        computeAccelerations(size, masses, positionsX, positionsY, accelerationsX, accelerationsY);
+        return Utils.potentialEnergy(size, masses, positionsX, positionsY);
+    }
+}
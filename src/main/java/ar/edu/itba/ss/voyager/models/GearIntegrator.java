@@ -0,0 +1,266 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+
+/**
+ * Gear's fifth order predictor-corrector integration scheme running over a {@link BodyArrays},
+ * with no heap allocation per step. Each body carries its position and its first five time derivatives:
+ * they are predicted with a Taylor expansion, the accelerations are calculated at the predicted positions,
+ * and the difference between them and the predicted accelerations corrects every derivative.
+ * The velocities and accelerations are kept in the {@link BodyArrays},
+ * and the third, fourth and fifth derivatives are kept by the integrator. As derivatives are not scaled
+ * by the time step, it can be changed between steps.
+ */
+/* package */ final class GearIntegrator implements Integrator {
+
+    /**
+     * Gear's corrector coefficients for second order equations with position dependent forces
+     * (i.e one per derivative, from the position to the fifth derivative).
+     */
+    private static final double[] ALPHA = {3d / 16d, 251d / 360d, 1d, 11d / 18d, 1d / 6d, 1d / 60d};
+
+    /**
+     * The time step (i.e how much time elapses between two update events).
+     */
+    private double timeStep;
+
+    /**
+     * The factor applied to the acceleration difference to correct each derivative
+     * (i.e {@code ALPHA[q] * q! / timeStep^q * timeStep^2 / 2}).
+     */
+    private final double[] corrections;
+
+    /**
+     * The 'x' component of the third derivative of the positions.
+     */
+    private final double[] derivatives3X;
+
+    /**
+     * The 'y' component of the third derivative of the positions.
+     */
+    private final double[] derivatives3Y;
+
+    /**
+     * The 'x' component of the fourth derivative of the positions.
+     */
+    private final double[] derivatives4X;
+
+    /**
+     * The 'y' component of the fourth derivative of the positions.
+     */
+    private final double[] derivatives4Y;
+
+    /**
+     * The 'x' component of the fifth derivative of the positions.
+     */
+    private final double[] derivatives5X;
+
+    /**
+     * The 'y' component of the fifth derivative of the positions.
+     */
+    private final double[] derivatives5Y;
+
+    /**
+     * Scratch array holding the 'x' component of the accelerations at the predicted positions.
+     */
+    private final double[] scratchX;
+
+    /**
+     * Scratch array holding the 'y' component of the accelerations at the predicted positions.
+     */
+    private final double[] scratchY;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep The time step (i.e how much time elapses between two update events).
+     * @param size     The amount of bodies to be integrated.
+     */
+    /* package */ GearIntegrator(final double timeStep, final int size) {
+        this.corrections = new double[ALPHA.length];
+        setTimeStep(timeStep);
+        this.derivatives3X = new double[size];
+        this.derivatives3Y = new double[size];
+        this.derivatives4X = new double[size];
+        this.derivatives4Y = new double[size];
+        this.derivatives5X = new double[size];
+        this.derivatives5Y = new double[size];
+        this.scratchX = new double[size];
+        this.scratchY = new double[size];
+    }
+
+    /**
+     * Initializes the accelerations of the given {@code bodies}, and estimates the higher derivatives
+     * according to their actual positions and velocities.
+     *
+     * @param bodies The {@link BodyArrays} to be initialized.
+     * @implNote The higher derivatives are estimated with finite differences of the accelerations at
+     * {@code -2}, {@code -1}, {@code 1} and {@code 2} time steps, with the positions at those times estimated with
+     * a Taylor expansion. This is done twice, the second time including the derivatives estimated the first time.
+     * Unlike steps, this allocates the arrays holding those accelerations.
+     */
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        final int size = bodies.size;
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+        Arrays.fill(derivatives3X, 0d);
+        Arrays.fill(derivatives3Y, 0d);
+        Arrays.fill(derivatives4X, 0d);
+        Arrays.fill(derivatives4Y, 0d);
+        Arrays.fill(derivatives5X, 0d);
+        Arrays.fill(derivatives5Y, 0d);
+        final int[] offsets = {-2, -1, 1, 2};
+        final double[][] accelerationsX = new double[offsets.length][size];
+        final double[][] accelerationsY = new double[offsets.length][size];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int k = 0; k < offsets.length; k++) {
+                final double time = offsets[k] * timeStep;
+                for (int i = 0; i < size; i++) {
+                    scratchX[i] = taylor(time, bodies.positionsX[i], bodies.velocitiesX[i],
+                            bodies.accelerationsX[i], derivatives3X[i], derivatives4X[i], derivatives5X[i]);
+                    scratchY[i] = taylor(time, bodies.positionsY[i], bodies.velocitiesY[i],
+                            bodies.accelerationsY[i], derivatives3Y[i], derivatives4Y[i], derivatives5Y[i]);
+                }
+                bodies.computeAccelerations(scratchX, scratchY, accelerationsX[k], accelerationsY[k]);
+            }
+            differentiate(size, bodies.accelerationsX, accelerationsX,
+                    derivatives3X, derivatives4X, derivatives5X);
+            differentiate(size, bodies.accelerationsY, accelerationsY,
+                    derivatives3Y, derivatives4Y, derivatives5Y);
+        }
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        final int size = bodies.size;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] ax = bodies.accelerationsX;
+        final double[] ay = bodies.accelerationsY;
+
+        // Predict (the predicted accelerations are written into the scratch arrays)
+        for (int i = 0; i < size; i++) {
+            scratchX[i] = predict(i, x, vx, ax, derivatives3X, derivatives4X, derivatives5X);
+            scratchY[i] = predict(i, y, vy, ay, derivatives3Y, derivatives4Y, derivatives5Y);
+        }
+        // Evaluate (the actual accelerations at the predicted positions replace the predicted ones)
+        bodies.computeAccelerations(x, y, ax, ay);
+        // Correct
+        for (int i = 0; i < size; i++) {
+            correct(i, ax[i] - scratchX[i], x, vx, derivatives3X, derivatives4X, derivatives5X);
+            correct(i, ay[i] - scratchY[i], y, vy, derivatives3Y, derivatives4Y, derivatives5Y);
+        }
+    }
+
+    @Override
+    public void setTimeStep(final double timeStep) {
+        this.timeStep = timeStep;
+        double factorial = 1;
+        for (int q = 0; q < ALPHA.length; q++) {
+            factorial *= Math.max(q, 1);
+            corrections[q] = ALPHA[q] * factorial / Math.pow(timeStep, q) * (timeStep * timeStep / 2);
+        }
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[][]{derivatives3X, derivatives3Y, derivatives4X, derivatives4Y,
+                derivatives5X, derivatives5Y};
+    }
+
+    /**
+     * Replaces one component of a body's position and derivatives with their predicted values after one step.
+     *
+     * @param i             The body's index.
+     * @param positions     The position components.
+     * @param velocities    The velocity components.
+     * @param accelerations The acceleration components.
+     * @param derivatives3  The third derivative components.
+     * @param derivatives4  The fourth derivative components.
+     * @param derivatives5  The fifth derivative components.
+     * @return The predicted acceleration component.
+     */
+    private double predict(final int i, final double[] positions, final double[] velocities,
+                           final double[] accelerations, final double[] derivatives3,
+                           final double[] derivatives4, final double[] derivatives5) {
+        final double r5 = derivatives5[i];
+        final double r4 = derivatives4[i];
+        final double r3 = derivatives3[i];
+        final double r2 = accelerations[i];
+        final double r1 = velocities[i];
+        final double h = timeStep;
+        positions[i] = taylor(h, positions[i], r1, r2, r3, r4, r5);
+        velocities[i] = r1 + h * (r2 + h * (r3 / 2 + h * (r4 / 6 + h * r5 / 24)));
+        derivatives3[i] = r3 + h * (r4 + h * r5 / 2);
+        derivatives4[i] = r4 + h * r5;
+        return r2 + h * (r3 + h * (r4 / 2 + h * r5 / 6));
+    }
+
+    /**
+     * Corrects one component of a body's predicted position and derivatives.
+     *
+     * @param i                      The body's index.
+     * @param accelerationDifference The difference between the calculated and the predicted acceleration.
+     * @param positions              The position components.
+     * @param velocities             The velocity components.
+     * @param derivatives3           The third derivative components.
+     * @param derivatives4           The fourth derivative components.
+     * @param derivatives5           The fifth derivative components.
+     */
+    private void correct(final int i, final double accelerationDifference,
+                         final double[] positions, final double[] velocities, final double[] derivatives3,
+                         final double[] derivatives4, final double[] derivatives5) {
+        positions[i] += corrections[0] * accelerationDifference;
+        velocities[i] += corrections[1] * accelerationDifference;
+        // The acceleration's correction is the difference itself (i.e it already holds the calculated value)
+        derivatives3[i] += corrections[3] * accelerationDifference;
+        derivatives4[i] += corrections[4] * accelerationDifference;
+        derivatives5[i] += corrections[5] * accelerationDifference;
+    }
+
+    /**
+     * Evaluates the Taylor expansion of a position component.
+     *
+     * @param time The time from the expansion point.
+     * @param r0   The position component.
+     * @param r1   The velocity component.
+     * @param r2   The acceleration component.
+     * @param r3   The third derivative component.
+     * @param r4   The fourth derivative component.
+     * @param r5   The fifth derivative component.
+     * @return The position component after the given {@code time}.
+     */
+    private static double taylor(final double time, final double r0, final double r1, final double r2,
+                                 final double r3, final double r4, final double r5) {
+        return r0 + time * (r1 + time * (r2 / 2 + time * (r3 / 6 + time * (r4 / 24 + time * r5 / 120))));
+    }
+
+    /**
+     * Estimates the third, fourth and fifth derivatives of the positions with central finite differences
+     * of the accelerations at {@code -2}, {@code -1}, {@code 0}, {@code 1} and {@code 2} time steps.
+     *
+     * @param size          The amount of bodies.
+     * @param accelerations The acceleration components at the actual positions.
+     * @param neighbours    The acceleration components at {@code -2}, {@code -1}, {@code 1} and {@code 2} steps.
+     * @param derivatives3  Array in which the third derivative components will be stored.
+     * @param derivatives4  Array in which the fourth derivative components will be stored.
+     * @param derivatives5  Array in which the fifth derivative components will be stored.
+     */
+    private void differentiate(final int size, final double[] accelerations, final double[][] neighbours,
+                               final double[] derivatives3, final double[] derivatives4,
+                               final double[] derivatives5) {
+        final double h = timeStep;
+        for (int i = 0; i < size; i++) {
+            final double minus2 = neighbours[0][i];
+            final double minus1 = neighbours[1][i];
+            final double plus1 = neighbours[2][i];
+            final double plus2 = neighbours[3][i];
+            derivatives3[i] = (minus2 - 8 * minus1 + 8 * plus1 - plus2) / (12 * h);
+            derivatives4[i] = (-minus2 + 16 * minus1 - 30 * accelerations[i] + 16 * plus1 - plus2) / (12 * h * h);
+            derivatives5[i] = (-minus2 + 2 * minus1 - 2 * plus1 + plus2) / (2 * h * h * h);
+        }
+    }
+}
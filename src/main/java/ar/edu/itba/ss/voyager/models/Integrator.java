@@ -0,0 +1,40 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Defines behaviour for an integration scheme running over a {@link BodyArrays}.
+ * Implementations calculate accelerations only through the {@link BodyArrays}' {@code computeAccelerations} methods,
+ * and perform no heap allocation per step.
+ */
+/* package */ interface Integrator {
+
+    /**
+     * Initializes the accelerations of the given {@code bodies} (and any other state the scheme needs)
+     * according to their actual positions and velocities.
+     *
+     * @param bodies The {@link BodyArrays} to be initialized.
+     */
+    void initialize(BodyArrays bodies);
+
+    /**
+     * Performs one integration step over the given {@code bodies}.
+     * After it, the accelerations of the {@link BodyArrays} correspond to its positions.
+     *
+     * @param bodies The {@link BodyArrays} to be integrated.
+     */
+    void step(BodyArrays bodies);
+
+    /**
+     * Changes the time step used by the next steps (i.e for adaptive time stepping).
+     *
+     * @param timeStep The new time step.
+     * @throws UnsupportedOperationException If the scheme needs a fixed time step.
+     */
+    void setTimeStep(double timeStep);
+
+    /**
+     * @return The arrays holding the state this scheme keeps between steps, besides the positions, velocities
+     * and accelerations of the {@link BodyArrays} (i.e they must be saved to resume the integration exactly).
+     * The returned arrays may change from step to step, so this method must be called each time they are accessed.
+     */
+    double[][] stateArrays();
+}
@@ -0,0 +1,152 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * The available integration schemes.
+ */
+public enum IntegratorType {
+
+    /**
+     * Beeman's scheme (i.e third order in positions, with a bootstrapped previous acceleration).
+     */
+    BEEMAN(1, false, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new BeemanIntegrator(timeStep, size);
+        }
+    },
+
+    /**
+     * The velocity Verlet scheme (i.e second order and symplectic).
+     */
+    VELOCITY_VERLET(1, true, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new VelocityVerletIntegrator(timeStep);
+        }
+    },
+
+    /**
+     * Yoshida's fourth order symplectic scheme (i.e three velocity Verlet substeps).
+     */
+    YOSHIDA4(3, true, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new YoshidaIntegrator(timeStep);
+        }
+    },
+
+    /**
+     * The classic fourth order Runge-Kutta scheme.
+     */
+    RK4(4, true, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new RungeKuttaIntegrator(timeStep, size);
+        }
+    },
+
+    /**
+     * Gear's fifth order predictor-corrector scheme.
+     */
+    GEAR5(1, true, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new GearIntegrator(timeStep, size);
+        }
+    },
+
+    /**
+     * A Wisdom-Holman mixed-variable symplectic scheme (i.e Kepler orbits around the central body are solved
+     * analytically, and the rest of the interactions are applied as kicks).
+     */
+    WISDOM_HOLMAN(1, true, false) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new WisdomHolmanIntegrator(timeStep, size, attractors);
+        }
+    },
+
+    /**
+     * Hierarchical block time steps with the kick-drift-kick leapfrog (i.e each body is advanced with a
+     * power-of-two fraction of the time step, and only its own acceleration is calculated at the end of its steps).
+     */
+    BLOCK_LEAPFROG(1, false, true) {
+        @Override
+        /* package */ Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep,
+                                                int[] attractors) {
+            return new BlockTimeStepIntegrator(timeStep, size, adaptiveTimeStep, attractors);
+        }
+    };
+
+    /**
+     * The amount of times accelerations are calculated in each step.
+     */
+    private final int forceEvaluationsPerStep;
+
+    /**
+     * Indicates whether the time step can be changed between steps.
+     */
+    private final boolean variableTimeStep;
+
+    /**
+     * Indicates whether each body is advanced with its own time step.
+     */
+    private final boolean individualTimeSteps;
+
+    /**
+     * Constructor.
+     *
+     * @param forceEvaluationsPerStep The amount of times accelerations are calculated in each step.
+     * @param variableTimeStep        Indicates whether the time step can be changed between steps.
+     * @param individualTimeSteps     Indicates whether each body is advanced with its own time step.
+     */
+    IntegratorType(int forceEvaluationsPerStep, boolean variableTimeStep, boolean individualTimeSteps) {
+        this.forceEvaluationsPerStep = forceEvaluationsPerStep;
+        this.variableTimeStep = variableTimeStep;
+        this.individualTimeSteps = individualTimeSteps;
+    }
+
+    /**
+     * @return The amount of times accelerations are calculated in each step
+     * (i.e the cost of a step, as accelerations dominate it). With individual time steps, it is the amount of
+     * times each body's acceleration is calculated in each of its own steps.
+     */
+    public int getForceEvaluationsPerStep() {
+        return forceEvaluationsPerStep;
+    }
+
+    /**
+     * @return {@code true} if the time step can be changed between steps (i.e the scheme can be used with an
+     * {@link AdaptiveTimeStep}), or {@code false} otherwise.
+     */
+    public boolean isVariableTimeStep() {
+        return variableTimeStep;
+    }
+
+    /**
+     * @return {@code true} if each body is advanced with its own time step (i.e the scheme needs an
+     * {@link AdaptiveTimeStep} to choose them, and the time step of the system is fixed), or {@code false} otherwise.
+     */
+    public boolean isIndividualTimeSteps() {
+        return individualTimeSteps;
+    }
+
+    /**
+     * Creates a new {@link Integrator} of this type.
+     *
+     * @param timeStep         The time step (i.e how much time elapses between two update events).
+     * @param size             The amount of bodies to be integrated.
+     * @param adaptiveTimeStep The {@link AdaptiveTimeStep} that chooses each body's time step
+     *                         (only used with individual time steps).
+     * @param attractors       The indexes of the attractors (only used with individual time steps).
+     * @return The new {@link Integrator}.
+     */
+    /* package */
+    abstract Integrator newIntegrator(double timeStep, int size, AdaptiveTimeStep adaptiveTimeStep, int[] attractors);
+}
@@ -0,0 +1,119 @@
+package ar.edu.itba.ss.voyager.models;
+
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+/**
+ * Describes how a ship is launched from a planet (e.g the Earth).
+ * The ship is placed radially outward from the planet (in regards to the star) at {@link #SHIP_ALTITUDE},
+ * and its velocity is the planet's one plus {@code speed} meters over seconds in the planet's velocity direction,
+ * rotated {@code angle} radians counterclockwise.
+ */
+public final class LaunchParameters {
+
+    /**
+     * Indicates the ship's altitude in regards to the planet's surface in meters.
+     */
+    private static final double SHIP_ALTITUDE = 1500 * 1000;
+
+    /**
+     * The ship's initial speed (velocity module) in meters over seconds
+     */
+    private static final double SHIP_INITIAL_SPEED = 14000;
+
+    /**
+     * The default launch (i.e at the beginning of the simulation, in the planet's velocity direction).
+     */
+    public static final LaunchParameters DEFAULT = new LaunchParameters(0, SHIP_INITIAL_SPEED, 0);
+
+    /**
+     * The moment in which the ship is launched (in seconds since the beginning of the simulation).
+     */
+    private final double launchTime;
+
+    /**
+     * The speed added to the planet's velocity (in meters over seconds).
+     */
+    private final double speed;
+
+    /**
+     * The angle between the planet's velocity and the added velocity (in radians, counterclockwise).
+     */
+    private final double angle;
+
+    /**
+     * Constructor.
+     *
+     * @param launchTime The moment in which the ship is launched (in seconds since the beginning of the simulation).
+     * @param speed      The speed added to the planet's velocity (in meters over seconds).
+     * @param angle      The angle between the planet's velocity and the added velocity (in radians, counterclockwise).
+     */
+    public LaunchParameters(double launchTime, double speed, double angle) {
+        this.launchTime = launchTime;
+        this.speed = speed;
+        this.angle = angle;
+    }
+
+    /**
+     * @return The moment in which the ship is launched (in seconds since the beginning of the simulation).
+     */
+    public double getLaunchTime() {
+        return launchTime;
+    }
+
+    /**
+     * @return The speed added to the planet's velocity (in meters over seconds).
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return The angle between the planet's velocity and the added velocity (in radians, counterclockwise).
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    /**
+     * Calculates the ship's initial position, which depends on the star's and planet's ones.
+     *
+     * @param starPosition   The star's position.
+     * @param planetPosition The planet's position.
+     * @param planetRadius   The planet's radius (in meters).
+     * @return The ship's initial position.
+     * @implNote This method takes the star to planet vector, and calculates the norm of it.
+     * Then it adds to the norm the planet's radius and the ship's altitude (given by {@link #SHIP_ALTITUDE}),
+     * to calculate a stretching factor.
+     * This stretching factor is multiplied to a unit factor generated from the planet's position).
+     */
+    public Vector2D shipPosition(Vector2D starPosition, Vector2D planetPosition, double planetRadius) {
+        final double factor = planetPosition.distance(starPosition) + SHIP_ALTITUDE + planetRadius;
+        return planetPosition.subtract(starPosition)
+                .normalize()
+                .scalarMultiply(factor)
+                .add(starPosition);
+    }
+
+    /**
+     * Calculates the ship's initial velocity, which depends on the planet's velocity.
+     *
+     * @param planetVelocity The planet's velocity.
+     * @return The ship's initial velocity.
+     * @implNote This method takes the planet's velocity direction, rotates it {@link #angle} radians,
+     * and adds to the planet's velocity a vector with that direction and {@link #speed} as module
+     * (i.e with a zero angle, the result has the planet's velocity direction and its module plus the speed).
+     */
+    public Vector2D shipVelocity(Vector2D planetVelocity) {
+        final Vector2D direction = planetVelocity.normalize();
+        final double cos = Math.cos(angle);
+        final double sin = Math.sin(angle);
+        final Vector2D rotated = new Vector2D(direction.getX() * cos - direction.getY() * sin,
+                direction.getX() * sin + direction.getY() * cos);
+        return planetVelocity.add(rotated.scalarMultiply(speed));
+    }
+
+    @Override
+    public String toString() {
+        return "LaunchParameters{launchTime=" + launchTime + ", speed=" + speed + ", angle=" + angle + "}";
+    }
+}
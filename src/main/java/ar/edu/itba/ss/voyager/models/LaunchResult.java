@@ -0,0 +1,120 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a {@link LaunchSimulation}: for each massive body,
+ * the minimum distance the ship reached to it, and the moment in which it happened
+ * (during the time the ship flew, which is shorter than the flight time if a {@link TerminationCondition}
+ * stopped it).
+ */
+public final class LaunchResult {
+
+    /**
+     * The {@link LaunchParameters} that produced this result.
+     */
+    private final LaunchParameters parameters;
+
+    /**
+     * The massive bodies' names.
+     */
+    private final List<String> bodiesNames;
+
+    /**
+     * The minimum distance from the ship to each massive body (in meters).
+     */
+    private final double[] minimumDistances;
+
+    /**
+     * The moment of the closest approach to each massive body (in seconds since the beginning of the simulation).
+     */
+    private final double[] closestApproachTimes;
+
+    /**
+     * The amount of time the ship flew (in seconds).
+     */
+    private final double flownTime;
+
+    /**
+     * The reason why the flight was stopped (or {@code null} if the ship flew the whole flight time).
+     */
+    private final String terminationReason;
+
+    /**
+     * Constructor.
+     *
+     * @param parameters           The {@link LaunchParameters} that produced this result.
+     * @param bodiesNames          The massive bodies' names.
+     * @param minimumDistances     The minimum distance from the ship to each massive body (in meters).
+     * @param closestApproachTimes The moment of the closest approach to each massive body
+     *                             (in seconds since the beginning of the simulation).
+     * @param flownTime            The amount of time the ship flew (in seconds).
+     * @param terminationReason    The reason why the flight was stopped
+     *                             (or {@code null} if the ship flew the whole flight time).
+     */
+    /* package */ LaunchResult(LaunchParameters parameters, List<String> bodiesNames,
+                               double[] minimumDistances, double[] closestApproachTimes,
+                               double flownTime, String terminationReason) {
+        this.parameters = parameters;
+        this.bodiesNames = Collections.unmodifiableList(bodiesNames);
+        this.minimumDistances = minimumDistances.clone();
+        this.closestApproachTimes = closestApproachTimes.clone();
+        this.flownTime = flownTime;
+        this.terminationReason = terminationReason;
+    }
+
+    /**
+     * @return The {@link LaunchParameters} that produced this result.
+     */
+    public LaunchParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return The massive bodies' names.
+     */
+    public List<String> getBodiesNames() {
+        return bodiesNames;
+    }
+
+    /**
+     * @param body The massive body's index (in the same order as the {@link #getBodiesNames()} {@link List}).
+     * @return The minimum distance from the ship to the given massive body (in meters).
+     */
+    public double getMinimumDistance(int body) {
+        return minimumDistances[body];
+    }
+
+    /**
+     * @param body The massive body's index (in the same order as the {@link #getBodiesNames()} {@link List}).
+     * @return The moment of the closest approach to the given massive body
+     * (in seconds since the beginning of the simulation).
+     */
+    public double getClosestApproachTime(int body) {
+        return closestApproachTimes[body];
+    }
+
+    /**
+     * @return The amount of time the ship flew (in seconds).
+     */
+    public double getFlownTime() {
+        return flownTime;
+    }
+
+    /**
+     * @return The reason why the flight was stopped (or {@code null} if the ship flew the whole flight time).
+     */
+    public String getTerminationReason() {
+        return terminationReason;
+    }
+
+    @Override
+    public String toString() {
+        return "LaunchResult{parameters=" + parameters + ", bodiesNames=" + bodiesNames
+                + ", minimumDistances=" + Arrays.toString(minimumDistances)
+                + ", closestApproachTimes=" + Arrays.toString(closestApproachTimes)
+                + ", flownTime=" + flownTime + ", terminationReason=" + terminationReason + "}";
+    }
+}
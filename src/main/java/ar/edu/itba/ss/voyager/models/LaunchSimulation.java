@@ -0,0 +1,364 @@
+package ar.edu.itba.ss.voyager.models;
+
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Simulates the flight of a ship launched from a planet with given {@link LaunchParameters},
+ * tracking the closest approach to each massive body.
+ * The ship is a test particle (i.e it does not affect the massive bodies), so the massive bodies' motion
+ * is read from an {@link Ephemeris}, and only the ship is integrated (with Beeman's scheme).
+ * A flight can be stopped early by a {@link TerminationCondition} (e.g when the ship clearly missed its target),
+ * recording the reason in the {@link LaunchResult}.
+ * Instances hold no mutable state (i.e each launch gets its own {@link TerminationCondition}),
+ * so the same instance can run several launches concurrently.
+ */
+public class LaunchSimulation {
+
+    /**
+     * The {@link Ephemeris} with the massive bodies' motion.
+     */
+    private final Ephemeris ephemeris;
+
+    /**
+     * The {@link BeemanIntegrator} used for the ship's updates (i.e it is not used to integrate any body array).
+     */
+    private final BeemanIntegrator integrator;
+
+    /**
+     * The amount of steps the ship flies (i.e since it is launched).
+     */
+    private final long flightSteps;
+
+    /**
+     * The index of the star (i.e the first {@link BodyType#STAR} body) in the {@link Ephemeris}.
+     */
+    private final int starIndex;
+
+    /**
+     * The index of the planet from which the ship is launched in the {@link Ephemeris}.
+     */
+    private final int planetIndex;
+
+    /**
+     * Creates the {@link TerminationCondition} of each launch.
+     */
+    private final Supplier<TerminationCondition> terminationConditions;
+
+    /**
+     * Constructor.
+     *
+     * @param ephemeris             The {@link Ephemeris} with the massive bodies' motion.
+     * @param flightTime            The amount of time the ship flies (i.e since it is launched).
+     * @param planetName            The name of the planet from which the ship is launched.
+     * @param terminationConditions Creates the {@link TerminationCondition} of each launch
+     *                              (i.e a new one for each of them, as they might keep state).
+     * @throws IllegalArgumentException If there is no star, or there is no body with the given name.
+     */
+    public LaunchSimulation(Ephemeris ephemeris, double flightTime, String planetName,
+                            Supplier<TerminationCondition> terminationConditions) {
+        this.ephemeris = ephemeris;
+        this.terminationConditions = terminationConditions;
+        this.integrator = new BeemanIntegrator(ephemeris.getTimeStep(), 0);
+        this.flightSteps = flightSteps(ephemeris.getTimeStep(), flightTime);
+        this.starIndex = ephemeris.getBodiesTypes().indexOf(BodyType.STAR);
+        this.planetIndex = ephemeris.getBodiesNames().indexOf(planetName);
+        if (starIndex < 0) {
+            throw new IllegalArgumentException("A star must be included in the system");
+        }
+        if (planetIndex < 0) {
+            throw new IllegalArgumentException("There is no body named " + planetName);
+        }
+    }
+
+    /**
+     * Constructor for launches that always fly the whole flight time.
+     *
+     * @param ephemeris  The {@link Ephemeris} with the massive bodies' motion.
+     * @param flightTime The amount of time the ship flies (i.e since it is launched).
+     * @param planetName The name of the planet from which the ship is launched.
+     * @throws IllegalArgumentException If there is no star, or there is no body with the given name.
+     */
+    public LaunchSimulation(Ephemeris ephemeris, double flightTime, String planetName) {
+        this(ephemeris, flightTime, planetName, TerminationConditions::never);
+    }
+
+    /**
+     * Calculates the amount of steps an {@link Ephemeris} must have to simulate launches up to a given moment.
+     *
+     * @param timeStep       The time step (i.e how much time elapses between two update events).
+     * @param lastLaunchTime The latest launch time (in seconds since the beginning of the simulation).
+     * @param flightTime     The amount of time the ship flies (i.e since it is launched).
+     * @return The amount of steps.
+     */
+    public static long requiredSteps(double timeStep, double lastLaunchTime, double flightTime) {
+        return launchStep(timeStep, lastLaunchTime) + flightSteps(timeStep, flightTime);
+    }
+
+    /**
+     * @return The massive bodies' names (in the same order as in the {@link LaunchResult}s).
+     */
+    public List<String> getBodiesNames() {
+        return ephemeris.getBodiesNames();
+    }
+
+    /**
+     * Simulates a launch.
+     *
+     * @param parameters The {@link LaunchParameters}.
+     * @return The {@link LaunchResult}.
+     * @throws IllegalArgumentException If the flight does not fit in the {@link Ephemeris}.
+     */
+    public LaunchResult run(LaunchParameters parameters) {
+        final double timeStep = ephemeris.getTimeStep();
+        final long launchStep = launchStep(timeStep, parameters.getLaunchTime());
+        if (launchStep + flightSteps > ephemeris.getSteps()) {
+            throw new IllegalArgumentException("The flight of " + parameters + " does not fit in the ephemeris");
+        }
+        // The ship is placed after the massive bodies (i.e as a test particle)
+        final int ship = ephemeris.size();
+        final double[] masses = ephemeris.masses();
+        final double[] positionsX = new double[ship + 1];
+        final double[] positionsY = new double[ship + 1];
+        final double[] velocitiesX = new double[ship];
+        final double[] velocitiesY = new double[ship];
+        final double[] accelerationsX = new double[ship + 1];
+        final double[] accelerationsY = new double[ship + 1];
+
+        // Launch
+        ephemeris.positions(launchStep, positionsX, positionsY);
+        ephemeris.velocities(launchStep, velocitiesX, velocitiesY);
+        final Vector2D shipPosition = parameters.shipPosition(
+                new Vector2D(positionsX[starIndex], positionsY[starIndex]),
+                new Vector2D(positionsX[planetIndex], positionsY[planetIndex]),
+                ephemeris.radii()[planetIndex]);
+        final Vector2D shipVelocity = parameters.shipVelocity(
+                new Vector2D(velocitiesX[planetIndex], velocitiesY[planetIndex]));
+        double x = shipPosition.getX();
+        double y = shipPosition.getY();
+        double vx = shipVelocity.getX();
+        double vy = shipVelocity.getY();
+        positionsX[ship] = x;
+        positionsY[ship] = y;
+        Utils.testParticlesAccelerations(ship, ship + 1, ship, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+        double ax = accelerationsX[ship];
+        double ay = accelerationsY[ship];
+        // Bootstrap the previous acceleration as the BeemanIntegrator does
+        ephemeris.positions(launchStep - 1, positionsX, positionsY);
+        positionsX[ship] = integrator.previousPosition(x, vx, ax);
+        positionsY[ship] = integrator.previousPosition(y, vy, ay);
+        Utils.testParticlesAccelerations(ship, ship + 1, ship, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+        double previousAx = accelerationsX[ship];
+        double previousAy = accelerationsY[ship];
+
+        // Fly
+        final TerminationCondition terminationCondition = terminationConditions.get();
+        final LaunchFlight flight = new LaunchFlight(ephemeris, ship, positionsX, positionsY);
+        String terminationReason = null;
+        long flownSteps = flightSteps;
+        ephemeris.positions(launchStep, positionsX, positionsY);
+        final double[] minimumSquaredDistances = new double[ship];
+        final double[] closestApproachTimes = new double[ship];
+        for (int i = 0; i < ship; i++) {
+            minimumSquaredDistances[i] = squaredDistance(x, y, positionsX[i], positionsY[i]);
+            closestApproachTimes[i] = launchStep * timeStep;
+        }
+        for (long step = 1; step <= flightSteps; step++) {
+            x = integrator.nextPosition(x, vx, ax, previousAx);
+            y = integrator.nextPosition(y, vy, ay, previousAy);
+            ephemeris.positions(launchStep + step, positionsX, positionsY);
+            positionsX[ship] = x;
+            positionsY[ship] = y;
+            Utils.testParticlesAccelerations(ship, ship + 1, ship, masses, positionsX, positionsY,
+                    accelerationsX, accelerationsY);
+            final double nextAx = accelerationsX[ship];
+            final double nextAy = accelerationsY[ship];
+            vx = integrator.nextVelocity(vx, nextAx, ax, previousAx);
+            vy = integrator.nextVelocity(vy, nextAy, ay, previousAy);
+            previousAx = ax;
+            previousAy = ay;
+            ax = nextAx;
+            ay = nextAy;
+            for (int i = 0; i < ship; i++) {
+                final double squaredDistance = squaredDistance(x, y, positionsX[i], positionsY[i]);
+                if (squaredDistance < minimumSquaredDistances[i]) {
+                    minimumSquaredDistances[i] = squaredDistance;
+                    closestApproachTimes[i] = (launchStep + step) * timeStep;
+                }
+            }
+            flight.update(launchStep + step, step * timeStep, vx, vy);
+            terminationReason = terminationCondition.check(flight);
+            if (terminationReason != null) {
+                flownSteps = step;
+                break;
+            }
+        }
+        final double[] minimumDistances = new double[ship];
+        for (int i = 0; i < ship; i++) {
+            minimumDistances[i] = Math.sqrt(minimumSquaredDistances[i]);
+        }
+        return new LaunchResult(parameters, ephemeris.getBodiesNames(), minimumDistances, closestApproachTimes,
+                flownSteps * timeStep, terminationReason);
+    }
+
+    /**
+     * @param timeStep   The time step (i.e how much time elapses between two update events).
+     * @param launchTime The launch time (in seconds since the beginning of the simulation).
+     * @return The step in which a ship is launched.
+     */
+    private static long launchStep(double timeStep, double launchTime) {
+        return Math.round(launchTime / timeStep);
+    }
+
+    /**
+     * @param timeStep   The time step (i.e how much time elapses between two update events).
+     * @param flightTime The amount of time the ship flies (i.e since it is launched).
+     * @return The amount of steps the ship flies.
+     */
+    private static long flightSteps(double timeStep, double flightTime) {
+        return (long) Math.ceil(flightTime / timeStep);
+    }
+
+    /**
+     * Calculates the squared distance between two points.
+     *
+     * @param x1 The 'x' component of the first point.
+     * @param y1 The 'y' component of the first point.
+     * @param x2 The 'x' component of the second point.
+     * @param y2 The 'y' component of the second point.
+     * @return The squared distance.
+     */
+    private static double squaredDistance(double x1, double y1, double x2, double y2) {
+        final double dx = x1 - x2;
+        final double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * The {@link Flight} of a launch (i.e a view over the arrays of {@link #run(LaunchParameters)}).
+     * The massive bodies' velocities are only read from the {@link Ephemeris} when a relative speed is needed.
+     */
+    private static final class LaunchFlight implements Flight {
+
+        /**
+         * The {@link Ephemeris} with the massive bodies' motion.
+         */
+        private final Ephemeris ephemeris;
+
+        /**
+         * The ship's index (i.e after the massive bodies).
+         */
+        private final int ship;
+
+        /**
+         * The 'x' component of the positions of the massive bodies and the ship.
+         */
+        private final double[] positionsX;
+
+        /**
+         * The 'y' component of the positions of the massive bodies and the ship.
+         */
+        private final double[] positionsY;
+
+        /**
+         * The 'x' component of the velocities of the massive bodies (read on demand).
+         */
+        private final double[] velocitiesX;
+
+        /**
+         * The 'y' component of the velocities of the massive bodies (read on demand).
+         */
+        private final double[] velocitiesY;
+
+        /**
+         * The actual step (since the beginning of the {@link Ephemeris}).
+         */
+        private long step;
+
+        /**
+         * The step of the velocities held in {@link #velocitiesX} and {@link #velocitiesY}.
+         */
+        private long velocitiesStep;
+
+        /**
+         * The amount of time the ship has flown.
+         */
+        private double flightTime;
+
+        /**
+         * The 'x' component of the ship's velocity.
+         */
+        private double shipVx;
+
+        /**
+         * The 'y' component of the ship's velocity.
+         */
+        private double shipVy;
+
+        /**
+         * Constructor.
+         *
+         * @param ephemeris  The {@link Ephemeris} with the massive bodies' motion.
+         * @param ship       The ship's index (i.e after the massive bodies).
+         * @param positionsX The 'x' component of the positions of the massive bodies and the ship.
+         * @param positionsY The 'y' component of the positions of the massive bodies and the ship.
+         */
+        private LaunchFlight(Ephemeris ephemeris, int ship, double[] positionsX, double[] positionsY) {
+            this.ephemeris = ephemeris;
+            this.ship = ship;
+            this.positionsX = positionsX;
+            this.positionsY = positionsY;
+            this.velocitiesX = new double[ship];
+            this.velocitiesY = new double[ship];
+            this.velocitiesStep = -1;
+        }
+
+        /**
+         * Updates the flight after a step (i.e the positions are already updated).
+         *
+         * @param step       The actual step (since the beginning of the {@link Ephemeris}).
+         * @param flightTime The amount of time the ship has flown.
+         * @param shipVx     The 'x' component of the ship's velocity.
+         * @param shipVy     The 'y' component of the ship's velocity.
+         */
+        private void update(long step, double flightTime, double shipVx, double shipVy) {
+            this.step = step;
+            this.flightTime = flightTime;
+            this.shipVx = shipVx;
+            this.shipVy = shipVy;
+        }
+
+        @Override
+        public double getFlightTime() {
+            return flightTime;
+        }
+
+        @Override
+        public int bodyIndex(String name) {
+            return ephemeris.getBodiesNames().indexOf(name);
+        }
+
+        @Override
+        public double bodyMass(int body) {
+            return ephemeris.masses()[body];
+        }
+
+        @Override
+        public double shipDistance(int body) {
+            return Math.sqrt(squaredDistance(positionsX[ship], positionsY[ship], positionsX[body], positionsY[body]));
+        }
+
+        @Override
+        public double shipRelativeSpeed(int body) {
+            if (velocitiesStep != step) {
+                ephemeris.velocities(step, velocitiesX, velocitiesY);
+                velocitiesStep = step;
+            }
+            return Math.sqrt(squaredDistance(shipVx, shipVy, velocitiesX[body], velocitiesY[body]));
+        }
+    }
+}
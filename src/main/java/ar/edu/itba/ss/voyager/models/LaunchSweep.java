@@ -0,0 +1,137 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link LaunchSimulation} for many {@link LaunchParameters} in parallel.
+ * Results are handed to a consumer as soon as they are ready (i.e trajectories are never kept in memory),
+ * and the amount of pending simulations is bounded, so memory use does not depend on the amount of candidates.
+ */
+public class LaunchSweep {
+
+    /**
+     * Amount of pending simulations per thread.
+     */
+    private static final int PENDING_PER_THREAD = 4;
+
+    /**
+     * The {@link LaunchSimulation} to be run for each candidate.
+     */
+    private final LaunchSimulation simulation;
+
+    /**
+     * The candidate {@link LaunchParameters}.
+     */
+    private final List<LaunchParameters> candidates;
+
+    /**
+     * The amount of threads used to run the simulations.
+     */
+    private final int threads;
+
+    /**
+     * Constructor.
+     *
+     * @param simulation The {@link LaunchSimulation} to be run for each candidate.
+     * @param candidates The candidate {@link LaunchParameters}.
+     * @param threads    The amount of threads used to run the simulations
+     *                   (non positive values mean as many as available processors).
+     */
+    public LaunchSweep(LaunchSimulation simulation, List<LaunchParameters> candidates, int threads) {
+        this.simulation = simulation;
+        this.candidates = candidates;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return The {@link LaunchSimulation} to be run for each candidate.
+     */
+    public LaunchSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Runs the sweep.
+     *
+     * @param consumer A {@link Consumer} that will receive each {@link LaunchResult}, in completion order.
+     *                 It is always called from the thread that called this method.
+     * @throws IllegalStateException If any simulation fails, or if the thread is interrupted.
+     */
+    public void run(Consumer<LaunchResult> consumer) {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CompletionService<LaunchResult> completionService = new ExecutorCompletionService<>(executor);
+            final Iterator<LaunchParameters> iterator = candidates.iterator();
+            int pending = 0;
+            while (iterator.hasNext() && pending < threads * PENDING_PER_THREAD) {
+                final LaunchParameters parameters = iterator.next();
+                completionService.submit(() -> simulation.run(parameters));
+                pending++;
+            }
+            while (pending > 0) {
+                consumer.accept(completionService.take().get());
+                pending--;
+                if (iterator.hasNext()) {
+                    final LaunchParameters parameters = iterator.next();
+                    completionService.submit(() -> simulation.run(parameters));
+                    pending++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the sweep", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A launch simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the candidates for every combination of the given values.
+     *
+     * @param launchTimes The launch times (in seconds since the beginning of the simulation).
+     * @param speeds      The speeds added to the planet's velocity (in meters over seconds).
+     * @param angles      The angles between the planet's velocity and the added velocity (in radians).
+     * @return The candidate {@link LaunchParameters}.
+     */
+    public static List<LaunchParameters> grid(double[] launchTimes, double[] speeds, double[] angles) {
+        final List<LaunchParameters> candidates = new ArrayList<>(launchTimes.length * speeds.length * angles.length);
+        for (double launchTime : launchTimes) {
+            for (double speed : speeds) {
+                for (double angle : angles) {
+                    candidates.add(new LaunchParameters(launchTime, speed, angle));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Builds the values from {@code from} to {@code to} (both inclusive), separated by {@code step}.
+     *
+     * @param from The first value.
+     * @param to   The last value.
+     * @param step The separation between values (a non positive step means only {@code from} is used).
+     * @return The values.
+     */
+    public static double[] range(double from, double to, double step) {
+        if (step <= 0 || to <= from) {
+            return new double[]{from};
+        }
+        final int amount = (int) Math.floor((to - from) / step + 1e-9) + 1;
+        final double[] values = new double[amount];
+        for (int i = 0; i < amount; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+}
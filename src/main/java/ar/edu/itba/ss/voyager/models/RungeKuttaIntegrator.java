@@ -0,0 +1,150 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * The classic fourth order Runge-Kutta integration scheme running over a {@link BodyArrays},
+ * with no heap allocation per step. Three accelerations are calculated at trial positions inside the step,
+ * and one more at its end (i.e which is the first stage of the next step).
+ */
+/* package */ final class RungeKuttaIntegrator implements Integrator {
+
+    /**
+     * The time step (i.e how much time elapses between two update events).
+     */
+    private double timeStep;
+
+    /**
+     * The 'x' component of the trial positions.
+     */
+    private final double[] trialPositionsX;
+
+    /**
+     * The 'y' component of the trial positions.
+     */
+    private final double[] trialPositionsY;
+
+    /**
+     * The 'x' component of the trial velocities (i.e the derivative of the position in the actual stage).
+     */
+    private final double[] trialVelocitiesX;
+
+    /**
+     * The 'y' component of the trial velocities (i.e the derivative of the position in the actual stage).
+     */
+    private final double[] trialVelocitiesY;
+
+    /**
+     * The 'x' component of the accelerations at the trial positions.
+     */
+    private final double[] trialAccelerationsX;
+
+    /**
+     * The 'y' component of the accelerations at the trial positions.
+     */
+    private final double[] trialAccelerationsY;
+
+    /**
+     * The weighted sum of the 'x' component of each stage's velocity.
+     */
+    private final double[] velocitySumsX;
+
+    /**
+     * The weighted sum of the 'y' component of each stage's velocity.
+     */
+    private final double[] velocitySumsY;
+
+    /**
+     * The weighted sum of the 'x' component of each stage's acceleration.
+     */
+    private final double[] accelerationSumsX;
+
+    /**
+     * The weighted sum of the 'y' component of each stage's acceleration.
+     */
+    private final double[] accelerationSumsY;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep The time step (i.e how much time elapses between two update events).
+     * @param size     The amount of bodies to be integrated.
+     */
+    /* package */ RungeKuttaIntegrator(final double timeStep, final int size) {
+        this.timeStep = timeStep;
+        this.trialPositionsX = new double[size];
+        this.trialPositionsY = new double[size];
+        this.trialVelocitiesX = new double[size];
+        this.trialVelocitiesY = new double[size];
+        this.trialAccelerationsX = new double[size];
+        this.trialAccelerationsY = new double[size];
+        this.velocitySumsX = new double[size];
+        this.velocitySumsY = new double[size];
+        this.accelerationSumsX = new double[size];
+        this.accelerationSumsY = new double[size];
+    }
+
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        final int size = bodies.size;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] ax = bodies.accelerationsX;
+        final double[] ay = bodies.accelerationsY;
+        final double halfStep = timeStep / 2;
+
+        // First stage (i.e the actual state), and positions of the second one
+        for (int i = 0; i < size; i++) {
+            velocitySumsX[i] = vx[i];
+            velocitySumsY[i] = vy[i];
+            accelerationSumsX[i] = ax[i];
+            accelerationSumsY[i] = ay[i];
+            trialPositionsX[i] = x[i] + vx[i] * halfStep;
+            trialPositionsY[i] = y[i] + vy[i] * halfStep;
+            trialVelocitiesX[i] = vx[i] + ax[i] * halfStep;
+            trialVelocitiesY[i] = vy[i] + ay[i] * halfStep;
+        }
+        // Second and third stages (i.e in the middle of the step)
+        for (int stage = 0; stage < 2; stage++) {
+            final double nextStep = stage == 0 ? halfStep : timeStep;
+            bodies.computeAccelerations(trialPositionsX, trialPositionsY, trialAccelerationsX, trialAccelerationsY);
+            for (int i = 0; i < size; i++) {
+                velocitySumsX[i] += 2 * trialVelocitiesX[i];
+                velocitySumsY[i] += 2 * trialVelocitiesY[i];
+                accelerationSumsX[i] += 2 * trialAccelerationsX[i];
+                accelerationSumsY[i] += 2 * trialAccelerationsY[i];
+                trialPositionsX[i] = x[i] + trialVelocitiesX[i] * nextStep;
+                trialPositionsY[i] = y[i] + trialVelocitiesY[i] * nextStep;
+                trialVelocitiesX[i] = vx[i] + trialAccelerationsX[i] * nextStep;
+                trialVelocitiesY[i] = vy[i] + trialAccelerationsY[i] * nextStep;
+            }
+        }
+        // Fourth stage (i.e at the end of the step)
+        bodies.computeAccelerations(trialPositionsX, trialPositionsY, trialAccelerationsX, trialAccelerationsY);
+        final double sixthStep = timeStep / 6;
+        for (int i = 0; i < size; i++) {
+            x[i] += (velocitySumsX[i] + trialVelocitiesX[i]) * sixthStep;
+            y[i] += (velocitySumsY[i] + trialVelocitiesY[i]) * sixthStep;
+            vx[i] += (accelerationSumsX[i] + trialAccelerationsX[i]) * sixthStep;
+            vy[i] += (accelerationSumsY[i] + trialAccelerationsY[i]) * sixthStep;
+        }
+        // Accelerations at the new positions (i.e the first stage of the next step)
+        bodies.computeAccelerations(x, y, ax, ay);
+    }
+
+    @Override
+    public void setTimeStep(final double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[0][];
+    }
+}
@@ -4,160 +4,279 @@ import ar.edu.itba.ss.g7.engine.models.System;
 import ar.edu.itba.ss.g7.engine.simulation.State;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
-import java.util.HashMap;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 /**
  * Represents the Solar System to be simulated.
  */
-public class SolarSystem implements System<SolarSystem.SolarSystemState> {
-
-    /**
-     * Indicates the ship's altitude in regards to the Earth's surface in meters.
-     */
-    private static final double SHIP_ALTITUDE = 1500 * 1000;
-
-    /**
-     * The Earth's radius.
-     */
-    private static final double EARTH_RADIUS = 6371 * 1000;
-
-    /**
-     * The ship's initial speed (velocity module) in meters over seconds
-     */
-    private static final double SHIP_INITIAL_SPEED = 14000;
+public class SolarSystem implements System<SolarSystem.SolarSystemState>, Flight {
 
     // ================================================================================================================
     // System stuff
     // ================================================================================================================
 
     /**
-     * The Sun.
+     * The bodies in this solar system, in the order they are integrated (i.e the order of the {@link #bodyArrays}).
+     * When probes are massless, they are placed after all massive bodies.
      */
-    private final Body sun;
+    private final List<Body> bodies;
 
     /**
-     * The Earth.
+     * The index of the ship (i.e the first {@link BodyType#PROBE} body) in the {@link #bodies} {@link List}.
      */
-    private final Body earth;
+    private final int shipIndex;
 
     /**
-     * Jupiter.
+     * The bodies in the same order as they were given (i.e the order in which the system's state is output).
      */
-    private final Body jupiter;
+    private final List<Body> outputBodies;
 
     /**
-     * Saturn.
+     * The index in the {@link #outputBodies} {@link List} of each body in the {@link #bodies} {@link List}
+     * (or {@code null} if both are in the same order).
      */
-    private final Body saturn;
+    private final int[] outputIndexes;
 
     /**
-     * The ship.
+     * The indexes of the planets and moons in the {@link #bodies} {@link List} (i.e the bodies the ship encounters).
      */
-    private final Body ship;
+    private final int[] encounterBodies;
 
     // ================================================================================================================
     // Updating stuff
     // ================================================================================================================
 
     /**
-     * The time step (i.e how much time elapses between two update events).
+     * The time step (i.e how much time elapses between two update events, or the initial one when it is adaptive).
      */
     private final double timeStep;
 
     /**
-     * Amount of Saturnian years (i.e amount of time the simulation will last).
+     * The {@link AdaptiveTimeStep} that chooses each step's time step (or {@code null} if it is fixed,
+     * including when it chooses each body's time step inside the {@link #integrator}).
      */
-    private final int saturnianYears;
+    private final AdaptiveTimeStep adaptiveTimeStep;
 
     /**
-     * The amount of time the system has existed.
+     * The indexes of the stars, planets and moons in the {@link #bodies} {@link List}
+     * (i.e the bodies whose encounters the {@link #adaptiveTimeStep} must resolve).
      */
-    private double actualTime;
+    private final int[] attractors;
 
     /**
-     * {@link Map} holding, for each, body, the {@link List} of {@link Body} that gravitationally influence them.
+     * The time at which the next step must end if it would go beyond it (only when the time step is adaptive).
      */
-    private final Map<Body, List<Body>> influencers;
+    private double stopTime;
 
     /**
-     * A {@link Map} containing the previous accelerations for the the bodies in this solar system.
+     * The time step of the last step.
      */
-    private final Map<Body, Vector2D> previousAccelerations;
-
-    // ================================================================================================================
-    // Restarting stuff
-    // ================================================================================================================
+    private double lastTimeStep;
 
     /**
-     * The initial position of the Sun (i.e for restarting stuff).
+     * Amount of Saturnian years (i.e amount of time the simulation will last).
      */
-    private final Vector2D sunInitialPosition;
+    private final int saturnianYears;
+
     /**
-     * The initial velocity of the Sun (i.e for restarting stuff).
+     * The amount of time the system has existed.
      */
-    private final Vector2D sunInitialVelocity;
+    private double actualTime;
+
     /**
-     * The initial acceleration of the Sun (i.e for restarting stuff).
+     * The bodies' dynamic state, held in primitive arrays (i.e the integration is performed over them).
      */
-    private final Vector2D sunInitialAcceleration;
+    private final BodyArrays bodyArrays;
+
     /**
-     * The initial position of the Earth (i.e for restarting stuff).
+     * The type of the {@link #integrator}.
      */
-    private final Vector2D earthInitialPosition;
+    private final IntegratorType integratorType;
+
     /**
-     * The initial velocity of the Earth (i.e for restarting stuff).
+     * The {@link Integrator} in charge of updating the {@link #bodyArrays}.
      */
-    private final Vector2D earthInitialVelocity;
+    private final Integrator integrator;
+
+    // ================================================================================================================
+    // Events stuff
+    // ================================================================================================================
+
     /**
-     * The initial acceleration of the Earth (i.e for restarting stuff).
+     * The {@link EventDetector} that watches the ship's distances during the integration
+     * (or {@code null} if events are not watched).
      */
-    private final Vector2D earthInitialAcceleration;
+    private EventDetector eventDetector;
+
     /**
-     * The initial position of Jupiter (i.e for restarting stuff).
+     * The {@link Consumer} to which events are handed as soon as the step in which they happened ends.
      */
-    private final Vector2D jupiterInitialPosition;
+    private Consumer<Event> eventListener;
+
+    // ================================================================================================================
+    // Conservation stuff
+    // ================================================================================================================
+
     /**
-     * The initial velocity of Jupiter (i.e for restarting stuff).
+     * The {@link ConservationMonitor} that measures the energy and angular momentum drifts during the integration
+     * (or {@code null} if they are not monitored).
      */
-    private final Vector2D jupiterInitialVelocity;
+    private ConservationMonitor conservationMonitor;
+
     /**
-     * The initial acceleration of Jupiter (i.e for restarting stuff).
+     * The {@link Consumer} to which the {@link #conservationMonitor} is handed after each measurement.
      */
-    private final Vector2D jupiterInitialAcceleration;
+    private Consumer<ConservationMonitor> conservationListener;
+
+    // ================================================================================================================
+    // Restarting stuff
+    // ================================================================================================================
+
     /**
-     * The initial position of Saturn (i.e for restarting stuff).
+     * The bodies' initial positions (i.e for restarting stuff).
      */
-    private final Vector2D saturnInitialPosition;
+    private final Vector2D[] initialPositions;
+
     /**
-     * The initial velocity of Saturn (i.e for restarting stuff).
+     * The bodies' initial velocities (i.e for restarting stuff).
      */
-    private final Vector2D saturnInitialVelocity;
+    private final Vector2D[] initialVelocities;
+
     /**
-     * The initial acceleration of Saturn (i.e for restarting stuff).
-     */
-    private final Vector2D saturnInitialAcceleration;
+     * Constructor.
+     *
+     * @param timeStep         The time step (i.e how much time elapses between two update events).
+     * @param saturnianYears   Amount of Saturnian years (i.e amount of time the simulation will last).
+     * @param bodies           The bodies in the system, with their initial positions and velocities.
+     *                         At least one of them must be a {@link BodyType#PROBE} (the first one will be the ship).
+     * @param forceSolver      The {@link ForceSolver} used to calculate the bodies' accelerations.
+     * @param masslessProbes   Indicates whether probes must be treated as test particles
+     *                         (i.e they are affected by the rest of the bodies, but do not affect any body).
+     *                         In that case, they are integrated after all massive bodies
+     *                         (but the state is still output in the given order).
+     * @param integratorType   The {@link IntegratorType} of the scheme used to update the bodies.
+     * @param adaptiveTimeStep The {@link AdaptiveTimeStep} that chooses each step's time step
+     *                         (or {@code null} to use the fixed {@code timeStep}). With individual time steps,
+     *                         it chooses each body's time step instead (i.e the {@code timeStep} is the base one).
+     * @throws IllegalArgumentException If no probe is included, if the time step is adaptive
+     *                                  and the integrator does not support it, or if the integrator uses
+     *                                  individual time steps and no {@link AdaptiveTimeStep} is given.
+     */
+    public SolarSystem(double timeStep, int saturnianYears, final List<Body> bodies, final ForceSolver forceSolver,
+                       boolean masslessProbes, IntegratorType integratorType, AdaptiveTimeStep adaptiveTimeStep) {
+        this.outputBodies = Collections.unmodifiableList(new ArrayList<>(bodies));
+        this.outputIndexes = masslessProbes ?
+                IntStream.concat(IntStream.range(0, bodies.size())
+                                .filter(i -> bodies.get(i).getType() != BodyType.PROBE),
+                        IntStream.range(0, bodies.size())
+                                .filter(i -> bodies.get(i).getType() == BodyType.PROBE))
+                        .toArray() :
+                null;
+        this.bodies = outputIndexes == null ? outputBodies :
+                Collections.unmodifiableList(Arrays.stream(outputIndexes)
+                        .mapToObj(bodies::get)
+                        .collect(Collectors.toList()));
+        this.shipIndex = this.bodies.stream()
+                .map(Body::getType)
+                .collect(Collectors.toList())
+                .indexOf(BodyType.PROBE);
+        if (shipIndex < 0) {
+            throw new IllegalArgumentException("At least one probe must be included in the system");
+        }
+        this.encounterBodies = IntStream.range(0, this.bodies.size())
+                .filter(i -> this.bodies.get(i).getType() == BodyType.PLANET
+                        || this.bodies.get(i).getType() == BodyType.MOON)
+                .toArray();
+        this.attractors = IntStream.range(0, this.bodies.size())
+                .filter(i -> this.bodies.get(i).getType() != BodyType.PROBE)
+                .toArray();
+        if (integratorType.isIndividualTimeSteps() && adaptiveTimeStep == null) {
+            throw new IllegalArgumentException("The " + integratorType + " integrator needs an adaptive time step "
+                    + "to choose each body's time step");
+        }
+        if (adaptiveTimeStep != null && !integratorType.isVariableTimeStep()
+                && !integratorType.isIndividualTimeSteps()) {
+            throw new IllegalArgumentException("The " + integratorType + " integrator needs a fixed time step");
+        }
+
+        // Initialize positions and velocities
+        this.initialPositions = this.bodies.stream().map(Body::getPosition).toArray(Vector2D[]::new);
+        this.initialVelocities = this.bodies.stream().map(Body::getVelocity).toArray(Vector2D[]::new);
+
+        // Initialize integration mechanism stuff
+        this.timeStep = timeStep;
+        this.adaptiveTimeStep = integratorType.isIndividualTimeSteps() ? null : adaptiveTimeStep;
+        this.stopTime = Double.POSITIVE_INFINITY;
+        this.lastTimeStep = timeStep;
+        this.saturnianYears = saturnianYears;
+        this.bodyArrays = new BodyArrays(this.bodies.stream().mapToDouble(Body::getMass).toArray(),
+                masslessProbes ? shipIndex : this.bodies.size(), forceSolver);
+        this.integratorType = integratorType;
+        this.integrator = integratorType.newIntegrator(timeStep, bodyArrays.size, adaptiveTimeStep, attractors);
+        initializeArrays();
+        syncBodies();
+    }
+
     /**
-     * The initial position of the ship (i.e for restarting stuff).
-     */
-    private final Vector2D shipInitialPosition;
+     * Constructor for a system with a fixed time step.
+     *
+     * @param timeStep       The time step (i.e how much time elapses between two update events).
+     * @param saturnianYears Amount of Saturnian years (i.e amount of time the simulation will last).
+     * @param bodies         The bodies in the system, with their initial positions and velocities.
+     *                       At least one of them must be a {@link BodyType#PROBE} (the first one will be the ship).
+     * @param forceSolver    The {@link ForceSolver} used to calculate the bodies' accelerations.
+     * @param masslessProbes Indicates whether probes must be treated as test particles
+     *                       (i.e they are affected by the rest of the bodies, but do not affect any body).
+     *                       In that case, they are integrated after all massive bodies
+     *                       (but the state is still output in the given order).
+     * @param integratorType The {@link IntegratorType} of the scheme used to update the bodies.
+     */
+    public SolarSystem(double timeStep, int saturnianYears, final List<Body> bodies, final ForceSolver forceSolver,
+                       boolean masslessProbes, IntegratorType integratorType) {
+        this(timeStep, saturnianYears, bodies, forceSolver, masslessProbes, integratorType, null);
+    }
+
     /**
-     * The initial velocity of the ship (i.e for restarting stuff).
-     */
-    private final Vector2D shipInitialVelocity;
+     * Constructor for a system integrated with Beeman's scheme.
+     *
+     * @param timeStep       The time step (i.e how much time elapses between two update events).
+     * @param saturnianYears Amount of Saturnian years (i.e amount of time the simulation will last).
+     * @param bodies         The bodies in the system, with their initial positions and velocities.
+     *                       At least one of them must be a {@link BodyType#PROBE} (the first one will be the ship).
+     * @param forceSolver    The {@link ForceSolver} used to calculate the bodies' accelerations.
+     * @param masslessProbes Indicates whether probes must be treated as test particles
+     *                       (i.e they are affected by the rest of the bodies, but do not affect any body).
+     *                       In that case, they are integrated after all massive bodies
+     *                       (but the state is still output in the given order).
+     */
+    public SolarSystem(double timeStep, int saturnianYears, final List<Body> bodies, final ForceSolver forceSolver,
+                       boolean masslessProbes) {
+        this(timeStep, saturnianYears, bodies, forceSolver, masslessProbes, IntegratorType.BEEMAN);
+    }
+
     /**
-     * The initial acceleration of the ship (i.e for restarting stuff).
+     * Constructor for a system whose accelerations are calculated by a sequential {@link DirectSummationSolver}.
+     *
+     * @param timeStep       The time step (i.e how much time elapses between two update events).
+     * @param saturnianYears Amount of Saturnian years (i.e amount of time the simulation will last).
+     * @param bodies         The bodies in the system, with their initial positions and velocities.
+     *                       At least one of them must be a {@link BodyType#PROBE} (the first one will be the ship).
      */
-    private final Vector2D shipInitialAcceleration;
+    public SolarSystem(double timeStep, int saturnianYears, final List<Body> bodies) {
+        this(timeStep, saturnianYears, bodies, new DirectSummationSolver(), false);
+    }
 
     /**
-     * Constructor.
+     * Builds the bodies of the default system
+     * (i.e the Sun, the Earth, Jupiter, Saturn and a ship launched from the Earth).
      *
-     * @param timeStep               The time step (i.e how much time elapses between two update events).
-     * @param saturnianYears         Amount of Saturnian years (i.e amount of time the simulation will last).
      * @param sunInitialPosition     The Sun's initial position.
      * @param sunInitialVelocity     The Sun's initial velocity.
      * @param earthInitialPosition   The Earth's initial position.
@@ -166,198 +285,121 @@ public class SolarSystem implements System<SolarSystem.SolarSystemState> {
      * @param jupiterInitialVelocity Jupiter's initial velocity.
      * @param saturnInitialPosition  Saturn's initial position.
      * @param saturnInitialVelocity  Saturn's initial velocity.
-     */
-    public SolarSystem(double timeStep, int saturnianYears,
-                       final Vector2D sunInitialPosition, final Vector2D sunInitialVelocity,
-                       final Vector2D earthInitialPosition, final Vector2D earthInitialVelocity,
-                       final Vector2D jupiterInitialPosition, final Vector2D jupiterInitialVelocity,
-                       final Vector2D saturnInitialPosition, final Vector2D saturnInitialVelocity) {
-        // Initialize positions and velocities
-        this.sunInitialPosition = sunInitialPosition;
-        this.sunInitialVelocity = sunInitialVelocity;
-        this.earthInitialPosition = earthInitialPosition;
-        this.earthInitialVelocity = earthInitialVelocity;
-        this.jupiterInitialPosition = jupiterInitialPosition;
-        this.jupiterInitialVelocity = jupiterInitialVelocity;
-        this.saturnInitialPosition = saturnInitialPosition;
-        this.saturnInitialVelocity = saturnInitialVelocity;
-        this.shipInitialPosition = calculateShipInitialPosition(sunInitialPosition, earthInitialPosition);
-        this.shipInitialVelocity = calculateShipInitialVelocity(earthInitialVelocity);
-
-        // Calculate initial accelerations according to initial positions
-        this.sunInitialAcceleration = getAcceleration(sunInitialPosition,
-                earthInitialPosition, jupiterInitialPosition, saturnInitialPosition, shipInitialPosition,
-                Constants.SUN_MASS,
-                Constants.EARTH_MASS, Constants.JUPITER_MASS, Constants.SATURN_MASS, Constants.SHIP_MASS);
-        this.earthInitialAcceleration = getAcceleration(earthInitialPosition,
-                sunInitialPosition, jupiterInitialPosition, saturnInitialPosition, shipInitialPosition,
-                Constants.EARTH_MASS,
-                Constants.SUN_MASS, Constants.JUPITER_MASS, Constants.SATURN_MASS, Constants.SHIP_MASS);
-        this.jupiterInitialAcceleration = getAcceleration(jupiterInitialPosition,
-                sunInitialPosition, earthInitialPosition, saturnInitialPosition, shipInitialPosition,
-                Constants.JUPITER_MASS,
-                Constants.SUN_MASS, Constants.EARTH_MASS, Constants.SATURN_MASS, Constants.SHIP_MASS);
-        this.saturnInitialAcceleration = getAcceleration(saturnInitialPosition,
-                sunInitialPosition, earthInitialPosition, jupiterInitialPosition, shipInitialPosition,
-                Constants.SATURN_MASS,
-                Constants.SUN_MASS, Constants.EARTH_MASS, Constants.JUPITER_MASS, Constants.SHIP_MASS);
-        this.shipInitialAcceleration = getAcceleration(shipInitialPosition,
-                sunInitialPosition, earthInitialPosition, jupiterInitialPosition, saturnInitialPosition,
-                Constants.SHIP_MASS,
-                Constants.SUN_MASS, Constants.EARTH_MASS, Constants.JUPITER_MASS, Constants.SATURN_MASS);
-
-        // Initialize bodies
-        this.sun = BodyType.SUN.provide(sunInitialPosition, sunInitialVelocity, sunInitialAcceleration);
-        this.earth = BodyType.EARTH.provide(earthInitialPosition, earthInitialVelocity, earthInitialAcceleration);
-        this.jupiter = BodyType.JUPITER.provide(jupiterInitialPosition, jupiterInitialVelocity, jupiterInitialAcceleration);
-        this.saturn = BodyType.SATURN.provide(saturnInitialPosition, saturnInitialVelocity, saturnInitialAcceleration);
-        this.ship = BodyType.SHIP.provide(shipInitialPosition, shipInitialVelocity, shipInitialAcceleration);
-
-        // Initialize the influencers maps
-        this.influencers = new HashMap<>();
-        this.influencers.put(sun, Stream.of(earth, jupiter, saturn, ship).collect(Collectors.toList()));
-        this.influencers.put(earth, Stream.of(sun, jupiter, saturn, ship).collect(Collectors.toList()));
-        this.influencers.put(jupiter, Stream.of(sun, earth, saturn, ship).collect(Collectors.toList()));
-        this.influencers.put(saturn, Stream.of(sun, earth, jupiter, ship).collect(Collectors.toList()));
-        this.influencers.put(ship, Stream.of(sun, earth, jupiter, saturn).collect(Collectors.toList()));
-
-        // Initialize integration mechanism stuff
-        this.timeStep = timeStep;
-        this.saturnianYears = saturnianYears;
-        this.actualTime = 0;
-        this.previousAccelerations = new HashMap<>();
-        initializePreviousAccelerations();
+     * @return The bodies of the default system.
+     */
+    public static List<Body> defaultBodies(final Vector2D sunInitialPosition, final Vector2D sunInitialVelocity,
+                                           final Vector2D earthInitialPosition, final Vector2D earthInitialVelocity,
+                                           final Vector2D jupiterInitialPosition, final Vector2D jupiterInitialVelocity,
+                                           final Vector2D saturnInitialPosition, final Vector2D saturnInitialVelocity) {
+        return Arrays.asList(
+                new Body("Sun", BodyType.STAR, Constants.SUN_MASS, Constants.SUN_RADIUS,
+                        new Color(255, 255, 0), // The Sun is yellow
+                        sunInitialPosition, sunInitialVelocity, Vector2D.ZERO),
+                new Body("Earth", BodyType.PLANET, Constants.EARTH_MASS, Constants.EARTH_RADIUS,
+                        new Color(0, 128, 0), // The Earth is green
+                        earthInitialPosition, earthInitialVelocity, Vector2D.ZERO),
+                new Body("Jupiter", BodyType.PLANET, Constants.JUPITER_MASS, Constants.JUPITER_RADIUS,
+                        new Color(210, 105, 30), // Orange
+                        jupiterInitialPosition, jupiterInitialVelocity, Vector2D.ZERO),
+                new Body("Saturn", BodyType.PLANET, Constants.SATURN_MASS, Constants.SATURN_RADIUS,
+                        new Color(218, 165, 32), // Brown
+                        saturnInitialPosition, saturnInitialVelocity, Vector2D.ZERO),
+                new Body("Ship", BodyType.PROBE, Constants.SHIP_MASS, new Color(192, 192, 192), // The ship is gray
+                        LaunchParameters.DEFAULT.shipPosition(sunInitialPosition, earthInitialPosition,
+                                Constants.EARTH_RADIUS),
+                        LaunchParameters.DEFAULT.shipVelocity(earthInitialVelocity), Vector2D.ZERO));
     }
 
     /**
-     * Initializes the previous accelerations {@link Map} (i.e to have the previous accelerations in the first step).
+     * Loads the initial positions and velocities into the {@link #bodyArrays}, and initializes
+     * the accelerations (and any other state the {@link #integrator} needs in the first step).
      */
-    private void initializePreviousAccelerations() {
-        if (this.previousAccelerations == null) {
-            throw new IllegalStateException("This method should be called" +
-                    " once the previous accelerations map is initialized");
+    private void initializeArrays() {
+        for (int i = 0; i < bodyArrays.size; i++) {
+            bodyArrays.set(i, initialPositions[i], initialVelocities[i]);
         }
-
-        // Initialize The Sun's velocity and position at -deltaT
-        final Vector2D sunActualPosition = sun.getPosition();
-        final double sunMass = sun.getMass();
-        final Vector2D sunForce = getAppliedForce(sun);
-        final Vector2D sunPreviousVelocity = sun.getVelocity()
-                .subtract(sunForce.scalarMultiply(timeStep / sunMass));
-        final Vector2D sunPreviousPosition = sunActualPosition
-                .subtract(sunPreviousVelocity.scalarMultiply(timeStep))
-                .add(sunForce.scalarMultiply((timeStep * timeStep) / (2 * sunMass)));
-
-        // Initialize The Earth's velocity and position at -deltaT
-        final Vector2D earthActualPosition = earth.getPosition();
-        final double earthMass = earth.getMass();
-        final Vector2D earthForce = getAppliedForce(earth);
-        final Vector2D earthPreviousVelocity = earth.getVelocity()
-                .subtract(earthForce.scalarMultiply(timeStep / earthMass));
-        final Vector2D earthPreviousPosition = earthActualPosition
-                .subtract(earthPreviousVelocity.scalarMultiply(timeStep))
-                .add(earthForce.scalarMultiply((timeStep * timeStep) / (2 * earthMass)));
-
-        // Initialize Jupiter's velocity and position at -deltaT
-        final Vector2D jupiterActualPosition = jupiter.getPosition();
-        final double jupiterMass = jupiter.getMass();
-        final Vector2D jupiterForce = getAppliedForce(jupiter);
-        final Vector2D jupiterPreviousVelocity = jupiter.getVelocity()
-                .subtract(jupiterForce.scalarMultiply(timeStep / jupiterMass));
-        final Vector2D jupiterPreviousPosition = jupiterActualPosition
-                .subtract(jupiterPreviousVelocity.scalarMultiply(timeStep))
-                .add(jupiterForce.scalarMultiply((timeStep * timeStep) / (2 * jupiterMass)));
-
-        // Initialize Saturn's velocity and position at -deltaT
-        final Vector2D saturnActualPosition = saturn.getPosition();
-        final double saturnMass = saturn.getMass();
-        final Vector2D saturnForce = getAppliedForce(saturn);
-        final Vector2D saturnPreviousVelocity = saturn.getVelocity()
-                .subtract(saturnForce.scalarMultiply(timeStep / saturnMass));
-        final Vector2D saturnPreviousPosition = saturnActualPosition
-                .subtract(saturnPreviousVelocity.scalarMultiply(timeStep))
-                .add(saturnForce.scalarMultiply((timeStep * timeStep) / (2 * saturnMass)));
-
-        // Initialize The ship's velocity and position at -deltaT
-        final Vector2D shipActualPosition = ship.getPosition();
-        final double shipMass = ship.getMass();
-        final Vector2D shipForce = getAppliedForce(ship);
-        final Vector2D shipPreviousVelocity = ship.getVelocity()
-                .subtract(shipForce.scalarMultiply(timeStep / shipMass));
-        final Vector2D shipPreviousPosition = shipActualPosition
-                .subtract(shipPreviousVelocity.scalarMultiply(timeStep))
-                .add(shipForce.scalarMultiply((timeStep * timeStep) / (2 * shipMass)));
-
-        // Calculate accelerations
-        final Vector2D sunPreviousAcceleration = getAcceleration(sunPreviousPosition,
-                earthPreviousPosition, jupiterPreviousPosition, saturnPreviousPosition, shipActualPosition,
-                sunMass, earthMass, jupiterMass, saturnMass, shipMass);
-
-        final Vector2D earthPreviousAcceleration = getAcceleration(earthPreviousPosition,
-                sunPreviousPosition, jupiterPreviousPosition, saturnPreviousPosition, shipActualPosition,
-                earthMass, sunMass, jupiterMass, saturnMass, shipMass);
-
-        final Vector2D jupiterPreviousAcceleration = getAcceleration(jupiterPreviousPosition,
-                sunPreviousPosition, earthPreviousPosition, saturnPreviousPosition, shipActualPosition,
-                jupiterMass, sunMass, earthMass, saturnMass, shipMass);
-
-        final Vector2D saturnPreviousAcceleration = getAcceleration(saturnPreviousPosition,
-                sunPreviousPosition, earthPreviousPosition, jupiterPreviousPosition, shipActualPosition,
-                saturnMass, sunMass, earthMass, jupiterMass, shipMass);
-
-        final Vector2D shipPreviousAcceleration = getAcceleration(shipPreviousPosition,
-                sunPreviousPosition, earthPreviousPosition, jupiterPreviousPosition, saturnPreviousPosition,
-                shipMass, sunMass, earthMass, jupiterMass, saturnMass);
-
-        // Save in map
-        this.previousAccelerations.put(sun, sunPreviousAcceleration);
-        this.previousAccelerations.put(earth, earthPreviousAcceleration);
-        this.previousAccelerations.put(jupiter, jupiterPreviousAcceleration);
-        this.previousAccelerations.put(saturn, saturnPreviousAcceleration);
-        this.previousAccelerations.put(ship, shipPreviousAcceleration);
+        integrator.initialize(bodyArrays);
     }
 
+    /**
+     * @return The bodies in this solar system, in the same order as they were given.
+     */
+    private List<Body> getOutputBodies() {
+        return outputBodies;
+    }
 
     /**
-     * @return The Sun.
+     * @return The index of the ship in the {@link List} returned by {@link #getOutputBodies()}.
      */
-    private Body getSun() {
-        return sun;
+    private int getOutputShipIndex() {
+        return outputIndexes == null ? shipIndex : outputIndexes[shipIndex];
     }
 
     /**
-     * @return The Earth.
+     * @return The amount of time the system has existed.
      */
-    private Body getEarth() {
-        return earth;
+    public double getActualTime() {
+        return actualTime;
     }
 
     /**
-     * @return Jupiter.
+     * @return The time step of the last step (i.e the fixed time step, unless it is adaptive).
      */
-    private Body getJupiter() {
-        return jupiter;
+    public double getLastTimeStep() {
+        return lastTimeStep;
     }
 
     /**
-     * @return Saturn.
+     * @return The amount of body accelerations calculated so far (i.e the cost of the integration,
+     * where a full force evaluation counts as many as bodies).
      */
-    private Body getSaturn() {
-        return saturn;
+    public long getAccelerationEvaluations() {
+        return bodyArrays.getAccelerationEvaluations();
     }
 
     /**
-     * @return The ship.
+     * Starts watching the ship's closest approaches, sphere of influence crossings and collisions with the stars,
+     * planets and moons (see {@link EventDetector}). From now on, the events that happen during each step are handed
+     * to the given {@code listener} in the order they happened, as soon as the step ends.
+     *
+     * @param listener The {@link Consumer} to which events are handed.
      */
-    private Body getShip() {
-        return ship;
+    public void watchEvents(Consumer<Event> listener) {
+        this.eventDetector = new EventDetector(bodies, shipIndex, attractors);
+        this.eventListener = listener;
+        eventDetector.reset(bodyArrays);
     }
 
     /**
-     * @return The amount of time the system has existed.
+     * Starts monitoring the total mechanical energy and angular momentum with the given {@code monitor}
+     * (i.e drifts are measured against their actual values). From now on, the monitor is handed to the given
+     * {@code listener} after each measurement. If its action is {@link DriftAction#ADAPT}, the monitor scales the
+     * accuracy parameter of the adaptive time step.
+     *
+     * @param monitor  The {@link ConservationMonitor}.
+     * @param listener The {@link Consumer} to which the monitor is handed after each measurement.
+     * @throws IllegalArgumentException If the monitor must adapt the time step, but it is not adaptive
+     *                                  (or bodies have individual time steps).
+     */
+    public void monitorConservation(ConservationMonitor monitor, Consumer<ConservationMonitor> listener) {
+        if (monitor.getAction() == DriftAction.ADAPT && adaptiveTimeStep == null) {
+            throw new IllegalArgumentException("Adapting the time step to the drift budget needs an adaptive "
+                    + "time step shared by all bodies");
+        }
+        this.conservationMonitor = monitor;
+        this.conservationListener = listener;
+        monitor.reset(bodyArrays, actualTime, endTime());
+    }
+
+    /**
+     * Sets the time at which the next steps must end if they would go beyond it (i.e so a state is produced
+     * exactly at that time). It is only taken into account when the time step is adaptive,
+     * and while it is after the actual time.
+     *
+     * @param stopTime The stop time.
      */
-    public double getActualTime() {
-        return actualTime;
+    public void setStopTime(double stopTime) {
+        this.stopTime = stopTime;
     }
 
     /**
@@ -366,203 +408,258 @@ public class SolarSystem implements System<SolarSystem.SolarSystemState> {
      * @return {@code true} if the ship already wen't through Saturn's orbit, or {@code false} otherwise.
      */
     public boolean finishMovement() {
-        return actualTime >= saturnianYears * Constants.SATURNIAN_YEAR_SECONDS;
+        return actualTime >= endTime();
+    }
+
+    /**
+     * @return The amount of time the simulation will last.
+     */
+    private double endTime() {
+        return saturnianYears * Constants.SATURNIAN_YEAR_SECONDS;
+    }
+
+    /**
+     * Calculates the distance from the ship to the closest planet or moon.
+     *
+     * @return The distance (or infinity if there is no planet nor moon).
+     */
+    public double closestEncounterDistance() {
+        double minimumSquaredDistance = Double.POSITIVE_INFINITY;
+        for (int body : encounterBodies) {
+            final double dx = bodyArrays.positionsX[body] - bodyArrays.positionsX[shipIndex];
+            final double dy = bodyArrays.positionsY[body] - bodyArrays.positionsY[shipIndex];
+            minimumSquaredDistance = Math.min(minimumSquaredDistance, dx * dx + dy * dy);
+        }
+        return Math.sqrt(minimumSquaredDistance);
+    }
+
+    /**
+     * @return The amount of time the system has existed (i.e the ship is launched at the beginning).
+     */
+    @Override
+    public double getFlightTime() {
+        return actualTime;
+    }
+
+    @Override
+    public int bodyIndex(String name) {
+        for (int body : attractors) {
+            if (bodies.get(body).getName().equals(name)) {
+                return body;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double bodyMass(int body) {
+        return bodyArrays.masses[body];
+    }
+
+    @Override
+    public double shipDistance(int body) {
+        final double dx = bodyArrays.positionsX[body] - bodyArrays.positionsX[shipIndex];
+        final double dy = bodyArrays.positionsY[body] - bodyArrays.positionsY[shipIndex];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public double shipRelativeSpeed(int body) {
+        final double dvx = bodyArrays.velocitiesX[body] - bodyArrays.velocitiesX[shipIndex];
+        final double dvy = bodyArrays.velocitiesY[body] - bodyArrays.velocitiesY[shipIndex];
+        return Math.sqrt(dvx * dvx + dvy * dvy);
     }
 
     @Override
     public void update() {
-        // First calculate positions
-        final Vector2D sunNextPosition = getNextPosition(sun);
-        final Vector2D earthNextPosition = getNextPosition(earth);
-        final Vector2D jupiterNextPosition = getNextPosition(jupiter);
-        final Vector2D saturnNextPosition = getNextPosition(saturn);
-        final Vector2D shipNextPosition = getNextPosition(ship);
-        // Then calculate accelerations
-        final double sunMass = sun.getMass();
-        final double earthMass = earth.getMass();
-        final double jupiterMass = jupiter.getMass();
-        final double saturnMass = saturn.getMass();
-        final double shipMass = ship.getMass();
-        final Vector2D sunNextAcceleration = getAcceleration(sunNextPosition,
-                earthNextPosition, jupiterNextPosition, saturnNextPosition, shipNextPosition,
-                sunMass, earthMass, jupiterMass, saturnMass, shipMass);
-        final Vector2D earthNextAcceleration = getAcceleration(earthNextPosition,
-                sunNextPosition, jupiterNextPosition, saturnNextPosition, shipNextPosition,
-                earthMass, sunMass, jupiterMass, saturnMass, shipMass);
-        final Vector2D jupiterNextAcceleration = getAcceleration(jupiterNextPosition,
-                sunNextPosition, earthNextPosition, saturnNextPosition, shipNextPosition,
-                jupiterMass, sunMass, earthMass, saturnMass, shipMass);
-        final Vector2D saturnNextAcceleration = getAcceleration(saturnNextPosition,
-                sunNextPosition, earthNextPosition, jupiterNextPosition, shipNextPosition,
-                saturnMass, sunMass, earthMass, jupiterMass, shipMass);
-        final Vector2D shipNextAcceleration = getAcceleration(shipNextPosition,
-                sunNextPosition, earthNextPosition, jupiterNextPosition, saturnNextPosition,
-                shipMass, sunMass, earthMass, jupiterMass, saturnMass);
-        // Finally, calculate velocities
-        final Vector2D sunNextVelocity = getNextVelocity(sun, sunNextAcceleration);
-        final Vector2D earthNextVelocity = getNextVelocity(earth, earthNextAcceleration);
-        final Vector2D jupiterNextVelocity = getNextVelocity(jupiter, jupiterNextAcceleration);
-        final Vector2D saturnNextVelocity = getNextVelocity(saturn, saturnNextAcceleration);
-        final Vector2D shipNextVelocity = getNextVelocity(ship, shipNextAcceleration);
-
-        // Store accelerations
-        previousAccelerations.put(sun, sun.getAcceleration());
-        previousAccelerations.put(earth, earth.getAcceleration());
-        previousAccelerations.put(jupiter, jupiter.getAcceleration());
-        previousAccelerations.put(saturn, saturn.getAcceleration());
-        previousAccelerations.put(ship, ship.getAcceleration());
-
-        // Set new values
-        sun.setPosition(sunNextPosition);
-        sun.setVelocity(sunNextVelocity);
-        sun.setAcceleration(sunNextAcceleration);
-        earth.setPosition(earthNextPosition);
-        earth.setVelocity(earthNextVelocity);
-        earth.setAcceleration(earthNextAcceleration);
-        jupiter.setPosition(jupiterNextPosition);
-        jupiter.setVelocity(jupiterNextVelocity);
-        jupiter.setAcceleration(jupiterNextAcceleration);
-        saturn.setPosition(saturnNextPosition);
-        saturn.setVelocity(saturnNextVelocity);
-        saturn.setAcceleration(saturnNextAcceleration);
-        ship.setPosition(shipNextPosition);
-        ship.setVelocity(shipNextVelocity);
-        ship.setAcceleration(shipNextAcceleration);
-
-        // Update time
-        actualTime += timeStep;
+        final double startTime = actualTime;
+        if (conservationMonitor != null) {
+            conservationMonitor.beforeStep(bodyArrays);
+        }
+        step();
+        if (eventDetector != null) {
+            eventDetector.detect(bodyArrays, startTime, actualTime, eventListener);
+        }
+        if (conservationMonitor != null && conservationMonitor.afterStep(bodyArrays, actualTime)) {
+            conservationListener.accept(conservationMonitor);
+        }
     }
 
+    /**
+     * Performs a step of the {@link #integrator}, and advances the actual time.
+     */
+    private void step() {
+        if (adaptiveTimeStep == null) {
+            integrator.step(bodyArrays);
+            actualTime += timeStep;
+            return;
+        }
+        // Steps end exactly at the stop time and at the end of the simulation, if they would go beyond them
+        double limit = Double.POSITIVE_INFINITY;
+        if (endTime() > actualTime) {
+            limit = endTime();
+        }
+        if (stopTime > actualTime) {
+            limit = Math.min(limit, stopTime);
+        }
+        final double nextTimeStep = conservationMonitor == null ?
+                adaptiveTimeStep.timeStep(bodyArrays, attractors) :
+                adaptiveTimeStep.scaledTimeStep(bodyArrays, attractors, conservationMonitor.getAccuracyFactor());
+        final boolean limited = actualTime + nextTimeStep >= limit;
+        lastTimeStep = limited ? limit - actualTime : nextTimeStep;
+        integrator.setTimeStep(lastTimeStep);
+        integrator.step(bodyArrays);
+        actualTime = limited ? limit : actualTime + lastTimeStep;
+    }
 
     @Override
     public void restart() {
-        sun.setPosition(sunInitialPosition);
-        sun.setVelocity(sunInitialVelocity);
-        sun.setAcceleration(sunInitialAcceleration);
-        earth.setPosition(earthInitialPosition);
-        earth.setVelocity(earthInitialVelocity);
-        earth.setAcceleration(earthInitialAcceleration);
-        jupiter.setPosition(jupiterInitialPosition);
-        jupiter.setVelocity(jupiterInitialVelocity);
-        jupiter.setAcceleration(jupiterInitialAcceleration);
-        saturn.setPosition(saturnInitialPosition);
-        saturn.setVelocity(saturnInitialVelocity);
-        saturn.setAcceleration(saturnInitialAcceleration);
-        ship.setPosition(shipInitialPosition);
-        ship.setVelocity(shipInitialVelocity);
-        ship.setAcceleration(shipInitialAcceleration);
+        initializeArrays();
         actualTime = 0;
+        if (eventDetector != null) {
+            eventDetector.reset(bodyArrays);
+        }
+        if (conservationMonitor != null) {
+            conservationMonitor.reset(bodyArrays, actualTime, endTime());
+        }
     }
 
     @Override
     public SolarSystemState outputState() {
+        syncBodies();
         return new SolarSystemState(this);
     }
 
     /**
-     * Calculates the next position to the given {@code body}.
-     *
-     * @param body The {@link Body} suffering the position change.
-     * @return The next position.
+     * @return A new {@link SolarSystemSnapshot} for this system (to be filled with {@link #snapshot}),
+     * with the bodies in the same order as they were given.
      */
-    private Vector2D getNextPosition(Body body) {
-        return body.getPosition()
-                .add(body.getVelocity().scalarMultiply(timeStep))
-                .add(body.getAcceleration().scalarMultiply((2d / 3d) * timeStep * timeStep))
-                .subtract(previousAccelerations.get(body).scalarMultiply((1d / 6d) * timeStep * timeStep));
+    public SolarSystemSnapshot newSnapshot() {
+        return new SolarSystemSnapshot(outputBodies, getOutputShipIndex());
     }
 
     /**
-     * Calculates the next velocity to the given {@code body}.
+     * Copies the actual state of this system into the given {@code snapshot} (i.e no object is allocated).
      *
-     * @param body             The {@link Body} suffering the position change.
-     * @param nextAcceleration The next acceleration (i.e used for Beeman integration).
-     * @return The next position.
-     */
-    private Vector2D getNextVelocity(Body body, Vector2D nextAcceleration) {
+     * @param snapshot A {@link SolarSystemSnapshot} created by this system's {@link #newSnapshot()} method.
+     */
+    public void snapshot(SolarSystemSnapshot snapshot) {
+        if (outputIndexes == null) {
+            java.lang.System.arraycopy(bodyArrays.positionsX, 0, snapshot.positionsX, 0, bodyArrays.size);
+            java.lang.System.arraycopy(bodyArrays.positionsY, 0, snapshot.positionsY, 0, bodyArrays.size);
+            java.lang.System.arraycopy(bodyArrays.velocitiesX, 0, snapshot.velocitiesX, 0, bodyArrays.size);
+            java.lang.System.arraycopy(bodyArrays.velocitiesY, 0, snapshot.velocitiesY, 0, bodyArrays.size);
+        } else {
+            for (int i = 0; i < bodyArrays.size; i++) {
+                final int body = outputIndexes[i];
+                snapshot.positionsX[body] = bodyArrays.positionsX[i];
+                snapshot.positionsY[body] = bodyArrays.positionsY[i];
+                snapshot.velocitiesX[body] = bodyArrays.velocitiesX[i];
+                snapshot.velocitiesY[body] = bodyArrays.velocitiesY[i];
+            }
+        }
+        snapshot.time = actualTime;
+    }
 
-        return body.getVelocity()
-                .add(nextAcceleration.scalarMultiply((1d / 3d) * timeStep))
-                .add(body.getAcceleration().scalarMultiply((5d / 6d) * timeStep))
-                .subtract(previousAccelerations.get(body).scalarMultiply((1d / 6d) * timeStep));
+    /**
+     * @return A new {@link SolarSystemCheckpoint} for this system (to be filled with {@link #checkpoint}).
+     */
+    public SolarSystemCheckpoint newCheckpoint() {
+        return new SolarSystemCheckpoint(bodies.stream().map(Body::getName).collect(Collectors.toList()),
+                integratorType.name(), stateArrays().length);
     }
 
     /**
-     * Returns the total applied force to the given {@link Body}.
+     * Copies the whole integration state of this system into the given {@code checkpoint}
+     * (i.e no object is allocated).
      *
-     * @param body The {@link Body} suffering the returned force.
-     * @return A {@link Vector2D} representing the force.
+     * @param checkpoint A {@link SolarSystemCheckpoint} created by this system's {@link #newCheckpoint()} method.
      */
-    private Vector2D getAppliedForce(Body body) {
-        return influencers.get(body)
-                .stream()
-                .map(body::appliedGravitationalForce)
-                .reduce(Vector2D.ZERO, Vector2D::add);
+    public void checkpoint(SolarSystemCheckpoint checkpoint) {
+        final double[][] arrays = stateArrays();
+        for (int i = 0; i < arrays.length; i++) {
+            java.lang.System.arraycopy(arrays[i], 0, checkpoint.arrays[i], 0, bodyArrays.size);
+        }
+        checkpoint.timeStep = timeStep;
+        checkpoint.time = actualTime;
+        if (conservationMonitor == null) {
+            checkpoint.monitorState = null;
+        } else {
+            if (checkpoint.monitorState == null) {
+                checkpoint.monitorState = new double[ConservationMonitor.STATE_SIZE];
+            }
+            conservationMonitor.checkpoint(checkpoint.monitorState);
+        }
     }
 
     /**
-     * Calculates the accelerations according to the given positions and masses.
-     *
-     * @param affectedPosition    The position of the affected body.
-     * @param influencer1Position The position of the first influencer.
-     * @param influencer2Position The position of the second influencer.
-     * @param influencer3Position The position of the third influencer.
-     * @param influencer4Position The position of the fourth influencer.
-     * @param affectedMass        The mass of the affected body.
-     * @param influencer1Mass     The mass of the first influencer.
-     * @param influencer2Mass     The mass of the second influencer.
-     * @param influencer3Mass     The mass of the third influencer.
-     * @param influencer4Mass     The mass of the fourth influencer.
-     * @return The calculated acceleration.
-     */
-    private static Vector2D getAcceleration(Vector2D affectedPosition,
-                                            Vector2D influencer1Position, Vector2D influencer2Position,
-                                            Vector2D influencer3Position, Vector2D influencer4Position,
-                                            double affectedMass,
-                                            double influencer1Mass, double influencer2Mass,
-                                            double influencer3Mass, double influencer4Mass) {
-        final Vector2D influencer1Force = Utils
-                .gravitationalForce(affectedMass, influencer1Mass, affectedPosition, influencer1Position);
-        final Vector2D influencer2Force = Utils
-                .gravitationalForce(affectedMass, influencer2Mass, affectedPosition, influencer2Position);
-        final Vector2D influencer3Force = Utils
-                .gravitationalForce(affectedMass, influencer3Mass, affectedPosition, influencer3Position);
-        final Vector2D influencer4Force = Utils
-                .gravitationalForce(affectedMass, influencer4Mass, affectedPosition, influencer4Position);
-        return Stream.of(influencer1Force, influencer2Force, influencer3Force, influencer4Force)
-                .reduce(Vector2D.ZERO, Vector2D::add).scalarMultiply(1 / affectedMass);
-    }
-
-    /**
-     * Calculates the ship's initial position, which depends on the Earth's.
+     * Restores the integration state saved in the given {@code checkpoint}
+     * (i.e the simulation continues exactly as it would have from the moment the checkpoint was taken).
+     * The conservation monitor (which must be set before) continues from its saved state,
+     * or starts over from the checkpoint if it has none (e.g it was taken without monitor).
      *
-     * @param sunInitialPosition   The Sun's initial position.
-     * @param earthInitialPosition The Earth's initial position.
-     * @return The ship's initial position.
-     * @implNote This method takes the Sun to Earth vector, and calculates the norm of it.
-     * Then it adds to the norm the ship's altitude (given by {@link #SHIP_ALTITUDE}), to calculate a stretching factor.
-     * This stretching factor is multiplied to a unit factor generated from the Earth's position).
+     * @param checkpoint The {@link SolarSystemCheckpoint} to be restored.
+     * @throws IllegalArgumentException If the checkpoint was taken from a system with other bodies
+     *                                  (or in another order), with another time step, or with another integrator.
+     */
+    public void restore(SolarSystemCheckpoint checkpoint) {
+        if (!checkpoint.getBodiesNames().equals(newCheckpoint().getBodiesNames())) {
+            throw new IllegalArgumentException("The checkpoint was taken from a system with other bodies: "
+                    + checkpoint.getBodiesNames());
+        }
+        if (Double.compare(checkpoint.getTimeStep(), timeStep) != 0) {
+            throw new IllegalArgumentException("The checkpoint was taken with another time step: "
+                    + checkpoint.getTimeStep());
+        }
+        if (!checkpoint.getIntegrator().equals(integratorType.name())) {
+            throw new IllegalArgumentException("The checkpoint was taken with another integrator: "
+                    + checkpoint.getIntegrator());
+        }
+        final double[][] arrays = stateArrays();
+        for (int i = 0; i < arrays.length; i++) {
+            java.lang.System.arraycopy(checkpoint.arrays[i], 0, arrays[i], 0, bodyArrays.size);
+        }
+        actualTime = checkpoint.time;
+        if (eventDetector != null) {
+            eventDetector.reset(bodyArrays);
+        }
+        if (conservationMonitor != null) {
+            if (checkpoint.monitorState != null) {
+                conservationMonitor.restore(checkpoint.monitorState);
+            } else {
+                conservationMonitor.reset(bodyArrays, actualTime, endTime());
+            }
+        }
+        syncBodies();
+    }
+
+    /**
+     * @return The arrays holding the integration state (i.e in the order they are saved in a checkpoint):
+     * the positions, velocities and accelerations, followed by the {@link #integrator}'s own state arrays.
      */
-    private static Vector2D calculateShipInitialPosition(Vector2D sunInitialPosition, Vector2D earthInitialPosition) {
-        final double factor = earthInitialPosition.distance(sunInitialPosition) + SHIP_ALTITUDE + EARTH_RADIUS;
-        return earthInitialPosition.subtract(sunInitialPosition)
-                .normalize()
-                .scalarMultiply(factor)
-                .add(sunInitialPosition);
+    private double[][] stateArrays() {
+        final double[][] dynamicArrays = {
+                bodyArrays.positionsX, bodyArrays.positionsY,
+                bodyArrays.velocitiesX, bodyArrays.velocitiesY,
+                bodyArrays.accelerationsX, bodyArrays.accelerationsY,
+        };
+        final double[][] integratorArrays = integrator.stateArrays();
+        final double[][] arrays = Arrays.copyOf(dynamicArrays, dynamicArrays.length + integratorArrays.length);
+        java.lang.System.arraycopy(integratorArrays, 0, arrays, dynamicArrays.length, integratorArrays.length);
+        return arrays;
     }
 
     /**
-     * Calculates the ship's initial velocity, which depends on the Earth's initial position.
-     *
-     * @param earthInitialVelocity The Earth's initial velocity.
-     * @return The ship's initial velocity.
-     * @implNote This method takes the Earth's velocity, calculates the module, adds the {@link #SHIP_INITIAL_SPEED},
-     * and creates a new vector (with the Earth's initial velocity direction, but with the new speed).
+     * Copies the values in the {@link #bodyArrays} into the {@link Body} objects
+     * (i.e {@link Vector2D} objects are only created when the state is sampled).
      */
-    private static Vector2D calculateShipInitialVelocity(Vector2D earthInitialVelocity) {
-        final double factor = earthInitialVelocity.getNorm() + SHIP_INITIAL_SPEED;
-        return earthInitialVelocity.normalize()
-                .scalarMultiply(factor);
+    private void syncBodies() {
+        for (int i = 0; i < bodyArrays.size; i++) {
+            final Body body = bodies.get(i);
+            body.setPosition(bodyArrays.position(i));
+            body.setVelocity(bodyArrays.velocity(i));
+            body.setAcceleration(bodyArrays.acceleration(i));
+        }
     }
 
     /**
@@ -571,21 +668,11 @@ public class SolarSystem implements System<SolarSystem.SolarSystemState> {
     public static final class SolarSystemState implements State {
 
         /**
-         * The Sun's state.
+         * The bodies' states (in the same order as they were given to the {@link SolarSystem},
+         * even if massless probes are integrated after all massive bodies).
          */
-        private final Body.BodyState sun;
-        /**
-         * The Earth's state.
-         */
-        private final Body.BodyState earth;
-        /**
-         * Jupiter's state.
-         */
-        private final Body.BodyState jupiter;
-        /**
-         * Saturn's state.
-         */
-        private final Body.BodyState saturn;
+        private final List<Body.BodyState> bodies;
+
         /**
          * The Ship's state.
          */
@@ -597,39 +684,18 @@ public class SolarSystem implements System<SolarSystem.SolarSystemState> {
          * @param solarSystem The {@link SolarSystem} whose state will be saved.
          */
         /* package */ SolarSystemState(SolarSystem solarSystem) {
-            this.sun = solarSystem.getSun().outputState();
-            this.earth = solarSystem.getEarth().outputState();
-            this.jupiter = solarSystem.getJupiter().outputState();
-            this.saturn = solarSystem.getSaturn().outputState();
-            this.ship = solarSystem.getShip().outputState();
-        }
-
-        /**
-         * @return The Sun's state.
-         */
-        public Body.BodyState getSun() {
-            return sun;
-        }
-
-        /**
-         * @return The Earth's state.
-         */
-        public Body.BodyState getEarth() {
-            return earth;
-        }
-
-        /**
-         * @return Jupiter's state.
-         */
-        public Body.BodyState getJupiter() {
-            return jupiter;
+            this.bodies = Collections.unmodifiableList(solarSystem.getOutputBodies().stream()
+                    .map(Body::outputState)
+                    .collect(Collectors.toList()));
+            this.ship = this.bodies.get(solarSystem.getOutputShipIndex());
         }
 
         /**
-         * @return Saturn's state.
+         * @return The bodies' states (in the same order as they were given to the {@link SolarSystem},
+         * even if massless probes are integrated after all massive bodies).
          */
-        public Body.BodyState getSaturn() {
-            return saturn;
+        public List<Body.BodyState> getBodies() {
+            return bodies;
         }
 
         /**
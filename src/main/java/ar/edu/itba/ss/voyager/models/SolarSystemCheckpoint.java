@@ -0,0 +1,347 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A reusable copy of the whole integration state of a {@link SolarSystem} (i.e positions, velocities,
+ * accelerations, the integrator's own state, and time), from which a simulation can be resumed bit-identically.
+ * It also carries the conservation monitor's state, if any, and the simulation loop's state (i.e the amount of
+ * performed steps, the output sampling policy's and termination condition's cursors, and the state of each output
+ * file, by path), which is set by whoever runs the loop.
+ * <p>
+ * Checkpoints are saved into a compact little-endian binary file: a header (magic number, version,
+ * amount of bodies, time step, steps, time, sampling cursor, integrator, amount of state arrays and the bodies'
+ * names), the state arrays, the outputs' states (their amount, and each one's path and bytes), the termination
+ * condition's cursor, the conservation monitor's state (its amount of values, 0 if there is none, and the values),
+ * and a CRC-32 of everything before it (i.e truncated or corrupted files are detected when read).
+ */
+public final class SolarSystemCheckpoint {
+
+    /**
+     * Magic number at the beginning of the file (i.e "VOYK" in ASCII).
+     */
+    private static final int MAGIC = 0x4B594F56;
+
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 4;
+
+    /**
+     * The bodies' names (i.e used to check the checkpoint is restored into the same system).
+     */
+    private final List<String> bodiesNames;
+
+    /**
+     * The name of the {@link IntegratorType} the system was integrated with.
+     */
+    private final String integrator;
+
+    /**
+     * The state arrays (i.e positions, velocities and accelerations, 'x' and 'y' components,
+     * followed by the integrator's own state arrays).
+     */
+    /* package */ final double[][] arrays;
+
+    /**
+     * The time step of the system.
+     */
+    /* package */ double timeStep;
+
+    /**
+     * The amount of time the system has existed.
+     */
+    /* package */ double time;
+
+    /**
+     * The conservation monitor's state (or {@code null} if the system was not monitored).
+     */
+    /* package */ double[] monitorState;
+
+    /**
+     * The amount of steps performed so far.
+     */
+    private long step;
+
+    /**
+     * The output sampling policy's cursor.
+     */
+    private long samplingCursor;
+
+    /**
+     * The termination condition's cursor.
+     */
+    private long terminationCursor;
+
+    /**
+     * The state of each output file, by path (in the order they were set).
+     */
+    private final Map<String, byte[]> outputStates;
+
+    /**
+     * Constructor.
+     *
+     * @param bodiesNames The bodies' names.
+     * @param integrator  The name of the {@link IntegratorType} the system is integrated with.
+     * @param arrays      The amount of state arrays.
+     */
+    /* package */ SolarSystemCheckpoint(List<String> bodiesNames, String integrator, int arrays) {
+        this.bodiesNames = Collections.unmodifiableList(new ArrayList<>(bodiesNames));
+        this.integrator = integrator;
+        this.arrays = new double[arrays][bodiesNames.size()];
+        this.outputStates = new LinkedHashMap<>();
+    }
+
+    /**
+     * @return The bodies' names.
+     */
+    public List<String> getBodiesNames() {
+        return bodiesNames;
+    }
+
+    /**
+     * @return The name of the {@link IntegratorType} the system was integrated with.
+     */
+    public String getIntegrator() {
+        return integrator;
+    }
+
+    /**
+     * @return The time step of the system.
+     */
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * @return The amount of time the system has existed.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return The amount of steps performed so far.
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * @param step The amount of steps performed so far.
+     */
+    public void setStep(long step) {
+        this.step = step;
+    }
+
+    /**
+     * @return The output sampling policy's cursor.
+     */
+    public long getSamplingCursor() {
+        return samplingCursor;
+    }
+
+    /**
+     * @param samplingCursor The output sampling policy's cursor.
+     */
+    public void setSamplingCursor(long samplingCursor) {
+        this.samplingCursor = samplingCursor;
+    }
+
+    /**
+     * @return The termination condition's cursor.
+     */
+    public long getTerminationCursor() {
+        return terminationCursor;
+    }
+
+    /**
+     * @param terminationCursor The termination condition's cursor.
+     */
+    public void setTerminationCursor(long terminationCursor) {
+        this.terminationCursor = terminationCursor;
+    }
+
+    /**
+     * @param filePath Path to an output file.
+     * @return The state of the given output file (or {@code null} if it has none).
+     */
+    public byte[] getOutputState(String filePath) {
+        return outputStates.get(filePath);
+    }
+
+    /**
+     * @param filePath Path to an output file.
+     * @param state    The state of the given output file (i.e replacing the one of the previous checkpoint).
+     */
+    public void setOutputState(String filePath, byte[] state) {
+        outputStates.put(filePath, state);
+    }
+
+    /**
+     * Saves this checkpoint into the given {@code path}. The file is first written next to it,
+     * and then moved into place, so the previous checkpoint is kept if writing fails halfway.
+     *
+     * @param path The path of the file.
+     * @throws UncheckedIOException If the file could not be written.
+     */
+    public void save(Path path) {
+        final List<byte[]> names = new ArrayList<>();
+        final byte[] integratorName = integrator.getBytes(StandardCharsets.UTF_8);
+        int size = 5 * Integer.BYTES + 2 * Double.BYTES + 2 * Long.BYTES + integratorName.length;
+        for (String name : bodiesNames) {
+            final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+        size += arrays.length * bodiesNames.size() * Double.BYTES + 2 * Integer.BYTES + 2 * Long.BYTES;
+        if (monitorState != null) {
+            size += monitorState.length * Double.BYTES;
+        }
+        final List<byte[]> outputPaths = new ArrayList<>(outputStates.size());
+        for (Map.Entry<String, byte[]> output : outputStates.entrySet()) {
+            final byte[] bytes = output.getKey().getBytes(StandardCharsets.UTF_8);
+            outputPaths.add(bytes);
+            size += 2 * Integer.BYTES + bytes.length + output.getValue().length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(bodiesNames.size())
+                .putDouble(timeStep)
+                .putLong(step)
+                .putDouble(time)
+                .putLong(samplingCursor)
+                .putInt(integratorName.length)
+                .put(integratorName)
+                .putInt(arrays.length);
+        for (byte[] name : names) {
+            buffer.putInt(name.length).put(name);
+        }
+        for (double[] array : arrays) {
+            buffer.asDoubleBuffer().put(array);
+            buffer.position(buffer.position() + array.length * Double.BYTES);
+        }
+        buffer.putInt(outputStates.size());
+        int output = 0;
+        for (byte[] state : outputStates.values()) {
+            final byte[] outputPath = outputPaths.get(output++);
+            buffer.putInt(outputPath.length).put(outputPath).putInt(state.length).put(state);
+        }
+        buffer.putLong(terminationCursor);
+        buffer.putInt(monitorState == null ? 0 : monitorState.length);
+        for (int i = 0; monitorState != null && i < monitorState.length; i++) {
+            buffer.putDouble(monitorState[i]);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save the checkpoint into " + path, e);
+        }
+    }
+
+    /**
+     * Loads a checkpoint from the given {@code path}.
+     *
+     * @param path The path of the file.
+     * @return The loaded checkpoint.
+     * @throws UncheckedIOException     If the file could not be read.
+     * @throws IllegalArgumentException If the file is not a valid checkpoint (e.g it is truncated or corrupted).
+     */
+    public static SolarSystemCheckpoint load(Path path) {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is not a checkpoint file");
+            }
+            buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the checkpoint from " + path, e);
+        }
+        if (buffer.remaining() < 3 * Integer.BYTES + 2 * Double.BYTES + 3 * Long.BYTES
+                || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException(path + " is not a checkpoint file");
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - Long.BYTES);
+        if (crc.getValue() != buffer.getLong(buffer.limit() - Long.BYTES)) {
+            throw new IllegalArgumentException("The checkpoint in " + path + " is corrupted");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported checkpoint version: " + version);
+        }
+        final int size = buffer.getInt();
+        final double timeStep = buffer.getDouble();
+        final long step = buffer.getLong();
+        final double time = buffer.getDouble();
+        final long samplingCursor = buffer.getLong();
+        final byte[] integratorName = new byte[buffer.getInt()];
+        buffer.get(integratorName);
+        final String integrator = new String(integratorName, StandardCharsets.UTF_8);
+        final int arrays = buffer.getInt();
+        final List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            names.add(new String(name, StandardCharsets.UTF_8));
+        }
+        final SolarSystemCheckpoint checkpoint = new SolarSystemCheckpoint(names, integrator, arrays);
+        for (double[] array : checkpoint.arrays) {
+            buffer.asDoubleBuffer().get(array);
+            buffer.position(buffer.position() + array.length * Double.BYTES);
+        }
+        final int outputs = buffer.getInt();
+        for (int i = 0; i < outputs; i++) {
+            final byte[] outputPath = new byte[buffer.getInt()];
+            buffer.get(outputPath);
+            final byte[] state = new byte[buffer.getInt()];
+            buffer.get(state);
+            checkpoint.outputStates.put(new String(outputPath, StandardCharsets.UTF_8), state);
+        }
+        checkpoint.terminationCursor = buffer.getLong();
+        final int monitorValues = buffer.getInt();
+        if (monitorValues > 0) {
+            checkpoint.monitorState = new double[monitorValues];
+            for (int i = 0; i < monitorValues; i++) {
+                checkpoint.monitorState[i] = buffer.getDouble();
+            }
+        }
+        checkpoint.timeStep = timeStep;
+        checkpoint.step = step;
+        checkpoint.time = time;
+        checkpoint.samplingCursor = samplingCursor;
+        return checkpoint;
+    }
+}
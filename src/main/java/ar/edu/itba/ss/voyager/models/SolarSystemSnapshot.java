@@ -0,0 +1,159 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * A reusable copy of a {@link SolarSystem}'s dynamic state, held in primitive arrays.
+ * Unlike a {@link SolarSystem.SolarSystemState}, filling a snapshot allocates no objects,
+ * so the same instances can be reused to hand states over to the output (e.g through a ring buffer).
+ * The bodies' static data (i.e names, types and colors) is shared with the {@link SolarSystem}.
+ */
+public final class SolarSystemSnapshot {
+
+    /**
+     * The bodies in the {@link SolarSystem} (i.e only their static data is used).
+     */
+    private final List<Body> bodies;
+
+    /**
+     * The index of the ship in the {@link #bodies} {@link List}.
+     */
+    private final int shipIndex;
+
+    /**
+     * The 'x' component of the bodies' positions.
+     */
+    /* package */ final double[] positionsX;
+
+    /**
+     * The 'y' component of the bodies' positions.
+     */
+    /* package */ final double[] positionsY;
+
+    /**
+     * The 'x' component of the bodies' velocities.
+     */
+    /* package */ final double[] velocitiesX;
+
+    /**
+     * The 'y' component of the bodies' velocities.
+     */
+    /* package */ final double[] velocitiesY;
+
+    /**
+     * The moment of this snapshot (in seconds since the beginning of the simulation).
+     */
+    /* package */ double time;
+
+    /**
+     * Constructor.
+     *
+     * @param bodies    The bodies in the {@link SolarSystem} (i.e only their static data is used).
+     * @param shipIndex The index of the ship in the {@code bodies} {@link List}.
+     */
+    /* package */ SolarSystemSnapshot(List<Body> bodies, int shipIndex) {
+        this.bodies = bodies;
+        this.shipIndex = shipIndex;
+        this.positionsX = new double[bodies.size()];
+        this.positionsY = new double[bodies.size()];
+        this.velocitiesX = new double[bodies.size()];
+        this.velocitiesY = new double[bodies.size()];
+    }
+
+    /**
+     * @return The amount of bodies.
+     */
+    public int size() {
+        return positionsX.length;
+    }
+
+    /**
+     * @return The index of the ship.
+     */
+    public int getShipIndex() {
+        return shipIndex;
+    }
+
+    /**
+     * @return The moment of this snapshot (in seconds since the beginning of the simulation).
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The body's name.
+     */
+    public String getName(int index) {
+        return bodies.get(index).getName();
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The body's type.
+     */
+    public BodyType getType(int index) {
+        return bodies.get(index).getType();
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The body's color.
+     */
+    public Color getColor(int index) {
+        return bodies.get(index).getColor();
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The 'x' component of the body's position.
+     */
+    public double getPositionX(int index) {
+        return positionsX[index];
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The 'y' component of the body's position.
+     */
+    public double getPositionY(int index) {
+        return positionsY[index];
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The 'x' component of the body's velocity.
+     */
+    public double getVelocityX(int index) {
+        return velocitiesX[index];
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The 'y' component of the body's velocity.
+     */
+    public double getVelocityY(int index) {
+        return velocitiesY[index];
+    }
+
+    /**
+     * @param index The body's index.
+     * @return The body's speed (i.e velocity module).
+     */
+    public double getSpeed(int index) {
+        return Math.sqrt(velocitiesX[index] * velocitiesX[index] + velocitiesY[index] * velocitiesY[index]);
+    }
+
+    /**
+     * @param first  The first body's index.
+     * @param second The second body's index.
+     * @return The distance between both bodies.
+     */
+    public double distance(int first, int second) {
+        final double dx = positionsX[first] - positionsX[second];
+        final double dy = positionsY[first] - positionsY[second];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
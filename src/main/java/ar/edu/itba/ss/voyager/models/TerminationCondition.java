@@ -0,0 +1,88 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Decides whether a {@link Flight} must be stopped before its end (e.g because the ship has clearly missed its
+ * target, or escaped the system), recording the reason. It is called once per step, in order,
+ * so implementations might keep state (i.e each flight needs its own instance), which is exposed as a cursor
+ * of a few bits so it can be saved in a checkpoint.
+ * See {@link TerminationConditions} for the available ones.
+ */
+@FunctionalInterface
+public interface TerminationCondition {
+
+    /**
+     * Checks whether the given {@code flight} must be stopped.
+     *
+     * @param flight The {@link Flight} being simulated, after a step.
+     * @return The reason why the flight must be stopped (or {@code null} if it must continue).
+     */
+    String check(Flight flight);
+
+    /**
+     * @return The state kept between calls to {@link #check(Flight)} (i.e to be saved in a checkpoint),
+     * which fits in its {@link #getCursorBits()} lowest bits. Stateless conditions return 0.
+     */
+    default long getCursor() {
+        return 0;
+    }
+
+    /**
+     * Restores the state kept between calls to {@link #check(Flight)} (i.e when resuming a simulation).
+     * Does nothing by default.
+     *
+     * @param cursor A value previously returned by {@link #getCursor()}.
+     */
+    default void setCursor(long cursor) {
+        // Stateless by default
+    }
+
+    /**
+     * @return The amount of bits used by the {@link #getCursor()} (i.e 0 for stateless conditions).
+     */
+    default int getCursorBits() {
+        return 0;
+    }
+
+    /**
+     * Composes this condition with the given {@code other} one (i.e a flight is stopped when any of them says so).
+     *
+     * The composed cursor holds this condition's cursor in its lowest bits, followed by the other one's.
+     *
+     * @param other The other {@link TerminationCondition}.
+     * @return The composed {@link TerminationCondition} (whose reason is the first one that stopped the flight).
+     * @throws IllegalArgumentException If the composed cursor would not fit in a {@code long}
+     *                                  (i.e too many conditions keep state).
+     */
+    default TerminationCondition or(TerminationCondition other) {
+        final TerminationCondition first = this;
+        final int firstBits = first.getCursorBits();
+        final int bits = firstBits + other.getCursorBits();
+        if (bits >= Long.SIZE) {
+            throw new IllegalArgumentException("Too many termination conditions keep state");
+        }
+        return new TerminationCondition() {
+
+            @Override
+            public String check(Flight flight) {
+                final String reason = first.check(flight);
+                return reason != null ? reason : other.check(flight);
+            }
+
+            @Override
+            public long getCursor() {
+                return first.getCursor() | other.getCursor() << firstBits;
+            }
+
+            @Override
+            public void setCursor(long cursor) {
+                first.setCursor(cursor & ((1L << firstBits) - 1));
+                other.setCursor(cursor >>> firstBits);
+            }
+
+            @Override
+            public int getCursorBits() {
+                return bits;
+            }
+        };
+    }
+}
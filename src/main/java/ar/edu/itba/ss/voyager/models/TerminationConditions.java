@@ -0,0 +1,257 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Factory of {@link TerminationCondition}s.
+ * Conditions over a body resolve its name on their first check, so each one only costs a few operations per step.
+ */
+public final class TerminationConditions {
+
+    /**
+     * Private constructor (i.e no instance can be created).
+     */
+    private TerminationConditions() {
+    }
+
+    /**
+     * @return A {@link TerminationCondition} that never stops a flight.
+     */
+    public static TerminationCondition never() {
+        return flight -> null;
+    }
+
+    /**
+     * @param flightTime The maximum amount of time the ship can fly (in seconds).
+     * @return A {@link TerminationCondition} that stops a flight once the ship flew the given {@code flightTime}.
+     */
+    public static TerminationCondition flightTimeLimit(final double flightTime) {
+        return flight -> flight.getFlightTime() >= flightTime ?
+                "Flight time limit of " + flightTime + " seconds reached" : null;
+    }
+
+    /**
+     * @param bodyName The name of the star, planet or moon.
+     * @param distance The distance (in meters).
+     * @return A {@link TerminationCondition} that stops a flight once the ship is farther than the given
+     * {@code distance} from the given body (e.g it escaped the system).
+     */
+    public static TerminationCondition fartherThan(final String bodyName, final double distance) {
+        return new BodyCondition(bodyName) {
+            @Override
+            protected String check(final Flight flight, final int body) {
+                final double actualDistance = flight.shipDistance(body);
+                return actualDistance > distance ?
+                        "Ship farther than " + distance + " meters from " + bodyName + " (" + actualDistance + ")" :
+                        null;
+            }
+        };
+    }
+
+    /**
+     * @param bodyName The name of the star, planet or moon.
+     * @param distance The distance (in meters).
+     * @return A {@link TerminationCondition} that stops a flight once the ship is closer than the given
+     * {@code distance} to the given body (e.g it reached its target).
+     */
+    public static TerminationCondition closerThan(final String bodyName, final double distance) {
+        return new BodyCondition(bodyName) {
+            @Override
+            protected String check(final Flight flight, final int body) {
+                final double actualDistance = flight.shipDistance(body);
+                return actualDistance < distance ?
+                        "Ship closer than " + distance + " meters to " + bodyName + " (" + actualDistance + ")" :
+                        null;
+            }
+        };
+    }
+
+    /**
+     * @param bodyName The name of the star, planet or moon.
+     * @param energy   The specific orbital energy bound (in joules over kilograms, e.g 0 for unbound orbits).
+     * @return A {@link TerminationCondition} that stops a flight once the ship's specific orbital energy around
+     * the given body (i.e {@code v^2 / 2 - G * M / r}, ignoring the rest of the bodies) is above the given bound.
+     */
+    public static TerminationCondition energyAbove(final String bodyName, final double energy) {
+        return new BodyCondition(bodyName) {
+            @Override
+            protected String check(final Flight flight, final int body) {
+                final double speed = flight.shipRelativeSpeed(body);
+                final double actualEnergy = speed * speed / 2
+                        - Constants.G * flight.bodyMass(body) / flight.shipDistance(body);
+                return actualEnergy > energy ?
+                        "Ship's orbital energy around " + bodyName + " above " + energy
+                                + " joules over kilograms (" + actualEnergy + ")" :
+                        null;
+            }
+        };
+    }
+
+    /**
+     * @param bodyName   The name of the star, planet or moon.
+     * @param distance   The distance that counts as an encounter (in meters).
+     * @param flightTime The amount of time the ship has to reach the encounter (in seconds).
+     * @return A {@link TerminationCondition} that stops a flight if the ship has not been closer than the given
+     * {@code distance} to the given body after flying the given {@code flightTime} (i.e it missed the body).
+     */
+    public static TerminationCondition noEncounterWithin(final String bodyName, final double distance,
+                                                         final double flightTime) {
+        return new BodyCondition(bodyName) {
+
+            /**
+             * Indicates whether the ship has already been closer than the distance to the body.
+             */
+            private boolean encountered;
+
+            @Override
+            protected String check(final Flight flight, final int body) {
+                encountered = encountered || flight.shipDistance(body) < distance;
+                return !encountered && flight.getFlightTime() >= flightTime ?
+                        "No encounter closer than " + distance + " meters to " + bodyName + " within "
+                                + flightTime + " seconds" :
+                        null;
+            }
+
+            @Override
+            public long getCursor() {
+                return encountered ? 1 : 0;
+            }
+
+            @Override
+            public void setCursor(final long cursor) {
+                encountered = cursor != 0;
+            }
+
+            @Override
+            public int getCursorBits() {
+                return 1;
+            }
+        };
+    }
+
+    /**
+     * Composes the given {@code conditions} (i.e a flight is stopped when any of them says so).
+     *
+     * @param conditions The {@link TerminationCondition}s.
+     * @return The composed {@link TerminationCondition}.
+     */
+    public static TerminationCondition anyOf(final List<TerminationCondition> conditions) {
+        return conditions.stream().reduce(TerminationCondition::or).orElse(never());
+    }
+
+    /**
+     * Parses a {@link TerminationCondition} with one of the following formats
+     * (i.e values separated by colons, distances in meters, times in seconds and energies in joules over
+     * kilograms): {@code flight-time:time}, {@code farther:body:distance}, {@code closer:body:distance},
+     * {@code energy-above:body:energy} or {@code no-encounter:body:distance:time}.
+     *
+     * @param condition The condition to be parsed.
+     * @return The parsed {@link TerminationCondition}.
+     * @throws IllegalArgumentException If the condition is malformed.
+     */
+    public static TerminationCondition parse(final String condition) {
+        final String[] values = condition.trim().split(":");
+        try {
+            switch (values[0]) {
+                case "flight-time":
+                    checkValues(condition, values, 2);
+                    return flightTimeLimit(Double.parseDouble(values[1]));
+                case "farther":
+                    checkValues(condition, values, 3);
+                    return fartherThan(values[1], Double.parseDouble(values[2]));
+                case "closer":
+                    checkValues(condition, values, 3);
+                    return closerThan(values[1], Double.parseDouble(values[2]));
+                case "energy-above":
+                    checkValues(condition, values, 3);
+                    return energyAbove(values[1], Double.parseDouble(values[2]));
+                case "no-encounter":
+                    checkValues(condition, values, 4);
+                    return noEncounterWithin(values[1], Double.parseDouble(values[2]), Double.parseDouble(values[3]));
+                default:
+                    throw new IllegalArgumentException("Unknown termination condition: " + condition);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed termination condition: " + condition, e);
+        }
+    }
+
+    /**
+     * Parses and composes the given {@code conditions} (ignoring empty ones).
+     *
+     * @param conditions The conditions to be parsed (see {@link #parse(String)}).
+     * @return The composed {@link TerminationCondition}.
+     * @throws IllegalArgumentException If any condition is malformed.
+     */
+    public static TerminationCondition parseAll(final List<String> conditions) {
+        return anyOf(conditions.stream()
+                .filter(condition -> !condition.trim().isEmpty())
+                .map(TerminationConditions::parse)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Checks that the given condition has the expected amount of values.
+     *
+     * @param condition The condition being parsed.
+     * @param values    The condition's values.
+     * @param expected  The expected amount of values.
+     * @throws IllegalArgumentException If the amount of values is not the expected one.
+     */
+    private static void checkValues(final String condition, final String[] values, final int expected) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException("The termination condition " + condition + " must have "
+                    + expected + " values separated by colons");
+        }
+    }
+
+    /**
+     * A {@link TerminationCondition} over a star, planet or moon, whose index is resolved on the first check.
+     */
+    private abstract static class BodyCondition implements TerminationCondition {
+
+        /**
+         * The body's name.
+         */
+        private final String bodyName;
+
+        /**
+         * The body's index in the {@link Flight} (or a negative value if it was not resolved yet).
+         */
+        private int body;
+
+        /**
+         * Constructor.
+         *
+         * @param bodyName The body's name.
+         */
+        private BodyCondition(final String bodyName) {
+            this.bodyName = bodyName;
+            this.body = -1;
+        }
+
+        /**
+         * @throws IllegalArgumentException If there is no star, planet nor moon with the body's name.
+         */
+        @Override
+        public String check(final Flight flight) {
+            if (body < 0) {
+                body = flight.bodyIndex(bodyName);
+                if (body < 0) {
+                    throw new IllegalArgumentException("There is no star, planet nor moon named " + bodyName);
+                }
+            }
+            return check(flight, body);
+        }
+
+        /**
+         * Checks whether the given {@code flight} must be stopped.
+         *
+         * @param flight The {@link Flight} being simulated, after a step.
+         * @param body   The body's index in the {@link Flight}.
+         * @return The reason why the flight must be stopped (or {@code null} if it must continue).
+         */
+        protected abstract String check(Flight flight, int body);
+    }
+}
@@ -2,6 +2,8 @@ package ar.edu.itba.ss.voyager.models;
 
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
+import java.util.Arrays;
+
 /**
  * Class containing several util methods to be reused by the application.
  */
@@ -24,4 +26,215 @@ import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
         final double factor = (-Constants.G * affectedMass * influencerMass) / Math.pow(difference.getNorm(), 3);
         return difference.scalarMultiply(factor);
     }
+
+    /**
+     * Calculates the gravitational acceleration each body suffers when placed in the given positions.
+     * Each unordered pair of bodies is visited once: the distance and its inverse cube are calculated once per pair,
+     * and equal and opposite contributions (i.e Newton's third law) are scattered into both bodies' accelerations.
+     *
+     * @param size           The amount of bodies.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    /* package */
+    static void gravitationalAccelerations(int size, double[] masses, double[] positionsX, double[] positionsY,
+                                           double[] accelerationsX, double[] accelerationsY) {
+        Arrays.fill(accelerationsX, 0, size, 0d);
+        Arrays.fill(accelerationsY, 0, size, 0d);
+        accumulateGravitationalAccelerations(0, size, size, masses, positionsX, positionsY,
+                accelerationsX, accelerationsY);
+    }
+
+    /**
+     * Adds into the given accelerations arrays the contributions of the pairs {@code (i, j)}
+     * with {@code fromRow <= i < toRow} and {@code i < j < size} (i.e a band of rows of the pairs' triangle).
+     *
+     * @param fromRow        The first row (inclusive).
+     * @param toRow          The last row (exclusive).
+     * @param size           The amount of bodies.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array into which the 'x' component of the contributions will be added.
+     * @param accelerationsY Array into which the 'y' component of the contributions will be added.
+     */
+    /* package */
+    static void accumulateGravitationalAccelerations(int fromRow, int toRow, int size, double[] masses,
+                                                     double[] positionsX, double[] positionsY,
+                                                     double[] accelerationsX, double[] accelerationsY) {
+        for (int i = fromRow; i < toRow; i++) {
+            final double xi = positionsX[i];
+            final double yi = positionsY[i];
+            final double gMassI = Constants.G * masses[i];
+            double axi = 0;
+            double ayi = 0;
+            for (int j = i + 1; j < size; j++) {
+                final double dx = positionsX[j] - xi;
+                final double dy = positionsY[j] - yi;
+                final double squaredDistance = dx * dx + dy * dy;
+                final double inverseCubedDistance = 1d / (squaredDistance * Math.sqrt(squaredDistance));
+                final double factorI = Constants.G * masses[j] * inverseCubedDistance; // Applies to body i
+                final double factorJ = gMassI * inverseCubedDistance; // Applies to body j
+                axi += factorI * dx;
+                ayi += factorI * dy;
+                accelerationsX[j] -= factorJ * dx;
+                accelerationsY[j] -= factorJ * dy;
+            }
+            accelerationsX[i] += axi;
+            accelerationsY[i] += ayi;
+        }
+    }
+
+    /**
+     * Does the same as {@link #accumulateGravitationalAccelerations(int, int, int, double[], double[], double[],
+     * double[], double[])} (i.e with the same operations, so accelerations are the same), and also sums the
+     * gravitational potential energy of the visited pairs (i.e reusing their distances).
+     *
+     * @param fromRow        The first row (inclusive).
+     * @param toRow          The last row (exclusive).
+     * @param size           The amount of bodies.
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array into which the 'x' component of the contributions will be added.
+     * @param accelerationsY Array into which the 'y' component of the contributions will be added.
+     * @return The potential energy of the visited pairs (i.e {@code -G * mi * mj / r} summed over them).
+     */
+    /* package */
+    static double accumulateGravitationalAccelerationsAndPotential(int fromRow, int toRow, int size, double[] masses,
+                                                                   double[] positionsX, double[] positionsY,
+                                                                   double[] accelerationsX, double[] accelerationsY) {
+        double potentialEnergy = 0;
+        for (int i = fromRow; i < toRow; i++) {
+            final double xi = positionsX[i];
+            final double yi = positionsY[i];
+            final double gMassI = Constants.G * masses[i];
+            double axi = 0;
+            double ayi = 0;
+            double potentialI = 0;
+            for (int j = i + 1; j < size; j++) {
+                final double dx = positionsX[j] - xi;
+                final double dy = positionsY[j] - yi;
+                final double squaredDistance = dx * dx + dy * dy;
+                final double inverseCubedDistance = 1d / (squaredDistance * Math.sqrt(squaredDistance));
+                final double factorI = Constants.G * masses[j] * inverseCubedDistance; // Applies to body i
+                final double factorJ = gMassI * inverseCubedDistance; // Applies to body j
+                axi += factorI * dx;
+                ayi += factorI * dy;
+                accelerationsX[j] -= factorJ * dx;
+                accelerationsY[j] -= factorJ * dy;
+                potentialI -= factorJ * masses[j] * squaredDistance; // G * mi * mj / r
+            }
+            accelerationsX[i] += axi;
+            accelerationsY[i] += ayi;
+            potentialEnergy += potentialI;
+        }
+        return potentialEnergy;
+    }
+
+    /**
+     * Calculates the gravitational potential energy of the given bodies (i.e {@code -G * mi * mj / r} summed over
+     * every unordered pair), without calculating accelerations.
+     *
+     * @param size       The amount of bodies.
+     * @param masses     The bodies' masses.
+     * @param positionsX The 'x' component of the positions.
+     * @param positionsY The 'y' component of the positions.
+     * @return The potential energy.
+     */
+    /* package */
+    static double potentialEnergy(int size, double[] masses, double[] positionsX, double[] positionsY) {
+        double potentialEnergy = 0;
+        for (int i = 0; i < size; i++) {
+            final double xi = positionsX[i];
+            final double yi = positionsY[i];
+            double potentialI = 0;
+            for (int j = i + 1; j < size; j++) {
+                final double dx = positionsX[j] - xi;
+                final double dy = positionsY[j] - yi;
+                potentialI -= masses[j] / Math.sqrt(dx * dx + dy * dy);
+            }
+            potentialEnergy += Constants.G * masses[i] * potentialI;
+        }
+        return potentialEnergy;
+    }
+
+    /**
+     * Calculates the gravitational acceleration the test particles {@code fromParticle <= k < toParticle} suffer
+     * from the massive bodies {@code 0 <= j < massiveBodies}
+     * (i.e test particles do not affect massive bodies, nor each other).
+     *
+     * @param fromParticle   The first test particle (inclusive).
+     * @param toParticle     The last test particle (exclusive).
+     * @param massiveBodies  The amount of massive bodies (they must be placed before the test particles).
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    /* package */
+    static void testParticlesAccelerations(int fromParticle, int toParticle, int massiveBodies, double[] masses,
+                                           double[] positionsX, double[] positionsY,
+                                           double[] accelerationsX, double[] accelerationsY) {
+        for (int k = fromParticle; k < toParticle; k++) {
+            final double xk = positionsX[k];
+            final double yk = positionsY[k];
+            double ax = 0;
+            double ay = 0;
+            for (int j = 0; j < massiveBodies; j++) {
+                final double dx = positionsX[j] - xk;
+                final double dy = positionsY[j] - yk;
+                final double squaredDistance = dx * dx + dy * dy;
+                final double factor = Constants.G * masses[j] / (squaredDistance * Math.sqrt(squaredDistance));
+                ax += factor * dx;
+                ay += factor * dy;
+            }
+            accelerationsX[k] = ax;
+            accelerationsY[k] = ay;
+        }
+    }
+
+    /**
+     * Calculates the gravitational acceleration the bodies {@code active[0..count)} suffer from the massive bodies
+     * {@code 0 <= j < massiveBodies} (i.e only the given bodies' accelerations are calculated, and a massive body
+     * is not attracted by itself).
+     *
+     * @param active         The indexes of the bodies whose accelerations must be calculated.
+     * @param count          The amount of indexes in the {@code active} array.
+     * @param massiveBodies  The amount of massive bodies (they must be placed before the test particles).
+     * @param masses         The bodies' masses.
+     * @param positionsX     The 'x' component of the positions.
+     * @param positionsY     The 'y' component of the positions.
+     * @param accelerationsX Array in which the 'x' component of the accelerations will be stored.
+     * @param accelerationsY Array in which the 'y' component of the accelerations will be stored.
+     */
+    /* package */
+    static void activeBodiesAccelerations(int[] active, int count, int massiveBodies, double[] masses,
+                                          double[] positionsX, double[] positionsY,
+                                          double[] accelerationsX, double[] accelerationsY) {
+        for (int n = 0; n < count; n++) {
+            final int k = active[n];
+            final double xk = positionsX[k];
+            final double yk = positionsY[k];
+            double ax = 0;
+            double ay = 0;
+            for (int j = 0; j < massiveBodies; j++) {
+                if (j == k) {
+                    continue;
+                }
+                final double dx = positionsX[j] - xk;
+                final double dy = positionsY[j] - yk;
+                final double squaredDistance = dx * dx + dy * dy;
+                final double factor = Constants.G * masses[j] / (squaredDistance * Math.sqrt(squaredDistance));
+                ax += factor * dx;
+                ay += factor * dy;
+            }
+            accelerationsX[k] = ax;
+            accelerationsY[k] = ay;
+        }
+    }
 }
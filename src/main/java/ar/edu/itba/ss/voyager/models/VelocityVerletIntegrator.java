@@ -0,0 +1,77 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * The velocity Verlet integration scheme (i.e kick-drift-kick) running over a {@link BodyArrays},
+ * with no heap allocation per step. It is second order and symplectic (i.e energy errors do not accumulate),
+ * and the accelerations calculated at the end of a step are reused at the beginning of the next one.
+ */
+/* package */ final class VelocityVerletIntegrator implements Integrator {
+
+    /**
+     * The time step (i.e how much time elapses between two update events).
+     */
+    private double timeStep;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep The time step (i.e how much time elapses between two update events).
+     */
+    /* package */ VelocityVerletIntegrator(final double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        substep(bodies, timeStep);
+    }
+
+    @Override
+    public void setTimeStep(final double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[0][];
+    }
+
+    /**
+     * Performs one velocity Verlet step of the given {@code duration} over the given {@code bodies}
+     * (i.e their accelerations must correspond to their positions).
+     *
+     * @param bodies   The {@link BodyArrays} to be integrated.
+     * @param duration The duration of the step (which may be negative).
+     */
+    /* package */
+    static void substep(final BodyArrays bodies, final double duration) {
+        final int size = bodies.size;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double[] ax = bodies.accelerationsX;
+        final double[] ay = bodies.accelerationsY;
+        final double halfDuration = duration / 2;
+
+        // Half kick and drift
+        for (int i = 0; i < size; i++) {
+            vx[i] += ax[i] * halfDuration;
+            vy[i] += ay[i] * halfDuration;
+            x[i] += vx[i] * duration;
+            y[i] += vy[i] * duration;
+        }
+        bodies.computeAccelerations(x, y, ax, ay);
+        // Second half kick
+        for (int i = 0; i < size; i++) {
+            vx[i] += ax[i] * halfDuration;
+            vy[i] += ay[i] * halfDuration;
+        }
+    }
+}
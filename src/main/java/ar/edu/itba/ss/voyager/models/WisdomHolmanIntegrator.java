@@ -0,0 +1,448 @@
+package ar.edu.itba.ss.voyager.models;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A Wisdom-Holman mixed-variable symplectic integration scheme running over a {@link BodyArrays},
+ * with no heap allocation per step. It uses democratic heliocentric coordinates (i.e positions relative to the
+ * central body, and velocities relative to the barycenter): each body is advanced analytically along its Kepler orbit
+ * around the central body (i.e the most massive one), and the interactions between the rest of the bodies are applied
+ * as kicks, together with the drift of the central body (i.e kick, jump, Kepler drift, jump and kick).
+ * As the central body dominates every force, its error is proportional to the ratio between the other forces
+ * and the central one, so much larger time steps can be used than with direct schemes.
+ * <p>
+ * That ratio is not small while a body is deep inside the sphere of influence of a planet or moon (e.g a moon around
+ * its planet), and the kicks cannot follow a perturbation that changes within a step (e.g while a probe approaches
+ * a planet), so those steps are integrated directly instead, with adaptive Yoshida substeps.
+ */
+/* package */ final class WisdomHolmanIntegrator implements Integrator {
+
+    /**
+     * The maximum amount of iterations when solving Kepler's equation.
+     */
+    private static final int MAXIMUM_ITERATIONS = 50;
+
+    /**
+     * The amount of terms of the Stumpff functions' series expansion (i.e enough for arguments up to 0.1).
+     */
+    private static final int SERIES_TERMS = 8;
+
+    /**
+     * The largest ratio between the acceleration a body suffers from the rest of the bodies and the one it suffers
+     * from the central body, for which a step is not integrated directly.
+     */
+    private static final double MAXIMUM_PERTURBATION = 0.01;
+
+    /**
+     * The accuracy of the {@link AdaptiveTimeStep} that chooses the substeps when integrating directly
+     * (and that detects the probes' encounters).
+     */
+    private static final double FALLBACK_ACCURACY = 0.01;
+
+    /**
+     * The minimum substep when integrating directly.
+     */
+    private static final double FALLBACK_MINIMUM_TIME_STEP = 1d;
+
+    /**
+     * The time step (i.e how much time elapses between two update events).
+     */
+    private double timeStep;
+
+    /**
+     * The indexes of the attractors (i.e the stars, planets and moons).
+     */
+    private final int[] attractors;
+
+    /**
+     * The indexes of the probes (i.e the bodies that are not attractors).
+     */
+    private final int[] probes;
+
+    /**
+     * The index of the central body (i.e the most massive one).
+     */
+    private int central;
+
+    /**
+     * The indexes of the attractors but the central body (i.e the ones whose encounters with probes are detected).
+     */
+    private int[] planets;
+
+    /**
+     * The {@link YoshidaIntegrator} used to integrate directly inside spheres of influence.
+     */
+    private final YoshidaIntegrator fallbackIntegrator;
+
+    /**
+     * The {@link AdaptiveTimeStep} that chooses the substeps when integrating directly.
+     */
+    private final AdaptiveTimeStep fallbackTimeStep;
+
+    /**
+     * The 'x' component of the position relative to the central body, returned by the Kepler solver.
+     */
+    private double keplerX;
+
+    /**
+     * The 'y' component of the position relative to the central body, returned by the Kepler solver.
+     */
+    private double keplerY;
+
+    /**
+     * The 'x' component of the velocity, returned by the Kepler solver.
+     */
+    private double keplerVelocityX;
+
+    /**
+     * The 'y' component of the velocity, returned by the Kepler solver.
+     */
+    private double keplerVelocityY;
+
+    /**
+     * The Stumpff functions {@code c0}, {@code c1}, {@code c2} and {@code c3} of the last evaluated argument.
+     */
+    private final double[] stumpff;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep   The time step (i.e how much time elapses between two update events).
+     * @param size       The amount of bodies to be integrated.
+     * @param attractors The indexes of the attractors (i.e the stars, planets and moons).
+     */
+    /* package */ WisdomHolmanIntegrator(final double timeStep, final int size, final int[] attractors) {
+        this.timeStep = timeStep;
+        this.attractors = attractors.clone();
+        this.probes = IntStream.range(0, size).filter(i -> Arrays.stream(attractors).noneMatch(j -> j == i)).toArray();
+        this.fallbackIntegrator = new YoshidaIntegrator(timeStep);
+        this.fallbackTimeStep = new AdaptiveTimeStep(FALLBACK_ACCURACY, FALLBACK_MINIMUM_TIME_STEP,
+                Double.POSITIVE_INFINITY);
+        this.stumpff = new double[4];
+    }
+
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        final double[] masses = bodies.masses;
+        central = IntStream.range(0, bodies.massiveBodies)
+                .reduce((i, j) -> masses[j] > masses[i] ? j : i)
+                .orElseThrow(() -> new IllegalArgumentException("A central body is needed"));
+        planets = Arrays.stream(attractors).filter(i -> i != central).toArray();
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        if (perturbed(bodies) || encountering(bodies)) {
+            integrateDirectly(bodies);
+            return;
+        }
+        final int size = bodies.size;
+        final double[] masses = bodies.masses;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double mu = Constants.G * masses[central];
+        final double halfStep = timeStep / 2;
+
+        kick(bodies, halfStep);
+
+        // Barycenter (i.e its velocity is constant)
+        double totalMass = 0;
+        double barycenterX = 0;
+        double barycenterY = 0;
+        double barycenterVelocityX = 0;
+        double barycenterVelocityY = 0;
+        for (int i = 0; i < bodies.massiveBodies; i++) {
+            totalMass += masses[i];
+            barycenterX += masses[i] * x[i];
+            barycenterY += masses[i] * y[i];
+            barycenterVelocityX += masses[i] * vx[i];
+            barycenterVelocityY += masses[i] * vy[i];
+        }
+        barycenterX /= totalMass;
+        barycenterY /= totalMass;
+        barycenterVelocityX /= totalMass;
+        barycenterVelocityY /= totalMass;
+
+        // To democratic heliocentric coordinates (i.e in place, the central body's values are left untouched)
+        final double centralX = x[central];
+        final double centralY = y[central];
+        for (int i = 0; i < size; i++) {
+            if (i != central) {
+                x[i] -= centralX;
+                y[i] -= centralY;
+                vx[i] -= barycenterVelocityX;
+                vy[i] -= barycenterVelocityY;
+            }
+        }
+        jump(bodies, halfStep);
+        for (int i = 0; i < size; i++) {
+            if (i != central) {
+                drift(mu, x[i], y[i], vx[i], vy[i], timeStep);
+                x[i] = keplerX;
+                y[i] = keplerY;
+                vx[i] = keplerVelocityX;
+                vy[i] = keplerVelocityY;
+            }
+        }
+        jump(bodies, halfStep);
+
+        // Back to the original coordinates (i.e the barycenter moves with constant velocity)
+        barycenterX += barycenterVelocityX * timeStep;
+        barycenterY += barycenterVelocityY * timeStep;
+        double weightedX = 0;
+        double weightedY = 0;
+        double momentumX = 0;
+        double momentumY = 0;
+        for (int i = 0; i < bodies.massiveBodies; i++) {
+            if (i != central) {
+                weightedX += masses[i] * x[i];
+                weightedY += masses[i] * y[i];
+                momentumX += masses[i] * vx[i];
+                momentumY += masses[i] * vy[i];
+            }
+        }
+        x[central] = barycenterX - weightedX / totalMass;
+        y[central] = barycenterY - weightedY / totalMass;
+        vx[central] = barycenterVelocityX - momentumX / masses[central];
+        vy[central] = barycenterVelocityY - momentumY / masses[central];
+        for (int i = 0; i < size; i++) {
+            if (i != central) {
+                x[i] += x[central];
+                y[i] += y[central];
+                vx[i] += barycenterVelocityX;
+                vy[i] += barycenterVelocityY;
+            }
+        }
+
+        bodies.computeAccelerations(x, y, bodies.accelerationsX, bodies.accelerationsY);
+        kick(bodies, halfStep);
+    }
+
+    @Override
+    public void setTimeStep(final double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[0][];
+    }
+
+    /**
+     * Indicates whether the central body does not dominate the forces some body suffers (e.g the body is deep inside
+     * the sphere of influence of a planet or moon), comparing the acceleration the rest of the bodies cause it against
+     * the central body's one.
+     *
+     * @param bodies The {@link BodyArrays} being integrated (i.e their accelerations correspond to their positions).
+     * @return {@code true} if any body is perturbed beyond the {@link #MAXIMUM_PERTURBATION}, or {@code false}
+     * otherwise.
+     */
+    private boolean perturbed(final BodyArrays bodies) {
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double gCentralMass = Constants.G * bodies.masses[central];
+        final double squaredMaximum = MAXIMUM_PERTURBATION * MAXIMUM_PERTURBATION;
+        for (int i = 0; i < bodies.size; i++) {
+            if (i == central) {
+                continue;
+            }
+            final double dx = x[i] - x[central];
+            final double dy = y[i] - y[central];
+            final double squaredDistance = dx * dx + dy * dy;
+            final double factor = gCentralMass / (squaredDistance * Math.sqrt(squaredDistance));
+            final double perturbationX = bodies.accelerationsX[i] + factor * dx;
+            final double perturbationY = bodies.accelerationsY[i] + factor * dy;
+            final double squaredCentral = factor * factor * squaredDistance;
+            if (perturbationX * perturbationX + perturbationY * perturbationY > squaredMaximum * squaredCentral) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether any probe is encountering a planet or moon (i.e the {@link #fallbackTimeStep} it would
+     * need against them is shorter than the time step).
+     *
+     * @param bodies The {@link BodyArrays} being integrated.
+     * @return {@code true} if any probe is encountering a planet or moon, or {@code false} otherwise.
+     */
+    private boolean encountering(final BodyArrays bodies) {
+        for (int probe : probes) {
+            if (fallbackTimeStep.timeStep(bodies, planets, probe) < timeStep) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Performs the step with the {@link #fallbackIntegrator}, in substeps chosen by the {@link #fallbackTimeStep}.
+     *
+     * @param bodies The {@link BodyArrays} to be integrated.
+     */
+    private void integrateDirectly(final BodyArrays bodies) {
+        double remaining = timeStep;
+        while (remaining > 0) {
+            final double substep = fallbackTimeStep.timeStep(bodies, attractors);
+            final boolean last = substep >= remaining;
+            fallbackIntegrator.setTimeStep(last ? remaining : substep);
+            fallbackIntegrator.step(bodies);
+            remaining = last ? 0 : remaining - substep;
+        }
+    }
+
+    /**
+     * Kicks the velocities of the bodies with the accelerations they suffer from the rest of the bodies but
+     * the central one (i.e the accelerations of the {@link BodyArrays} without the central body's contribution).
+     * The central body's velocity is kicked so the total momentum is kept.
+     *
+     * @param bodies   The {@link BodyArrays} being integrated (i.e their accelerations correspond to their positions).
+     * @param duration The duration of the kick.
+     */
+    private void kick(final BodyArrays bodies, final double duration) {
+        final double[] masses = bodies.masses;
+        final double[] x = bodies.positionsX;
+        final double[] y = bodies.positionsY;
+        final double[] vx = bodies.velocitiesX;
+        final double[] vy = bodies.velocitiesY;
+        final double gCentralMass = Constants.G * masses[central];
+        double momentumX = 0;
+        double momentumY = 0;
+        for (int i = 0; i < bodies.size; i++) {
+            if (i == central) {
+                continue;
+            }
+            final double dx = x[i] - x[central];
+            final double dy = y[i] - y[central];
+            final double squaredDistance = dx * dx + dy * dy;
+            final double factor = gCentralMass / (squaredDistance * Math.sqrt(squaredDistance));
+            final double deltaX = (bodies.accelerationsX[i] + factor * dx) * duration;
+            final double deltaY = (bodies.accelerationsY[i] + factor * dy) * duration;
+            vx[i] += deltaX;
+            vy[i] += deltaY;
+            if (i < bodies.massiveBodies) {
+                momentumX += masses[i] * deltaX;
+                momentumY += masses[i] * deltaY;
+            }
+        }
+        vx[central] -= momentumX / masses[central];
+        vy[central] -= momentumY / masses[central];
+    }
+
+    /**
+     * Shifts the heliocentric positions of the bodies with the central body's motion
+     * (i.e the total barycentric momentum of the rest of the bodies, divided by the central body's mass).
+     *
+     * @param bodies   The {@link BodyArrays} being integrated (i.e in democratic heliocentric coordinates).
+     * @param duration The duration of the jump.
+     */
+    private void jump(final BodyArrays bodies, final double duration) {
+        final double[] masses = bodies.masses;
+        double momentumX = 0;
+        double momentumY = 0;
+        for (int i = 0; i < bodies.massiveBodies; i++) {
+            if (i != central) {
+                momentumX += masses[i] * bodies.velocitiesX[i];
+                momentumY += masses[i] * bodies.velocitiesY[i];
+            }
+        }
+        final double shiftX = momentumX / masses[central] * duration;
+        final double shiftY = momentumY / masses[central] * duration;
+        for (int i = 0; i < bodies.size; i++) {
+            if (i != central) {
+                bodies.positionsX[i] += shiftX;
+                bodies.positionsY[i] += shiftY;
+            }
+        }
+    }
+
+    /**
+     * Advances a body along its Kepler orbit around the central body, solving Kepler's equation in universal
+     * variables (i.e for elliptic, parabolic and hyperbolic orbits) with the Laguerre-Conway method.
+     * The results are stored in {@link #keplerX}, {@link #keplerY}, {@link #keplerVelocityX}
+     * and {@link #keplerVelocityY}.
+     *
+     * @param mu       The gravitational parameter of the central body.
+     * @param x        The 'x' component of the position relative to the central body.
+     * @param y        The 'y' component of the position relative to the central body.
+     * @param vx       The 'x' component of the velocity.
+     * @param vy       The 'y' component of the velocity.
+     * @param duration The duration of the drift.
+     */
+    private void drift(final double mu, final double x, final double y, final double vx, final double vy,
+                       final double duration) {
+        final double r0 = Math.sqrt(x * x + y * y);
+        final double eta0 = x * vx + y * vy;
+        final double beta = 2 * mu / r0 - (vx * vx + vy * vy); // Twice the negative specific energy
+        double s = duration / r0;
+        for (int iteration = 0; iteration < MAXIMUM_ITERATIONS; iteration++) {
+            evaluateStumpff(beta * s * s);
+            final double g0 = stumpff[0];
+            final double g1 = s * stumpff[1];
+            final double g2 = s * s * stumpff[2];
+            final double g3 = s * s * s * stumpff[3];
+            final double f = r0 * g1 + eta0 * g2 + mu * g3 - duration;
+            final double fp = r0 * g0 + eta0 * g1 + mu * g2;
+            final double fpp = eta0 * g0 + (mu - beta * r0) * g1;
+            final double delta = -5 * f / (fp + Math.signum(fp) * Math.sqrt(Math.abs(16 * fp * fp - 20 * f * fpp)));
+            s += delta;
+            if (Math.abs(delta) <= 1e-15 * Math.abs(s)) {
+                break;
+            }
+        }
+        evaluateStumpff(beta * s * s);
+        final double g0 = stumpff[0];
+        final double g1 = s * stumpff[1];
+        final double g2 = s * s * stumpff[2];
+        final double g3 = s * s * s * stumpff[3];
+        final double r = r0 * g0 + eta0 * g1 + mu * g2;
+        final double f = 1 - mu * g2 / r0;
+        final double g = duration - mu * g3;
+        final double fDot = -mu * g1 / (r0 * r);
+        final double gDot = 1 - mu * g2 / r;
+        keplerX = f * x + g * vx;
+        keplerY = f * y + g * vy;
+        keplerVelocityX = fDot * x + gDot * vx;
+        keplerVelocityY = fDot * y + gDot * vy;
+    }
+
+    /**
+     * Evaluates the Stumpff functions {@code c0}, {@code c1}, {@code c2} and {@code c3} of the given {@code z},
+     * storing them in the {@link #stumpff} array (i.e with a series expansion for small arguments).
+     *
+     * @param z The argument.
+     */
+    private void evaluateStumpff(final double z) {
+        if (Math.abs(z) < 0.1) {
+            // c2 = sum (-z)^k / (2k + 2)!, and c3 = sum (-z)^k / (2k + 3)! (i.e evaluated with Horner's method)
+            double c2 = 1;
+            double c3 = 1;
+            for (int k = SERIES_TERMS; k > 0; k--) {
+                c2 = 1 - z * c2 / ((2 * k + 1) * (2 * k + 2));
+                c3 = 1 - z * c3 / ((2 * k + 2) * (2 * k + 3));
+            }
+            stumpff[2] = c2 / 2;
+            stumpff[3] = c3 / 6;
+            stumpff[1] = 1 - z * stumpff[3];
+            stumpff[0] = 1 - z * stumpff[2];
+            return;
+        }
+        if (z > 0) {
+            final double root = Math.sqrt(z);
+            stumpff[0] = Math.cos(root);
+            stumpff[1] = Math.sin(root) / root;
+        } else {
+            final double root = Math.sqrt(-z);
+            stumpff[0] = Math.cosh(root);
+            stumpff[1] = Math.sinh(root) / root;
+        }
+        stumpff[2] = (1 - stumpff[0]) / z;
+        stumpff[3] = (1 - stumpff[1]) / z;
+    }
+}
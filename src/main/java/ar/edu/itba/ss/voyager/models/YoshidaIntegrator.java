@@ -0,0 +1,62 @@
+package ar.edu.itba.ss.voyager.models;
+
+/**
+ * Yoshida's fourth order symplectic integration scheme running over a {@link BodyArrays},
+ * with no heap allocation per step. Each step is composed of three velocity Verlet substeps
+ * (i.e a forward, a backward and a forward one), whose errors cancel each other up to the fourth order.
+ */
+/* package */ final class YoshidaIntegrator implements Integrator {
+
+    /**
+     * The duration of the first and last substeps, relative to the time step.
+     */
+    private static final double OUTER_WEIGHT = 1 / (2 - Math.cbrt(2));
+
+    /**
+     * The duration of the middle substep, relative to the time step (i.e it is negative).
+     */
+    private static final double INNER_WEIGHT = -Math.cbrt(2) / (2 - Math.cbrt(2));
+
+    /**
+     * The duration of the first and last substeps.
+     */
+    private double outerStep;
+
+    /**
+     * The duration of the middle substep.
+     */
+    private double innerStep;
+
+    /**
+     * Constructor.
+     *
+     * @param timeStep The time step (i.e how much time elapses between two update events).
+     */
+    /* package */ YoshidaIntegrator(final double timeStep) {
+        setTimeStep(timeStep);
+    }
+
+    @Override
+    public void initialize(final BodyArrays bodies) {
+        bodies.computeAccelerations(bodies.positionsX, bodies.positionsY,
+                bodies.accelerationsX, bodies.accelerationsY);
+    }
+
+    @Override
+    public void step(final BodyArrays bodies) {
+        VelocityVerletIntegrator.substep(bodies, outerStep);
+        VelocityVerletIntegrator.substep(bodies, innerStep);
+        VelocityVerletIntegrator.substep(bodies, outerStep);
+    }
+
+    @Override
+    public void setTimeStep(final double timeStep) {
+        this.outerStep = OUTER_WEIGHT * timeStep;
+        this.innerStep = INNER_WEIGHT * timeStep;
+    }
+
+    @Override
+    public double[][] stateArrays() {
+        return new double[0][];
+    }
+}